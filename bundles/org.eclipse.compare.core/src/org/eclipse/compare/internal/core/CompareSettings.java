@@ -26,6 +26,10 @@ public class CompareSettings {
 
 	private boolean cappingDisabled;
 
+	private boolean histogramDiffEnabled;
+
+	private boolean parallelDiffEnabled;
+
 	/**
 	 * The constructor
 	 */
@@ -54,4 +58,34 @@ public class CompareSettings {
 		return this.cappingDisabled;
 	}
 
+	/**
+	 * Sets whether the histogram diff is used instead of Myers' algorithm for
+	 * comparators that are able to hash their ranges.
+	 *
+	 * @param enable <code>true</code> to use the histogram diff
+	 */
+	public void setHistogramDiffEnabled(boolean enable) {
+		this.histogramDiffEnabled = enable;
+	}
+
+	public boolean isHistogramDiffEnabled() {
+		return this.histogramDiffEnabled;
+	}
+
+	/**
+	 * Sets whether large comparisons may use several threads. The two-way
+	 * scripts of a three-way comparison are only computed concurrently for
+	 * range comparators which declare that they are thread safe through
+	 * {@link IConcurrentRangeComparator}.
+	 *
+	 * @param enable <code>true</code> to compute differences in parallel
+	 */
+	public void setParallelDiffEnabled(boolean enable) {
+		this.parallelDiffEnabled = enable;
+	}
+
+	public boolean isParallelDiffEnabled() {
+		return this.parallelDiffEnabled;
+	}
+
 }
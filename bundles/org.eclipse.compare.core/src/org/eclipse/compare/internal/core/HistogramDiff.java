@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.internal.core;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import org.eclipse.core.runtime.SubMonitor;
+
+/**
+ * Histogram diff, an extension of the patience diff. For each region the
+ * elements of the first sequence are indexed by their hash code, the common
+ * region containing the element with the fewest occurrences is used as an
+ * anchor and stored in the LCS, and the parts before and after the anchor are
+ * processed in the same way. Regions in which every common element occurs too
+ * often are handed to Myers' algorithm.
+ * <p>
+ * Equality is always confirmed through <code>LCS.isRangeEqual</code>, so hash
+ * collisions only affect the choice of anchors, never the correctness of the
+ * result.
+ * </p>
+ */
+/* package */ final class HistogramDiff {
+
+	/*
+	 * Elements occurring more often than this in a region are not used as
+	 * anchors
+	 */
+	private static final int MAX_CHAIN_LENGTH = 64;
+
+	private final LCS lcs;
+	private final SubMonitor subMonitor;
+	private final int[] hashes1;
+	private final int[] hashes2;
+
+	// working arrays of the Myers fallback, allocated on first use
+	private int[][] V;
+	private int[] snake;
+
+	// index of the region currently processed
+	private int[] table;
+	private int tableShift;
+	private int tableMask;
+	private int[] recHash;
+	private int[] recCount;
+	private int[] recFirst;
+	private int[] recOf;
+	private int[] next;
+
+	HistogramDiff(LCS lcs, IHashableRanges ranges, SubMonitor subMonitor) {
+		this.lcs = lcs;
+		this.subMonitor = subMonitor;
+		this.hashes1 = new int[lcs.getLength1()];
+		for (int i = 0; i < this.hashes1.length; i++) {
+			this.hashes1[i] = ranges.getHashCode1(i);
+		}
+		this.hashes2 = new int[lcs.getLength2()];
+		for (int i = 0; i < this.hashes2.length; i++) {
+			this.hashes2[i] = ranges.getHashCode2(i);
+		}
+	}
+
+	/**
+	 * Computes the LCS of l1[start1 .. end1) and l2[start2 .. end2), stores it
+	 * in the LCS and returns its length.
+	 *
+	 * @param start1 index in the 1st sequence to start from (inclusive)
+	 * @param end1 index in the 1st sequence to end on (exclusive)
+	 * @param start2 index in the 2nd sequence to start from (inclusive)
+	 * @param end2 index in the 2nd sequence to end on (exclusive)
+	 * @return the length of the LCS
+	 */
+	int diff(int start1, int end1, int start2, int end2) {
+		// use an explicit stack, the number of anchors may be very large
+		Deque<int[]> regions = new ArrayDeque<>();
+		regions.push(new int[] { start1, end1, start2, end2 });
+		int length = 0;
+		while (!regions.isEmpty()) {
+			int[] region = regions.pop();
+			length += diffRegion(region[0], region[1], region[2], region[3], regions);
+		}
+		return length;
+	}
+
+	private int diffRegion(int start1, int end1, int start2, int end2, Deque<int[]> regions) {
+		int length = 0;
+		while (start1 < end1 && start2 < end2 && this.lcs.isRangeEqual(start1, start2)) {
+			setLcs(start1++, start2++);
+			length++;
+		}
+		while (start1 < end1 && start2 < end2 && this.lcs.isRangeEqual(end1 - 1, end2 - 1)) {
+			setLcs(--end1, --end2);
+			length++;
+		}
+		if (start1 == end1 || start2 == end2) {
+			return length;
+		}
+
+		buildIndex(start1, end1);
+
+		int bestStart1 = -1;
+		int bestEnd1 = -1;
+		int bestStart2 = -1;
+		int bestCount = MAX_CHAIN_LENGTH + 1;
+		boolean hasCommon = false;
+		for (int i2 = start2; i2 < end2;) {
+			int next2 = i2 + 1;
+			int rec = findRecord(this.hashes2[i2]);
+			if (rec != -1) {
+				int count = this.recCount[rec];
+				if (count > bestCount) {
+					// may have a match, but is not a better anchor
+					hasCommon = true;
+				} else {
+					int i1 = this.recFirst[rec];
+					while (i1 != -1) {
+						if (!this.lcs.isRangeEqual(i1, i2)) {
+							i1 = this.next[i1 - start1];
+							continue;
+						}
+						hasCommon = true;
+						int s1 = i1, s2 = i2;
+						int e1 = i1 + 1, e2 = i2 + 1;
+						int rc = count;
+						while (s1 > start1 && s2 > start2 && this.lcs.isRangeEqual(s1 - 1, s2 - 1)) {
+							s1--;
+							s2--;
+							if (rc > 1)
+								rc = Math.min(rc, this.recCount[this.recOf[s1 - start1]]);
+						}
+						while (e1 < end1 && e2 < end2 && this.lcs.isRangeEqual(e1, e2)) {
+							if (rc > 1)
+								rc = Math.min(rc, this.recCount[this.recOf[e1 - start1]]);
+							e1++;
+							e2++;
+						}
+						if (next2 < e2)
+							next2 = e2;
+						if (rc < bestCount || (rc == bestCount && e1 - s1 > bestEnd1 - bestStart1)) {
+							bestStart1 = s1;
+							bestEnd1 = e1;
+							bestStart2 = s2;
+							bestCount = rc;
+						}
+						// skip the occurrences covered by this common region
+						i1 = this.next[i1 - start1];
+						while (i1 != -1 && i1 < e1) {
+							i1 = this.next[i1 - start1];
+						}
+					}
+				}
+			}
+			i2 = next2;
+		}
+
+		if (bestStart1 != -1) {
+			int len = bestEnd1 - bestStart1;
+			for (int i = 0; i < len; i++) {
+				setLcs(bestStart1 + i, bestStart2 + i);
+			}
+			regions.push(new int[] { bestEnd1, end1, bestStart2 + len, end2 });
+			regions.push(new int[] { start1, bestStart1, start2, bestStart2 });
+			return length + len;
+		}
+		if (hasCommon) {
+			if (this.V == null) {
+				this.V = new int[2][this.hashes1.length + this.hashes2.length + 1];
+				this.snake = new int[3];
+			}
+			return length + this.lcs.lcs_rec(start1, end1 - 1, start2, end2 - 1, this.V, this.snake, this.subMonitor);
+		}
+		return length;
+	}
+
+	/*
+	 * Indexes l1[start1 .. end1) by hash code. Occurrences of each hash code are
+	 * chained in ascending order through next[].
+	 */
+	private void buildIndex(int start1, int end1) {
+		int n = end1 - start1;
+		int bits = 33 - Integer.numberOfLeadingZeros(n); // table size >= 2n
+		int tableSize = 1 << bits;
+		if (this.table == null || this.table.length < tableSize) {
+			this.table = new int[tableSize];
+			this.recHash = new int[tableSize / 2];
+			this.recCount = new int[tableSize / 2];
+			this.recFirst = new int[tableSize / 2];
+			this.recOf = new int[tableSize / 2];
+			this.next = new int[tableSize / 2];
+		} else {
+			// reuse the arrays of the enclosing region, only clear what is used
+			Arrays.fill(this.table, 0, tableSize, 0);
+		}
+		this.tableShift = 32 - bits;
+		this.tableMask = tableSize - 1;
+		int mask = this.tableMask;
+		int records = 0;
+		for (int i = end1 - 1; i >= start1; i--) {
+			int hash = this.hashes1[i];
+			int slot = (hash * 0x9E3779B9) >>> this.tableShift;
+			int entry;
+			while ((entry = this.table[slot]) != 0 && this.recHash[entry - 1] != hash) {
+				slot = (slot + 1) & mask;
+			}
+			int rec;
+			if (entry == 0) {
+				rec = records++;
+				this.table[slot] = rec + 1;
+				this.recHash[rec] = hash;
+				this.recCount[rec] = 0;
+				this.next[i - start1] = -1;
+			} else {
+				rec = entry - 1;
+				this.next[i - start1] = this.recFirst[rec];
+			}
+			this.recFirst[rec] = i;
+			this.recCount[rec]++;
+			this.recOf[i - start1] = rec;
+		}
+	}
+
+	private int findRecord(int hash) {
+		int mask = this.tableMask;
+		int slot = (hash * 0x9E3779B9) >>> this.tableShift;
+		int entry;
+		while ((entry = this.table[slot]) != 0) {
+			if (this.recHash[entry - 1] == hash)
+				return entry - 1;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void setLcs(int sl1, int sl2) {
+		this.lcs.setLcs(sl1, sl2);
+		this.lcs.worked(this.subMonitor, 1);
+	}
+}
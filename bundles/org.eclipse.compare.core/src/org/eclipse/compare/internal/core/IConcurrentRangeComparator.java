@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.internal.core;
+
+import org.eclipse.compare.rangedifferencer.IRangeComparator;
+
+/**
+ * Optional interface for range comparators which may be used by several
+ * threads at once. The two-way scripts of a three-way comparison are only
+ * computed concurrently if all three comparators implement this interface and
+ * declare that they are thread safe.
+ */
+public interface IConcurrentRangeComparator {
+
+	/**
+	 * Returns whether the methods of {@link IRangeComparator}, and of
+	 * {@link IRangeHasher} if implemented, may be called concurrently from
+	 * several threads.
+	 *
+	 * @return <code>true</code> if this comparator is thread safe
+	 */
+	boolean isThreadSafe();
+}
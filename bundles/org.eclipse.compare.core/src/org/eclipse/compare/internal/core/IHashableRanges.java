@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.internal.core;
+
+/**
+ * Implemented by subclasses of {@link LCS} which are able to hash the ranges
+ * of both compared sequences. The histogram diff is only used for such
+ * subclasses.
+ */
+public interface IHashableRanges {
+
+	/**
+	 * Returns whether the ranges of both sequences can be hashed with
+	 * {@link #getHashCode1(int)} and {@link #getHashCode2(int)}, which may
+	 * depend on the compared sequences.
+	 *
+	 * @return <code>true</code> if the ranges can be hashed
+	 */
+	boolean canHashRanges();
+
+	/**
+	 * Returns the hash code of a range of the 1st sequence. Ranges for which
+	 * <code>LCS.isRangeEqual</code> returns <code>true</code> must have the
+	 * same hash code. Only called if {@link #canHashRanges()} returns
+	 * <code>true</code>.
+	 *
+	 * @param i1 index in the 1st sequence
+	 * @return the hash code of the range
+	 */
+	int getHashCode1(int i1);
+
+	/**
+	 * Returns the hash code of a range of the 2nd sequence.
+	 *
+	 * @param i2 index in the 2nd sequence
+	 * @return the hash code of the range
+	 * @see #getHashCode1(int)
+	 */
+	int getHashCode2(int i2);
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.internal.core;
+
+import org.eclipse.compare.rangedifferencer.IRangeComparator;
+
+/**
+ * Optional interface for range comparators which are able to compute a hash
+ * code for each of their ranges. The hash codes are used to map the ranges of
+ * both compared sides to dense ids before running the LCS, and by the
+ * histogram diff to index the ranges of a comparator.
+ * <p>
+ * Ranges which are equal according to
+ * {@link IRangeComparator#rangesEqual(int, IRangeComparator, int)} must have
+ * the same hash code. Ranges with the same hash code need not be equal.
+ * <code>rangesEqual</code> must be an equivalence relation on the ranges of
+ * both comparators.
+ * </p>
+ */
+public interface IRangeHasher {
+
+	/**
+	 * Returns whether the hash codes of this comparator and the given
+	 * comparator are consistent with <code>rangesEqual</code>. Comparators
+	 * whose equality depends on the compared pair (e.g. because of compare
+	 * filters) must return <code>false</code>.
+	 *
+	 * @param other the comparator this comparator is compared with
+	 * @return <code>true</code> if {@link #getRangeHashCode(int)} may be used
+	 */
+	boolean canHashRanges(IRangeComparator other);
+
+	/**
+	 * Returns the hash code of the range at the given index.
+	 *
+	 * @param index the index of the range
+	 * @return the hash code of the range
+	 */
+	int getRangeHashCode(int index);
+}
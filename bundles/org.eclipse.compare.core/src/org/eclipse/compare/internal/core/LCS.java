@@ -13,6 +13,14 @@
  *******************************************************************************/
 package org.eclipse.compare.internal.core;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 
@@ -29,6 +37,19 @@ public abstract class LCS {
 	private int max_differences; // the maximum number of differences from
 									// each end to consider
 
+	private static final int PARALLEL_THRESHOLD = 10000; // the minimum value of
+														// N+M to solve a
+														// sub-problem in a
+														// separate task
+
+	private static final long PROGRESS_INTERVAL = 100; // milliseconds between
+														// progress updates of
+														// a parallel LCS
+
+	// state of a running lcs_parallel, shared by its tasks
+	private volatile SubMonitor parallelMonitor;
+	private volatile LongAdder parallelWork;
+
 	private int length;
 
 	/**
@@ -41,6 +62,10 @@ public abstract class LCS {
 	 * very long and a very short sequence, also bound the running time to (N +
 	 * M)^1.5 when both sequences are very long.
 	 *
+	 * If the histogram diff is enabled in {@link CompareSettings} and the
+	 * ranges can be hashed, the histogram diff is used instead and Myers'
+	 * algorithm only for regions without a suitable anchor.
+	 *
 	 * After this method is called, the longest common subsequence is available
 	 * by calling getResult() where result[0] is composed of
 	 * entries from l1 and result[1] is composed of entries from l2
@@ -87,13 +112,27 @@ public abstract class LCS {
 			worked(subMonitor, 1);
 		}
 
+		int middleLength;
+		if (isHistogramDiffEnabled() && this instanceof IHashableRanges
+				&& ((IHashableRanges) this).canHashRanges()) {
+			middleLength = new HistogramDiff(this, (IHashableRanges) this, subMonitor).diff(forwardBound,
+					backBoundL1 + 1, forwardBound, backBoundL2 + 1);
+		} else if (isParallelDiffEnabled() && canComputeInParallel()
+				&& this.max_differences == (length1 + length2 + 1) / 2
+				&& (backBoundL1 - forwardBound) + (backBoundL2 - forwardBound) + 2 >= PARALLEL_THRESHOLD) {
+			// the result of a capped computation depends on the order of the recursion
+			middleLength = lcs_parallel(forwardBound, backBoundL1, forwardBound,
+					backBoundL2, subMonitor);
+		} else {
+			middleLength = lcs_rec(forwardBound, backBoundL1, forwardBound,
+					backBoundL2, new int[2][length1 + length2 + 1],
+					new int[3], subMonitor);
+		}
 		this.length = forwardBound
 				+ length1
 				- backBoundL1
 				- 1
-				+ lcs_rec(forwardBound, backBoundL1, forwardBound,
-						backBoundL2, new int[2][length1 + length2 + 1],
-						new int[3], subMonitor);
+				+ middleLength;
 
 	}
 
@@ -101,6 +140,14 @@ public abstract class LCS {
 		return CompareSettings.getDefault().isCappingDisabled();
 	}
 
+	private boolean isHistogramDiffEnabled() {
+		return CompareSettings.getDefault().isHistogramDiffEnabled();
+	}
+
+	private boolean isParallelDiffEnabled() {
+		return CompareSettings.getDefault().isParallelDiffEnabled();
+	}
+
 	/**
 	 * The recursive helper function for Myers' LCS. Computes the LCS of
 	 * l1[bottoml1 .. topl1] and l2[bottoml2 .. topl2] fills in the appropriate
@@ -123,7 +170,7 @@ public abstract class LCS {
 	 *
 	 * @return the length of the LCS
 	 */
-	private int lcs_rec(
+	/* package */ int lcs_rec(
 			int bottoml1, int topl1,
 			int bottoml2, int topl2,
 			int[][] V, int[] snake, SubMonitor subMonitor) {
@@ -169,7 +216,125 @@ public abstract class LCS {
 		return len;
 	}
 
-	private void worked(SubMonitor subMonitor, int work) {
+	/**
+	 * Computes the same LCS as {@link #lcs_rec} with the sub-problems on both
+	 * sides of the middle snake solved as fork/join tasks. Each task uses its
+	 * own working arrays, and sub-problems smaller than
+	 * {@link #PARALLEL_THRESHOLD} are solved sequentially. The tasks report
+	 * their work through {@link #parallelWork}, which is forwarded to the
+	 * monitor by the calling thread only.
+	 *
+	 * @return the length of the LCS
+	 */
+	private int lcs_parallel(
+			int bottoml1, int topl1,
+			int bottoml2, int topl2,
+			SubMonitor subMonitor) {
+		this.parallelMonitor = subMonitor;
+		this.parallelWork = new LongAdder();
+		try {
+			LcsTask task = new LcsTask(bottoml1, topl1, bottoml2, topl2);
+			if (ForkJoinTask.inForkJoinPool()) {
+				// already running in a pool, do not block one of its workers
+				int result = task.invoke().intValue();
+				subMonitor.worked((int) this.parallelWork.sumThenReset());
+				return result;
+			}
+			ForkJoinPool.commonPool().execute(task);
+			while (true) {
+				try {
+					int result = task.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS).intValue();
+					subMonitor.worked((int) this.parallelWork.sumThenReset());
+					return result;
+				} catch (TimeoutException e) {
+					subMonitor.worked((int) this.parallelWork.sumThenReset());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		} finally {
+			this.parallelMonitor = null;
+			this.parallelWork = null;
+		}
+	}
+
+	private int lcs_task(
+			int bottoml1, int topl1,
+			int bottoml2, int topl2) {
+
+		int N = topl1 - bottoml1 + 1;
+		int M = topl2 - bottoml2 + 1;
+		if (N + M < PARALLEL_THRESHOLD) {
+			return lcs_rec(bottoml1, topl1, bottoml2, topl2, new int[2][N + M + 2], new int[3], null);
+		}
+		// check that both sequences are non-empty
+		if (N <= 0 || M <= 0) {
+			return 0;
+		}
+
+		int[] snake = new int[3];
+		int d = find_middle_snake(bottoml1, topl1, bottoml2, topl2, new int[2][N + M + 2], snake, null);
+
+		int len = snake[2];
+		int startx = snake[0];
+		int starty = snake[1];
+
+		for (int i = 0; i < len; i++) {
+			setLcs(startx + i, starty + i);
+		}
+		worked(null, len);
+
+		if (d > 1) {
+			LcsTask before = new LcsTask(bottoml1, startx - 1, bottoml2, starty - 1);
+			before.fork();
+			int after = lcs_task(startx + len, topl1, starty + len, topl2);
+			return len + before.join().intValue() + after;
+		} else if (d == 1) {
+			int max = Math.min(startx - bottoml1, starty - bottoml2);
+			for (int i = 0; i < max; i++) {
+				setLcs(bottoml1 + i, bottoml2 + i);
+			}
+			worked(null, max);
+			return max + len;
+		}
+
+		return len;
+	}
+
+	private final class LcsTask extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		private final int bottoml1, topl1, bottoml2, topl2;
+
+		LcsTask(int bottoml1, int topl1, int bottoml2, int topl2) {
+			this.bottoml1 = bottoml1;
+			this.topl1 = topl1;
+			this.bottoml2 = bottoml2;
+			this.topl2 = topl2;
+		}
+
+		@Override
+		protected Integer compute() {
+			return Integer.valueOf(lcs_task(this.bottoml1, this.topl1, this.bottoml2, this.topl2));
+		}
+	}
+
+	/* package */ void worked(SubMonitor subMonitor, int work) {
+		if (subMonitor == null) {
+			// called from a task of lcs_parallel, which may run on any thread
+			if (this.parallelMonitor.isCanceled())
+				throw new OperationCanceledException();
+			this.parallelWork.add(work);
+			return;
+		}
 		if (subMonitor.isCanceled())
 			throw new OperationCanceledException();
 		subMonitor.worked(work);
@@ -458,6 +623,18 @@ public abstract class LCS {
 
 	protected abstract void initializeLcs(int lcsLength);
 
+	/**
+	 * Returns whether {@link #isRangeEqual(int, int)} and
+	 * {@link #setLcs(int, int)} may be called concurrently from several
+	 * threads, for different indices in the 1st sequence. The parallel LCS is
+	 * only used if this method returns <code>true</code>.
+	 *
+	 * @return <code>true</code> if the LCS can be computed in parallel
+	 */
+	protected boolean canComputeInParallel() {
+		return false;
+	}
+
 	public int getLength() {
 		return this.length;
 	}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.internal.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Compares the byte contents of two streams. The streams are read in blocks
+ * and the blocks are compared with {@link Arrays#mismatch}, so the streams do
+ * not need to be buffered.
+ * <p>
+ * When whitespace is ignored, the whitespace bytes are first removed from each
+ * block by a loop without branches and the remaining bytes are compared. A byte
+ * is whitespace if {@link Character#isWhitespace(char)} is <code>true</code>
+ * for the character with the same value.
+ * </p>
+ */
+public final class StreamComparator {
+
+	/**
+	 * The size of the blocks in which the streams are read.
+	 */
+	public static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final byte[] WHITESPACE = new byte[256];
+
+	static {
+		for (int c = 0; c < WHITESPACE.length; c++) {
+			WHITESPACE[c] = (byte) (Character.isWhitespace((char) c) ? 1 : 0);
+		}
+	}
+
+	private StreamComparator() {
+		// not to be instantiated
+	}
+
+	/**
+	 * Return whether the two streams have the same contents. The streams are
+	 * read until a difference is found or both streams are exhausted. The
+	 * streams are not closed.
+	 *
+	 * @param is1 the first stream
+	 * @param is2 the second stream
+	 * @param ignoreWhitespace whether whitespace bytes are ignored
+	 * @return <code>true</code> if the contents are equal
+	 * @throws IOException if an error occurs while reading the streams
+	 */
+	public static boolean contentsEqual(InputStream is1, InputStream is2, boolean ignoreWhitespace) throws IOException {
+		Block block1 = new Block(is1, ignoreWhitespace);
+		Block block2 = new Block(is2, ignoreWhitespace);
+		while (true) {
+			boolean more1 = block1.fill();
+			boolean more2 = block2.fill();
+			if (!more1 || !more2)
+				return more1 == more2;
+			int length = Math.min(block1.remaining(), block2.remaining());
+			if (Arrays.mismatch(block1.bytes, block1.position, block1.position + length,
+					block2.bytes, block2.position, block2.position + length) != -1)
+				return false;
+			block1.position += length;
+			block2.position += length;
+		}
+	}
+
+	/**
+	 * Return whether contents of the given sizes may be equal. A negative size
+	 * is unknown.
+	 *
+	 * @param size1 the size of the first contents or a negative value
+	 * @param size2 the size of the second contents or a negative value
+	 * @return <code>false</code> if both sizes are known and differ
+	 */
+	public static boolean mayBeEqual(long size1, long size2) {
+		return size1 < 0 || size2 < 0 || size1 == size2;
+	}
+
+	/**
+	 * Remove the whitespace bytes from the given bytes. The remaining bytes
+	 * are moved to the start of the array in their original order.
+	 *
+	 * @param bytes the bytes
+	 * @param length the number of bytes at the start of the array to consider
+	 * @return the number of remaining bytes
+	 */
+	public static int removeWhitespace(byte[] bytes, int length) {
+		int count = 0;
+		for (int i = 0; i < length; i++) {
+			byte b = bytes[i];
+			bytes[count] = b;
+			count += 1 - WHITESPACE[b & 0xFF];
+		}
+		return count;
+	}
+
+	/*
+	 * The bytes of a stream that have been read but not compared yet
+	 */
+	private static class Block {
+		private final InputStream stream;
+		private final boolean ignoreWhitespace;
+		final byte[] bytes = new byte[BUFFER_SIZE];
+		int position;
+		private int limit;
+		private boolean atEnd;
+
+		Block(InputStream stream, boolean ignoreWhitespace) {
+			this.stream = stream;
+			this.ignoreWhitespace = ignoreWhitespace;
+		}
+
+		int remaining() {
+			return limit - position;
+		}
+
+		/*
+		 * Read the next block if all bytes have been compared. Return whether
+		 * there are bytes left to compare.
+		 */
+		boolean fill() throws IOException {
+			while (position == limit) {
+				if (atEnd)
+					return false;
+				position = 0;
+				limit = 0;
+				while (limit < bytes.length) {
+					int read = stream.read(bytes, limit, bytes.length - limit);
+					if (read == -1) {
+						atEnd = true;
+						break;
+					}
+					limit += read;
+				}
+				if (ignoreWhitespace)
+					limit = removeWhitespace(bytes, limit);
+			}
+			return true;
+		}
+	}
+}
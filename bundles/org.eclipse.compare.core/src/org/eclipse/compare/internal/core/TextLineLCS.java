@@ -14,18 +14,39 @@
 package org.eclipse.compare.internal.core;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
-public class TextLineLCS extends LCS {
+public class TextLineLCS extends LCS implements IHashableRanges {
 
 	private final TextLine[] lines1;
 	private final TextLine[] lines2;
+	// dense ids of the line texts, equal lines have equal ids
+	private final int[] ids1;
+	private final int[] ids2;
 	private TextLine[][] lcs;
 
 	public TextLineLCS(TextLine[] lines1, TextLine[] lines2) {
 		this.lines1 = lines1;
 		this.lines2 = lines2;
+		Map<String, Integer> ids = new HashMap<>();
+		this.ids1 = internLines(lines1, ids);
+		this.ids2 = internLines(lines2, ids);
+	}
+
+	private static int[] internLines(TextLine[] lines, Map<String, Integer> ids) {
+		int[] result = new int[lines.length];
+		for (int i = 0; i < lines.length; i++) {
+			Integer id = ids.get(lines[i].text);
+			if (id == null) {
+				id = Integer.valueOf(ids.size());
+				ids.put(lines[i].text, id);
+			}
+			result[i] = id.intValue();
+		}
+		return result;
 	}
 
 	public TextLine[][] getResult() {
@@ -53,7 +74,7 @@ public class TextLineLCS extends LCS {
 
 	@Override
 	protected boolean isRangeEqual(int i1, int i2) {
-		return this.lines1[i1].sameText(this.lines2[i2]);
+		return this.ids1[i1] == this.ids2[i2];
 	}
 
 	@Override
@@ -67,6 +88,26 @@ public class TextLineLCS extends LCS {
 		this.lcs = new TextLine[2][length];
 	}
 
+	@Override
+	public boolean canHashRanges() {
+		return true;
+	}
+
+	@Override
+	public int getHashCode1(int i1) {
+		return this.ids1[i1];
+	}
+
+	@Override
+	public int getHashCode2(int i2) {
+		return this.ids2[i2];
+	}
+
+	@Override
+	protected boolean canComputeInParallel() {
+		return true;
+	}
+
 	/**
 	 * This method takes an lcs result interspersed with nulls, compacts it and
 	 * shifts the LCS chunks as far towards the front as possible. This tends to
@@ -148,13 +148,15 @@ public class FileDiffResult implements IFilePatchResult {
 			calculateFuzz(this.fBeforeLines, monitor);
 		}
 		int shift= 0;
+		// the index is shared by all hunks and updated as they are applied
+		LineIndex index = new LineIndex(lines, getConfiguration().isIgnoreWhitespace());
 		IHunk[] hunks = this.fDiff.getHunks();
 		for (IHunk h : hunks) {
 			Hunk hunk = (Hunk) h;
 			hunk.setCharset(getCharset());
 			HunkResult result = getHunkResult(hunk);
 			result.setShift(shift);
-			if (result.patch(lines)) {
+			if (result.patch(lines, index)) {
 				shift = result.getShift();
 			}
 		}
@@ -218,13 +220,14 @@ public class FileDiffResult implements IFilePatchResult {
 		int shift= 0;
 		int highestFuzz = -1; // the maximum fuzz factor for all hunks
 		String name = getTargetPath() != null ? getTargetPath().lastSegment() : ""; //$NON-NLS-1$
+		LineIndex index = new LineIndex(lines, getConfiguration().isIgnoreWhitespace());
 		IHunk[] hunks = this.fDiff.getHunks();
 		for (int j = 0; j < hunks.length; j++) {
 			Hunk h = (Hunk) hunks[j];
 			monitor.subTask(NLS.bind(Messages.FileDiffResult_3, new String[] {name, Integer.toString(j + 1)}));
 			HunkResult result = getHunkResult(h);
 			result.setShift(shift);
-			int fuzz = result.calculateFuzz(lines, monitor);
+			int fuzz = result.calculateFuzz(lines, index, monitor);
 			shift = result.getShift();
 			if (fuzz > highestFuzz)
 				highestFuzz = fuzz;
@@ -263,6 +263,24 @@ public class Hunk implements IHunk {
 		return true;
 	}
 
+	/*
+	 * Returns the lines which tryPatch compares with consecutive lines of the
+	 * file, i.e. the context lines and the deleted lines. Lines which must
+	 * match for tryPatch to succeed with the given fuzz factor are returned
+	 * without their control character, the others are null.
+	 */
+	String[] getMatchedLines(boolean reverse, int fuzz) {
+		List<String> result = new ArrayList<>();
+		for (String s : this.fLines) {
+			char controlChar = s.charAt(0);
+			if (controlChar == ' ')
+				result.add(fuzz == 0 ? s.substring(1) : null);
+			else if (isDeletedDelimeter(controlChar, reverse))
+				result.add(s.substring(1));
+		}
+		return result.toArray(new String[result.size()]);
+	}
+
 	private boolean checkPrecedingContextLines(
 			PatchConfiguration configuration, List<String> lines, int fuzz, int pos,
 			List<String> contextLines) {
@@ -443,7 +461,7 @@ public class Hunk implements IHunk {
 	 * Returns the given string with all whitespace characters removed.
 	 * Whitespace is defined by <code>Character.isWhitespace(...)</code>.
 	 */
-	private String stripWhiteSpace(String s) {
+	static String stripWhiteSpace(String s) {
 		StringBuilder sb= new StringBuilder();
 		int l= s.length();
 		for (int i= 0; i < l; i++) {
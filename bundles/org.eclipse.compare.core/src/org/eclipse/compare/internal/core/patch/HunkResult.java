@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.compare.internal.core.patch;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.compare.patch.IHunkFilter;
@@ -55,6 +56,14 @@ public class HunkResult {
 	 * @return whether the hunk could be applied
 	 */
 	public boolean patch(List<String> lines) {
+		return patch(lines, new LineIndex(lines, getConfiguration().isIgnoreWhitespace()));
+	}
+
+	/*
+	 * Like patch(List), the index must belong to the given lines and is
+	 * updated if the hunk is applied.
+	 */
+	boolean patch(List<String> lines, LineIndex index) {
 		this.fMatches = false;
 		PatchConfiguration configuration = getConfiguration();
 		// if the fuzz is not set for the current hunk use the one from fDiffResult
@@ -62,36 +71,13 @@ public class HunkResult {
 		if (isEnabled(configuration)) {
 			if (this.fHunk.tryPatch(configuration, lines, this.fShift, fuzz)) {
 				// it's a perfect match, no shifting is needed
-				this.fShift += this.fHunk.doPatch(configuration, lines, this.fShift, fuzz);
+				doPatch(configuration, lines, fuzz, index);
 				this.fMatches = true;
 			} else {
-				boolean found= false;
 				int oldShift= this.fShift;
-
-				int hugeShift = lines.size();
-				for (int i = 1; i <= hugeShift; i++) {
-					if (this.fHunk.tryPatch(configuration, lines, this.fShift - i, fuzz)) {
-						if (isAdjustShift())
-							this.fShift -= i;
-						found = true;
-						break;
-					}
-				}
-
-				if (!found) {
-					for (int i = 1; i <= hugeShift; i++) {
-						if (this.fHunk.tryPatch(configuration, lines, this.fShift + i, fuzz)) {
-							if (isAdjustShift())
-								this.fShift += i;
-							found = true;
-							break;
-						}
-					}
-				}
-
-				if (found) {
+				if (shift(configuration, lines, fuzz, index, null)) {
 					if (DEBUG) System.out.println("patched hunk at offset: " + (this.fShift-oldShift)); //$NON-NLS-1$
-					this.fShift+= this.fHunk.doPatch(configuration, lines, this.fShift, fuzz);
+					doPatch(configuration, lines, fuzz, index);
 					this.fMatches = true;
 				}
 			}
@@ -119,6 +105,14 @@ public class HunkResult {
 	 * @return the fuzz factor or -1 if the hunk could not be matched
 	 */
 	public int calculateFuzz(List<String> lines, IProgressMonitor monitor) {
+		return calculateFuzz(lines, new LineIndex(lines, getConfiguration().isIgnoreWhitespace()), monitor);
+	}
+
+	/*
+	 * Like calculateFuzz(List, IProgressMonitor), the index must belong to the
+	 * given lines and is updated if the hunk is applied.
+	 */
+	int calculateFuzz(List<String> lines, LineIndex index, IProgressMonitor monitor) {
 		this.fMatches = false;
 		PatchConfiguration configuration = getConfiguration();
 		int fuzz = 0;
@@ -128,53 +122,137 @@ public class HunkResult {
 			// try to apply using lines coordinates from the patch
 			if (this.fHunk.tryPatch(configuration, lines, this.fShift, fuzz)) {
 				// it's a perfect match, no adjustment is needed
-				this.fShift += this.fHunk.doPatch(configuration, lines, this.fShift, fuzz);
+				doPatch(configuration, lines, fuzz, index);
 				this.fMatches = true;
 				break;
 			}
 
-			// TODO (tzarna): hugeShift=lines.size() is more than we need.
-			// Lines to the beg/end of a file would be enough but this can still
-			// in matching hunks out of order. Try to shift using only lines
-			// available "between" hunks.
-			int hugeShift = lines.size();
+			if (shift(configuration, lines, fuzz, index, monitor)) {
+				this.fMatches = true;
+				doPatch(configuration, lines, fuzz, index);
+				break;
+			}
+		}
+		// set fuzz for the current hunk
+		this.fFuzz = this.fMatches ? fuzz : -1;
+		return this.fFuzz;
+	}
 
-			// shift up
-			for (int i = 1; i <= hugeShift; i++) {
-				if (monitor.isCanceled()) {
-					throw new OperationCanceledException();
-				}
-				if (this.fHunk.tryPatch(configuration, lines, this.fShift - i, fuzz)) {
-					if (isAdjustShift())
-						this.fShift -= i;
-					this.fMatches = true;
-					break;
-				}
+	/*
+	 * Shifts the hunk to the nearest position at which it can be applied,
+	 * trying all positions above the current one before the ones below it.
+	 * Returns whether such a position has been found.
+	 */
+	private boolean shift(PatchConfiguration configuration, List<String> lines, int fuzz, LineIndex index,
+			IProgressMonitor monitor) {
+		// TODO (tzarna): hugeShift=lines.size() is more than we need.
+		// Lines to the beg/end of a file would be enough but this can still
+		// in matching hunks out of order. Try to shift using only lines
+		// available "between" hunks.
+		int hugeShift = lines.size();
+
+		// the lines that must match at any shift at which tryPatch succeeds
+		String[] matchedLines = this.fHunk.getMatchedLines(configuration.isReversed(), fuzz);
+		int[] ids = new int[matchedLines.length];
+		int anchor = -1;
+		for (int j = 0; j < matchedLines.length; j++) {
+			if (matchedLines[j] == null) {
+				ids[j] = -1;
+				continue;
 			}
+			ids[j] = index.getId(matchedLines[j]);
+			if (ids[j] == -1)
+				// no line of the file matches, the hunk can't be applied anywhere
+				return false;
+			if (anchor == -1 || index.getCount(ids[j]) < index.getCount(ids[anchor]))
+				anchor = j;
+		}
+		if (anchor == -1)
+			return shiftLinearly(configuration, lines, fuzz, hugeShift, monitor);
 
-			// shift down
-			if (!this.fMatches) {
-				for (int i = 1; i <= hugeShift; i++) {
-					if (monitor.isCanceled()) {
-						throw new OperationCanceledException();
-					}
-					if (this.fHunk.tryPatch(configuration, lines, this.fShift + i, fuzz)) {
-						if (isAdjustShift())
-							this.fShift += i;
-						this.fMatches = true;
-						break;
-					}
-				}
+		// only try the shifts at which the least frequent line is matched
+		int start = this.fHunk.getStart(configuration.isReversed());
+		int base = start + this.fShift + anchor;
+		int[] positions = index.getPositions();
+		int first = index.getFirst(ids[anchor]);
+		int end = index.getFirst(ids[anchor] + 1);
+		int next = Arrays.binarySearch(positions, first, end, base);
+		if (next < 0)
+			next = -next - 1;
+
+		// shift up
+		for (int k = next - 1; k >= first && base - positions[k] <= hugeShift; k--) {
+			if (tryShift(configuration, lines, fuzz, index, ids, positions[k] - anchor - start, monitor))
+				return true;
+		}
+
+		// shift down
+		if (next < end && positions[next] == base)
+			next++;
+		for (int k = next; k < end && positions[k] - base <= hugeShift; k++) {
+			if (tryShift(configuration, lines, fuzz, index, ids, positions[k] - anchor - start, monitor))
+				return true;
+		}
+		return false;
+	}
+
+	private boolean tryShift(PatchConfiguration configuration, List<String> lines, int fuzz, LineIndex index,
+			int[] ids, int shift, IProgressMonitor monitor) {
+		if (monitor != null && monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+		int position = this.fHunk.getStart(configuration.isReversed()) + shift;
+		for (int j = 0; j < ids.length; j++) {
+			if (ids[j] != -1 && index.getIdAt(position + j) != ids[j])
+				return false;
+		}
+		if (this.fHunk.tryPatch(configuration, lines, shift, fuzz)) {
+			if (isAdjustShift())
+				this.fShift = shift;
+			return true;
+		}
+		return false;
+	}
+
+	/*
+	 * Tries every shift, used when the hunk has no lines that must match
+	 */
+	private boolean shiftLinearly(PatchConfiguration configuration, List<String> lines, int fuzz, int hugeShift,
+			IProgressMonitor monitor) {
+		// shift up
+		for (int i = 1; i <= hugeShift; i++) {
+			if (monitor != null && monitor.isCanceled()) {
+				throw new OperationCanceledException();
 			}
+			if (this.fHunk.tryPatch(configuration, lines, this.fShift - i, fuzz)) {
+				if (isAdjustShift())
+					this.fShift -= i;
+				return true;
+			}
+		}
 
-			if (this.fMatches) {
-				this.fShift += this.fHunk.doPatch(configuration, lines, this.fShift, fuzz);
-				break;
+		// shift down
+		for (int i = 1; i <= hugeShift; i++) {
+			if (monitor != null && monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			if (this.fHunk.tryPatch(configuration, lines, this.fShift + i, fuzz)) {
+				if (isAdjustShift())
+					this.fShift += i;
+				return true;
 			}
 		}
-		// set fuzz for the current hunk
-		this.fFuzz = this.fMatches ? fuzz : -1;
-		return this.fFuzz;
+		return false;
+	}
+
+	private void doPatch(PatchConfiguration configuration, List<String> lines, int fuzz, LineIndex index) {
+		int start = Math.max(0, this.fHunk.getStart(configuration.isReversed()) + this.fShift);
+		int size = lines.size();
+		this.fShift += this.fHunk.doPatch(configuration, lines, this.fShift, fuzz);
+		// doPatch doesn't change the lines after the context and deleted lines
+		// of the hunk, except for inserting added lines after the next one
+		int end = Math.min(size, start + this.fHunk.getLines().length + 1);
+		index.replaced(start, end, lines.size() - size);
 	}
 
 	/**
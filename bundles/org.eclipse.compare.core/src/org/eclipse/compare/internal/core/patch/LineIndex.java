@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.internal.core.patch;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the lines of a file which is patched hunk by hunk. Each line is
+ * mapped to an id, two lines have the same id if and only if they match
+ * according to the patch configuration. The index is used to find the
+ * positions at which a hunk may be applied without trying every position of
+ * the file.
+ * <p>
+ * The index is built when it is first needed. The ids are updated after each
+ * applied hunk, the positions of the ids are recomputed when they are needed
+ * again.
+ * </p>
+ */
+/* package */ final class LineIndex {
+
+	private final List<String> fLines;
+	private final boolean fIgnoreWhitespace;
+	private final Map<String, Integer> fIds = new HashMap<>();
+
+	// ids of the lines, null until the index is first used
+	private int[] fLineIds;
+	private int fSize;
+
+	// positions of each id in ascending order, fPositions[fFirst[id] .. fFirst[id + 1])
+	private int[] fFirst;
+	private int[] fPositions;
+
+	LineIndex(List<String> lines, boolean ignoreWhitespace) {
+		this.fLines = lines;
+		this.fIgnoreWhitespace = ignoreWhitespace;
+	}
+
+	/**
+	 * Returns the id of the lines matching the given line.
+	 *
+	 * @param line a line of a hunk without its control character
+	 * @return the id or -1 if no line of the file matches the line
+	 */
+	int getId(String line) {
+		initialize();
+		Integer id = this.fIds.get(getKey(line));
+		return id == null ? -1 : id.intValue();
+	}
+
+	/**
+	 * Returns the id of the line at the given position of the file.
+	 *
+	 * @param position a position in the file
+	 * @return the id of the line or -1 if the position is outside of the file
+	 */
+	int getIdAt(int position) {
+		initialize();
+		if (position < 0 || position >= this.fSize)
+			return -1;
+		return this.fLineIds[position];
+	}
+
+	/**
+	 * Returns the number of lines with the given id.
+	 *
+	 * @param id an id returned by {@link #getId(String)}
+	 * @return the number of lines with the given id
+	 */
+	int getCount(int id) {
+		computePositions();
+		return this.fFirst[id + 1] - this.fFirst[id];
+	}
+
+	/**
+	 * Returns the positions of the lines with the given id. The positions are
+	 * stored in ascending order in
+	 * <code>getPositions()[getFirst(id) .. getFirst(id + 1))</code>.
+	 *
+	 * @return the positions of all ids
+	 */
+	int[] getPositions() {
+		computePositions();
+		return this.fPositions;
+	}
+
+	int getFirst(int id) {
+		computePositions();
+		return this.fFirst[id];
+	}
+
+	/**
+	 * Updates the index after the lines of the file in
+	 * <code>[start .. end)</code> have been replaced with
+	 * <code>end - start + delta</code> other lines.
+	 *
+	 * @param start the first replaced line
+	 * @param end the end of the replaced lines (exclusive)
+	 * @param delta the change of the number of lines
+	 */
+	void replaced(int start, int end, int delta) {
+		if (this.fLineIds == null)
+			return;
+		int size = this.fSize + delta;
+		int[] lineIds = this.fLineIds;
+		if (size > lineIds.length) {
+			lineIds = new int[Math.max(size, lineIds.length + (lineIds.length >> 1))];
+			System.arraycopy(this.fLineIds, 0, lineIds, 0, start);
+		}
+		System.arraycopy(this.fLineIds, end, lineIds, end + delta, this.fSize - end);
+		this.fLineIds = lineIds;
+		this.fSize = size;
+		for (int i = start; i < end + delta; i++) {
+			lineIds[i] = intern(this.fLines.get(i));
+		}
+		this.fPositions = null;
+	}
+
+	private void initialize() {
+		if (this.fLineIds != null)
+			return;
+		this.fSize = this.fLines.size();
+		this.fLineIds = new int[this.fSize];
+		for (int i = 0; i < this.fSize; i++) {
+			this.fLineIds[i] = intern(this.fLines.get(i));
+		}
+	}
+
+	private void computePositions() {
+		initialize();
+		if (this.fPositions != null)
+			return;
+		int ids = this.fIds.size();
+		int[] first = new int[ids + 1];
+		for (int i = 0; i < this.fSize; i++) {
+			first[this.fLineIds[i] + 1]++;
+		}
+		for (int id = 0; id < ids; id++) {
+			first[id + 1] += first[id];
+		}
+		int[] next = new int[ids];
+		System.arraycopy(first, 0, next, 0, ids);
+		int[] positions = new int[this.fSize];
+		for (int i = 0; i < this.fSize; i++) {
+			positions[next[this.fLineIds[i]]++] = i;
+		}
+		this.fFirst = first;
+		this.fPositions = positions;
+	}
+
+	private int intern(String line) {
+		String key = getKey(line);
+		Integer id = this.fIds.get(key);
+		if (id == null) {
+			id = Integer.valueOf(this.fIds.size());
+			this.fIds.put(key, id);
+		}
+		return id.intValue();
+	}
+
+	/*
+	 * Returns a key which is equal for two lines if and only if
+	 * Hunk.linesMatch considers the lines to match.
+	 */
+	private String getKey(String line) {
+		if (this.fIgnoreWhitespace)
+			return Hunk.stripWhiteSpace(line);
+		return line.substring(0, LineReader.length(line));
+	}
+}
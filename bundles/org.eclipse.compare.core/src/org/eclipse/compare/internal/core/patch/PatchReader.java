@@ -17,6 +17,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.text.*;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 import org.eclipse.compare.patch.IFilePatch2;
@@ -77,7 +78,45 @@ public class PatchReader {
 
 	public void parse(BufferedReader reader) throws IOException {
 		List<FilePatch2> diffs= new ArrayList<>();
-		HashMap<String, DiffProject> diffProjects= new HashMap<>(4);
+		Map<String, DiffProject> diffProjects= new HashMap<>(4);
+		parse(reader, diffs::add, diffProjects);
+		if (this.fIsWorkspacePatch)
+			this.fDiffProjects= diffProjects.values().toArray(new DiffProject[diffProjects.size()]);
+		this.fDiffs = diffs.toArray(new FilePatch2[diffs.size()]);
+	}
+
+	/**
+	 * Parses the given patch and passes each file patch to the given consumer
+	 * as soon as it has been read. The file patches are not collected, so the
+	 * memory needed to parse a patch does not grow with the number of files it
+	 * contains. {@link #getDiffs()} returns an empty array afterwards and the
+	 * file patches of a workspace patch are passed relative to their project,
+	 * like the ones returned by {@link #getAdjustedDiffs()}.
+	 *
+	 * @param reader
+	 *            the reader of the patch
+	 * @param consumer
+	 *            the consumer of the file patches
+	 * @throws IOException
+	 *             if an error occurs reading the patch
+	 */
+	public void parse(BufferedReader reader, Consumer<FilePatch2> consumer) throws IOException {
+		parse(reader, diff -> {
+			DiffProject diffProject= diff.getProject();
+			if (diffProject == null) {
+				consumer.accept(diff);
+				return;
+			}
+			FilePatch2 relativeDiff= diff.asRelativeDiff();
+			// don't let the project hold on to the diffs that have been passed on
+			diffProject.remove(diff);
+			consumer.accept(relativeDiff);
+		}, new HashMap<>(4));
+		this.fDiffProjects= new DiffProject[0];
+		this.fDiffs= new FilePatch2[0];
+	}
+
+	private void parse(BufferedReader reader, Consumer<FilePatch2> consumer, Map<String, DiffProject> diffProjects) throws IOException {
 		boolean reread= false;
 		String diffArgs= null;
 		String fileName= null;
@@ -94,7 +133,7 @@ public class PatchReader {
 		if (line != null && line.startsWith(PatchReader.MULTIPROJECTPATCH_HEADER)) {
 			this.fIsWorkspacePatch= true;
 		} else {
-			parse(lr, line);
+			readDiffs(lr, line, consumer);
 			return;
 		}
 
@@ -135,16 +174,13 @@ public class PatchReader {
 					diffProject= diffProjects.get(projectName);
 				}
 
-				line= readUnifiedDiff(diffs, lr, line, diffArgs, fileName, diffProject);
+				line= readUnifiedDiff(consumer, lr, line, diffArgs, fileName, diffProject);
 				diffArgs= fileName= null;
 				reread= true;
 			}
 		}
 
 		lr.close();
-
-		this.fDiffProjects= diffProjects.values().toArray(new DiffProject[diffProjects.size()]);
-		this.fDiffs = diffs.toArray(new FilePatch2[diffs.size()]);
 	}
 
 	protected FilePatch2 createFileDiff(IPath oldPath, long oldDate,
@@ -152,18 +188,27 @@ public class PatchReader {
 		return new FilePatch2(oldPath, oldDate, newPath, newDate);
 	}
 
-	private String readUnifiedDiff(List<FilePatch2> diffs, LineReader lr, String line, String diffArgs, String fileName, DiffProject diffProject) throws IOException {
+	private String readUnifiedDiff(Consumer<FilePatch2> consumer, LineReader lr, String line, String diffArgs, String fileName, DiffProject diffProject) throws IOException {
 		List<FilePatch2> newDiffs= new ArrayList<>();
 		String nextLine= readUnifiedDiff(newDiffs, lr, line, diffArgs, fileName);
 		for (FilePatch2 diff : newDiffs) {
 			diffProject.add(diff);
-			diffs.add(diff);
+			consumer.accept(diff);
 		}
 		return nextLine;
 	}
 
 	public void parse(LineReader lr, String line) throws IOException {
 		List<FilePatch2> diffs= new ArrayList<>();
+		readDiffs(lr, line, diffs::add);
+		this.fDiffs = diffs.toArray(new FilePatch2[diffs.size()]);
+	}
+
+	private void readDiffs(LineReader lr, String line, Consumer<FilePatch2> consumer) throws IOException {
+		// the last diff is only passed on once the next one has been read, the
+		// header lines preceding an incomplete diff are added to the last diff
+		FilePatch2 lastDiff= null;
+		List<FilePatch2> newDiffs= new ArrayList<>(1);
 		boolean reread= line!=null;
 		String diffArgs= null;
 		String fileName= null;
@@ -187,15 +232,17 @@ public class PatchReader {
 				foundDiff= true;
 				diffArgs= line.substring(4).trim();
 			} else if (line.startsWith("--- ")) { //$NON-NLS-1$
-				line= readUnifiedDiff(diffs, lr, line, diffArgs, fileName);
-				if (!headerLines.isEmpty())
-					setHeader(diffs.get(diffs.size() - 1), headerLines);
+				line= readUnifiedDiff(newDiffs, lr, line, diffArgs, fileName);
+				lastDiff= passOn(lastDiff, newDiffs, consumer);
+				if (!headerLines.isEmpty() && lastDiff != null)
+					setHeader(lastDiff, headerLines);
 				diffArgs= fileName= null;
 				reread= true;
 			} else if (line.startsWith("*** ")) { //$NON-NLS-1$
-				line= readContextDiff(diffs, lr, line, diffArgs, fileName);
-				if (!headerLines.isEmpty())
-					setHeader(diffs.get(diffs.size() - 1), headerLines);
+				line= readContextDiff(newDiffs, lr, line, diffArgs, fileName);
+				lastDiff= passOn(lastDiff, newDiffs, consumer);
+				if (!headerLines.isEmpty() && lastDiff != null)
+					setHeader(lastDiff, headerLines);
 				diffArgs= fileName= null;
 				reread= true;
 			}
@@ -209,7 +256,22 @@ public class PatchReader {
 
 		lr.close();
 
-		this.fDiffs = diffs.toArray(new FilePatch2[diffs.size()]);
+		if (lastDiff != null)
+			consumer.accept(lastDiff);
+	}
+
+	/*
+	 * Passes on all but the last of the given diffs and the diff read before
+	 * them. Returns the new last diff.
+	 */
+	private FilePatch2 passOn(FilePatch2 lastDiff, List<FilePatch2> newDiffs, Consumer<FilePatch2> consumer) {
+		for (FilePatch2 diff : newDiffs) {
+			if (lastDiff != null)
+				consumer.accept(lastDiff);
+			lastDiff= diff;
+		}
+		newDiffs.clear();
+		return lastDiff;
 	}
 
 	private void setHeader(FilePatch2 diff, List<String> headerLines) {
@@ -467,8 +529,8 @@ public class PatchReader {
 	private List<String> unifyLines(List<String> oldLines, List<String> newLines) {
 		List<String> result= new ArrayList<>();
 
-		String[] ol= oldLines.toArray(new String[oldLines.size()]);
-		String[] nl= newLines.toArray(new String[newLines.size()]);
+		int oldSize= oldLines.size();
+		int newSize= newLines.size();
 
 		int oi= 0, ni= 0;
 
@@ -476,15 +538,15 @@ public class PatchReader {
 
 			char oc= 0;
 			String o= null;
-			if (oi < ol.length) {
-				o= ol[oi];
+			if (oi < oldSize) {
+				o= oldLines.get(oi);
 				oc= o.charAt(0);
 			}
 
 			char nc= 0;
 			String n= null;
-			if (ni < nl.length) {
-				n= nl[ni];
+			if (ni < newSize) {
+				n= newLines.get(ni);
 				nc= n.charAt(0);
 			}
 
@@ -497,9 +559,9 @@ public class PatchReader {
 				do {
 					result.add('-' + o.substring(2));
 					oi++;
-					if (oi >= ol.length)
+					if (oi >= oldSize)
 						break;
-					o= ol[oi];
+					o= oldLines.get(oi);
 				} while (o.charAt(0) == '-');
 				continue;
 			}
@@ -509,9 +571,9 @@ public class PatchReader {
 				do {
 					result.add('+' + n.substring(2));
 					ni++;
-					if (ni >= nl.length)
+					if (ni >= newSize)
 						break;
-					n= nl[ni];
+					n= newLines.get(ni);
 				} while (n.charAt(0) == '+');
 				continue;
 			}
@@ -522,18 +584,18 @@ public class PatchReader {
 				do {
 					result.add('-' + o.substring(2));
 					oi++;
-					if (oi >= ol.length)
+					if (oi >= oldSize)
 						break;
-					o= ol[oi];
+					o= oldLines.get(oi);
 				} while (o.charAt(0) == '!');
 
 				// add new
 				do {
 					result.add('+' + n.substring(2));
 					ni++;
-					if (ni >= nl.length)
+					if (ni >= newSize)
 						break;
-					n= nl[ni];
+					n= newLines.get(ni);
 				} while (n.charAt(0) == '!');
 
 				continue;
@@ -546,10 +608,10 @@ public class PatchReader {
 					result.add(' ' + o.substring(2));
 					oi++;
 					ni++;
-					if (oi >= ol.length || ni >= nl.length)
+					if (oi >= oldSize || ni >= newSize)
 						break;
-					o= ol[oi];
-					n= nl[ni];
+					o= oldLines.get(oi);
+					n= newLines.get(ni);
 				} while (o.charAt(0) == ' ' && n.charAt(0) == ' ');
 				continue;
 			}
@@ -558,9 +620,9 @@ public class PatchReader {
 				do {
 					result.add(' ' + o.substring(2));
 					oi++;
-					if (oi >= ol.length)
+					if (oi >= oldSize)
 						break;
-					o= ol[oi];
+					o= oldLines.get(oi);
 				} while (o.charAt(0) == ' ');
 				continue;
 			}
@@ -569,9 +631,9 @@ public class PatchReader {
 				do {
 					result.add(' ' + n.substring(2));
 					ni++;
-					if (ni >= nl.length)
+					if (ni >= newSize)
 						break;
-					n= nl[ni];
+					n= newLines.get(ni);
 				} while (n.charAt(0) == ' ');
 				continue;
 			}
@@ -16,14 +16,18 @@ package org.eclipse.compare.rangedifferencer;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.eclipse.compare.internal.core.IHashableRanges;
+import org.eclipse.compare.internal.core.IRangeHasher;
 import org.eclipse.compare.internal.core.LCS;
 import org.eclipse.compare.internal.core.Messages;
 import org.eclipse.core.runtime.*;
 
-/* package */ class RangeComparatorLCS extends LCS {
+/* package */ class RangeComparatorLCS extends LCS implements IHashableRanges {
 
 	private final IRangeComparator comparator1, comparator2;
 	private int[][] lcs;
+	// dense ids of the ranges, equal ranges have equal ids; null if the ranges cannot be hashed
+	private int[] ids1, ids2;
 
 	public static RangeDifference[] findDifferences(AbstractRangeDifferenceFactory factory, IProgressMonitor pm, IRangeComparator left, IRangeComparator right) {
 		RangeComparatorLCS lcs = new RangeComparatorLCS(left, right);
@@ -59,9 +63,89 @@ import org.eclipse.core.runtime.*;
 
 	@Override
 	protected boolean isRangeEqual(int i1, int i2) {
+		if (this.ids1 != null)
+			return this.ids1[i1] == this.ids2[i2];
 		return this.comparator1.rangesEqual(i1, this.comparator2, i2);
 	}
 
+	@Override
+	public boolean canHashRanges() {
+		return this.comparator1 instanceof IRangeHasher
+				&& this.comparator2 instanceof IRangeHasher
+				&& ((IRangeHasher) this.comparator1).canHashRanges(this.comparator2);
+	}
+
+	@Override
+	public int getHashCode1(int i1) {
+		if (this.ids1 != null)
+			return this.ids1[i1];
+		return ((IRangeHasher) this.comparator1).getRangeHashCode(i1);
+	}
+
+	@Override
+	public int getHashCode2(int i2) {
+		if (this.ids2 != null)
+			return this.ids2[i2];
+		return ((IRangeHasher) this.comparator2).getRangeHashCode(i2);
+	}
+
+	@Override
+	protected boolean canComputeInParallel() {
+		// interned ranges are compared without calling the comparators
+		return this.ids1 != null;
+	}
+
+	/*
+	 * Maps the ranges of both comparators to dense ids through a shared hash
+	 * table, so that the LCS only has to compare ids. Each range is hashed once
+	 * and compared with the representatives of its hash code only.
+	 */
+	private void internRanges() {
+		if (!canHashRanges())
+			return;
+		int length1 = getLength1();
+		int length2 = getLength2();
+		int tableSize = Integer.highestOneBit(Math.max(2 * (length1 + length2), 2) - 1) << 1;
+		int shift = 32 - Integer.numberOfTrailingZeros(tableSize);
+		int[] table = new int[tableSize];
+		int[] repHash = new int[length1 + length2];
+		int[] repIndex = new int[length1 + length2];
+		IRangeComparator[] repComparator = new IRangeComparator[length1 + length2];
+		int[][] ids = new int[][] { new int[length1], new int[length2] };
+		IRangeComparator[] comparators = new IRangeComparator[] { this.comparator1, this.comparator2 };
+		int count = 0;
+		// give up if the hash codes collide too often, comparing ranges is cheaper then
+		int probes = 8 * (length1 + length2) + 1024;
+		for (int side = 0; side < 2; side++) {
+			IRangeComparator comparator = comparators[side];
+			IRangeHasher hasher = (IRangeHasher) comparator;
+			int[] sideIds = ids[side];
+			for (int i = 0; i < sideIds.length; i++) {
+				int hash = hasher.getRangeHashCode(i);
+				int slot = (hash * 0x9E3779B9) >>> shift;
+				int entry;
+				while ((entry = table[slot]) != 0) {
+					int id = entry - 1;
+					if (repHash[id] == hash && repComparator[id].rangesEqual(repIndex[id], comparator, i))
+						break;
+					if (--probes < 0)
+						return;
+					slot = (slot + 1) & (tableSize - 1);
+				}
+				if (entry == 0) {
+					repHash[count] = hash;
+					repIndex[count] = i;
+					repComparator[count] = comparator;
+					table[slot] = ++count;
+					entry = count;
+				}
+				sideIds[i] = entry - 1;
+			}
+		}
+		this.ids1 = ids[0];
+		this.ids2 = ids[1];
+	}
+
 	@Override
 	protected void setLcs(int sl1, int sl2) {
 		// Add one to the values so that 0 can mean that the slot is empty
@@ -150,9 +234,10 @@ import org.eclipse.core.runtime.*;
 	 *            some other collection of lines
 	 * @param length The number of non-empty (i.e non-zero) entries in LCS
 	 * @param comparator The comparator used to generate the LCS
+	 * @param ids The interned ids of the ranges of the comparator or <code>null</code>
 	 */
 	private void compactAndShiftLCS(int[] lcsSide, int length,
-			IRangeComparator comparator) {
+			IRangeComparator comparator, int[] ids) {
 		// If the LCS is empty, just return
 		if (length == 0)
 			return;
@@ -172,7 +257,7 @@ import org.eclipse.core.runtime.*;
 			// Push the difference down as far as possible by comparing the line at the
 			// start of the diff with the line and the end and adjusting if they are the same
 			int nextLine = lcsSide[i - 1] + 1;
-			if (nextLine != lcsSide[j] && comparator.rangesEqual(nextLine - 1, comparator, lcsSide[j] - 1)) {
+			if (nextLine != lcsSide[j] && rangesEqual(comparator, ids, nextLine - 1, lcsSide[j] - 1)) {
 				lcsSide[i] = nextLine;
 			} else {
 				lcsSide[i] = lcsSide[j];
@@ -185,12 +270,19 @@ import org.eclipse.core.runtime.*;
 		}
 	}
 
+	private static boolean rangesEqual(IRangeComparator comparator, int[] ids, int i1, int i2) {
+		if (ids != null)
+			return ids[i1] == ids[i2];
+		return comparator.rangesEqual(i1, comparator, i2);
+	}
+
 	@Override
 	public void longestCommonSubsequence(SubMonitor subMonitor) {
+		internRanges();
 		super.longestCommonSubsequence(subMonitor);
 		if (this.lcs != null) { // The LCS can be null if one of the sides is empty
-			compactAndShiftLCS(this.lcs[0], getLength(), this.comparator1);
-			compactAndShiftLCS(this.lcs[1], getLength(), this.comparator2);
+			compactAndShiftLCS(this.lcs[0], getLength(), this.comparator1, this.ids1);
+			compactAndShiftLCS(this.lcs[1], getLength(), this.comparator2, this.ids2);
 		}
 	}
 }
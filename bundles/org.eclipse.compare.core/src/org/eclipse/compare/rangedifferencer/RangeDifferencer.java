@@ -15,7 +15,17 @@ package org.eclipse.compare.rangedifferencer;
 
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.eclipse.compare.internal.core.CompareSettings;
+import org.eclipse.compare.internal.core.IConcurrentRangeComparator;
 import org.eclipse.compare.internal.core.Messages;
 import org.eclipse.core.runtime.*;
 
@@ -42,6 +52,25 @@ public final class RangeDifferencer {
 
 	private static final RangeDifference[] EMPTY_RESULT= new RangeDifference[0];
 
+	/*
+	 * Minimum number of ranges of a three-way comparison to compute its
+	 * two-way scripts concurrently
+	 */
+	private static final int PARALLEL_THRESHOLD= 10000;
+
+	/*
+	 * Milliseconds between two progress updates of a parallel three-way
+	 * comparison
+	 */
+	private static final int PROGRESS_INTERVAL= 100;
+
+	/*
+	 * Computes the two-way scripts of parallel three-way comparisons. The
+	 * computations block on the comparators, so they do not run on the
+	 * common fork/join pool.
+	 */
+	private static final ExecutorService EXECUTOR= createExecutor();
+
 	private static final AbstractRangeDifferenceFactory defaultFactory = new AbstractRangeDifferenceFactory() {
 		@Override
 		protected RangeDifference createRangeDifference() {
@@ -155,10 +184,18 @@ public final class RangeDifferencer {
 				return findDifferences(factory, pm, left, right);
 			SubMonitor monitor = SubMonitor.convert(pm, Messages.RangeComparatorLCS_0, 100);
 			RangeDifference[] leftAncestorScript= null;
-			RangeDifference[] rightAncestorScript= findDifferences(factory, monitor.newChild(50), ancestor, right);
-			if (rightAncestorScript != null) {
-				monitor.setWorkRemaining(100);
-				leftAncestorScript= findDifferences(factory, monitor.newChild(50), ancestor, left);
+			RangeDifference[] rightAncestorScript= null;
+			if (isParallelDiffEnabled(ancestor, left, right)) {
+				// the two scripts are independent, compute them concurrently
+				RangeDifference[][] scripts= findDifferencesInParallel(factory, monitor.newChild(100), ancestor, left, right);
+				rightAncestorScript= scripts[0];
+				leftAncestorScript= scripts[1];
+			} else {
+				rightAncestorScript= findDifferences(factory, monitor.newChild(50), ancestor, right);
+				if (rightAncestorScript != null) {
+					monitor.setWorkRemaining(100);
+					leftAncestorScript= findDifferences(factory, monitor.newChild(50), ancestor, left);
+				}
 			}
 			if (rightAncestorScript == null || leftAncestorScript == null)
 				return null;
@@ -393,6 +430,159 @@ public final class RangeDifferencer {
 
 	//---- private methods
 
+	/*
+	 * Tests whether the two-way scripts of a three-way comparison should be
+	 * computed concurrently. The ancestor comparator is used by both
+	 * computations, so all comparators have to be thread safe. Small inputs are
+	 * not worth the hand-off.
+	 */
+	private static boolean isParallelDiffEnabled(IRangeComparator ancestor, IRangeComparator left, IRangeComparator right) {
+		if (!CompareSettings.getDefault().isParallelDiffEnabled())
+			return false;
+		if (!isThreadSafe(ancestor) || !isThreadSafe(left) || !isThreadSafe(right))
+			return false;
+		long ranges= (long) ancestor.getRangeCount() + left.getRangeCount() + right.getRangeCount();
+		return ranges >= PARALLEL_THRESHOLD;
+	}
+
+	private static boolean isThreadSafe(IRangeComparator comparator) {
+		return comparator instanceof IConcurrentRangeComparator
+				&& ((IConcurrentRangeComparator) comparator).isThreadSafe();
+	}
+
+	/*
+	 * Computes the ancestor/right and the ancestor/left script on two threads
+	 * of the executor. The calling thread reports the progress of both
+	 * computations and forwards the cancellation of its monitor to them.
+	 */
+	private static RangeDifference[][] findDifferencesInParallel(AbstractRangeDifferenceFactory factory, SubMonitor monitor,
+			IRangeComparator ancestor, IRangeComparator left, IRangeComparator right) {
+		monitor.setWorkRemaining(100);
+		BackgroundMonitor rightMonitor= new BackgroundMonitor();
+		BackgroundMonitor leftMonitor= new BackgroundMonitor();
+		Future<RangeDifference[]> rightFuture= null;
+		Future<RangeDifference[]> leftFuture= null;
+		try {
+			rightFuture= EXECUTOR.submit(() -> findDifferences(factory, rightMonitor, ancestor, right));
+			leftFuture= EXECUTOR.submit(() -> findDifferences(factory, leftMonitor, ancestor, left));
+			int reported= 0;
+			while (true) {
+				int ticks= rightMonitor.getTicks(50) + leftMonitor.getTicks(50);
+				monitor.worked(ticks - reported);
+				reported= ticks;
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				// a failure of either computation is rethrown as soon as it is known
+				if (rightFuture.isDone() && leftFuture.isDone())
+					return new RangeDifference[][] { getScript(rightFuture), getScript(leftFuture) };
+				if (rightFuture.isDone())
+					getScript(rightFuture);
+				if (leftFuture.isDone())
+					getScript(leftFuture);
+				awaitScript(rightFuture.isDone() ? leftFuture : rightFuture);
+			}
+		} finally {
+			// stops the other computation if one has failed or the caller was canceled
+			rightMonitor.setCanceled(true);
+			leftMonitor.setCanceled(true);
+			if (rightFuture != null)
+				rightFuture.cancel(false);
+			if (leftFuture != null)
+				leftFuture.cancel(false);
+		}
+	}
+
+	/*
+	 * Waits for a script computed in the background until the next progress
+	 * update is due
+	 */
+	private static void awaitScript(Future<RangeDifference[]> future) {
+		try {
+			future.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException | ExecutionException e) {
+			// the failure is rethrown by getScript
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		}
+	}
+
+	/*
+	 * Returns a script computed in the background and rethrows its failure
+	 */
+	private static RangeDifference[] getScript(Future<RangeDifference[]> future) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause= e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		}
+	}
+
+	private static ExecutorService createExecutor() {
+		AtomicInteger count= new AtomicInteger();
+		// idle threads terminate, so the executor does not have to be shut down
+		return Executors.newCachedThreadPool(runnable -> {
+			Thread thread= new Thread(runnable, "RangeDifferencer " + count.incrementAndGet()); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/*
+	 * Progress monitor for computations running in the background. Progress
+	 * monitors need not be thread safe, so the work done is only recorded here
+	 * and reported to the caller's monitor by the calling thread, which also
+	 * sets the cancellation state.
+	 */
+	private static final class BackgroundMonitor extends NullProgressMonitor {
+		private volatile int totalWork;
+		private final DoubleAdder worked= new DoubleAdder();
+		private volatile boolean canceled;
+
+		@Override
+		public void beginTask(String name, int work) {
+			this.totalWork= work;
+		}
+
+		@Override
+		public void worked(int work) {
+			internalWorked(work);
+		}
+
+		@Override
+		public void internalWorked(double work) {
+			this.worked.add(work);
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return this.canceled;
+		}
+
+		@Override
+		public void setCanceled(boolean canceled) {
+			this.canceled= canceled;
+		}
+
+		/*
+		 * Returns the share of the given ticks corresponding to the work done
+		 */
+		int getTicks(int ticks) {
+			int total= this.totalWork;
+			if (total <= 0)
+				return 0;
+			return (int) (ticks * Math.min(1, this.worked.sum() / total));
+		}
+	}
+
 	/*
 	 * Creates a <code>RangeDifference3</code> given the
 	 * state of two DifferenceIterators.
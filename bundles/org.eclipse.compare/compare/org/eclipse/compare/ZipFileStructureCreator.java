@@ -14,21 +14,32 @@
 package org.eclipse.compare;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.zip.ZipEntry;
+import java.util.zip.CRC32;
+import java.util.zip.ZipException;
 import java.util.zip.ZipInputStream;
 
 import org.eclipse.compare.internal.CompareUIPlugin;
+import org.eclipse.compare.internal.IContentChecksum;
 import org.eclipse.compare.internal.Utilities;
 import org.eclipse.compare.structuremergeviewer.Differencer;
 import org.eclipse.compare.structuremergeviewer.IDiffContainer;
 import org.eclipse.compare.structuremergeviewer.IStructureComparator;
 import org.eclipse.compare.structuremergeviewer.IStructureCreator;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.swt.graphics.Image;
 
 /**
@@ -137,9 +148,14 @@ public class ZipFileStructureCreator implements IStructureCreator {
 		}
 	}
 
-	static class ZipFile extends ZipResource implements IStreamContentAccessor {
+	static class ZipFile extends ZipResource implements IStreamContentAccessor, IContentChecksum {
 
+		// the local archive from which the contents are read on demand
+		private File fArchive;
+		private ZipEntry fEntry;
+		// the contents of an entry of an archive that is not a local file
 		private byte[] fContents;
+		private long fChecksum;
 
 		ZipFile(String name) {
 			super(name);
@@ -159,32 +175,77 @@ public class ZipFileStructureCreator implements IStructureCreator {
 			return null;
 		}
 
+		/*
+		 * Returns the contents of the entry. The contents of an entry of a
+		 * local archive are streamed from the archive, which is opened for
+		 * each request and closed when the returned stream is closed.
+		 */
 		@Override
-		public InputStream getContents() {
-			if (fContents == null)
-				fContents= new byte[0];
-			return new ByteArrayInputStream(fContents);
+		public InputStream getContents() throws CoreException {
+			if (fArchive == null)
+				return new ByteArrayInputStream(fContents == null ? new byte[0] : fContents);
+			java.util.zip.ZipFile archive= null;
+			try {
+				archive= new java.util.zip.ZipFile(fArchive);
+				ZipEntry entry= archive.getEntry(fEntry.getName());
+				if (entry == null)
+					throw new IOException(fEntry.getName());
+				java.util.zip.ZipFile opened= archive;
+				return new FilterInputStream(archive.getInputStream(entry)) {
+					@Override
+					public void close() throws IOException {
+						try {
+							super.close();
+						} finally {
+							opened.close();
+						}
+					}
+				};
+			} catch (IOException e) {
+				if (archive != null) {
+					try {
+						archive.close();
+					} catch (IOException ex) {
+						// the original error is reported
+					}
+				}
+				throw new CoreException(new Status(IStatus.ERROR, CompareUIPlugin.PLUGIN_ID, 0, e.getMessage(), e));
+			}
 		}
 
-		byte[] getBytes() {
-			return fContents;
+		byte[] getBytes() throws CoreException {
+			if (fArchive == null)
+				return fContents == null ? new byte[0] : fContents;
+			try (InputStream in= getContents()) {
+				return in.readAllBytes();
+			} catch (IOException e) {
+				throw new CoreException(new Status(IStatus.ERROR, CompareUIPlugin.PLUGIN_ID, 0, e.getMessage(), e));
+			}
 		}
 
-		void setBytes(byte[] buffer) {
-			fContents= buffer;
+		void setEntry(File archive, ZipEntry entry) {
+			fArchive= archive;
+			fEntry= entry;
 		}
 
-		void appendBytes(byte[] buffer, int length) {
-			if (length > 0) {
-				int oldLen= 0;
-				if (fContents != null)
-					oldLen= fContents.length;
-				byte[] newBuf= new byte[oldLen + length];
-				if (oldLen > 0)
-					System.arraycopy(fContents, 0, newBuf, 0, oldLen);
-				System.arraycopy(buffer, 0, newBuf, oldLen, length);
-				fContents= newBuf;
-			}
+		void setBytes(byte[] contents) {
+			fContents= contents;
+			CRC32 crc= new CRC32();
+			crc.update(contents);
+			fChecksum= crc.getValue();
+		}
+
+		@Override
+		public long getContentSize() {
+			if (fEntry != null)
+				return fEntry.getSize();
+			return fContents == null ? 0 : fContents.length;
+		}
+
+		@Override
+		public long getContentChecksum() {
+			// the checksum of no contents is 0
+			return fEntry != null ? fEntry.getCrc() : fChecksum;
 		}
 	}
 
@@ -211,9 +272,23 @@ public class ZipFileStructureCreator implements IStructureCreator {
 		return fTitle;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the input is a resource node of a local file, the structure is built
+	 * from the central directory of the archive and the contents of an entry
+	 * are only read when they are requested. The archive is opened for each
+	 * of these reads and closed when the contents have been read, so it is
+	 * not kept open while the structure is referenced. The entries of any other input are read into memory.
+	 * </p>
+	 */
 	@Override
 	public IStructureComparator getStructure(Object input) {
 
+		File file= getLocalFile(input);
+		if (file != null)
+			return getStructure(file);
+
 		InputStream is= null;
 
 		if (input instanceof IStreamContentAccessor) {
@@ -228,49 +303,43 @@ public class ZipFileStructureCreator implements IStructureCreator {
 		if (is == null)
 			return null;
 
-		ZipInputStream zip= new ZipInputStream(is);
 		ZipFolder root= new ZipFolder(""); //$NON-NLS-1$
-		try {
+		try (ZipInputStream zip= new ZipInputStream(is)) {
 			for (;;) {
 				ZipEntry entry= zip.getNextEntry();
 				if (entry == null)
 					break;
-
 				ZipFile ze= root.createContainer(entry.getName());
-				if (ze != null) {
-					int length= (int) entry.getSize();
-					if (length >= 0) {
-						byte[] buffer= new byte[length];
-						int offset= 0;
-
-						do {
-							int n= zip.read(buffer, offset, length);
-							offset += n;
-							length -= n;
-						} while (length > 0);
-
-						ze.setBytes(buffer);
-					} else {
-						byte[] buffer= new byte[1024];
-						int n;
-						do {
-							n= zip.read(buffer, 0, 1024);
-							ze.appendBytes(buffer, n);
-						} while (n >= 0);
-					}
-				}
+				if (ze != null)
+					ze.setBytes(zip.readAllBytes());
 				zip.closeEntry();
 			}
 		} catch (IOException ex) {
 			return null;
-		} finally {
-			try {
-				zip.close();
-			} catch (IOException ex) {
-				// silently ignored
+		}
+		return getRoot(root);
+	}
+
+	private IStructureComparator getStructure(File file) {
+		ZipFolder root= new ZipFolder(""); //$NON-NLS-1$
+		try (java.util.zip.ZipFile archive= new java.util.zip.ZipFile(file)) {
+			Enumeration<? extends ZipEntry> entries= archive.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry= entries.nextElement();
+				ZipFile ze= root.createContainer(entry.getName());
+				if (ze != null)
+					ze.setEntry(file, entry);
 			}
+		} catch (ZipException ex) {
+			// not an archive, it has no entries
+			return root;
+		} catch (IOException ex) {
+			return null;
 		}
+		return getRoot(root);
+	}
 
+	private IStructureComparator getRoot(ZipFolder root) {
 		if (root.fChildren.size() == 1) {
 			Iterator<ZipResource> iter= root.fChildren.values().iterator();
 			return iter.next();
@@ -278,12 +347,33 @@ public class ZipFileStructureCreator implements IStructureCreator {
 		return root;
 	}
 
+	/*
+	 * Returns the local file of a resource node whose contents are read from
+	 * the file, or null.
+	 */
+	private File getLocalFile(Object input) {
+		if (input instanceof ResourceNode && ((ResourceNode) input).fContent == null) {
+			IResource resource= ((ResourceNode) input).getResource();
+			if (resource instanceof IFile) {
+				IPath location= resource.getLocation();
+				if (location != null) {
+					File file= location.toFile();
+					if (file.isFile())
+						return file;
+				}
+			}
+		}
+		return null;
+	}
+
 	@Override
 	public String getContents(Object o, boolean ignoreWhitespace) {
 		if (o instanceof ZipFile) {
-			byte[] bytes= ((ZipFile)o).getBytes();
-			if (bytes != null)
-				return new String(bytes);
+			try {
+				return new String(((ZipFile)o).getBytes());
+			} catch (CoreException ex) {
+				// NeedWork
+			}
 			return ""; //$NON-NLS-1$
 		}
 		return null;
@@ -117,6 +117,8 @@ public class ComparePreferencePage extends PreferencePage implements IWorkbenchP
 	public static final String HIGHLIGHT_TOKEN_CHANGES= PREFIX + "HighlightTokenChanges"; //$NON-NLS-1$
 	//public static final String USE_RESOLVE_UI= PREFIX + "UseResolveUI"; //$NON-NLS-1$
 	public static final String CAPPING_DISABLED= PREFIX + "CappingDisable"; //$NON-NLS-1$
+	public static final String HISTOGRAM_DIFF= PREFIX + "HistogramDiff"; //$NON-NLS-1$
+	public static final String PARALLEL_DIFF= PREFIX + "ParallelDiff"; //$NON-NLS-1$
 	public static final String PATH_FILTER= PREFIX + "PathFilter"; //$NON-NLS-1$
 	public static final String ADDED_LINES_REGEX= PREFIX + "AddedLinesRegex"; //$NON-NLS-1$
 	public static final String REMOVED_LINES_REGEX= PREFIX + "RemovedLinesRegex"; //$NON-NLS-1$
@@ -148,6 +150,8 @@ public class ComparePreferencePage extends PreferencePage implements IWorkbenchP
 		new OverlayPreferenceStore.OverlayKey(OverlayPreferenceStore.BOOLEAN, HIGHLIGHT_TOKEN_CHANGES),
 		//new OverlayPreferenceStore.OverlayKey(OverlayPreferenceStore.BOOLEAN, USE_RESOLVE_UI),
 		new OverlayPreferenceStore.OverlayKey(OverlayPreferenceStore.BOOLEAN, CAPPING_DISABLED),
+		new OverlayPreferenceStore.OverlayKey(OverlayPreferenceStore.BOOLEAN, HISTOGRAM_DIFF),
+		new OverlayPreferenceStore.OverlayKey(OverlayPreferenceStore.BOOLEAN, PARALLEL_DIFF),
 		new OverlayPreferenceStore.OverlayKey(OverlayPreferenceStore.STRING, PATH_FILTER),
 		new OverlayPreferenceStore.OverlayKey(OverlayPreferenceStore.STRING, ICompareUIConstants.PREF_NAVIGATION_END_ACTION),
 		new OverlayPreferenceStore.OverlayKey(OverlayPreferenceStore.STRING, ICompareUIConstants.PREF_NAVIGATION_END_ACTION_LOCAL),
@@ -171,6 +175,8 @@ public class ComparePreferencePage extends PreferencePage implements IWorkbenchP
 		store.setDefault(USE_SINGLE_LINE, true);
 		store.setDefault(HIGHLIGHT_TOKEN_CHANGES, true);
 		store.setDefault(CAPPING_DISABLED, false);
+		store.setDefault(HISTOGRAM_DIFF, false);
+		store.setDefault(PARALLEL_DIFF, false);
 		store.setDefault(PATH_FILTER, ""); //$NON-NLS-1$
 		store.setDefault(ICompareUIConstants.PREF_NAVIGATION_END_ACTION, ICompareUIConstants.PREF_VALUE_PROMPT);
 		store.setDefault(ICompareUIConstants.PREF_NAVIGATION_END_ACTION_LOCAL, ICompareUIConstants.PREF_VALUE_LOOP);
@@ -210,6 +216,12 @@ public class ComparePreferencePage extends PreferencePage implements IWorkbenchP
 		CompareSettings.getDefault().setCappingDisabled(
 				getPreferenceStore().getBoolean(
 						ComparePreferencePage.CAPPING_DISABLED));
+		CompareSettings.getDefault().setHistogramDiffEnabled(
+				getPreferenceStore().getBoolean(
+						ComparePreferencePage.HISTOGRAM_DIFF));
+		CompareSettings.getDefault().setParallelDiffEnabled(
+				getPreferenceStore().getBoolean(
+						ComparePreferencePage.PARALLEL_DIFF));
 		return true;
 	}
 
@@ -362,6 +374,8 @@ public class ComparePreferencePage extends PreferencePage implements IWorkbenchP
 		addCheckBox(composite, "ComparePreferencePage.highlightTokenChanges.label", HIGHLIGHT_TOKEN_CHANGES, 0);	//$NON-NLS-1$
 		//addCheckBox(composite, "ComparePreferencePage.useResolveUI.label", USE_RESOLVE_UI, 0);	//$NON-NLS-1$
 		fDisableCappingCheckBox = addCheckBox(composite, "ComparePreferencePage.disableCapping.label", CAPPING_DISABLED, 0);	//$NON-NLS-1$
+		addCheckBox(composite, "ComparePreferencePage.histogramDiff.label", HISTOGRAM_DIFF, 0);	//$NON-NLS-1$
+		addCheckBox(composite, "ComparePreferencePage.parallelDiff.label", PARALLEL_DIFF, 0);	//$NON-NLS-1$
 		addCheckBox(composite, "ComparePreferencePage.swapped.label", SWAPPED, 0);	//$NON-NLS-1$
 
 		Composite radioGroup = new Composite(composite, SWT.NULL);
@@ -289,6 +289,12 @@ public final class CompareUIPlugin extends AbstractUIPlugin {
 		CompareSettings.getDefault().setCappingDisabled(
 				getPreferenceStore().getBoolean(
 						ComparePreferencePage.CAPPING_DISABLED));
+		CompareSettings.getDefault().setHistogramDiffEnabled(
+				getPreferenceStore().getBoolean(
+						ComparePreferencePage.HISTOGRAM_DIFF));
+		CompareSettings.getDefault().setParallelDiffEnabled(
+				getPreferenceStore().getBoolean(
+						ComparePreferencePage.PARALLEL_DIFF));
 	}
 
 	@Override
@@ -1372,6 +1378,14 @@ public final class CompareUIPlugin extends AbstractUIPlugin {
 	//---- filters
 
 	public boolean filter(String name, boolean isFolder, boolean isArchive) {
+		return getFilter().filter(name, isFolder, isArchive);
+	}
+
+	/*
+	 * Synchronized because the children of resource nodes may be created
+	 * concurrently by a parallel Differencer.
+	 */
+	private synchronized CompareResourceFilter getFilter() {
 		if (fFilter == null) {
 			fFilter= new CompareResourceFilter();
 			final IPreferenceStore ps= getPreferenceStore();
@@ -1382,7 +1396,7 @@ public final class CompareUIPlugin extends AbstractUIPlugin {
 			};
 			ps.addPropertyChangeListener(fPropertyChangeListener);
 		}
-		return fFilter.filter(name, isFolder, isArchive);
+		return fFilter;
 	}
 
 	private void internalOpenDialog(final CompareEditorInput input) {
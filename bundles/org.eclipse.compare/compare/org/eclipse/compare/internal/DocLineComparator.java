@@ -15,6 +15,8 @@ package org.eclipse.compare.internal;
 
 import org.eclipse.compare.ICompareFilter;
 import org.eclipse.compare.contentmergeviewer.ITokenComparator;
+import org.eclipse.compare.internal.core.IConcurrentRangeComparator;
+import org.eclipse.compare.internal.core.IRangeHasher;
 import org.eclipse.compare.rangedifferencer.IRangeComparator;
 import org.eclipse.core.internal.expressions.util.LRUCache;
 import org.eclipse.jface.text.BadLocationException;
@@ -29,7 +31,7 @@ import org.eclipse.jface.text.IRegion;
  * A <code>DocLineComparator</code> doesn't know anything about line separators because
  * its notion of lines is solely defined in the underlying <code>IDocument</code>.
  */
-public class DocLineComparator implements ITokenComparator {
+public class DocLineComparator implements ITokenComparator, IRangeHasher, IConcurrentRangeComparator {
 
 	private IDocument fDocument;
 	private int fLineOffset;
@@ -201,6 +203,37 @@ public class DocLineComparator implements ITokenComparator {
 		return false;
 	}
 
+	@Override
+	public boolean canHashRanges(IRangeComparator other) {
+		if (other == null || other.getClass() != getClass())
+			return false;
+		DocLineComparator o = (DocLineComparator) other;
+		// compare filters are applied to pairs of lines, so lines cannot be hashed on their own
+		return fIgnoreWhiteSpace == o.fIgnoreWhiteSpace
+				&& (fCompareFilters == null || fCompareFilters.length == 0)
+				&& (o.fCompareFilters == null || o.fCompareFilters.length == 0);
+	}
+
+	@Override
+	public int getRangeHashCode(int index) {
+		String line = extract(index, false);
+		if (!fIgnoreWhiteSpace)
+			return line.hashCode();
+		int hash = 0;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (!Character.isWhitespace(c))
+				hash = 31 * hash + c;
+		}
+		return hash;
+	}
+
+	@Override
+	public boolean isThreadSafe() {
+		// the document is only read and the filtered line cache is synchronized
+		return true;
+	}
+
 	//---- private methods
 
 	private String[] extract(int thisIndex, int otherIndex,
@@ -210,25 +243,21 @@ public class DocLineComparator implements ITokenComparator {
 		if (fCompareFilters != null && fCompareFilters.length > 0) {
 			if (fCompareFilterCache != null
 					&& other.fCompareFilterCache != null) {
-				extracts[0] = (String) fCompareFilterCache.get(Integer.valueOf(
-						thisIndex));
+				extracts[0] = getCachedLine(thisIndex);
 				if (extracts[0] == null) {
 					extracts[0] = Utilities.applyCompareFilters(
 							extract(thisIndex, includeSeparator), fContributor,
 							other.extract(otherIndex, includeSeparator), other.fContributor,
 							fCompareFilters);
-					fCompareFilterCache
-							.put(Integer.valueOf(thisIndex), extracts[0]);
+					cacheLine(thisIndex, extracts[0]);
 				}
 
-				extracts[1] = (String) other.fCompareFilterCache
-						.get(Integer.valueOf(otherIndex));
+				extracts[1] = other.getCachedLine(otherIndex);
 				if (extracts[1] == null) {
 					extracts[1] = Utilities.applyCompareFilters(
 							other.extract(otherIndex, includeSeparator), other.fContributor,
 							extract(thisIndex, includeSeparator), fContributor, fCompareFilters);
-					other.fCompareFilterCache.put(Integer.valueOf(otherIndex),
-							extracts[1]);
+					other.cacheLine(otherIndex, extracts[1]);
 				}
 			} else {
 				String thisLine = extract(thisIndex, includeSeparator);
@@ -247,6 +276,22 @@ public class DocLineComparator implements ITokenComparator {
 		return extracts;
 	}
 
+	/*
+	 * The filtered line cache may be used by concurrent comparisons, e.g. the
+	 * ancestor comparator of a parallel three-way compare.
+	 */
+	private String getCachedLine(int index) {
+		synchronized (fCompareFilterCache) {
+			return (String) fCompareFilterCache.get(Integer.valueOf(index));
+		}
+	}
+
+	private void cacheLine(int index, String line) {
+		synchronized (fCompareFilterCache) {
+			fCompareFilterCache.put(Integer.valueOf(index), line);
+		}
+	}
+
 	/**
 	 * Extract a single line from the underlying document.
 	 *
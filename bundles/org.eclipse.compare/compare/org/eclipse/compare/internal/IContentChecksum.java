@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.internal;
+
+/**
+ * Implemented by compare inputs that know the size and the CRC-32 checksum of
+ * their contents without reading them, such as the entries of an archive. The
+ * <code>Differencer</code> considers two such inputs equal if both their sizes
+ * and their checksums are equal, and different if either differs.
+ */
+public interface IContentChecksum {
+
+	/**
+	 * Returns the size of the contents in bytes.
+	 *
+	 * @return the size or -1 if it is not known
+	 */
+	long getContentSize();
+
+	/**
+	 * Returns the CRC-32 checksum of the contents.
+	 *
+	 * @return the checksum or -1 if it is not known
+	 */
+	long getContentChecksum();
+}
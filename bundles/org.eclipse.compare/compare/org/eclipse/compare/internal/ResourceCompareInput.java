@@ -64,6 +64,9 @@ class ResourceCompareInput extends CompareEditorInput {
 
 	private static final boolean NORMALIZE_CASE= true;
 
+	// The number of threads that compare folders, bounded since most of them wait for I/O
+	private static final int PARALLELISM= Math.min(16, 2 * Runtime.getRuntime().availableProcessors());
+
 	private boolean fThreeWay= false;
 	private Object fRoot;
 	private IStructureComparator fAncestor;
@@ -422,6 +425,7 @@ class ResourceCompareInput extends CompareEditorInput {
 					return new MyDiffNode((IDiffContainer) parent, description, (ITypedElement)ancestor, (ITypedElement)left, (ITypedElement)right);
 				}
 			};
+			d.setParallelism(PARALLELISM);
 
 			fRoot= d.findDifferences(fThreeWay, pm, null, fAncestor, fLeft, fRight);
 			return fRoot;
@@ -19,12 +19,13 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 
+import org.eclipse.compare.internal.core.IConcurrentRangeComparator;
 import org.eclipse.compare.rangedifferencer.IRangeComparator;
 
 /**
  * This implementation of IRangeComparator breaks an input stream into lines.
  */
-class LineComparator implements IRangeComparator {
+class LineComparator implements IRangeComparator, IConcurrentRangeComparator {
 
 	private String[] fLines;
 
@@ -61,4 +62,10 @@ class LineComparator implements IRangeComparator {
 	public boolean skipRangeComparison(int length, int maxLength, IRangeComparator other) {
 		return false;
 	}
+
+	@Override
+	public boolean isThreadSafe() {
+		// the lines are read once and never modified
+		return true;
+	}
 }
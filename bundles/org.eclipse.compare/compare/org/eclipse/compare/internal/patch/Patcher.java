@@ -28,7 +28,18 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.eclipse.compare.internal.core.CompareSettings;
 import org.eclipse.compare.internal.core.Messages;
 import org.eclipse.compare.internal.core.patch.DiffProject;
 import org.eclipse.compare.internal.core.patch.FileDiffResult;
@@ -53,6 +64,8 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SubMonitor;
@@ -87,6 +100,11 @@ public class Patcher implements IHunkFilter {
 	//	private static final int NORMAL= 2;
 	//	private static final int UNIFIED= 3;
 
+	/*
+	 * Patches with fewer files are evaluated by the calling thread
+	 */
+	private static final int PARALLEL_THRESHOLD = 16;
+
 	private FilePatch2[] fDiffs;
 	private IResource fTarget;
 	// patch options
@@ -616,18 +634,16 @@ public class Patcher implements IHunkFilter {
 			FilePatch2[] diffs= getDiffs();
 			if (diffs==null||diffs.length<=0)
 				return -1;
-			int fuzz= -1;
-			for (FilePatch2 d : diffs) {
-				IFile file= getTargetFile(d);
+			AtomicInteger fuzz= new AtomicInteger(-1);
+			evaluate(diffs, monitor, (result, m) -> {
+				IFile file= getTargetFile(result.getDiff());
 				if (file != null && file.exists()) {
 					List<String> lines= LineReader.load(file, false);
-					FileDiffResult result = getDiffResult(d);
-					int f = result.calculateFuzz(lines, monitor);
-					if (f > fuzz)
-						fuzz = f;
+					int f = result.calculateFuzz(lines, m);
+					fuzz.accumulateAndGet(f, Math::max);
 				}
-			}
-			return fuzz;
+			});
+			return fuzz.get();
 		} finally {
 			monitor.done();
 		}
@@ -639,9 +655,88 @@ public class Patcher implements IHunkFilter {
 	}
 
 	public void refresh(FilePatch2[] diffs) {
-		for (FilePatch2 diff : diffs) {
-			FileDiffResult result = getDiffResult(diff);
-			((WorkspaceFileDiffResult)result).refresh();
+		evaluate(diffs, null, (result, m) -> ((WorkspaceFileDiffResult)result).refresh());
+	}
+
+	/*
+	 * Runs the given evaluation on the results of the given diffs. The
+	 * evaluations of different files are independent, so large patches are
+	 * evaluated by several threads if enabled in the compare settings. The
+	 * evaluation of each result only modifies that result.
+	 */
+	private void evaluate(FilePatch2[] diffs, IProgressMonitor monitor,
+			BiConsumer<FileDiffResult, IProgressMonitor> evaluation) {
+		// create the results up front, the map isn't thread safe
+		FileDiffResult[] results = new FileDiffResult[diffs.length];
+		for (int i = 0; i < diffs.length; i++) {
+			results[i] = getDiffResult(diffs[i]);
+		}
+		int threads = Math.min(diffs.length, Runtime.getRuntime().availableProcessors());
+		if (threads <= 1 || diffs.length < PARALLEL_THRESHOLD || !CompareSettings.getDefault().isParallelDiffEnabled()) {
+			for (FileDiffResult result : results) {
+				evaluation.accept(result, monitor);
+			}
+			return;
+		}
+
+		// the workers don't report progress, they only see the cancellation
+		// which is forwarded by this thread
+		AtomicBoolean canceled = new AtomicBoolean();
+		IProgressMonitor workerMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return canceled.get();
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "Patch Evaluation"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			CompletionService<FileDiffResult> completionService = new ExecutorCompletionService<>(executor);
+			List<Future<FileDiffResult>> futures = new ArrayList<>(results.length);
+			for (FileDiffResult result : results) {
+				futures.add(completionService.submit(() -> {
+					if (canceled.get())
+						throw new OperationCanceledException();
+					evaluation.accept(result, workerMonitor);
+					return result;
+				}));
+			}
+			for (int completed = 0; completed < results.length;) {
+				if (monitor != null && monitor.isCanceled())
+					canceled.set(true);
+				try {
+					if (completionService.poll(100, TimeUnit.MILLISECONDS) != null) {
+						completed++;
+						if (monitor != null)
+							monitor.worked(1);
+					}
+				} catch (InterruptedException e) {
+					canceled.set(true);
+					Thread.currentThread().interrupt();
+					throw new OperationCanceledException();
+				}
+			}
+			// report failures in the order of the diffs
+			for (Future<FileDiffResult> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new IllegalStateException(cause);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new OperationCanceledException();
+				}
+			}
+		} finally {
+			executor.shutdownNow();
 		}
 	}
 
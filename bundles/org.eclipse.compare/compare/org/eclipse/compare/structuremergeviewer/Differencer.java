@@ -21,12 +21,23 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.compare.IStreamContentAccessor;
 import org.eclipse.compare.ITypedElement;
+import org.eclipse.compare.internal.IContentChecksum;
 import org.eclipse.compare.internal.MergeViewerContentProvider;
 import org.eclipse.compare.internal.Utilities;
+import org.eclipse.compare.internal.core.StreamComparator;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -57,6 +68,18 @@ import org.eclipse.core.runtime.OperationCanceledException;
  * In the two-way case only NO_CHANGE, ADDITION, DELETION, and CHANGE are used.
  * In the three-way case these constants are bitwise ORed with one of directional constants
  * LEFT, RIGHT, and CONFLICTING.
+ * <p>
+ * By default the engine traverses the inputs on the calling thread. With a parallelism
+ * greater than one (see {@link #setParallelism(int)}) sibling subtrees are traversed and
+ * leaf contents are compared on a bounded pool of threads. In that case
+ * <code>getChildren</code> and <code>contentsEqual</code> are called concurrently from
+ * the threads of the pool and must be thread-safe, although the calls for a given input
+ * object are never made concurrently. <code>updateProgress</code> and
+ * <code>visit</code> are always called on the thread that calls <code>findDifferences</code>;
+ * <code>visit</code> is called once the traversal is complete and in the same order as in
+ * a sequential traversal, so the resulting tree of differences does not depend on the
+ * parallelism.
+ * </p>
  */
 public class Differencer {
 	// The kind of differences.
@@ -110,6 +133,11 @@ public class Differencer {
 	 */
 	public static final int PSEUDO_CONFLICT= 16;
 
+	// Interval in milliseconds in which the progress of a parallel traversal is reported
+	private static final long PROGRESS_INTERVAL= 100;
+
+	// The number of threads that traverse the inputs, 1 for a sequential traversal
+	private int fParallelism= 1;
 
 	static class Node {
 		List<Node> fChildren;
@@ -201,6 +229,35 @@ public class Differencer {
 		// nothing to do
 	}
 
+	/**
+	 * Sets the number of threads that are used to traverse the inputs. With a
+	 * parallelism of one, which is the default, the inputs are traversed on the
+	 * calling thread. With a greater parallelism, sibling subtrees are traversed
+	 * and leaf contents are compared on a pool with the given number of threads.
+	 * This speeds up comparisons that wait for I/O, such as the comparison of
+	 * large directory trees, but requires that <code>getChildren</code> and
+	 * <code>contentsEqual</code> are thread-safe as described in the class
+	 * comment.
+	 *
+	 * @param parallelism the number of threads, at least one
+	 * @since 3.9
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isLegal(parallelism >= 1);
+		fParallelism= parallelism;
+	}
+
+	/**
+	 * Returns the number of threads that are used to traverse the inputs.
+	 *
+	 * @return the number of threads, 1 for a sequential traversal
+	 * @see #setParallelism(int)
+	 * @since 3.9
+	 */
+	public int getParallelism() {
+		return fParallelism;
+	}
+
 	/**
 	 * Starts the differencing engine on the three input objects. If threeWay is <code>true</code> a
 	 * three-way comparison is performed, otherwise a two-way compare (in the latter case the ancestor argument is ignored).
@@ -220,7 +277,11 @@ public class Differencer {
 	public Object findDifferences(boolean threeWay, IProgressMonitor pm, Object data, Object ancestor, Object left, Object right) {
 		Node root= new Node();
 
-		int code= traverse(threeWay, root, pm, threeWay ? ancestor : null, left, right);
+		int code;
+		if (fParallelism > 1 && !ForkJoinTask.inForkJoinPool())
+			code= traverseInParallel(threeWay, root, pm, threeWay ? ancestor : null, left, right);
+		else
+			code= traverse(threeWay, root, pm, threeWay ? ancestor : null, left, right);
 
 		if (code != NO_CHANGE) {
 			List<Node> l= root.fChildren;
@@ -237,9 +298,7 @@ public class Differencer {
 	 */
 	private int traverse(boolean threeWay, Node parent, IProgressMonitor pm,
 			Object ancestor, Object left, Object right) {
-		Object[] ancestorChildren= getChildren(ancestor);
-		Object[] rightChildren= getChildren(right);
-		Object[] leftChildren= getChildren(left);
+		Object[][] children= matchChildren(threeWay, ancestor, left, right);
 
 		int code= NO_CHANGE;
 
@@ -247,6 +306,44 @@ public class Differencer {
 
 		boolean content= true;	// we reset this if we have at least one child
 
+		if (children != null) {
+			for (Object[] child : children) {
+				if (pm != null) {
+					if (pm.isCanceled())
+						throw new OperationCanceledException();
+
+					updateProgress(pm, child[0]);
+				}
+
+				int c= traverse(threeWay, node, pm, child[1], child[2], child[3]);
+
+				if ((c & CHANGE_TYPE_MASK) != NO_CHANGE) {
+					code|= CHANGE;	// deletions and additions of child result in a change of the container
+					code|= (c & DIRECTION_MASK);	// incoming & outgoing are just ored
+					content= false;
+				}
+			}
+		}
+
+		if (content)			// a leaf
+			code= compare(threeWay, ancestor, left, right);
+
+		node.fCode= code;
+
+		return code;
+	}
+
+	/*
+	 * Matches the children of the given inputs. Returns an array with an entry
+	 * for every distinct child, which holds the child used for progress reporting
+	 * followed by the ancestor, left and right child, or null if the inputs have
+	 * no children to recurse into.
+	 */
+	private Object[][] matchChildren(boolean threeWay, Object ancestor, Object left, Object right) {
+		Object[] ancestorChildren= getChildren(ancestor);
+		Object[] rightChildren= getChildren(right);
+		Object[] leftChildren= getChildren(left);
+
 		if (((threeWay && ancestorChildren != null) || !threeWay)
 					 && rightChildren != null && leftChildren != null) {
 			// we only recurse down if no leg is null
@@ -281,34 +378,151 @@ public class Differencer {
 				}
 			}
 
+			Object[][] children= new Object[allSet.size()][];
+			int i= 0;
 			for (Object keyChild : allSet) {
-				if (pm != null) {
-					if (pm.isCanceled())
-						throw new OperationCanceledException();
-
-					updateProgress(pm, keyChild);
-				}
-
 				Object ancestorChild= ancestorSet != null ? ancestorSet.get(keyChild) : null;
 				Object leftChild= leftSet != null ? leftSet.get(keyChild) : null;
 				Object rightChild= rightSet != null ? rightSet.get(keyChild) : null;
+				children[i++]= new Object[] { keyChild, ancestorChild, leftChild, rightChild };
+			}
+			return children;
+		}
+		return null;
+	}
 
-				int c= traverse(threeWay, node, pm, ancestorChild, leftChild, rightChild);
+	/*
+	 * Traverses the tree on a pool of fParallelism threads. The calling thread
+	 * reports the progress of the pool and forwards cancellation to it.
+	 */
+	private int traverseInParallel(boolean threeWay, Node root, IProgressMonitor pm,
+			Object ancestor, Object left, Object right) {
+		ParallelTraversal traversal= new ParallelTraversal(threeWay, pm != null);
+		TraverseTask task= new TraverseTask(traversal, new Node(root, ancestor, left, right));
+		ForkJoinPool pool= new ForkJoinPool(fParallelism, p -> {
+			ForkJoinWorkerThread thread= ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+			thread.setName("Differencer " + thread.getPoolIndex()); //$NON-NLS-1$
+			return thread;
+		}, null, false);
+		try {
+			pool.execute(task);
+			while (true) {
+				try {
+					int code= task.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS).intValue();
+					traversal.reportProgress(pm);
+					return code;
+				} catch (TimeoutException e) {
+					traversal.reportProgress(pm);
+				}
+			}
+		} catch (InterruptedException e) {
+			traversal.fCanceled= true;
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause= e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
 
-				if ((c & CHANGE_TYPE_MASK) != NO_CHANGE) {
-					code|= CHANGE;	// deletions and additions of child result in a change of the container
-					code|= (c & DIRECTION_MASK);	// incoming & outgoing are just ored
-					content= false;
+	/*
+	 * The state of a parallel traversal that is shared by its tasks
+	 */
+	private final class ParallelTraversal {
+		private final boolean fThreeWay;
+		// the children whose traversal has started, reported by the calling thread
+		private final Queue<Object> fProgress;
+		volatile boolean fCanceled;
+
+		ParallelTraversal(boolean threeWay, boolean reportProgress) {
+			fThreeWay= threeWay;
+			fProgress= reportProgress ? new ConcurrentLinkedQueue<>() : null;
+		}
+
+		/*
+		 * Traverses the subtree of the given node, whose inputs are already set,
+		 * and forks a task for each child. The nodes of the children are added
+		 * in the order of a sequential traversal before the tasks are forked.
+		 */
+		int traverse(Node node) {
+			if (fCanceled)
+				throw new OperationCanceledException();
+
+			Object[][] children= matchChildren(fThreeWay, node.fAncestor, node.fLeft, node.fRight);
+
+			int code= NO_CHANGE;
+			boolean content= true;	// we reset this if we have at least one child
+
+			if (children != null && children.length > 0) {
+				TraverseTask[] tasks= new TraverseTask[children.length];
+				for (int i= 0; i < children.length; i++) {
+					Object[] child= children[i];
+					if (fProgress != null)
+						fProgress.add(child[0]);
+					tasks[i]= new TraverseTask(this, new Node(node, child[1], child[2], child[3]));
+				}
+				ForkJoinTask.invokeAll(tasks);
+				for (TraverseTask task : tasks) {
+					int c= task.join().intValue();
+					if ((c & CHANGE_TYPE_MASK) != NO_CHANGE) {
+						code|= CHANGE;	// deletions and additions of child result in a change of the container
+						code|= (c & DIRECTION_MASK);	// incoming & outgoing are just ored
+						content= false;
+					}
 				}
 			}
+
+			if (content)			// a leaf
+				code= compare(fThreeWay, node.fAncestor, node.fLeft, node.fRight);
+
+			node.fCode= code;
+
+			return code;
 		}
 
-		if (content)			// a leaf
-			code= compare(threeWay, ancestor, left, right);
+		/*
+		 * Called on the calling thread to report the children whose traversal
+		 * has started and to check for cancellation.
+		 */
+		void reportProgress(IProgressMonitor pm) {
+			if (pm == null)
+				return;
+			Object child;
+			while ((child= fProgress.poll()) != null) {
+				if (pm.isCanceled()) {
+					fCanceled= true;
+					throw new OperationCanceledException();
+				}
+				updateProgress(pm, child);
+			}
+			if (pm.isCanceled()) {
+				fCanceled= true;
+				throw new OperationCanceledException();
+			}
+		}
+	}
 
-		node.fCode= code;
+	private static final class TraverseTask extends RecursiveTask<Integer> {
+		private static final long serialVersionUID= 1L;
 
-		return code;
+		private final ParallelTraversal fTraversal;
+		private final Node fNode;
+
+		TraverseTask(ParallelTraversal traversal, Node node) {
+			fTraversal= traversal;
+			fNode= node;
+		}
+
+		@Override
+		protected Integer compute() {
+			return Integer.valueOf(fTraversal.traverse(fNode));
+		}
 	}
 
 	/**
@@ -444,8 +658,9 @@ public class Differencer {
 	 * <p>
 	 * The <code>Differencer</code> implementation
 	 * returns <code>true</code> if both inputs implement <code>IStreamContentAccessor</code>
-	 * and their byte contents is identical. Subclasses may override to implement
-	 * a different content compare on the given inputs.
+	 * and their byte contents is identical. The entries of zip archives are compared
+	 * by the size and the CRC-32 checksum recorded in the archives without reading them.
+	 * Subclasses may override to implement a different content compare on the given inputs.
 	 * </p>
 	 *
 	 * @param input1 first input to contents compare
@@ -457,6 +672,23 @@ public class Differencer {
 		if (input1 == input2)
 			return true;
 
+		if (input1 instanceof IContentChecksum && input2 instanceof IContentChecksum) {
+			IContentChecksum checksum1= (IContentChecksum) input1;
+			IContentChecksum checksum2= (IContentChecksum) input2;
+			long size1= checksum1.getContentSize();
+			long size2= checksum2.getContentSize();
+			if (!StreamComparator.mayBeEqual(size1, size2))
+				return false;
+			long crc1= checksum1.getContentChecksum();
+			long crc2= checksum2.getContentChecksum();
+			if (crc1 >= 0 && crc2 >= 0) {
+				if (crc1 != crc2)
+					return false;
+				if (size1 >= 0 && size2 >= 0)	// same size and checksum
+					return true;
+			}
+		}
+
 		InputStream is1= getStream(input1);
 		InputStream is2= getStream(input2);
 
@@ -467,15 +699,7 @@ public class Differencer {
 			if (is1 == null || is2 == null)	// only one has contents
 				return false;
 
-			while (true) {
-				int c1= is1.read();
-				int c2= is2.read();
-				if (c1 == -1 && c2 == -1)
-					return true;
-				if (c1 != c2)
-					break;
-
-			}
+			return StreamComparator.contentsEqual(is1, is2, false);
 		} catch (IOException ex) {
 			// NeedWork
 		} finally {
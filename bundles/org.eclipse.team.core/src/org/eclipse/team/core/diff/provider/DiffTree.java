@@ -42,6 +42,13 @@ import org.eclipse.team.internal.core.subscribers.DiffTreeStatistics;
 
 /**
  * Implementation of {@link IDiffTree}.
+ * <p>
+ * Modifications are made while holding the lock obtained by {@link #beginInput()}.
+ * When the outermost {@link #endInput(IProgressMonitor)} is reached, an immutable
+ * snapshot of the tree is published. Threads other than the one holding the lock
+ * read the last published snapshot without any locking, so they never block on
+ * writers and always see the tree as it was at the end of a batch of changes.
+ * </p>
  *
  * @since 3.2
  * @noextend This class is not intended to be subclassed by clients. Clients can
@@ -63,12 +70,33 @@ public class DiffTree implements IDiffTree {
 
 	private DiffTreeStatistics statistics = new DiffTreeStatistics();
 
+	// The state of the tree as of the last call to endInput
+	private volatile Snapshot snapshot = new Snapshot(new PathTree(), statistics);
+
+	// The number of unmatched calls to beginInput made by the current thread.
+	// Threads that are inside a batch read the tree that they are modifying.
+	// The depth is kept per thread because the lock can be transferred to
+	// another thread while its owner is inside a batch.
+	private final ThreadLocal<int[]> inputDepth = new ThreadLocal<>();
+
 	private DiffChangeEvent changes;
 
 	private  boolean lockedForModification;
 
 	private Map<Integer, Set<IPath>> propertyChanges = new HashMap<>();
 
+	/*
+	 * An immutable copy of the tree and its statistics
+	 */
+	private static class Snapshot {
+		final PathTree pathTree;
+		final DiffTreeStatistics statistics;
+		Snapshot(PathTree pathTree, DiffTreeStatistics statistics) {
+			this.pathTree = pathTree;
+			this.statistics = statistics;
+		}
+	}
+
 	/**
 	 * Create an empty diff tree.
 	 */
@@ -88,30 +116,55 @@ public class DiffTree implements IDiffTree {
 
 	@Override
 	public void accept(IPath path, IDiffVisitor visitor, int depth) {
-		IDiff delta = getDiff(path);
+		// Visit a single version of the tree
+		accept(getPathTree(), path, visitor, depth);
+	}
+
+	private void accept(PathTree tree, IPath path, IDiffVisitor visitor, int depth) {
+		IDiff delta = (IDiff) tree.get(path);
 		if (delta == null || visitor.visit(delta)) {
 			if (depth == IResource.DEPTH_ZERO)
 				return;
-			IPath[] children = getChildren(path);
+			IPath[] children = tree.getChildren(path);
 			for (IPath child : children) {
-				accept(child, visitor, depth == IResource.DEPTH_ONE ? IResource.DEPTH_ZERO : IResource.DEPTH_INFINITE);
+				accept(tree, child, visitor, depth == IResource.DEPTH_ONE ? IResource.DEPTH_ZERO : IResource.DEPTH_INFINITE);
 			}
 		}
 	}
 
 	@Override
 	public IDiff getDiff(IPath path) {
-		return (IDiff)pathTree.get(path);
+		return (IDiff)getPathTree().get(path);
 	}
 
 	@Override
 	public IPath[] getChildren(IPath path) {
-		return pathTree.getChildren(path);
+		return getPathTree().getChildren(path);
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return pathTree.isEmpty();
+		return getPathTree().isEmpty();
+	}
+
+	/*
+	 * Return the tree being modified if called by a thread inside a batch
+	 * of changes and the last published snapshot otherwise.
+	 */
+	private PathTree getPathTree() {
+		if (isWriting())
+			return pathTree;
+		return snapshot.pathTree;
+	}
+
+	private DiffTreeStatistics getStatistics() {
+		if (isWriting())
+			return statistics;
+		return snapshot.statistics;
+	}
+
+	private boolean isWriting() {
+		return inputDepth.get() != null;
 	}
 
 	/**
@@ -180,7 +233,7 @@ public class DiffTree implements IDiffTree {
 		try {
 			beginInput();
 			pathTree.clear();
-			statistics.clear();
+			getEditableStatistics().clear();
 			internalReset();
 		} finally {
 			endInput(null);
@@ -213,6 +266,12 @@ public class DiffTree implements IDiffTree {
 	 */
 	public void beginInput() {
 		lock.acquire();
+		int[] depth = inputDepth.get();
+		if (depth == null) {
+			depth = new int[1];
+			inputDepth.set(depth);
+		}
+		depth[0]++;
 	}
 
 	/**
@@ -225,15 +284,37 @@ public class DiffTree implements IDiffTree {
 	public void endInput(IProgressMonitor monitor) {
 		try {
 			if (lock.getDepth() == 1) {
+				publishSnapshot();
 				// Remain locked while firing the events so the handlers
 				// can expect the set to remain constant while they process the events
 				fireChanges(Policy.monitorFor(monitor));
 			}
 		} finally {
+			int[] depth = inputDepth.get();
+			if (depth != null && --depth[0] == 0)
+				inputDepth.remove();
 			lock.release();
 		}
 	}
 
+	private void publishSnapshot() {
+		DiffChangeEvent event = getChangeEvent();
+		if (event.isEmpty() && !event.isReset() && propertyChanges.isEmpty())
+			return;
+		// The statistics are copied by the next batch that changes them
+		snapshot = new Snapshot(pathTree.snapshot(), statistics);
+	}
+
+	/*
+	 * Return the statistics of the tree being modified, copying them first if
+	 * they have been published.
+	 */
+	private DiffTreeStatistics getEditableStatistics() {
+		if (statistics == snapshot.statistics)
+			statistics = new DiffTreeStatistics(statistics);
+		return statistics;
+	}
+
 	private void fireChanges(final IProgressMonitor monitor) {
 
 		final DiffChangeEvent event = getChangeEvent();
@@ -287,6 +368,7 @@ public class DiffTree implements IDiffTree {
 		Assert.isTrue(!lockedForModification);
 		IDiff oldDiff = (IDiff)pathTree.get(delta.getPath());
 		pathTree.put(delta.getPath(), delta);
+		DiffTreeStatistics statistics = getEditableStatistics();
 		if(oldDiff == null) {
 			statistics.add(delta);
 		} else {
@@ -303,7 +385,7 @@ public class DiffTree implements IDiffTree {
 
 	private void internalRemove(IDiff delta) {
 		Assert.isTrue(!lockedForModification);
-		statistics.remove(delta);
+		getEditableStatistics().remove(delta);
 		setPropertyToRoot(delta, P_HAS_DESCENDANT_CONFLICTS, false);
 		setPropertyToRoot(delta, P_BUSY_HINT, false);
 		pathTree.remove(delta.getPath());
@@ -329,7 +411,7 @@ public class DiffTree implements IDiffTree {
 	 * @return the paths in this tree that contain diffs.
 	 */
 	public IPath[] getPaths() {
-		return pathTree.getPaths();
+		return getPathTree().getPaths();
 	}
 
 	/**
@@ -337,19 +419,20 @@ public class DiffTree implements IDiffTree {
 	 * @return all the diffs contained in this diff tree
 	 */
 	public IDiff[] getDiffs() {
-		return pathTree.values().toArray(new IDiff[pathTree.size()]);
+		PathTree tree = getPathTree();
+		return tree.values().toArray(new IDiff[tree.size()]);
 	}
 
 	@Override
 	public long countFor(int state, int mask) {
 		if (state == 0)
 			return size();
-		return statistics.countFor(state, mask);
+		return getStatistics().countFor(state, mask);
 	}
 
 	@Override
 	public int size() {
-		return pathTree.size();
+		return getPathTree().size();
 	}
 
 	public void setPropertyToRoot(IDiff node, int property, boolean value) {
@@ -374,7 +457,7 @@ public class DiffTree implements IDiffTree {
 
 	@Override
 	public boolean getProperty(IPath path, int property) {
-		return pathTree.getProperty(path, property);
+		return getPathTree().getProperty(path, property);
 	}
 
 	@Override
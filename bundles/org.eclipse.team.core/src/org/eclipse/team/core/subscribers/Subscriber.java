@@ -38,6 +38,7 @@ import org.eclipse.team.internal.core.Messages;
 import org.eclipse.team.internal.core.Policy;
 import org.eclipse.team.internal.core.TeamPlugin;
 import org.eclipse.team.internal.core.mapping.SyncInfoToDiffConverter;
+import org.eclipse.team.internal.core.subscribers.ConcurrentSubscriberTraversal;
 
 /**
  * A Subscriber provides synchronization between local resources and a
@@ -265,10 +266,15 @@ abstract public class Subscriber {
 	public void collectOutOfSync(IResource[] resources, int depth, SyncInfoSet set, IProgressMonitor monitor) {
 		try {
 			monitor.beginTask(null, 100 * resources.length);
+			boolean concurrent = supportsConcurrentTraversal();
 			for (IResource resource : resources) {
 				IProgressMonitor subMonitor = Policy.subMonitorFor(monitor, 100);
 				subMonitor.beginTask(null, IProgressMonitor.UNKNOWN);
-				collect(resource, depth, set, subMonitor);
+				if (concurrent) {
+					new ConcurrentSubscriberTraversal(this, subMonitor).collectOutOfSync(resource, depth, set);
+				} else {
+					collect(resource, depth, set, subMonitor);
+				}
 				subMonitor.done();
 			}
 		} finally {
@@ -405,6 +411,38 @@ abstract public class Subscriber {
 		}
 	}
 
+	/**
+	 * Visit any out-of-sync resources covered by the given traversals. The
+	 * resources are visited as they are by
+	 * {@link #accept(ResourceTraversal[], IDiffVisitor)} but the traversal can
+	 * be canceled using the given progress monitor.
+	 * <p>
+	 * If the subscriber does not support concurrent traversals, this method
+	 * calls {@link #accept(ResourceTraversal[], IDiffVisitor)}, so subclasses
+	 * that override that method are still used and the monitor is only
+	 * checked for cancellation before the traversal starts. Otherwise
+	 * {@link #accept(IResource[], int, IDiffVisitor, IProgressMonitor)} is
+	 * called for each traversal.
+	 * </p>
+	 *
+	 * @param traversals the traversals to be visited
+	 * @param visitor the visitor
+	 * @param monitor a progress monitor or <code>null</code>
+	 * @throws CoreException if an error occurs
+	 * @see #supportsConcurrentTraversal()
+	 * @since 3.10
+	 */
+	public void accept(ResourceTraversal[] traversals, IDiffVisitor visitor, IProgressMonitor monitor) throws CoreException {
+		Policy.checkCanceled(monitor);
+		if (!supportsConcurrentTraversal()) {
+			accept(traversals, visitor);
+			return;
+		}
+		for (ResourceTraversal traversal : traversals) {
+			accept(traversal.getResources(), traversal.getDepth(), visitor, monitor);
+		}
+	}
+
 	/**
 	 * Visit any out-of-sync resources in the given resources visited to the
 	 * given depth. Resources are ignored in the following cases:
@@ -427,11 +465,72 @@ abstract public class Subscriber {
 	 * @since 3.2
 	 */
 	public void accept(IResource[] resources, int depth, IDiffVisitor visitor) throws CoreException {
+		if (supportsConcurrentTraversal()) {
+			accept(resources, depth, visitor, null);
+			return;
+		}
 		for (IResource resource : resources) {
 			accept(resource, depth, visitor);
 		}
 	}
 
+	/**
+	 * Visit any out-of-sync resources in the given resources visited to the
+	 * given depth. The resources are visited as they are by
+	 * {@link #accept(IResource[], int, IDiffVisitor)} but the traversal can be
+	 * canceled using the given progress monitor.
+	 * <p>
+	 * If the subscriber does not support concurrent traversals, this method
+	 * calls {@link #accept(IResource[], int, IDiffVisitor)}, so the monitor is
+	 * only checked for cancellation before the traversal starts.
+	 * </p>
+	 *
+	 * @param resources the root of the resource subtrees from which out-of-sync
+	 *            sync info should be visited
+	 * @param depth the depth to which sync info should be collected (one of
+	 *            <code>IResource.DEPTH_ZERO</code>,
+	 *            <code>IResource.DEPTH_ONE</code>, or
+	 *            <code>IResource.DEPTH_INFINITE</code>)
+	 * @param visitor the visitor
+	 * @param monitor a progress monitor or <code>null</code>
+	 * @throws CoreException if errors occur
+	 * @see #supportsConcurrentTraversal()
+	 * @since 3.10
+	 */
+	public void accept(IResource[] resources, int depth, IDiffVisitor visitor, IProgressMonitor monitor) throws CoreException {
+		Policy.checkCanceled(monitor);
+		if (!supportsConcurrentTraversal()) {
+			accept(resources, depth, visitor);
+			return;
+		}
+		for (IResource resource : resources) {
+			new ConcurrentSubscriberTraversal(this, monitor).accept(resource, depth, visitor);
+		}
+	}
+
+	/**
+	 * Return whether the resources of this subscriber may be traversed
+	 * concurrently. If this method returns <code>true</code>,
+	 * {@link #collectOutOfSync(IResource[], int, SyncInfoSet, IProgressMonitor)}
+	 * and {@link #accept(IResource[], int, IDiffVisitor)} compute the
+	 * synchronization state of sibling subtrees in parallel, which requires
+	 * {@link #members(IResource)}, {@link #getSyncInfo(IResource)} and
+	 * {@link #getDiff(IResource)} to be thread safe. The set and the visitor
+	 * are still only called from the calling thread and in the same order as
+	 * for a sequential traversal, so the results do not depend on the
+	 * scheduling of the traversal. The members of a diff are only traversed
+	 * once the visitor has visited it and decided to visit its children.
+	 * <p>
+	 * By default, <code>false</code> is returned. Subclasses may override.
+	 * </p>
+	 *
+	 * @return whether sibling subtrees may be traversed concurrently
+	 * @since 3.10
+	 */
+	protected boolean supportsConcurrentTraversal() {
+		return false;
+	}
+
 	private void accept(IResource resource, int depth, IDiffVisitor visitor) throws CoreException {
 		IDiff node = getDiff(resource);
 		if (node != null && node.getKind() != IDiff.NO_CHANGE) {
@@ -30,6 +30,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.team.core.TeamException;
+import org.eclipse.team.internal.core.ConcurrentRefresh;
 import org.eclipse.team.internal.core.Messages;
 import org.eclipse.team.internal.core.Policy;
 import org.eclipse.team.internal.core.TeamPlugin;
@@ -65,6 +66,19 @@ public abstract class AbstractResourceVariantTree implements IResourceVariantTre
 	public IResource[] refresh(IResource[] resources, int depth, IProgressMonitor monitor) throws TeamException {
 		List<IResource> changedResources = new ArrayList<>();
 		monitor.beginTask(null, 100 * resources.length);
+		int parallelism = getRefreshParallelism();
+		if (parallelism > 1 && resources.length > 1) {
+			try {
+				List<IResource[]> results = new ConcurrentRefresh<IResource[]>((resource, m) -> refresh(resource, depth, m), parallelism)
+						.refresh(resources, monitor, 100);
+				for (IResource[] changed : results) {
+					changedResources.addAll(Arrays.asList(changed));
+				}
+			} finally {
+				monitor.done();
+			}
+			return changedResources.toArray(new IResource[changedResources.size()]);
+		}
 		for (IResource resource : resources) {
 			IResource[] changed = refresh(resource, depth, Policy.subMonitorFor(monitor, 100));
 			changedResources.addAll(Arrays.asList(changed));
@@ -73,6 +87,28 @@ public abstract class AbstractResourceVariantTree implements IResourceVariantTre
 		return changedResources.toArray(new IResource[changedResources.size()]);
 	}
 
+	/**
+	 * Return the maximum number of resources that
+	 * {@link #refresh(IResource[], int, IProgressMonitor)} refreshes
+	 * concurrently. A value greater than one requires
+	 * {@link #refresh(IResource, int, IProgressMonitor)}, and therefore
+	 * <code>fetchVariant</code>, <code>collectChanges</code> and
+	 * <code>setVariant</code>, to be thread safe. If the refresh of a resource
+	 * fails, the refreshes that are still running are canceled and the
+	 * failure of the first resource is thrown.
+	 * <p>
+	 * The default implementation returns <code>1</code>, i.e. the resources
+	 * are refreshed one after the other. Subclasses whose refresh is dominated
+	 * by the latency of a server may override.
+	 * </p>
+	 *
+	 * @return the maximum number of resources refreshed concurrently
+	 * @since 3.10
+	 */
+	protected int getRefreshParallelism() {
+		return 1;
+	}
+
 	/**
 	 * Helper method invoked from <code>refresh(IResource[], int, IProgressMonitor monitor)</code>
 	 * for each resource. The default implementation performs the following steps:
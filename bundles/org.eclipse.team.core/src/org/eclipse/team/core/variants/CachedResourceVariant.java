@@ -56,7 +56,8 @@ import org.eclipse.team.internal.core.TeamPlugin;
  * an {@link org.eclipse.core.resources.IEncodedStorage}.
  * <p>
  * The cache in which the resource variants reside will occasionally clear
- * cached entries if they have not been accessed for a certain amount of time.
+ * cached entries if they have not been accessed for a certain amount of time
+ * or if the cache has grown beyond its maximum size.
  * </p>
  *
  * @since 3.0
@@ -176,7 +177,8 @@ public abstract class CachedResourceVariant extends PlatformObject implements IR
 			return false;
 		}
 		ResourceVariantCacheEntry entry = getCache().getCacheEntry(getCachePath());
-		return entry.getState() == ResourceVariantCacheEntry.READY;
+		// The entry may have been evicted since the handle check
+		return entry != null && entry.getState() == ResourceVariantCacheEntry.READY;
 	}
 
 	/**
@@ -190,7 +192,9 @@ public abstract class CachedResourceVariant extends PlatformObject implements IR
 	 */
 	protected InputStream getCachedContents() throws TeamException {
 		if (isContainer() || !isContentsCached()) return null;
-		return getCache().getCacheEntry(getCachePath()).getContents();
+		ResourceVariantCacheEntry entry = getCacheEntry();
+		if (entry == null) return null;
+		return entry.getContents();
 	}
 
 	/**
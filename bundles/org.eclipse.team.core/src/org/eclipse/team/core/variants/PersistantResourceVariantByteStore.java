@@ -13,8 +13,9 @@
  *******************************************************************************/
 package org.eclipse.team.core.variants;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IResource;
@@ -25,6 +26,7 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.QualifiedName;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.team.core.TeamException;
 
 /**
@@ -140,19 +142,81 @@ public class PersistantResourceVariantByteStore extends ResourceVariantByteStore
 		if(resource.getType() == IResource.FILE) {
 			return new IResource[0];
 		}
+		// Filter and return only resources that have sync bytes in the cache.
+		Set<IResource> members = getMemberBytes(resource).keySet();
+		return members.toArray(new IResource[members.size()]);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * <code>ISynchronizer</code> has no bulk read, so the bytes are still read
+	 * with one call per member of the container, including phantoms. Unlike
+	 * the default implementation, which reads the bytes of each member a
+	 * second time after <code>members(IResource)</code> has filtered them,
+	 * each member is only read once.
+	 * </p>
+	 * @since 3.10
+	 */
+	@Override
+	public Map<IResource, byte[]> getMemberBytes(IResource resource) throws TeamException {
+		Map<IResource, byte[]> result = new LinkedHashMap<>();
+		if (resource.getType() == IResource.FILE) {
+			return result;
+		}
 		try {
-			// Filter and return only resources that have sync bytes in the cache.
 			IResource[] members = ((IContainer)resource).members(true /* include phantoms */);
-			List<IResource> filteredMembers = new ArrayList<>(members.length);
+			ISynchronizer synchronizer = getSynchronizer();
 			for (IResource member : members) {
-				if(getBytes(member) != null) {
-					filteredMembers.add(member);
+				byte[] bytes = synchronizer.getSyncInfo(getSyncName(), member);
+				if (bytes != null && !equals(bytes, NO_REMOTE)) {
+					result.put(member, bytes);
 				}
 			}
-			return filteredMembers.toArray(new IResource[filteredMembers.size()]);
+			return result;
+		} catch (CoreException e) {
+			throw TeamException.asTeamException(e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the caller does not hold a scheduling rule, the modifications are
+	 * performed in a single workspace operation so that only one resource
+	 * change event is issued for them.
+	 * </p>
+	 * @since 3.10
+	 */
+	@Override
+	public IResource[] setBytes(Map<IResource, byte[]> bytes) throws TeamException {
+		if (bytes.size() <= 1 || Job.getJobManager().currentRule() != null) {
+			return super.setBytes(bytes);
+		}
+		IResource[][] changed = new IResource[1][];
+		try {
+			ResourcesPlugin.getWorkspace().run(monitor -> changed[0] = super.setBytes(bytes), getCommonAncestor(bytes.keySet()), 0, null);
 		} catch (CoreException e) {
 			throw TeamException.asTeamException(e);
 		}
+		return changed[0];
+	}
+
+	/*
+	 * Return the deepest resource that contains all the given resources
+	 */
+	private IResource getCommonAncestor(Set<IResource> resources) {
+		IResource ancestor = null;
+		for (IResource resource : resources) {
+			if (ancestor == null) {
+				ancestor = resource;
+			} else {
+				while (!ancestor.getFullPath().isPrefixOf(resource.getFullPath())) {
+					ancestor = ancestor.getParent();
+				}
+			}
+		}
+		return ancestor;
 	}
 
 	private ISynchronizer getSynchronizer() {
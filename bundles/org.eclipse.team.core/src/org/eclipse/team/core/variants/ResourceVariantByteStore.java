@@ -13,6 +13,11 @@
  *******************************************************************************/
 package org.eclipse.team.core.variants;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.runtime.CoreException;
@@ -103,6 +108,64 @@ public abstract class ResourceVariantByteStore {
 	 */
 	public abstract IResource[] members(IResource resource) throws TeamException;
 
+	/**
+	 * Return the bytes of the children of the given resource that have
+	 * resource variants in this store. The keys of the returned map are the
+	 * resources returned by <code>members(IResource)</code> and the values
+	 * are the bytes returned by <code>getBytes(IResource)</code>. Children
+	 * whose bytes are <code>null</code> are not included.
+	 * <p>
+	 * The default implementation calls <code>getBytes(IResource)</code> for
+	 * each member. Subclasses may override to obtain the bytes of all children
+	 * at once.
+	 * </p>
+	 *
+	 * @param resource the parent resource
+	 * @return the bytes of the children of the resource, keyed by child
+	 * @throws TeamException if an error occurs
+	 * @since 3.10
+	 */
+	public Map<IResource, byte[]> getMemberBytes(IResource resource) throws TeamException {
+		IResource[] members = members(resource);
+		Map<IResource, byte[]> result = new HashMap<>(members.length * 4 / 3 + 1);
+		for (IResource member : members) {
+			byte[] bytes = getBytes(member);
+			if (bytes != null) {
+				result.put(member, bytes);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Set the bytes of several resources at once. A <code>null</code> value
+	 * indicates that it is known that there is no variant for the resource,
+	 * in which case <code>deleteBytes(IResource)</code> is applied to it.
+	 * Clients that modify many resources should call this method from within
+	 * <code>run(IResource, IWorkspaceRunnable, IProgressMonitor)</code>.
+	 * <p>
+	 * The default implementation calls <code>setBytes(IResource, byte[])</code>
+	 * or <code>deleteBytes(IResource)</code> for each resource. Subclasses may
+	 * override.
+	 * </p>
+	 *
+	 * @param bytes the bytes to set, keyed by local resource
+	 * @return the resources whose bytes changed
+	 * @throws TeamException if an error occurs
+	 * @since 3.10
+	 */
+	public IResource[] setBytes(Map<IResource, byte[]> bytes) throws TeamException {
+		List<IResource> changed = new ArrayList<>();
+		for (Map.Entry<IResource, byte[]> entry : bytes.entrySet()) {
+			IResource resource = entry.getKey();
+			byte[] newBytes = entry.getValue();
+			if (newBytes == null ? deleteBytes(resource) : setBytes(resource, newBytes)) {
+				changed.add(resource);
+			}
+		}
+		return changed.toArray(new IResource[changed.size()]);
+	}
+
 	/**
 	 * Helper method to compare two byte arrays for equality
 	 * @param syncBytes1 the first byte array or <code>null</code>
@@ -13,6 +13,10 @@
  *******************************************************************************/
 package org.eclipse.team.core.variants;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.team.core.TeamException;
@@ -30,6 +34,13 @@ public abstract class ResourceVariantTree extends AbstractResourceVariantTree {
 
 	private ResourceVariantByteStore store;
 
+	/*
+	 * The bytes of the members read by the collection running in the current
+	 * thread that have not been set yet, or null if no collection is running.
+	 * They allow setVariant to skip the store for unchanged variants.
+	 */
+	private final ThreadLocal<Map<IResource, byte[]>> collectedBytes = new ThreadLocal<>();
+
 	/**
 	 * Create a resource variant tree that uses the provided byte store to
 	 * cache the resource variant bytes.
@@ -41,7 +52,14 @@ public abstract class ResourceVariantTree extends AbstractResourceVariantTree {
 
 	@Override
 	public IResource[] members(IResource resource) throws TeamException {
-		return getByteStore().members(resource);
+		Map<IResource, byte[]> collected = collectedBytes.get();
+		if (collected == null) {
+			return getByteStore().members(resource);
+		}
+		// Read the bytes of all members at once for the upcoming calls to setVariant
+		Map<IResource, byte[]> memberBytes = getByteStore().getMemberBytes(resource);
+		collected.putAll(memberBytes);
+		return memberBytes.keySet().toArray(new IResource[memberBytes.size()]);
 	}
 
 	@Override
@@ -58,6 +76,14 @@ public abstract class ResourceVariantTree extends AbstractResourceVariantTree {
 	protected boolean setVariant(IResource local, IResourceVariant remote) throws TeamException {
 		ResourceVariantByteStore cache = getByteStore();
 		byte[] newRemoteBytes = getBytes(local, remote);
+		Map<IResource, byte[]> collected = collectedBytes.get();
+		if (collected != null) {
+			byte[] oldRemoteBytes = collected.remove(local);
+			if (oldRemoteBytes != null && newRemoteBytes != null && Arrays.equals(oldRemoteBytes, newRemoteBytes)) {
+				// The variant is unchanged so there is no need to access the store
+				return false;
+			}
+		}
 		boolean changed;
 		if (newRemoteBytes == null) {
 			changed = cache.deleteBytes(local);
@@ -98,7 +124,17 @@ public abstract class ResourceVariantTree extends AbstractResourceVariantTree {
 			final IResourceVariant remote, final int depth, IProgressMonitor monitor)
 			throws TeamException {
 		final IResource[][] resources = new IResource[][] { null };
-		getByteStore().run(local, monitor1 -> resources[0] = ResourceVariantTree.super.collectChanges(local, remote, depth, monitor1), monitor);
+		Map<IResource, byte[]> previous = collectedBytes.get();
+		collectedBytes.set(new HashMap<>());
+		try {
+			getByteStore().run(local, monitor1 -> resources[0] = ResourceVariantTree.super.collectChanges(local, remote, depth, monitor1), monitor);
+		} finally {
+			if (previous == null) {
+				collectedBytes.remove();
+			} else {
+				collectedBytes.set(previous);
+			}
+		}
 		return resources[0];
 	}
 }
@@ -15,8 +15,10 @@ package org.eclipse.team.core.variants;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -35,6 +37,7 @@ import org.eclipse.team.core.TeamStatus;
 import org.eclipse.team.core.subscribers.Subscriber;
 import org.eclipse.team.core.subscribers.SubscriberChangeEvent;
 import org.eclipse.team.core.synchronize.SyncInfo;
+import org.eclipse.team.internal.core.ConcurrentRefresh;
 import org.eclipse.team.internal.core.Messages;
 import org.eclipse.team.internal.core.Policy;
 import org.eclipse.team.internal.core.TeamPlugin;
@@ -115,23 +118,47 @@ public abstract class ResourceVariantTreeSubscriber extends Subscriber {
 	@Override
 	public void refresh(IResource[] resources, int depth, IProgressMonitor monitor) throws TeamException {
 		monitor = Policy.monitorFor(monitor);
-		List<IStatus> errors = new ArrayList<>();
-		List<IStatus> cancels = new ArrayList<>();
+		List<IStatus> statuses = new ArrayList<>();
 		try {
 			monitor.beginTask(null, 1000 * resources.length);
-			for (IResource resource : resources) {
-				if (resource.getProject().isAccessible()) {
-					IStatus status = refresh(resource, depth, Policy.subMonitorFor(monitor, 1000));
-					if (status.getSeverity() == IStatus.CANCEL) {
-						cancels.add(status);
-					} else if (!status.isOK()) {
-						errors.add(status);
+			int parallelism = getRefreshParallelism();
+			if (parallelism > 1 && resources.length > 1) {
+				List<IResource> accessible = new ArrayList<>();
+				for (IResource resource : resources) {
+					if (resource.getProject().isAccessible()) {
+						accessible.add(resource);
+					}
+				}
+				// The changes are collected so that the listeners are only notified by the calling thread
+				Set<IResource> changes = Collections.synchronizedSet(new LinkedHashSet<>());
+				try {
+					statuses.addAll(new ConcurrentRefresh<IStatus>((resource, m) -> refresh(resource, depth, changes, m), parallelism)
+							.refresh(accessible.toArray(new IResource[accessible.size()]), monitor, 1000));
+				} finally {
+					IResource[] changedResources = changes.toArray(new IResource[0]);
+					if (changedResources.length > 0) {
+						fireTeamResourceChange(SubscriberChangeEvent.asSyncChangedDeltas(this, changedResources));
+					}
+				}
+			} else {
+				for (IResource resource : resources) {
+					if (resource.getProject().isAccessible()) {
+						statuses.add(refresh(resource, depth, null, Policy.subMonitorFor(monitor, 1000)));
 					}
 				}
 			}
 		} finally {
 			monitor.done();
 		}
+		List<IStatus> errors = new ArrayList<>();
+		List<IStatus> cancels = new ArrayList<>();
+		for (IStatus status : statuses) {
+			if (status.getSeverity() == IStatus.CANCEL) {
+				cancels.add(status);
+			} else if (!status.isOK()) {
+				errors.add(status);
+			}
+		}
 		if (!errors.isEmpty()) {
 			int numSuccess = resources.length - errors.size() - cancels.size();
 			if (!cancels.isEmpty()) {
@@ -162,6 +189,29 @@ public abstract class ResourceVariantTreeSubscriber extends Subscriber {
 		}
 	}
 
+	/**
+	 * Return the maximum number of resources that
+	 * {@link #refresh(IResource[], int, IProgressMonitor)} refreshes
+	 * concurrently. Each resource is refreshed by refreshing the base and
+	 * remote trees for that resource, so a value greater than one requires the
+	 * refresh of the trees to be thread safe. Errors and cancellations are
+	 * reported in the same way as for a sequential refresh. The subscriber
+	 * listeners are still notified by the thread that calls <code>refresh</code>,
+	 * but only once, with the changes of all resources, after the refreshes
+	 * have ended.
+	 * <p>
+	 * The default implementation returns <code>1</code>, i.e. the resources
+	 * are refreshed one after the other. Subclasses whose refresh is dominated
+	 * by the latency of a server may override.
+	 * </p>
+	 *
+	 * @return the maximum number of resources refreshed concurrently
+	 * @since 3.10
+	 */
+	protected int getRefreshParallelism() {
+		return 1;
+	}
+
 	/**
 	 * Return the base resource variant tree.
 	 */
@@ -172,7 +222,11 @@ public abstract class ResourceVariantTreeSubscriber extends Subscriber {
 	 */
 	protected abstract IResourceVariantTree getRemoteTree();
 
-	private IStatus refresh(IResource resource, int depth, IProgressMonitor monitor) {
+	/*
+	 * Refresh the trees for the resource. The changed resources are added to
+	 * the given set or, if it is null, reported to the listeners.
+	 */
+	private IStatus refresh(IResource resource, int depth, Set<IResource> changes, IProgressMonitor monitor) {
 		monitor = Policy.monitorFor(monitor);
 		try {
 			monitor.beginTask(null, 100);
@@ -183,8 +237,12 @@ public abstract class ResourceVariantTreeSubscriber extends Subscriber {
 			}
 			IResource[] remoteChanges = getRemoteTree().refresh(new IResource[] {resource}, depth, Policy.subMonitorFor(monitor, 75));
 			allChanges.addAll(Arrays.asList(remoteChanges));
-			IResource[] changedResources = allChanges.toArray(new IResource[allChanges.size()]);
-			fireTeamResourceChange(SubscriberChangeEvent.asSyncChangedDeltas(this, changedResources));
+			if (changes != null) {
+				changes.addAll(allChanges);
+			} else {
+				IResource[] changedResources = allChanges.toArray(new IResource[allChanges.size()]);
+				fireTeamResourceChange(SubscriberChangeEvent.asSyncChangedDeltas(this, changedResources));
+			}
 			return Status.OK_STATUS;
 		} catch (TeamException e) {
 			return new TeamStatus(IStatus.ERROR, TeamPlugin.ID, 0, NLS.bind(Messages.ResourceVariantTreeSubscriber_2, new String[] { resource.getFullPath().toString(), e.getMessage() }), e, resource);
@@ -14,14 +14,14 @@
 package org.eclipse.team.core.variants;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.team.core.TeamException;
+import org.eclipse.team.internal.core.subscribers.ResourceByteTable;
 
 /**
  * A <code>ResourceVariantByteStore</code> that caches the variant bytes in
@@ -33,9 +33,13 @@ import org.eclipse.team.core.TeamException;
 public class SessionResourceVariantByteStore extends ResourceVariantByteStore {
 
 	private static final byte[] NO_REMOTE = new byte[0];
-	private Map<IResource, List<IResource>> membersCache = new HashMap<>();
 
-	private Map<IResource, byte[]> syncBytesCache = new HashMap<>();
+	/*
+	 * The bytes and the members of the resources. The table packs the bytes of
+	 * all resources into shared storage, which matters for the remote trees of
+	 * large repositories that are kept in memory for the whole session.
+	 */
+	private ResourceByteTable syncBytesCache = new ResourceByteTable();
 
 	@Override
 	public boolean deleteBytes(IResource resource) throws TeamException {
@@ -45,28 +49,16 @@ public class SessionResourceVariantByteStore extends ResourceVariantByteStore {
 	@Override
 	public void dispose() {
 		syncBytesCache.clear();
-		membersCache.clear();
 	}
 
 	@Override
 	public boolean flushBytes(IResource resource, int depth) throws TeamException {
-		if (getSyncBytesCache().containsKey(resource)) {
-			if (depth != IResource.DEPTH_ZERO) {
-				IResource[] members = members(resource);
-				for (IResource child : members) {
-					flushBytes(child, (depth == IResource.DEPTH_INFINITE) ? IResource.DEPTH_INFINITE: IResource.DEPTH_ZERO);
-				}
-			}
-			getSyncBytesCache().remove(resource);
-			internalRemoveFromParent(resource);
-			return true;
-		}
-		return false;
+		return syncBytesCache.remove(resource, depth);
 	}
 
 	@Override
 	public byte[] getBytes(IResource resource) throws TeamException {
-		byte[] syncBytes = internalGetSyncBytes(resource);
+		byte[] syncBytes = syncBytesCache.get(resource);
 		if (syncBytes != null && equals(syncBytes, NO_REMOTE)) {
 			// If it is known that there is no remote, return null
 			return null;
@@ -84,54 +76,51 @@ public class SessionResourceVariantByteStore extends ResourceVariantByteStore {
 
 	@Override
 	public IResource[] members(IResource resource) {
-		List<IResource> members = membersCache.get(resource);
-		if (members == null) {
-			return new IResource[0];
-		}
-		return members.toArray(new IResource[members.size()]);
+		return syncBytesCache.members(resource);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The bytes are read directly from the members cache.
+	 * </p>
+	 * @since 3.10
+	 */
 	@Override
-	public boolean setBytes(IResource resource, byte[] bytes) throws TeamException {
-		Assert.isNotNull(bytes);
-		byte[] oldBytes = internalGetSyncBytes(resource);
-		if (oldBytes != null && equals(oldBytes, bytes)) return false;
-		internalSetSyncInfo(resource, bytes);
-		return true;
-	}
-
-	private Map<IResource, byte[]> getSyncBytesCache() {
-		return syncBytesCache;
-	}
-
-	private void internalAddToParent(IResource resource) {
-		IContainer parent = resource.getParent();
-		if (parent == null) return;
-		List<IResource> members = membersCache.get(parent);
-		if (members == null) {
-			members = new ArrayList<>();
-			membersCache.put(parent, members);
+	public Map<IResource, byte[]> getMemberBytes(IResource resource) {
+		Map<IResource, byte[]> result = syncBytesCache.memberBytes(resource);
+		for (Iterator<byte[]> iter = result.values().iterator(); iter.hasNext();) {
+			if (equals(iter.next(), NO_REMOTE)) {
+				iter.remove();
+			}
 		}
-		members.add(resource);
+		return result;
 	}
 
-	private byte[] internalGetSyncBytes(IResource resource) {
-		return getSyncBytesCache().get(resource);
-	}
-
-	private void internalRemoveFromParent(IResource resource) {
-		IContainer parent = resource.getParent();
-		List members = membersCache.get(parent);
-		if (members != null) {
-			members.remove(resource);
-			if (members.isEmpty()) {
-				membersCache.remove(parent);
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Bytes are only stored for resources whose bytes changed, and resources
+	 * with no variant are removed from the store.
+	 * </p>
+	 * @since 3.10
+	 */
+	@Override
+	public IResource[] setBytes(Map<IResource, byte[]> bytes) {
+		List<IResource> changed = new ArrayList<>();
+		for (Map.Entry<IResource, byte[]> entry : bytes.entrySet()) {
+			IResource resource = entry.getKey();
+			byte[] newBytes = entry.getValue();
+			if (newBytes == null ? syncBytesCache.remove(resource, IResource.DEPTH_ZERO) : syncBytesCache.put(resource, newBytes)) {
+				changed.add(resource);
 			}
 		}
+		return changed.toArray(new IResource[changed.size()]);
 	}
 
-	private void internalSetSyncInfo(IResource resource, byte[] bytes) {
-		getSyncBytesCache().put(resource, bytes);
-		internalAddToParent(resource);
+	@Override
+	public boolean setBytes(IResource resource, byte[] bytes) throws TeamException {
+		Assert.isNotNull(bytes);
+		return syncBytesCache.put(resource, bytes);
 	}
 }
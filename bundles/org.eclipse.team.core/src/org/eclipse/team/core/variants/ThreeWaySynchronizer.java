@@ -36,7 +36,7 @@ import org.eclipse.team.core.TeamException;
 import org.eclipse.team.internal.core.Policy;
 import org.eclipse.team.internal.core.subscribers.BatchingLock;
 import org.eclipse.team.internal.core.subscribers.BatchingLock.IFlushOperation;
-import org.eclipse.team.internal.core.subscribers.SyncByteConverter;
+import org.eclipse.team.internal.core.subscribers.ThreeWaySyncBytes;
 
 /**
  * This class manages the synchronization between local resources and their
@@ -133,11 +133,9 @@ public class ThreeWaySynchronizer {
 	public byte[] getBaseBytes(IResource resource) throws TeamException {
 		try {
 			beginOperation();
-			byte[] syncBytes = internalGetSyncBytes(resource);
+			ThreeWaySyncBytes syncBytes = internalGetSyncInfo(resource);
 			if (syncBytes == null) return null;
-			byte[] baseBytes = getSlot(syncBytes, 1);
-			if (baseBytes == null || baseBytes.length == 0) return null;
-			return baseBytes;
+			return syncBytes.getBase();
 		} finally {
 			endOperation();
 		}
@@ -163,13 +161,7 @@ public class ThreeWaySynchronizer {
 			rule = beginBatching(resource, null);
 			try {
 				beginOperation();
-				String base = new String(baseBytes);
-				String[] slots = new String[] {
-						Long.valueOf(resource.getModificationStamp()).toString(),
-						base,
-						base
-				};
-				byte[] syncBytes = toBytes(slots);
+				byte[] syncBytes = ThreeWaySyncBytes.toBytes(resource.getModificationStamp(), baseBytes, baseBytes);
 				internalSetSyncBytes(resource, syncBytes);
 				batchingLock.resourceChanged(resource);
 			} finally {
@@ -191,9 +183,19 @@ public class ThreeWaySynchronizer {
 	 * @throws TeamException if an error occurs
 	 */
 	public boolean isLocallyModified(IResource resource) throws TeamException {
-		return ((internalGetSyncBytes(resource) == null && ! isIgnored(resource)) ||
-				(getLocalTimestamp(resource) != resource.getModificationStamp()) ||
-				(getBaseBytes(resource) != null && !resource.exists()));
+		byte[] bytes;
+		try {
+			beginOperation();
+			bytes = cache.getBytes(resource);
+		} finally {
+			endOperation();
+		}
+		if (bytes == null) return true;
+		// Ignored resources have neither a timestamp nor base bytes
+		ThreeWaySyncBytes syncBytes = equals(bytes, IGNORED_BYTES) ? null : ThreeWaySyncBytes.parse(bytes);
+		long timestamp = syncBytes == null ? ThreeWaySyncBytes.NO_TIMESTAMP : syncBytes.getTimestamp();
+		return (timestamp != resource.getModificationStamp()) ||
+				(syncBytes != null && syncBytes.hasBase() && !resource.exists());
 	}
 
 	/**
@@ -209,11 +211,9 @@ public class ThreeWaySynchronizer {
 	public byte[] getRemoteBytes(IResource resource) throws TeamException {
 		try {
 			beginOperation();
-			byte[] syncBytes = internalGetSyncBytes(resource);
+			ThreeWaySyncBytes syncBytes = internalGetSyncInfo(resource);
 			if (syncBytes == null) return null;
-			byte[] remoteBytes = getSlot(syncBytes, 2);
-			if (remoteBytes == null || remoteBytes.length == 0) return null;
-			return remoteBytes;
+			return syncBytes.getRemote();
 		} finally {
 			endOperation();
 		}
@@ -239,18 +239,13 @@ public class ThreeWaySynchronizer {
 			rule = beginBatching(resource, null);
 			try {
 				beginOperation();
-				byte[] syncBytes = internalGetSyncBytes(resource);
-				if (syncBytes == null) {
-					String[] slots = new String[] {
-							"", //$NON-NLS-1$
-							"", //$NON-NLS-1$
-							new String(remoteBytes)
-					};
-					syncBytes = toBytes(slots);
+				ThreeWaySyncBytes current = internalGetSyncInfo(resource);
+				byte[] syncBytes;
+				if (current == null) {
+					syncBytes = ThreeWaySyncBytes.toBytes(ThreeWaySyncBytes.NO_TIMESTAMP, new byte[0], remoteBytes);
 				} else {
-					byte[] currentRemote = getSlot(syncBytes, 2);
-					if (equals(remoteBytes, currentRemote)) return false;
-					syncBytes = setSlot(syncBytes, 2, remoteBytes);
+					if (current.isRemote(remoteBytes)) return false;
+					syncBytes = current.setRemote(remoteBytes);
 				}
 				internalSetSyncBytes(resource, syncBytes);
 				batchingLock.resourceChanged(resource);
@@ -276,12 +271,10 @@ public class ThreeWaySynchronizer {
 			rule = beginBatching(resource, null);
 			try {
 				beginOperation();
-				byte[] syncBytes = internalGetSyncBytes(resource);
-				if (syncBytes != null) {
-					String currentRemote = new String(getSlot(syncBytes, 2));
-					if (currentRemote.length() == 0) return false;
-					syncBytes = setSlot(syncBytes, 2, new byte[0]);
-					internalSetSyncBytes(resource, syncBytes);
+				ThreeWaySyncBytes current = internalGetSyncInfo(resource);
+				if (current != null) {
+					if (!current.hasRemote()) return false;
+					internalSetSyncBytes(resource, current.setRemote(new byte[0]));
 					batchingLock.resourceChanged(resource);
 					return true;
 				}
@@ -438,6 +431,17 @@ public class ThreeWaySynchronizer {
 		return bytes;
 	}
 
+	/*
+	 * Return a view of the cached sync bytes for the given resource.
+	 * The value <code>null</code> is returned if there is no
+	 * cached bytes or if the resource is ignored.
+	 */
+	private ThreeWaySyncBytes internalGetSyncInfo(IResource resource) throws TeamException {
+		byte[] bytes = internalGetSyncBytes(resource);
+		if (bytes == null) return null;
+		return ThreeWaySyncBytes.parse(bytes);
+	}
+
 	/*
 	 * Set the cached sync bytes
 	 */
@@ -445,31 +449,6 @@ public class ThreeWaySynchronizer {
 		return cache.setBytes(resource, syncBytes);
 	}
 
-	private byte[] getSlot(byte[] syncBytes, int i) {
-		return SyncByteConverter.getSlot(syncBytes, i, false);
-	}
-
-	private byte[] setSlot(byte[] syncBytes, int i, byte[] insertBytes) throws TeamException {
-		return SyncByteConverter.setSlot(syncBytes, i, insertBytes);
-	}
-
-	private byte[] toBytes(String[] slots) {
-		return SyncByteConverter.toBytes(slots);
-	}
-
-	private long getLocalTimestamp(IResource resource) throws TeamException {
-		try {
-			beginOperation();
-			byte[] syncBytes = internalGetSyncBytes(resource);
-			if (syncBytes == null) return -1;
-			byte[] bytes = getSlot(syncBytes, 0);
-			if (bytes == null || bytes.length == 0) return -1;
-			return Long.parseLong(new String(bytes));
-		} finally {
-			endOperation();
-		}
-	}
-
 	private boolean equals(byte[] syncBytes, byte[] oldBytes) {
 		if (syncBytes.length != oldBytes.length) return false;
 		for (int i = 0; i < oldBytes.length; i++) {
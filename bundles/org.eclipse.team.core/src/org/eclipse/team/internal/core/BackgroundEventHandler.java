@@ -13,8 +13,10 @@
  *******************************************************************************/
 package org.eclipse.team.internal.core;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRunnable;
@@ -54,6 +56,12 @@ import org.eclipse.team.core.TeamException;
  * <li>Errors that occur during event processing or dispatch can be accumulated by calling the <code>handle</code>
  * method. Accumulated errors are used to form the status that is returned when the job completes.<li>
  * </ol>
+ * <p>
+ * Resource events for which <code>isCoalescable</code> returns <code>true</code> are merged
+ * into an equivalent event that is still waiting in the queue. An event is only merged
+ * if every event queued after the waiting one is a coalescable event of the same type,
+ * so merging never changes the order in which events of different types are processed.
+ * </p>
  *
  * @since 3.0
  */
@@ -65,7 +73,13 @@ public abstract class BackgroundEventHandler {
 	public static final int RUNNABLE_EVENT = 1000;
 
 	// Events that need to be processed
-	private List<Event> awaitingProcessing = new ArrayList<>();
+	private Deque<Event> awaitingProcessing = new ArrayDeque<>();
+
+	// The coalescable events on the queue that new events can be merged into
+	private Map<IResource, ResourceEvent> coalescingEvents = new HashMap<>();
+
+	// The type of the events in coalescingEvents
+	private int coalescingType;
 
 	// The job that runs when events need to be processed
 	private Job eventHandlerJob;
@@ -91,6 +105,19 @@ public abstract class BackgroundEventHandler {
 	// the number of dispatches that can occur before using the long delay
 	private static final int DISPATCH_THRESHOLD = 3;
 
+	private volatile long shortDispatchDelay = DISPATCH_DELAY;
+	private volatile long longDispatchDelay = LONG_DISPATCH_DELAY;
+	private volatile int dispatchThreshold = DISPATCH_THRESHOLD;
+
+	// queue time of the oldest event processed since the last dispatch
+	private long oldestUndispatchedEvent;
+
+	// metrics
+	private int maximumQueueDepth;
+	private long coalescedEventCount;
+	private long lastDispatchLatency;
+	private long maximumDispatchLatency;
+
 	// time to wait for messages to be queued
 	private static final long WAIT_DELAY = 100;
 
@@ -101,6 +128,8 @@ public abstract class BackgroundEventHandler {
 	 */
 	public static class Event {
 		private int type;
+		// time at which the event was queued
+		long queueTime;
 		public Event(int type) {
 			this.type = type;
 		}
@@ -265,6 +294,7 @@ public abstract class BackgroundEventHandler {
 			// The handler has been shutdown. Clean up the queue.
 			synchronized(this) {
 				awaitingProcessing.clear();
+				coalescingEvents.clear();
 			}
 		} else if (! isQueueEmpty()) {
 			// An event squeaked in as the job was finishing. Reschedule the job.
@@ -305,11 +335,19 @@ public abstract class BackgroundEventHandler {
 		if (Policy.DEBUG_BACKGROUND_EVENTS) {
 			System.out.println("Event queued on " + getName() + ":" + event.toString()); //$NON-NLS-1$ //$NON-NLS-2$
 		}
+		event.queueTime = System.currentTimeMillis();
 		if (front) {
-			awaitingProcessing.add(0, event);
+			awaitingProcessing.addFirst(event);
+		} else if (!coalesce(event)) {
+			awaitingProcessing.addLast(event);
 		} else {
-			awaitingProcessing.add(event);
+			coalescedEventCount++;
+			if (Policy.DEBUG_BACKGROUND_EVENTS) {
+				System.out.println("Event coalesced on " + getName() + ":" + event.toString()); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return;
 		}
+		maximumQueueDepth = Math.max(maximumQueueDepth, awaitingProcessing.size());
 		if (!isShutdown() && eventHandlerJob != null) {
 			if(eventHandlerJob.getState() == Job.NONE) {
 				schedule();
@@ -319,6 +357,68 @@ public abstract class BackgroundEventHandler {
 		}
 	}
 
+	/*
+	 * Return whether the given event, which is about to be added to the end of
+	 * the queue, is covered by an event that is waiting in the queue. If it is
+	 * not, the state used to merge later events is updated.
+	 */
+	private boolean coalesce(Event event) {
+		if (!(event instanceof ResourceEvent) || !isCoalescable((ResourceEvent) event)) {
+			// Later events cannot be merged across this one
+			coalescingEvents.clear();
+			return false;
+		}
+		ResourceEvent resourceEvent = (ResourceEvent) event;
+		if (resourceEvent.getType() != coalescingType) {
+			coalescingEvents.clear();
+			coalescingType = resourceEvent.getType();
+		}
+		if (!coalescingEvents.isEmpty()) {
+			IResource resource = resourceEvent.getResource();
+			ResourceEvent pending = coalescingEvents.get(resource);
+			if (pending != null && pending.getDepth() >= resourceEvent.getDepth()) {
+				return true;
+			}
+			int distance = 1;
+			for (IResource parent = resource.getParent(); parent != null; parent = parent.getParent(), distance++) {
+				ResourceEvent ancestorEvent = coalescingEvents.get(parent);
+				if (ancestorEvent != null && coversDescendants(ancestorEvent)
+						&& (ancestorEvent.getDepth() == IResource.DEPTH_INFINITE
+								|| (ancestorEvent.getDepth() == IResource.DEPTH_ONE && distance == 1 && resourceEvent.getDepth() == IResource.DEPTH_ZERO))) {
+					return true;
+				}
+			}
+		}
+		coalescingEvents.put(resourceEvent.getResource(), resourceEvent);
+		return false;
+	}
+
+	/**
+	 * Return whether the given event may be merged into an event of the same type
+	 * for the same resource and at least the same depth that is waiting in the queue.
+	 * This is only the case if processing the event produces the same result
+	 * regardless of when it is processed relative to other events of the same type.
+	 * By default, no events are coalesced.
+	 * @param event a resource event that is about to be queued
+	 * @return whether the event may be merged into an event waiting in the queue
+	 */
+	protected boolean isCoalescable(ResourceEvent event) {
+		return false;
+	}
+
+	/**
+	 * Return whether processing the given coalescable event also covers events of
+	 * the same type for the descendants of its resource that are within its depth.
+	 * This is not the case for events that only visit the members that still exist,
+	 * since the events for the descendants may be about members that no longer exist.
+	 * By default, events do not cover their descendants.
+	 * @param event a coalescable resource event that is waiting in the queue
+	 * @return whether the event covers events for the descendants of its resource
+	 */
+	protected boolean coversDescendants(ResourceEvent event) {
+		return false;
+	}
+
 	/**
 	 * Return the name that is to be associated with the background job.
 	 * @return the job name
@@ -335,14 +435,20 @@ public abstract class BackgroundEventHandler {
 		if (isShutdown() || isQueueEmpty()) {
 			return null;
 		}
-		return awaitingProcessing.remove(0);
+		Event event = awaitingProcessing.removeFirst();
+		IResource resource = event.getResource();
+		if (resource != null && coalescingEvents.get(resource) == event) {
+			// Events cannot be merged into an event that is being processed
+			coalescingEvents.remove(resource);
+		}
+		return event;
 	}
 
 	protected synchronized Event peek() {
 		if (isShutdown() || isQueueEmpty()) {
 			return null;
 		}
-		return awaitingProcessing.get(0);
+		return awaitingProcessing.peekFirst();
 	}
 
 	/**
@@ -380,6 +486,9 @@ public abstract class BackgroundEventHandler {
 			dispatchCount = 1;
 			while ((event = nextElement()) != null && ! isShutdown()) {
 				try {
+					if (oldestUndispatchedEvent == 0) {
+						oldestUndispatchedEvent = event.queueTime;
+					}
 					processEvent(event, subMonitor);
 					if (Policy.DEBUG_BACKGROUND_EVENTS) {
 						System.out.println("Event processed on " + getName() + ":" + event.toString()); //$NON-NLS-1$ //$NON-NLS-2$
@@ -408,7 +517,11 @@ public abstract class BackgroundEventHandler {
 		if (doDispatchEvents(monitor)) {
 			// something was dispatched so adjust dispatch count.
 			dispatchCount++;
+			if (oldestUndispatchedEvent != 0) {
+				recordDispatchLatency(System.currentTimeMillis() - oldestUndispatchedEvent);
+			}
 		}
+		oldestUndispatchedEvent = 0;
 		timeOfLastDispatch = System.currentTimeMillis();
 	}
 
@@ -454,10 +567,33 @@ public abstract class BackgroundEventHandler {
 
 	private boolean isDispatchDelayExceeded() {
 		long duration = System.currentTimeMillis() - timeOfLastDispatch;
-		return ((dispatchCount < DISPATCH_THRESHOLD && duration >= getShortDispatchDelay()) ||
+		return ((dispatchCount < getDispatchThreshold() && duration >= getShortDispatchDelay()) ||
 				duration >= getLongDispatchDelay());
 	}
 
+	/**
+	 * Set the values that determine how often events are dispatched. A shorter
+	 * delay reduces the latency of updates while a longer delay allows more events
+	 * to be batched into a single dispatch.
+	 * @param shortDelay the delay used for the first dispatches
+	 * @param longDelay the delay used once the threshold has been reached
+	 * @param threshold the number of dispatches that use the short delay
+	 */
+	public void setDispatchPolicy(long shortDelay, long longDelay, int threshold) {
+		shortDispatchDelay = shortDelay;
+		longDispatchDelay = longDelay;
+		dispatchThreshold = threshold;
+	}
+
+	/**
+	 * Return the number of dispatch cycles that use the short dispatch delay.
+	 * The default value is 3.
+	 * @return the number of dispatch cycles that use the short dispatch delay
+	 */
+	protected int getDispatchThreshold() {
+		return dispatchThreshold;
+	}
+
 	/**
 	 * Return the amount of time to wait for more events before dispatching.
 	 * @return the amount of time to wait for more events before dispatching.
@@ -469,22 +605,73 @@ public abstract class BackgroundEventHandler {
 	/**
 	 * Return the value that is used to determine how often
 	 * the events are dispatched (i.e. how often the UI is
-	 * updated) for the first 3 cycles. The default value is 1.5 seconds.
-	 * After the first 3 cycles, a longer delay is used
-	 * @return the dispatch delay used for the first 3 cycles.
+	 * updated) for the first cycles. The default value is 1.5 seconds.
+	 * After the number of cycles given by the dispatch threshold, a longer
+	 * delay is used
+	 * @return the dispatch delay used for the first cycles.
 	 */
 	protected long getShortDispatchDelay() {
-		return DISPATCH_DELAY;
+		return shortDispatchDelay;
 	}
 
 	/**
 	 * Return the value that is used to determine how often
 	 * the events are dispatched (i.e. how often the UI is
-	 * updated) after the first 3 cycles. The default value is 10 seconds.
-	 * @return the dispatch delay used after the first 3 cycles.
+	 * updated) after the first cycles. The default value is 10 seconds.
+	 * @return the dispatch delay used after the first cycles.
 	 */
 	protected long getLongDispatchDelay() {
-		return LONG_DISPATCH_DELAY;
+		return longDispatchDelay;
+	}
+
+	private synchronized void recordDispatchLatency(long latency) {
+		lastDispatchLatency = latency;
+		maximumDispatchLatency = Math.max(maximumDispatchLatency, latency);
+		if (Policy.DEBUG_BACKGROUND_EVENTS) {
+			System.out.println("Events dispatched on " + getName() + " after " + latency + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	/**
+	 * Return the number of events waiting in the queue.
+	 * @return the number of events waiting in the queue
+	 */
+	public synchronized int getQueueDepth() {
+		return awaitingProcessing.size();
+	}
+
+	/**
+	 * Return the largest number of events that have been waiting in the queue.
+	 * @return the largest number of events that have been waiting in the queue
+	 */
+	public synchronized int getMaximumQueueDepth() {
+		return maximumQueueDepth;
+	}
+
+	/**
+	 * Return the number of events that were merged into events waiting in the queue.
+	 * @return the number of events that were merged into other events
+	 */
+	public synchronized long getCoalescedEventCount() {
+		return coalescedEventCount;
+	}
+
+	/**
+	 * Return the time in milliseconds between the queuing of the oldest event
+	 * that contributed to the last dispatch and that dispatch.
+	 * @return the latency of the last dispatch or 0 if nothing was dispatched
+	 */
+	public synchronized long getLastDispatchLatency() {
+		return lastDispatchLatency;
+	}
+
+	/**
+	 * Return the largest latency of a dispatch in milliseconds.
+	 * @return the largest latency of a dispatch
+	 * @see #getLastDispatchLatency()
+	 */
+	public synchronized long getMaximumDispatchLatency() {
+		return maximumDispatchLatency;
 	}
 
 	/**
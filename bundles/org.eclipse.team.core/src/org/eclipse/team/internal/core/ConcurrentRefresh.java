@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.internal.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.team.core.TeamException;
+
+/**
+ * Refreshes independent resources on a bounded number of threads. The
+ * refreshes are typically dominated by the latency of a server so the number
+ * of threads is chosen by the caller rather than derived from the number of
+ * processors.
+ * <p>
+ * Each refresh gets its own progress monitor. The work and task names reported
+ * to these monitors are forwarded to the monitor of the caller by the calling
+ * thread, which also forwards cancellation to the workers. The results are
+ * returned in the order of the resources.
+ * </p>
+ *
+ * @param <T> the type of the result of the refresh of a resource
+ */
+public class ConcurrentRefresh<T> {
+
+	/**
+	 * The refresh of a single resource.
+	 *
+	 * @param <T> the type of the result
+	 */
+	@FunctionalInterface
+	public interface ResourceRefresh<T> {
+		/**
+		 * Refresh the given resource.
+		 *
+		 * @param resource the resource
+		 * @param monitor a progress monitor that is only used by the current thread
+		 * @return the result of the refresh
+		 * @throws TeamException if the refresh fails
+		 */
+		T refresh(IResource resource, IProgressMonitor monitor) throws TeamException;
+	}
+
+	/*
+	 * Interval in milliseconds at which the calling thread forwards progress
+	 * and cancellation
+	 */
+	private static final long PROGRESS_INTERVAL = 100;
+
+	private final ResourceRefresh<T> refresh;
+	private final int parallelism;
+
+	/*
+	 * State shared with the workers. Work is expressed in ticks of the monitor
+	 * of the caller.
+	 */
+	private final DoubleAdder work = new DoubleAdder();
+	private volatile boolean canceled;
+	private volatile boolean aborted;
+	private volatile String taskName;
+	private volatile String subTaskName;
+
+	/**
+	 * Create a refresh that uses at most the given number of threads.
+	 *
+	 * @param refresh the refresh of a single resource
+	 * @param parallelism the maximum number of threads
+	 */
+	public ConcurrentRefresh(ResourceRefresh<T> refresh, int parallelism) {
+		this.refresh = refresh;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Refresh the given resources. If a refresh fails, the refreshes that have
+	 * not started yet are skipped, the running ones are canceled and the
+	 * failure of the first resource that did not fail because of the
+	 * cancellation is thrown once all workers are done.
+	 *
+	 * @param resources the resources to refresh
+	 * @param monitor a progress monitor that has been started
+	 * @param ticks the ticks of the monitor to be consumed by each resource
+	 * @return the results in the order of the resources
+	 * @throws TeamException if the refresh of a resource failed
+	 */
+	public List<T> refresh(IResource[] resources, IProgressMonitor monitor, int ticks) throws TeamException {
+		monitor = Policy.monitorFor(monitor);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, resources.length)), runnable -> {
+			Thread thread = new Thread(runnable, "Resource Variant Refresh"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		List<Future<T>> futures = new ArrayList<>(resources.length);
+		try {
+			CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+			for (IResource resource : resources) {
+				futures.add(completionService.submit(() -> {
+					if (aborted)
+						throw new OperationCanceledException();
+					WorkerMonitor workerMonitor = new WorkerMonitor(ticks);
+					try {
+						return refresh.refresh(resource, SubMonitor.convert(workerMonitor, 100));
+					} finally {
+						workerMonitor.done();
+					}
+				}));
+			}
+			int reported = 0;
+			String reportedTaskName = null;
+			String reportedSubTaskName = null;
+			for (int completed = 0; completed < resources.length;) {
+				if (monitor.isCanceled())
+					canceled = true;
+				try {
+					Future<T> future = completionService.poll(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+					if (future != null) {
+						completed++;
+						if (isFailed(future)) {
+							aborted = true;
+							canceled = true;
+						}
+					}
+				} catch (InterruptedException e) {
+					canceled = true;
+					aborted = true;
+					Thread.currentThread().interrupt();
+					throw new OperationCanceledException();
+				}
+				String name = taskName;
+				if (name != null && !name.equals(reportedTaskName)) {
+					monitor.setTaskName(name);
+					reportedTaskName = name;
+				}
+				name = subTaskName;
+				if (name != null && !name.equals(reportedSubTaskName)) {
+					monitor.subTask(name);
+					reportedSubTaskName = name;
+				}
+				int total = (int) work.sum();
+				if (total > reported) {
+					monitor.worked(total - reported);
+					reported = total;
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return getResults(futures);
+	}
+
+	private boolean isFailed(Future<T> future) throws InterruptedException {
+		try {
+			future.get();
+			return false;
+		} catch (ExecutionException e) {
+			return true;
+		}
+	}
+
+	/*
+	 * Return the results in the order of the resources or throw the first
+	 * failure. Cancellations caused by the failure of another resource are
+	 * only thrown if no other failure occurred.
+	 */
+	private List<T> getResults(List<Future<T>> futures) throws TeamException {
+		List<T> results = new ArrayList<>(futures.size());
+		Throwable failure = null;
+		for (Future<T> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (failure == null || (failure instanceof OperationCanceledException && !(cause instanceof OperationCanceledException))) {
+					failure = cause;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			}
+		}
+		if (failure instanceof TeamException)
+			throw (TeamException) failure;
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure != null)
+			throw new IllegalStateException(failure);
+		return results;
+	}
+
+	/*
+	 * The monitor of a worker. It only records the state to be forwarded by
+	 * the calling thread.
+	 */
+	private final class WorkerMonitor implements IProgressMonitor {
+		private final int ticks;
+		private double scale;
+		private double worked;
+
+		WorkerMonitor(int ticks) {
+			this.ticks = ticks;
+		}
+
+		@Override
+		public void beginTask(String name, int totalWork) {
+			if (totalWork > 0 && scale == 0)
+				scale = (double) ticks / totalWork;
+		}
+
+		@Override
+		public void done() {
+			if (worked < ticks) {
+				work.add(ticks - worked);
+				worked = ticks;
+			}
+		}
+
+		@Override
+		public void internalWorked(double amount) {
+			double w = Math.min(amount * scale, ticks - worked);
+			if (w > 0) {
+				worked += w;
+				work.add(w);
+			}
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return canceled;
+		}
+
+		@Override
+		public void setCanceled(boolean value) {
+			if (value)
+				canceled = true;
+		}
+
+		@Override
+		public void setTaskName(String name) {
+			taskName = name;
+		}
+
+		@Override
+		public void subTask(String name) {
+			subTaskName = name;
+		}
+
+		@Override
+		public void worked(int amount) {
+			internalWorked(amount);
+		}
+	}
+}
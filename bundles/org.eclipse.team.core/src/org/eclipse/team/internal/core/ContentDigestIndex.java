@@ -0,0 +1,528 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.internal.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.compare.internal.core.StreamComparator;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.team.core.variants.IResourceVariant;
+import org.eclipse.team.internal.core.mapping.LocalResourceVariant;
+import org.eclipse.team.internal.core.mapping.ResourceVariantFileRevision;
+
+/**
+ * An index of the SHA-256 digests of the contents of local files and of
+ * resource variants. Two contents are considered equal if their digests are
+ * equal, so contents that have been compared before are compared again without
+ * reading them.
+ * <p>
+ * The digest of a local file is valid as long as neither the modification
+ * stamp nor the local time stamp of the file change. The local time stamp is
+ * needed because the modification stamps of a file start over when the file is
+ * deleted and created again while the index is not listening. Entries of files
+ * that change are also discarded when the change is reported.
+ * </p>
+ * <p>
+ * The digest of a resource variant is keyed by the path of its local resource,
+ * the type of the variant, its content identifier and its bytes, so it is
+ * assumed that the contents of a variant are identified by its content
+ * identifier and its bytes. Variants without a content identifier or bytes are
+ * not indexed, nor are variants of local files, whose content identifiers are
+ * not unique. File revisions are only indexed if they are revisions of
+ * resource variants, because a revision has no bytes that identify its
+ * contents.
+ * </p>
+ * <p>
+ * Separate digests are kept for the comparisons that ignore whitespace. The
+ * index is saved in the state location of the plug-in whenever the workspace
+ * is saved, including the periodic snapshots, and when the plug-in is stopped.
+ * The least recently used entries are discarded when the index grows beyond
+ * {@link #MAXIMUM_ENTRIES}.
+ * </p>
+ */
+public class ContentDigestIndex implements IResourceChangeListener, ISaveParticipant {
+
+	// File in the state location that holds the index
+	private static final String INDEX_FILE = ".contentDigests"; //$NON-NLS-1$
+	private static final int VERSION = 2;
+	// The maximum number of local and remote entries each
+	public static final int MAXIMUM_ENTRIES = 100000;
+
+	private static ContentDigestIndex index;
+
+	// Entries of the local files indexed by full path
+	private final Map<String, LocalEntry> localEntries = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+			return size() > MAXIMUM_ENTRIES;
+		}
+	};
+
+	// Entries of the resource variants indexed by the key of the variant
+	private final Map<String, Entry> remoteEntries = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > MAXIMUM_ENTRIES;
+		}
+	};
+
+	/*
+	 * The digests of some contents with and without whitespace
+	 */
+	private static class Entry {
+		final byte[][] digests = new byte[2][];
+	}
+
+	private static class LocalEntry extends Entry {
+		final long stamp;
+		final long timestamp;
+		LocalEntry(long stamp, long timestamp) {
+			this.stamp = stamp;
+			this.timestamp = timestamp;
+		}
+	}
+
+	// Whether the entries have changed since the index was loaded or saved
+	private boolean dirty;
+
+	/**
+	 * A stream that computes the digest of the bytes that are read through
+	 * it. The digest is the same as the digest that
+	 * {@link ContentDigestIndex#digest(InputStream, boolean)} computes for the
+	 * bytes that have been read, so it is the digest of the contents once the
+	 * stream has been read to the end.
+	 */
+	public static class DigestInputStream extends FilterInputStream {
+		private final MessageDigest digest;
+		private final boolean ignoreWhitespace;
+		private byte[] buffer;
+
+		/**
+		 * Create a stream that reads the given stream.
+		 * @param in the contents
+		 * @param ignoreWhitespace whether whitespace bytes are left out of the digest
+		 * @throws IOException if the digest algorithm is not available
+		 */
+		public DigestInputStream(InputStream in, boolean ignoreWhitespace) throws IOException {
+			super(in);
+			this.digest = createDigest();
+			this.ignoreWhitespace = ignoreWhitespace;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b != -1) {
+				byte[] single = new byte[] { (byte) b };
+				update(single, 0, 1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = in.read(b, off, len);
+			if (read > 0)
+				update(b, off, read);
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			// Skipped bytes are read so that they are part of the digest
+			byte[] skipped = new byte[(int) Math.min(n, StreamComparator.BUFFER_SIZE)];
+			long remaining = n;
+			while (remaining > 0) {
+				int read = read(skipped, 0, (int) Math.min(remaining, skipped.length));
+				if (read == -1)
+					break;
+				remaining -= read;
+			}
+			return n - remaining;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		@Override
+		public synchronized void mark(int readlimit) {
+			// Not supported
+		}
+
+		@Override
+		public synchronized void reset() throws IOException {
+			throw new IOException("mark/reset not supported"); //$NON-NLS-1$
+		}
+
+		/**
+		 * Return the digest of the bytes that have been read. The digest can
+		 * only be obtained once.
+		 * @return the digest
+		 */
+		public byte[] getDigest() {
+			return digest.digest();
+		}
+
+		private void update(byte[] bytes, int offset, int length) {
+			if (!ignoreWhitespace) {
+				digest.update(bytes, offset, length);
+				return;
+			}
+			// The whitespace is removed from a copy so that the caller reads the original bytes
+			if (buffer == null || buffer.length < length)
+				buffer = new byte[Math.max(length, StreamComparator.BUFFER_SIZE)];
+			System.arraycopy(bytes, offset, buffer, 0, length);
+			digest.update(buffer, 0, StreamComparator.removeWhitespace(buffer, length));
+		}
+	}
+
+	/**
+	 * Return the index, loading it from the state location if it is used for
+	 * the first time. Return <code>null</code> if the plug-in is not running.
+	 * @return the index or <code>null</code>
+	 */
+	public static synchronized ContentDigestIndex getIndex() {
+		if (index == null && TeamPlugin.getPlugin() != null) {
+			index = new ContentDigestIndex();
+			index.load(getIndexFile());
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(index, IResourceChangeEvent.POST_CHANGE);
+			try {
+				ResourcesPlugin.getWorkspace().addSaveParticipant(TeamPlugin.ID, index);
+			} catch (CoreException e) {
+				// The index is still saved when the plug-in is stopped
+				TeamPlugin.log(e);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Save the index if it has been used and stop listening to changes.
+	 */
+	public static synchronized void shutdown() {
+		if (index == null)
+			return;
+		ResourcesPlugin.getWorkspace().removeSaveParticipant(TeamPlugin.ID);
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(index);
+		index.save(getIndexFile());
+		index = null;
+	}
+
+	private static File getIndexFile() {
+		return TeamPlugin.getPlugin().getStateLocation().append(INDEX_FILE).toFile();
+	}
+
+	/**
+	 * Return the digest of the contents of the given file if it is known for
+	 * the current modification stamp and local time stamp of the file.
+	 * @param file the file
+	 * @param ignoreWhitespace whether the digest of the contents without whitespace is returned
+	 * @return the digest or <code>null</code>
+	 */
+	public byte[] getLocalDigest(IFile file, boolean ignoreWhitespace) {
+		long stamp = file.getModificationStamp();
+		long timestamp = file.getLocalTimeStamp();
+		if (stamp == IResource.NULL_STAMP || timestamp == IResource.NULL_STAMP)
+			return null;
+		synchronized (this) {
+			LocalEntry entry = localEntries.get(file.getFullPath().toString());
+			if (entry == null || entry.stamp != stamp || entry.timestamp != timestamp)
+				return null;
+			return entry.digests[ignoreWhitespace ? 1 : 0];
+		}
+	}
+
+	/**
+	 * Record the digest of the contents of the given file. The modification
+	 * stamp and the local time stamp must be obtained before the contents are
+	 * read, so that the digest is not used if the file changes while the
+	 * contents are read.
+	 * @param file the file
+	 * @param stamp the modification stamp of the file before the contents were read
+	 * @param timestamp the local time stamp of the file before the contents were read
+	 * @param ignoreWhitespace whether the digest is of the contents without whitespace
+	 * @param digest the digest
+	 */
+	public void setLocalDigest(IFile file, long stamp, long timestamp, boolean ignoreWhitespace, byte[] digest) {
+		if (stamp == IResource.NULL_STAMP || timestamp == IResource.NULL_STAMP)
+			return;
+		String path = file.getFullPath().toString();
+		synchronized (this) {
+			LocalEntry entry = localEntries.get(path);
+			if (entry == null || entry.stamp != stamp || entry.timestamp != timestamp) {
+				entry = new LocalEntry(stamp, timestamp);
+				localEntries.put(path, entry);
+			}
+			entry.digests[ignoreWhitespace ? 1 : 0] = digest;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Return the digest of the contents of the given remote of the given
+	 * resource if it is known.
+	 * @param resource the local resource
+	 * @param remote the <code>IResourceVariant</code> or <code>IFileRevision</code> of the resource
+	 * @param ignoreWhitespace whether the digest of the contents without whitespace is returned
+	 * @return the digest or <code>null</code>
+	 */
+	public synchronized byte[] getRemoteDigest(IResource resource, Object remote, boolean ignoreWhitespace) {
+		String key = getKey(resource, remote);
+		if (key == null)
+			return null;
+		Entry entry = remoteEntries.get(key);
+		return entry == null ? null : entry.digests[ignoreWhitespace ? 1 : 0];
+	}
+
+	/**
+	 * Record the digest of the contents of the given remote of the given
+	 * resource. Nothing is recorded for remotes that are not indexed.
+	 * @param resource the local resource
+	 * @param remote the <code>IResourceVariant</code> or <code>IFileRevision</code> of the resource
+	 * @param ignoreWhitespace whether the digest is of the contents without whitespace
+	 * @param digest the digest
+	 */
+	public synchronized void setRemoteDigest(IResource resource, Object remote, boolean ignoreWhitespace, byte[] digest) {
+		String key = getKey(resource, remote);
+		if (key == null)
+			return;
+		Entry entry = remoteEntries.computeIfAbsent(key, k -> new Entry());
+		entry.digests[ignoreWhitespace ? 1 : 0] = digest;
+		dirty = true;
+	}
+
+	/**
+	 * Return whether the digest of the given remote can be recorded.
+	 * @param remote an <code>IResourceVariant</code> or <code>IFileRevision</code>
+	 * @return whether the contents of the remote are identified by its
+	 *         content identifier and its bytes
+	 */
+	public static boolean isIndexed(Object remote) {
+		return getVariant(remote) != null;
+	}
+
+	/*
+	 * Return the variant whose content identifier and bytes identify the
+	 * contents of the remote or null if there is none. Revisions of variants
+	 * share the entries of the variants.
+	 */
+	private static IResourceVariant getVariant(Object remote) {
+		if (remote instanceof ResourceVariantFileRevision)
+			remote = ((ResourceVariantFileRevision) remote).getVariant();
+		if (!(remote instanceof IResourceVariant) || remote instanceof LocalResourceVariant)
+			return null;
+		IResourceVariant variant = (IResourceVariant) remote;
+		String identifier = variant.getContentIdentifier();
+		if (identifier == null || identifier.isEmpty() || variant.asBytes() == null)
+			return null;
+		return variant;
+	}
+
+	/*
+	 * Return the key of the remote or null if it is not indexed
+	 */
+	private static String getKey(IResource resource, Object remote) {
+		IResourceVariant variant = getVariant(remote);
+		if (variant == null)
+			return null;
+		StringBuilder key = new StringBuilder(resource.getFullPath().toString());
+		key.append('\n').append(variant.getClass().getName());
+		key.append('\n').append(variant.getContentIdentifier());
+		key.append('\n');
+		for (byte b : variant.asBytes()) {
+			key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Compute the digest of the contents of the given stream. The stream is
+	 * read to the end but not closed.
+	 * @param stream the contents
+	 * @param ignoreWhitespace whether whitespace bytes are left out of the digest
+	 * @return the digest
+	 * @throws IOException if an error occurs while reading the stream
+	 */
+	public static byte[] digest(InputStream stream, boolean ignoreWhitespace) throws IOException {
+		MessageDigest digest = createDigest();
+		byte[] buffer = new byte[StreamComparator.BUFFER_SIZE];
+		int read;
+		while ((read = stream.read(buffer)) != -1) {
+			if (ignoreWhitespace)
+				read = StreamComparator.removeWhitespace(buffer, read);
+			digest.update(buffer, 0, read);
+		}
+		return digest.digest();
+	}
+
+	private static MessageDigest createDigest() throws IOException {
+		try {
+			return MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform provides SHA-256
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null)
+			return;
+		try {
+			delta.accept(child -> {
+				if (child.getResource().getType() == IResource.FILE
+						&& (child.getKind() != IResourceDelta.CHANGED
+								|| (child.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0)) {
+					synchronized (ContentDigestIndex.this) {
+						if (localEntries.remove(child.getResource().getFullPath().toString()) != null)
+							dirty = true;
+					}
+				}
+				return true;
+			});
+		} catch (CoreException e) {
+			TeamPlugin.log(e);
+		}
+	}
+
+	@Override
+	public void saving(ISaveContext context) {
+		if (context.getKind() == ISaveContext.PROJECT_SAVE)
+			return;
+		synchronized (this) {
+			if (dirty)
+				save(getIndexFile());
+		}
+	}
+
+	@Override
+	public void prepareToSave(ISaveContext context) {
+		// Nothing to prepare
+	}
+
+	@Override
+	public void doneSaving(ISaveContext context) {
+		// The index file is not kept per save number
+	}
+
+	@Override
+	public void rollback(ISaveContext context) {
+		// The index file is replaced atomically, so there is nothing to undo
+	}
+
+	private synchronized void load(File file) {
+		if (!file.exists())
+			return;
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (input.readInt() != VERSION)
+				return;
+			int count = input.readInt();
+			for (int i = 0; i < count; i++) {
+				String path = input.readUTF();
+				LocalEntry entry = new LocalEntry(input.readLong(), input.readLong());
+				readDigests(input, entry);
+				localEntries.put(path, entry);
+			}
+			count = input.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = input.readUTF();
+				Entry entry = new Entry();
+				readDigests(input, entry);
+				remoteEntries.put(key, entry);
+			}
+		} catch (IOException e) {
+			// Start over with an empty index
+			localEntries.clear();
+			remoteEntries.clear();
+			TeamPlugin.log(IStatus.WARNING, e.getMessage(), e);
+		}
+	}
+
+	private synchronized void save(File file) {
+		File temp = new File(file.getParentFile(), file.getName() + ".tmp"); //$NON-NLS-1$
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+			output.writeInt(VERSION);
+			output.writeInt(localEntries.size());
+			for (Map.Entry<String, LocalEntry> entry : localEntries.entrySet()) {
+				output.writeUTF(entry.getKey());
+				output.writeLong(entry.getValue().stamp);
+				output.writeLong(entry.getValue().timestamp);
+				writeDigests(output, entry.getValue());
+			}
+			output.writeInt(remoteEntries.size());
+			for (Map.Entry<String, Entry> entry : remoteEntries.entrySet()) {
+				output.writeUTF(entry.getKey());
+				writeDigests(output, entry.getValue());
+			}
+		} catch (IOException e) {
+			TeamPlugin.log(IStatus.WARNING, e.getMessage(), e);
+			temp.delete();
+			return;
+		}
+		file.delete();
+		if (temp.renameTo(file)) {
+			dirty = false;
+		} else {
+			temp.delete();
+		}
+	}
+
+	private static void readDigests(DataInputStream input, Entry entry) throws IOException {
+		for (int i = 0; i < entry.digests.length; i++) {
+			int length = input.readUnsignedByte();
+			if (length > 0) {
+				entry.digests[i] = new byte[length];
+				input.readFully(entry.digests[i]);
+			}
+		}
+	}
+
+	private static void writeDigests(DataOutputStream output, Entry entry) throws IOException {
+		for (byte[] digest : entry.digests) {
+			if (digest == null) {
+				output.writeByte(0);
+			} else {
+				output.writeByte(digest.length);
+				output.write(digest);
+			}
+		}
+	}
+}
@@ -15,20 +15,35 @@ package org.eclipse.team.internal.core;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.core.runtime.IPath;
-import org.eclipse.core.runtime.jobs.ILock;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.team.core.TeamException;
 import org.eclipse.team.core.variants.CachedResourceVariant;
 
 /**
- * This class implements a caching facility that can be used by TeamProviders to cache contents
+ * This class implements a caching facility that can be used by TeamProviders to cache contents.
+ * <p>
+ * Lookups do not lock the cache and each entry has its own lock so that the contents
+ * of different entries can be written concurrently. The total size of the cached contents
+ * is bounded by {@link #getMaximumSize()}; when it is exceeded the least recently used
+ * entries are evicted.
+ * </p>
+ * <p>
+ * By default the cache is content addressed: contents are stored in files named after
+ * their SHA-256 digest, which are shared by all entries with the same contents and
+ * deleted once the last of these entries is disposed.
+ * </p>
  */
 public class ResourceVariantCache {
 
@@ -36,17 +51,34 @@ public class ResourceVariantCache {
 	private static final String CACHE_DIRECTORY = ".cache"; //$NON-NLS-1$
 	// Maximum lifespan of local cache file, in milliseconds
 	private static final long CACHE_FILE_LIFESPAN = 60*60*1000; // 1hr
+	// Default maximum size of the cached contents, in bytes
+	public static final long DEFAULT_MAXIMUM_SIZE = 100*1024*1024; // 100MB
+	// Fraction of the maximum size that eviction shrinks the cache to
+	private static final double EVICTION_TARGET = 0.9;
 
 	// Map of registered caches indexed by local name of a QualifiedName
 	private static Map<String, ResourceVariantCache> caches = new HashMap<>(); // String (local name) > RemoteContentsCache
 
 	private String name;
-	private Map<String, ResourceVariantCacheEntry> cacheEntries;
-	private long lastCacheCleanup;
-	private int cacheDirSize;
+	private volatile Map<String, ResourceVariantCacheEntry> cacheEntries;
+	private volatile long lastCacheCleanup;
+	private final AtomicInteger cacheDirSize = new AtomicInteger();
 
-	// Lock used to serialize the writing of cache contents
-	private ILock lock = Job.getJobManager().newLock();
+	// Total size of the cached contents and the size it may grow to
+	private final AtomicLong currentSize = new AtomicLong();
+	private volatile long maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+	// Lock used to ensure that only one thread evicts entries at a time
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	// Cache files indexed by their name, shared by all entries with the same contents
+	private final Map<String, CachedContents> contents = new HashMap<>();
+	private volatile boolean contentAddressed = true;
+
+	// Statistics
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
 
 	/**
 	 * Enables the use of remote contents caching for the given cacheId. The cache ID must be unique.
@@ -104,6 +136,17 @@ public class ResourceVariantCache {
 		}
 	}
 
+	/*
+	 * A file in the cache directory and the number of entries referring to it
+	 */
+	private static class CachedContents {
+		final long size;
+		int references = 1;
+		CachedContents(long size) {
+			this.size = size;
+		}
+	}
+
 	private ResourceVariantCache(String name) {
 		this.name = name;
 	}
@@ -125,31 +168,63 @@ public class ResourceVariantCache {
 		return TeamPlugin.getPlugin().getStateLocation();
 	}
 
-	private synchronized void clearOldCacheEntries() {
-		long current = new Date().getTime();
+	private void clearOldCacheEntries() {
+		long current = System.currentTimeMillis();
 		if ((lastCacheCleanup!=-1) && (current - lastCacheCleanup < CACHE_FILE_LIFESPAN)) return;
 		List<ResourceVariantCacheEntry> stale = new ArrayList<>();
-		for (ResourceVariantCacheEntry entry : cacheEntries.values()) {
-			long lastHit = entry.getLastAccessTimeStamp();
-			if ((current - lastHit) > CACHE_FILE_LIFESPAN){
-				stale.add(entry);
+		synchronized (this) {
+			if ((lastCacheCleanup!=-1) && (current - lastCacheCleanup < CACHE_FILE_LIFESPAN)) return;
+			lastCacheCleanup = current;
+			Map<String, ResourceVariantCacheEntry> entries = cacheEntries;
+			if (entries == null) return;
+			for (ResourceVariantCacheEntry entry : entries.values()) {
+				long lastHit = entry.getLastAccessTimeStamp();
+				if ((current - lastHit) > CACHE_FILE_LIFESPAN){
+					stale.add(entry);
+				}
 			}
 		}
 		for (ResourceVariantCacheEntry entry : stale) {
 			entry.dispose();
+			evictionCount.increment();
 		}
 	}
 
-	private synchronized void purgeFromCache(String id) {
-		ResourceVariantCacheEntry entry = cacheEntries.get(id);
-		File f = entry.getFile();
-		try {
-			deleteFile(f);
-		} catch (TeamException e) {
-			// Ignore the deletion failure.
-			// A failure only really matters when purging the directory on startup
+	/*
+	 * Evict the least recently used entries until the size of the cache is
+	 * below the eviction target. Only one thread evicts at a time; a thread that
+	 * finds eviction in progress leaves the work to that thread, which checks the
+	 * size again once it is done.
+	 */
+	private void evictEntries(ResourceVariantCacheEntry written) {
+		while (currentSize.get() > maximumSize) {
+			if (!evictionLock.tryLock())
+				return;
+			try {
+				Map<String, ResourceVariantCacheEntry> entries = cacheEntries;
+				if (entries == null)
+					return;
+				long target = (long) (maximumSize * EVICTION_TARGET);
+				List<ResourceVariantCacheEntry> candidates = new ArrayList<>();
+				for (ResourceVariantCacheEntry entry : entries.values()) {
+					// Never evict the entry whose contents were just written, the caller is about to read them
+					if (entry != written && entry.getState() == ResourceVariantCacheEntry.READY) {
+						candidates.add(entry);
+					}
+				}
+				if (candidates.isEmpty())
+					return;
+				candidates.sort(Comparator.comparingLong(ResourceVariantCacheEntry::getLastAccessTimeStamp));
+				for (ResourceVariantCacheEntry entry : candidates) {
+					if (currentSize.get() <= target)
+						break;
+					entry.dispose();
+					evictionCount.increment();
+				}
+			} finally {
+				evictionLock.unlock();
+			}
 		}
-		cacheEntries.remove(id);
 	}
 
 	private synchronized void createCacheDirectory() {
@@ -169,15 +244,23 @@ public class ResourceVariantCache {
 		if (! file.exists() && ! file.mkdirs()) {
 			TeamPlugin.log(new TeamException(NLS.bind(Messages.RemoteContentsCache_fileError, new String[] { file.getAbsolutePath() })));
 		}
-		cacheEntries = new HashMap<>();
+		cacheEntries = new ConcurrentHashMap<>();
 		lastCacheCleanup = -1;
-		cacheDirSize = 0;
+		cacheDirSize.set(0);
+		synchronized (contents) {
+			contents.clear();
+			currentSize.set(0);
+		}
 	}
 
 	private synchronized void deleteCacheDirectory() {
 		cacheEntries = null;
 		lastCacheCleanup = -1;
-		cacheDirSize = 0;
+		cacheDirSize.set(0);
+		synchronized (contents) {
+			contents.clear();
+			currentSize.set(0);
+		}
 		IPath cacheLocation = getCachePath();
 		File file = cacheLocation.toFile();
 		if (file.exists()) {
@@ -211,17 +294,112 @@ public class ResourceVariantCache {
 	 * @param entry
 	 */
 	protected void purgeFromCache(ResourceVariantCacheEntry entry) {
-		purgeFromCache(entry.getId());
+		Map<String, ResourceVariantCacheEntry> entries = cacheEntries;
+		if (entries != null) {
+			entries.remove(entry.getId(), entry);
+		}
+		String path = entry.clearContentPath();
+		if (path != null) {
+			releaseContents(path);
+		} else {
+			// The entry may have partially written contents
+			deleteQuietly(entry.getFile());
+		}
+	}
+
+	private void deleteQuietly(File f) {
+		try {
+			deleteFile(f);
+		} catch (TeamException e) {
+			// Ignore the deletion failure.
+			// A failure only really matters when purging the directory on startup
+		}
+	}
+
+	/**
+	 * Add a reference to the cached contents with the given digest if there are any.
+	 * This method should only be invoked from an instance of ResourceVariantCacheEntry
+	 * while it holds its lock.
+	 * @param digest the digest of the contents
+	 * @return whether the contents are cached
+	 */
+	boolean referenceContents(String digest) {
+		synchronized (contents) {
+			CachedContents cached = contents.get(digest);
+			if (cached == null)
+				return false;
+			cached.references++;
+			return true;
+		}
+	}
+
+	/**
+	 * Add the given file to the cached contents. If a digest is given, the file is renamed
+	 * after it so that it can be shared by entries with the same contents. This method should
+	 * only be invoked from an instance of ResourceVariantCacheEntry while it holds its lock.
+	 * @param digest the digest of the contents or <code>null</code>
+	 * @param file the file holding the contents
+	 * @param size the size of the contents
+	 * @return the name of the cache file that now holds the contents
+	 */
+	String storeContents(String digest, File file, long size) {
+		synchronized (contents) {
+			if (digest != null) {
+				CachedContents cached = contents.get(digest);
+				if (cached != null) {
+					// Another entry stored the same contents in the meantime
+					cached.references++;
+					deleteQuietly(file);
+					return digest;
+				}
+				if (file.renameTo(new File(file.getParentFile(), digest))) {
+					contents.put(digest, new CachedContents(size));
+					currentSize.addAndGet(size);
+					return digest;
+				}
+				// Keep the contents in the file of the entry, they just won't be shared
+			}
+			contents.put(file.getName(), new CachedContents(size));
+			currentSize.addAndGet(size);
+			return file.getName();
+		}
+	}
+
+	private void releaseContents(String path) {
+		synchronized (contents) {
+			CachedContents cached = contents.get(path);
+			if (cached == null || --cached.references > 0)
+				return;
+			contents.remove(path);
+			currentSize.addAndGet(-cached.size);
+			deleteQuietly(new File(getCachePath().toFile(), path));
+		}
+	}
+
+	/**
+	 * Evict entries if the cache has grown beyond its maximum size. This method should
+	 * only be invoked from an instance of ResourceVariantCacheEntry after its contents
+	 * were written and its lock has been released.
+	 * @param entry the entry whose contents were written
+	 */
+	void contentsWritten(ResourceVariantCacheEntry entry) {
+		if (currentSize.get() > maximumSize) {
+			evictEntries(entry);
+		}
 	}
 
-	private synchronized ResourceVariantCacheEntry internalGetCacheEntry(String id) {
-		if (cacheEntries == null) {
+	private ResourceVariantCacheEntry internalGetCacheEntry(String id) {
+		Map<String, ResourceVariantCacheEntry> entries = cacheEntries;
+		if (entries == null) {
 			// This probably means that the cache has been disposed
 			throw new IllegalStateException(NLS.bind(Messages.RemoteContentsCache_cacheDisposed, new String[] { name }));
 		}
-		ResourceVariantCacheEntry entry = cacheEntries.get(id);
+		ResourceVariantCacheEntry entry = entries.get(id);
 		if (entry != null) {
 			entry.registerHit();
+			hitCount.increment();
+		} else {
+			missCount.increment();
 		}
 		return entry;
 	}
@@ -234,12 +412,27 @@ public class ResourceVariantCache {
 		return internalGetCacheEntry(id);
 	}
 
-	public synchronized ResourceVariantCacheEntry add(String id, CachedResourceVariant resource) {
+	/**
+	 * Cache the given handle under the given id. If there already is an entry for
+	 * the id, its handle is replaced but its contents are kept.
+	 * @param id the id that uniquely identifies the remote resource that is cached.
+	 * @param resource the handle to cache
+	 * @return the cache entry
+	 */
+	public ResourceVariantCacheEntry add(String id, CachedResourceVariant resource) {
 		clearOldCacheEntries();
-		String filePath = String.valueOf(cacheDirSize++);
-		ResourceVariantCacheEntry entry = new ResourceVariantCacheEntry(this, lock, id, filePath);
+		Map<String, ResourceVariantCacheEntry> entries = cacheEntries;
+		if (entries == null) {
+			throw new IllegalStateException(NLS.bind(Messages.RemoteContentsCache_cacheDisposed, new String[] { name }));
+		}
+		ResourceVariantCacheEntry entry = entries.compute(id, (key, existing) -> {
+			if (existing != null && existing.getState() != ResourceVariantCacheEntry.DISPOSED) {
+				return existing;
+			}
+			String filePath = String.valueOf(cacheDirSize.getAndIncrement());
+			return new ResourceVariantCacheEntry(this, Job.getJobManager().newLock(), key, filePath);
+		});
 		entry.setResourceVariant(resource);
-		cacheEntries.put(id, entry);
 		return entry;
 	}
 
@@ -247,11 +440,79 @@ public class ResourceVariantCache {
 		return name;
 	}
 
+	/**
+	 * Return the maximum total size, in bytes, of the contents kept in this cache.
+	 * @return the maximum size of the cache
+	 */
+	public long getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Set the maximum total size, in bytes, of the contents kept in this cache.
+	 * Least recently used entries are evicted the next time contents are written
+	 * while the cache exceeds this size.
+	 * @param maximumSize the maximum size of the cache
+	 */
+	public void setMaximumSize(long maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Return whether entries with the same contents share a single cache file.
+	 * @return whether the cache is content addressed
+	 */
+	public boolean isContentAddressed() {
+		return contentAddressed;
+	}
+
+	/**
+	 * Set whether entries with the same contents share a single cache file.
+	 * The setting only affects contents that are written afterwards.
+	 * @param contentAddressed whether the cache is content addressed
+	 */
+	public void setContentAddressed(boolean contentAddressed) {
+		this.contentAddressed = contentAddressed;
+	}
+
+	/**
+	 * Return the total size, in bytes, of the contents currently kept in this cache.
+	 * @return the size of the cache
+	 */
+	public long getCurrentSize() {
+		return currentSize.get();
+	}
+
+	/**
+	 * Return the number of lookups that found an entry.
+	 * @return the number of cache hits
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups that did not find an entry.
+	 * @return the number of cache misses
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries that were evicted because the cache exceeded
+	 * its maximum size or because they were not accessed for a long time.
+	 * @return the number of evicted entries
+	 */
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
 	/*
 	 * Method used for testing only
 	 */
 	public ResourceVariantCacheEntry[] getEntries() {
-		return cacheEntries.values().toArray(new ResourceVariantCacheEntry[cacheEntries.size()]);
+		return cacheEntries.values().toArray(new ResourceVariantCacheEntry[0]);
 	}
 
 }
@@ -23,7 +23,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Date;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.jobs.ILock;
@@ -40,13 +42,18 @@ public class ResourceVariantCacheEntry {
 	public static final int READY = 1;
 	public static final int DISPOSED = 2;
 
+	// Contents up to this size are kept in memory until their digest is known
+	private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
 	private String id;
 	private String filePath;
 	private ResourceVariantCache cache;
-	private int state = UNINITIALIZED;
-	private long lastAccess;
-	private CachedResourceVariant resourceVariant;
+	private volatile int state = UNINITIALIZED;
+	private volatile long lastAccess;
+	private volatile CachedResourceVariant resourceVariant;
 	private ILock lock;
+	// Name of the cache file that holds the contents once they are ready
+	private final AtomicReference<String> contentPath = new AtomicReference<>();
 
 	public ResourceVariantCacheEntry(ResourceVariantCache cache, ILock lock, String id, String filePath) {
 		this.lock = lock;
@@ -75,17 +82,22 @@ public class ResourceVariantCacheEntry {
 			// We will end up here if we couldn't read or delete the cache file
 			throw new TeamException(NLS.bind(Messages.RemoteContentsCache_fileError, new String[] { ioFile.getAbsolutePath() }), e);
 		}
+		if (state == DISPOSED) {
+			// The entry was evicted while we were trying to read it
+			throw new TeamException(NLS.bind(Messages.RemoteContentsCacheEntry_3, new String[] { cache.getName(), id }));
+		}
 		// This can occur when there is no remote contents
 		return new ByteArrayInputStream(new byte[0]);
 	}
 
 	protected File getFile() {
-		return new File(cache.getCachePath().toFile(), filePath);
+		String path = contentPath.get();
+		return new File(cache.getCachePath().toFile(), path != null ? path : filePath);
 	}
 
 	/**
 	 * Set the contents of for this cache entry. This method supports concurrency by only allowing
-	 * one cache entry to be written at a time. In the case of two concurrent writes to the same cache entry,
+	 * one write to this cache entry at a time. In the case of two concurrent writes to the same cache entry,
 	 * the contents from the first write is used and the content from subsequent writes is ignored.
 	 * @param stream an InputStream that provides the contents to be cached
 	 * @param monitor a progress monitor
@@ -99,6 +111,7 @@ public class ResourceVariantCacheEntry {
 		} finally {
 			endOperation();
 		}
+		cache.contentsWritten(this);
 	}
 
 	private void endOperation() {
@@ -119,11 +132,20 @@ public class ResourceVariantCacheEntry {
 		File ioFile = getFile();
 		try {
 
-			// Open the cache file for writing
+			// Open the cache file for writing. When the cache is content addressed, small
+			// contents are kept in memory so that duplicates never need to be written.
 			OutputStream out;
+			ByteArrayOutputStream pending = null;
+			MessageDigest digest = null;
 			try {
 				if (state == UNINITIALIZED) {
-					out = new BufferedOutputStream(new FileOutputStream(ioFile));
+					digest = cache.isContentAddressed() ? createDigest() : null;
+					if (digest != null) {
+						pending = new ByteArrayOutputStream();
+						out = pending;
+					} else {
+						out = new BufferedOutputStream(new FileOutputStream(ioFile));
+					}
 				} else {
 					// If the entry is READY, the contents must have been read in another thread.
 					// We still need to red the contents but they can be ignored since presumably they are the same
@@ -134,6 +156,7 @@ public class ResourceVariantCacheEntry {
 			}
 
 			// Transfer the contents
+			long size = 0;
 			try {
 				try {
 					byte[] buffer = new byte[1024];
@@ -141,10 +164,39 @@ public class ResourceVariantCacheEntry {
 					while ((read = stream.read(buffer)) >= 0) {
 						Policy.checkCanceled(monitor);
 						out.write(buffer, 0, read);
+						size += read;
+						if (digest != null) {
+							digest.update(buffer, 0, read);
+						}
+						if (pending != null && pending.size() > DIGEST_BUFFER_SIZE) {
+							// Too large to keep in memory, continue in the cache file
+							out = new BufferedOutputStream(new FileOutputStream(ioFile));
+							pending.writeTo(out);
+							pending = null;
+						}
 					}
 				} finally {
 					out.close();
 				}
+
+				// Hand the contents over to the cache
+				if (state == UNINITIALIZED) {
+					String key = digest != null ? toHexString(digest.digest()) : null;
+					if (key != null && cache.referenceContents(key)) {
+						// The same contents are already cached
+						if (pending == null) {
+							ioFile.delete();
+						}
+						contentPath.set(key);
+					} else {
+						if (pending != null) {
+							try (OutputStream fileOut = new FileOutputStream(ioFile)) {
+								pending.writeTo(fileOut);
+							}
+						}
+						contentPath.set(cache.storeContents(key, ioFile, size));
+					}
+				}
 			} catch (IOException e) {
 				// Make sure we don't leave the cache file around as it may not have the right contents
 				cache.purgeFromCache(this);
@@ -197,7 +249,33 @@ public class ResourceVariantCacheEntry {
 	 * Other clients should not use it.
 	 */
 	protected void registerHit() {
-		lastAccess = new Date().getTime();
+		lastAccess = System.currentTimeMillis();
+	}
+
+	/*
+	 * Return the name of the cache file holding the contents of this entry and forget
+	 * it so that the reference to the contents is only released once.
+	 */
+	String clearContentPath() {
+		return contentPath.getAndSet(null);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform provides SHA-256 but fall back to plain storage just in case
+			return null;
+		}
+	}
+
+	private static String toHexString(byte[] bytes) {
+		StringBuilder buffer = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			buffer.append(Character.forDigit((b >> 4) & 0xF, 16));
+			buffer.append(Character.forDigit(b & 0xF, 16));
+		}
+		return buffer.toString();
 	}
 
 	public void dispose() {
@@ -44,6 +44,7 @@ import org.eclipse.team.core.Team;
 import org.eclipse.team.core.TeamException;
 import org.eclipse.team.core.mapping.DelegatingStorageMerger;
 import org.eclipse.team.internal.core.mapping.IStreamMergerDelegate;
+import org.eclipse.team.internal.core.subscribers.ConcurrentSubscriberTraversal;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceRegistration;
 
@@ -119,6 +120,8 @@ final public class TeamPlugin extends Plugin {
 
 			Team.shutdown();
 			ResourceVariantCache.shutdown();
+			ContentDigestIndex.shutdown();
+			ConcurrentSubscriberTraversal.shutdown();
 		} finally {
 			super.stop(context);
 		}
@@ -21,6 +21,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 
+import org.eclipse.compare.internal.core.IConcurrentRangeComparator;
 import org.eclipse.compare.rangedifferencer.IRangeComparator;
 import org.eclipse.core.resources.IEncodedStorage;
 import org.eclipse.core.resources.IStorage;
@@ -31,7 +32,7 @@ import org.eclipse.core.runtime.CoreException;
  * Copied from org.eclipse.compare.internal.merge.LineComparator 1.4 and
  * modified for {@link IStorage}.
  */
-class LineComparator implements IRangeComparator {
+class LineComparator implements IRangeComparator, IConcurrentRangeComparator {
 
 	private String[] fLines;
 
@@ -150,4 +151,10 @@ class LineComparator implements IRangeComparator {
 			IRangeComparator other) {
 		return false;
 	}
+
+	@Override
+	public boolean isThreadSafe() {
+		// the lines are read once and never modified
+		return true;
+	}
 }
@@ -13,60 +13,124 @@
  *******************************************************************************/
 package org.eclipse.team.internal.core.mapping;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import org.eclipse.core.runtime.IPath;
 
 /**
- * A tree of objects keyed by path
+ * A tree of objects keyed by path. The tree is a trie of path segments
+ * in which a node exists for every path that has an object and for all
+ * of its ancestors.
+ * <p>
+ * The nodes of a tree are shared with the snapshots taken from it (see
+ * {@link #snapshot()}). A node is only modified in place by the tree that
+ * created it since the last snapshot; otherwise the nodes on the path to the
+ * modified node are copied. The children of a node are kept in a
+ * {@link SegmentMap} that is copied in the same way, so copying a node does
+ * not depend on its number of children. A snapshot that is not modified can
+ * therefore be read by any number of threads without synchronization, while
+ * the tree it was taken from keeps changing.
+ * </p>
+ * <p>
+ * This class is not thread safe. Clients must ensure that a tree is not read
+ * while it is being modified by another thread.
+ * </p>
  */
 public class PathTree {
 
-	class Node {
+	static class Node {
+		final IPath path;
+		final Object owner;
+		SegmentMap<Node> children;
+		int childCount;
 		Object payload;
-		Set<IPath> descendantsWithPayload;
 		int flags;
+		// Number of descendants with a payload that have a property bit set, indexed by bit
+		int[] flaggedDescendants;
+		Node(IPath path, Object owner) {
+			this.path = path;
+			this.owner = owner;
+		}
+		Node(Node node, Object owner) {
+			this(node.path, owner);
+			// The children are copied when they are modified
+			children = node.children;
+			childCount = node.childCount;
+			payload = node.payload;
+			flags = node.flags;
+			if (node.flaggedDescendants != null)
+				flaggedDescendants = node.flaggedDescendants.clone();
+		}
 		public boolean isEmpty() {
-			return payload == null && (descendantsWithPayload == null || descendantsWithPayload.isEmpty());
+			return payload == null && !hasDescendants();
 		}
 		public Object getPayload() {
 			return payload;
 		}
-		public void setPayload(Object payload) {
-			this.payload = payload;
-		}
 		public boolean hasDescendants() {
-			return descendantsWithPayload != null && !descendantsWithPayload.isEmpty();
+			return childCount > 0;
+		}
+		public Node getChild(String segment) {
+			if (children == null)
+				return null;
+			return children.get(segment);
+		}
+		public void putChild(String segment, Node child) {
+			if (children == null)
+				children = new SegmentMap<>(owner);
+			boolean[] added = new boolean[1];
+			children = children.put(owner, segment, child, added);
+			if (added[0])
+				childCount++;
+		}
+		public void removeChild(String segment) {
+			if (children == null)
+				return;
+			boolean[] removed = new boolean[1];
+			children = children.remove(owner, segment, removed);
+			if (removed[0])
+				childCount--;
+			if (childCount == 0)
+				children = null;
+		}
+		public List<Node> getChildren() {
+			List<Node> result = new ArrayList<>(childCount);
+			if (children != null)
+				children.addValuesTo(result);
+			return result;
 		}
 		public boolean hasFlag(int propertyBit) {
 			return (flags & propertyBit) != 0;
 		}
-		public void setProperty(int propertyBit, boolean value) {
-			if (value)
-				flags |= propertyBit;
-			else
-				flags ^= propertyBit;
+		public int getFlaggedDescendantCount(int property) {
+			int index = Integer.numberOfTrailingZeros(property);
+			if (flaggedDescendants == null || index >= flaggedDescendants.length)
+				return 0;
+			return flaggedDescendants[index];
 		}
-		public boolean descendantHasFlag(int property) {
-			if (hasDescendants()) {
-				for (IPath path : descendantsWithPayload) {
-					Node child = getNode(path);
-					if (child.hasFlag(property)) {
-						return true;
-					}
-				}
+		/*
+		 * Record that a descendant with a payload gained or lost the given property bit
+		 */
+		void flaggedDescendantsChanged(int propertyBit, int delta) {
+			int index = Integer.numberOfTrailingZeros(propertyBit);
+			if (flaggedDescendants == null || index >= flaggedDescendants.length) {
+				int[] counts = new int[index + 1];
+				if (flaggedDescendants != null)
+					System.arraycopy(flaggedDescendants, 0, counts, 0, flaggedDescendants.length);
+				flaggedDescendants = counts;
 			}
-			return false;
+			flaggedDescendants[index] += delta;
 		}
 	}
 
-	private Map<IPath, Node> objects = new HashMap<>();
+	private Node root;
+	private int size;
+	// Nodes owned by this token may be modified in place
+	private Object owner = new Object();
 
 	/**
 	 * Return the object at the given path or <code>null</code>
@@ -74,7 +138,7 @@ public class PathTree {
 	 * @param path the path
 	 * @return the object at the given path or <code>null</code>
 	 */
-	public synchronized Object get(IPath path) {
+	public Object get(IPath path) {
 		Node node = getNode(path);
 		if (node == null)
 			return null;
@@ -89,15 +153,16 @@ public class PathTree {
 	 * @param object the object
 	 * @return the previous object at that path or <code>null</code>
 	 */
-	public synchronized Object put(IPath path, Object object) {
-		Node node = getNode(path);
-		if (node == null) {
-			node = addNode(path);
-		}
+	public Object put(IPath path, Object object) {
+		if (object == null)
+			return remove(path);
+		Node[] trail = getEditablePath(path);
+		Node node = trail[trail.length - 1];
 		Object previous = node.getPayload();
-		node.setPayload(object);
-		if(previous == null) {
-			addToParents(path, path);
+		node.payload = object;
+		if (previous == null) {
+			size++;
+			payloadChanged(trail, 1);
 		}
 		return previous;
 	}
@@ -110,17 +175,22 @@ public class PathTree {
 	 * @return the removed object at the given path and return
 	 * the removed object or <code>null</code>
 	 */
-	public synchronized Object remove(IPath path) {
+	public Object remove(IPath path) {
 		Node node = getNode(path);
-		if (node == null)
+		if (node == null || node.getPayload() == null)
 			return null;
+		Node[] trail = getEditablePath(path);
+		node = trail[trail.length - 1];
 		Object previous = node.getPayload();
-		node.setPayload(null);
-		if(previous != null) {
-			removeFromParents(path, path);
-			if (node.isEmpty()) {
-				removeNode(path);
-			}
+		node.payload = null;
+		size--;
+		payloadChanged(trail, -1);
+		// Remove the nodes that no longer lead to an object
+		for (int i = trail.length - 1; i >= 0 && trail[i].isEmpty(); i--) {
+			if (i == 0)
+				root = null;
+			else
+				trail[i - 1].removeChild(path.segment(i - 1));
 		}
 		return previous;
 
@@ -131,8 +201,8 @@ public class PathTree {
 	 * @param path
 	 * @return whether there are children for the given path
 	 */
-	public synchronized boolean hasChildren(IPath path) {
-		if (path.isEmpty()) return !objects.isEmpty();
+	public boolean hasChildren(IPath path) {
+		if (path.isEmpty()) return root != null;
 		Node node = getNode(path);
 		if (node == null)
 			return false;
@@ -144,113 +214,42 @@ public class PathTree {
 	 * @param path the path
 	 * @return the paths for any children of the given path in this set
 	 */
-	public synchronized IPath[] getChildren(IPath path) {
-		// OPTIMIZE: could be optimized so that we don't traverse all the deep
-		// children to find the immediate ones.
-		Set<IPath> children = new HashSet<>();
+	public IPath[] getChildren(IPath path) {
 		Node node = getNode(path);
-		if (node != null) {
-			Set possibleChildren = node.descendantsWithPayload;
-			if(possibleChildren != null) {
-				for (Object next : possibleChildren) {
-					IPath descendantPath = (IPath)next;
-					IPath childPath = null;
-					if(descendantPath.segmentCount() == (path.segmentCount() +  1)) {
-						childPath = descendantPath;
-					} else if (descendantPath.segmentCount() > path.segmentCount()) {
-						childPath = descendantPath.removeLastSegments(descendantPath.segmentCount() - path.segmentCount() - 1);
-					}
-					if (childPath != null) {
-						children.add(childPath);
-					}
-				}
-			}
-		}
-		return children.toArray(new IPath[children.size()]);
-	}
-
-	private boolean addToParents(IPath path, IPath parent) {
-		// this flag is used to indicate if the parent was previously in the set
-		boolean addedParent = false;
-		if (path == parent) {
-			// this is the leaf that was just added
-			addedParent = true;
-		} else {
-			Node node = getNode(parent);
-			if (node == null)
-				node = addNode(parent);
-			Set<IPath> children = node.descendantsWithPayload;
-			if (children == null) {
-				children = new HashSet<>();
-				node.descendantsWithPayload = children;
-				// this is a new folder in the sync set
-				addedParent = true;
-			}
-			children.add(path);
-		}
-		// if the parent already existed and the resource is new, record it
-		if ((parent.segmentCount() == 0 || !addToParents(path, parent.removeLastSegments(1))) && addedParent) {
-			// TODO: we may not need to record the removed subtree
-			// internalAddedSubtreeRoot(parent);
-		}
-		return addedParent;
-	}
-
-	private boolean removeFromParents(IPath path, IPath parent) {
-		// this flag is used to indicate if the parent was removed from the set
-		boolean removedParent = false;
-		Node node = getNode(parent);
-		if (node == null) {
-			// this is the leaf
-			removedParent = true;
-		} else {
-			Set children = node.descendantsWithPayload;
-			if (children == null) {
-				// this is the leaf
-				removedParent = true;
-			} else {
-				children.remove(path);
-				if (children.isEmpty()) {
-					node.descendantsWithPayload = null;
-					if (node.isEmpty())
-						removeNode(parent);
-					removedParent = true;
-				}
-			}
-		}
-		//	if the parent wasn't removed and the resource was, record it
-		if ((parent.segmentCount() == 0 || !removeFromParents(path, parent.removeLastSegments(1))) && removedParent) {
-			// TODO: may not need to record this
-			//internalRemovedSubtreeRoot(parent);
+		if (node == null || !node.hasDescendants())
+			return new IPath[0];
+		IPath[] children = new IPath[node.childCount];
+		int i = 0;
+		for (Node child : node.getChildren()) {
+			children[i++] = child.path;
 		}
-		return removedParent;
+		return children;
 	}
 
 	/**
 	 * Clear all entries from the path tree.
 	 */
-	public synchronized void clear() {
-		objects.clear();
+	public void clear() {
+		root = null;
+		size = 0;
 	}
 
 	/**
 	 * Return whether the path tree is empty.
 	 * @return whether the path tree is empty
 	 */
-	public synchronized boolean isEmpty() {
-		return objects.isEmpty();
+	public boolean isEmpty() {
+		return root == null;
 	}
 
 	/**
 	 * Return the paths in this tree that contain diffs.
 	 * @return the paths in this tree that contain diffs.
 	 */
-	public synchronized IPath[] getPaths() {
-		List<IPath> result = new ArrayList<>();
-		for (IPath path : objects.keySet()) {
-			Node node = getNode(path);
-			if (node.getPayload() != null)
-				result.add(path);
+	public IPath[] getPaths() {
+		List<IPath> result = new ArrayList<>(size);
+		for (Node node : getNodesWithPayload()) {
+			result.add(node.path);
 		}
 		return result.toArray(new IPath[result.size()]);
 	}
@@ -259,12 +258,10 @@ public class PathTree {
 	 * Return all the values contained in this path tree.
 	 * @return all the values in the tree
 	 */
-	public synchronized Collection<Object> values() {
-		List<Object> result = new ArrayList<>();
-		for (IPath path : objects.keySet()) {
-			Node node = getNode(path);
-			if (node.getPayload() != null)
-				result.add(node.getPayload());
+	public Collection<Object> values() {
+		List<Object> result = new ArrayList<>(size);
+		for (Node node : getNodesWithPayload()) {
+			result.add(node.getPayload());
 		}
 		return result;
 	}
@@ -274,22 +271,95 @@ public class PathTree {
 	 * @return the number of nodes contained in this path tree
 	 */
 	public int size() {
-		return values().size();
+		return size;
 	}
 
-	private Node getNode(IPath path) {
-		return objects.get(path);
+	/**
+	 * Return a copy of this tree that shares its nodes with this tree. Taking
+	 * a snapshot is a constant time operation; the cost of copying is paid by
+	 * the subsequent modifications of either tree, which copy the nodes on the
+	 * path to the node they modify.
+	 * @return a snapshot of this tree
+	 */
+	public PathTree snapshot() {
+		PathTree snapshot = new PathTree();
+		snapshot.root = root;
+		snapshot.size = size;
+		// The nodes are now shared so they must be copied before being modified
+		owner = new Object();
+		return snapshot;
+	}
+
+	private List<Node> getNodesWithPayload() {
+		List<Node> result = new ArrayList<>(size);
+		if (root == null)
+			return result;
+		Deque<Node> stack = new ArrayDeque<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			Node node = stack.pop();
+			if (node.getPayload() != null)
+				result.add(node);
+			if (node.children != null)
+				node.children.addValuesTo(stack);
+		}
+		return result;
 	}
 
-	private Node addNode(IPath path) {
-		Node node;
-		node = new Node();
-		objects.put(path, node);
+	private Node getNode(IPath path) {
+		Node node = root;
+		int segmentCount = path.segmentCount();
+		for (int i = 0; i < segmentCount && node != null; i++) {
+			node = node.getChild(path.segment(i));
+		}
 		return node;
 	}
 
-	private Object removeNode(IPath path) {
-		return objects.remove(path);
+	/*
+	 * Return the nodes from the root to the given path, creating missing nodes
+	 * and copying the nodes that are not owned by this tree.
+	 */
+	private Node[] getEditablePath(IPath path) {
+		int segmentCount = path.segmentCount();
+		Node[] trail = new Node[segmentCount + 1];
+		if (root == null)
+			root = new Node(path.uptoSegment(0), owner);
+		else if (root.owner != owner)
+			root = new Node(root, owner);
+		Node node = root;
+		trail[0] = node;
+		for (int i = 0; i < segmentCount; i++) {
+			String segment = path.segment(i);
+			Node child = node.getChild(segment);
+			if (child == null) {
+				child = new Node(i == segmentCount - 1 ? path : path.uptoSegment(i + 1), owner);
+				node.putChild(segment, child);
+			} else if (child.owner != owner) {
+				child = new Node(child, owner);
+				node.putChild(segment, child);
+			}
+			node = child;
+			trail[i + 1] = node;
+		}
+		return trail;
+	}
+
+	/*
+	 * Record in the ancestors of the last node of the trail that it gained or lost its payload
+	 */
+	private void payloadChanged(Node[] trail, int delta) {
+		int remaining = trail[trail.length - 1].flags;
+		while (remaining != 0) {
+			int bit = Integer.lowestOneBit(remaining);
+			remaining ^= bit;
+			flaggedDescendantsChanged(trail, trail.length - 1, bit, delta);
+		}
+	}
+
+	private void flaggedDescendantsChanged(Node[] trail, int index, int propertyBit, int delta) {
+		for (int i = 0; i < index; i++) {
+			trail[i].flaggedDescendantsChanged(propertyBit, delta);
+		}
 	}
 
 	/**
@@ -301,30 +371,51 @@ public class PathTree {
 	 * @param value whether the bit should be on or off
 	 * @return the paths whose bit changed
 	 */
-	public synchronized IPath[] setPropogatedProperty(IPath path, int property, boolean value) {
-		Set<IPath> changed = new HashSet<>();
-		internalSetPropertyBit(path, property, value, changed);
-		return changed.toArray(new IPath[changed.size()]);
-	}
-
-	private void internalSetPropertyBit(IPath path, int property, boolean value, Set<IPath> changed) {
-		if (path.segmentCount() == 0)
-			return;
+	public IPath[] setPropogatedProperty(IPath path, int property, boolean value) {
 		Node node = getNode(path);
-		if (node == null)
-			return;
-		// No need to set it if the value hans't changed
-		if (value == node.hasFlag(property))
-			return;
-		// Only unset the property if no descendants have the flag set
-		if (!value && node.descendantHasFlag(property))
-			return;
-		node.setProperty(property, value);
-		changed.add(path);
-		internalSetPropertyBit(path.removeLastSegments(1), property, value, changed);
+		if (node == null || path.segmentCount() == 0)
+			return new IPath[0];
+		// Find the ancestors up to which the bit changes before modifying anything
+		Node[] trail = new Node[path.segmentCount() + 1];
+		trail[0] = root;
+		for (int i = 0; i < path.segmentCount(); i++) {
+			trail[i + 1] = trail[i].getChild(path.segment(i));
+		}
+		int last = trail.length - 1;
+		int first = last + 1;
+		// Number of descendants whose bit is unset on the way up
+		int unset = 0;
+		// The root never has properties
+		while (first > 1) {
+			Node next = trail[first - 1];
+			// No need to set it if the value hans't changed
+			if (value == next.hasFlag(property))
+				break;
+			// Only unset the property if no descendants have the flag set
+			if (!value && next.getFlaggedDescendantCount(property) > unset)
+				break;
+			if (!value && next.payload != null)
+				unset++;
+			first--;
+		}
+		if (first > last)
+			return new IPath[0];
+		trail = getEditablePath(path);
+		IPath[] changed = new IPath[last - first + 1];
+		for (int i = last; i >= first; i--) {
+			Node changedNode = trail[i];
+			if (value)
+				changedNode.flags |= property;
+			else
+				changedNode.flags ^= property;
+			if (changedNode.payload != null)
+				flaggedDescendantsChanged(trail, i, property, value ? 1 : -1);
+			changed[last - i] = changedNode.path;
+		}
+		return changed;
 	}
 
-	public synchronized boolean getProperty(IPath path, int property) {
+	public boolean getProperty(IPath path, int property) {
 		if (path.segmentCount() == 0)
 			return false;
 		Node node = getNode(path);
@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.internal.core.mapping;
+
+import java.util.Collection;
+
+/**
+ * A map from path segments to values that is implemented as a hash array
+ * mapped trie. Like the nodes of a {@link PathTree}, each trie node records the
+ * owner token of the tree that created it. A trie node is only modified in
+ * place when the modification is made on behalf of its owner; otherwise the
+ * trie nodes on the path to the modified entry are copied. A map can therefore
+ * be shared by copying a reference, and a modification of a shared map copies
+ * a few small arrays, however many entries the map has.
+ * <p>
+ * Each trie node holds pairs of slots. A pair either holds a key and its value
+ * or a <code>null</code> key and the trie node of the next level. Once the 32
+ * bits of the hash code are used up, the entries are stored in a list.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+final class SegmentMap<V> {
+
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	private static final Object[] NO_SLOTS = new Object[0];
+
+	private final Object owner;
+	private int bitmap;
+	private Object[] slots;
+
+	SegmentMap(Object owner) {
+		this(owner, 0, NO_SLOTS);
+	}
+
+	private SegmentMap(Object owner, int bitmap, Object[] slots) {
+		this.owner = owner;
+		this.bitmap = bitmap;
+		this.slots = slots;
+	}
+
+	/**
+	 * Return the value of the given key or <code>null</code>.
+	 * @param key the key
+	 * @return the value of the key or <code>null</code>
+	 */
+	@SuppressWarnings("unchecked")
+	V get(String key) {
+		int hash = key.hashCode();
+		SegmentMap<V> map = this;
+		for (int shift = 0; ; shift += BITS) {
+			if (shift >= Integer.SIZE)
+				return map.getFromList(key);
+			int bit = bit(hash, shift);
+			if ((map.bitmap & bit) == 0)
+				return null;
+			int index = map.index(bit);
+			Object k = map.slots[index];
+			if (k == null) {
+				map = (SegmentMap<V>) map.slots[index + 1];
+			} else {
+				return key.equals(k) ? (V) map.slots[index + 1] : null;
+			}
+		}
+	}
+
+	/**
+	 * Associate the value with the key. The map is modified in place if it is
+	 * owned by the given owner and copied otherwise.
+	 * @param owner the owner token of the modifying tree
+	 * @param key the key
+	 * @param value the value
+	 * @param added set to <code>true</code> if the key was not in the map
+	 * @return the modified map
+	 */
+	SegmentMap<V> put(Object owner, String key, V value, boolean[] added) {
+		return put(owner, key, key.hashCode(), 0, value, added);
+	}
+
+	/**
+	 * Remove the key from the map. The map is modified in place if it is owned
+	 * by the given owner and copied otherwise.
+	 * @param owner the owner token of the modifying tree
+	 * @param key the key
+	 * @param removed set to <code>true</code> if the key was in the map
+	 * @return the modified map, which may be empty
+	 */
+	SegmentMap<V> remove(Object owner, String key, boolean[] removed) {
+		return remove(owner, key, key.hashCode(), 0, removed);
+	}
+
+	/**
+	 * Return whether the map has no entries.
+	 * @return whether the map is empty
+	 */
+	boolean isEmpty() {
+		return slots.length == 0;
+	}
+
+	/**
+	 * Add the values of the map to the given collection.
+	 * @param values the collection to add the values to
+	 */
+	@SuppressWarnings("unchecked")
+	void addValuesTo(Collection<? super V> values) {
+		for (int i = 0; i < slots.length; i += 2) {
+			if (slots[i] == null)
+				((SegmentMap<V>) slots[i + 1]).addValuesTo(values);
+			else
+				values.add((V) slots[i + 1]);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private SegmentMap<V> put(Object owner, String key, int hash, int shift, V value, boolean[] added) {
+		if (shift >= Integer.SIZE)
+			return putInList(owner, key, value, added);
+		int bit = bit(hash, shift);
+		int index = index(bit);
+		if ((bitmap & bit) == 0) {
+			added[0] = true;
+			return insert(owner, bit, index, key, value);
+		}
+		Object k = slots[index];
+		Object v = slots[index + 1];
+		if (k == null) {
+			SegmentMap<V> child = ((SegmentMap<V>) v).put(owner, key, hash, shift + BITS, value, added);
+			return child == v ? this : set(owner, index + 1, child);
+		}
+		if (key.equals(k)) {
+			return set(owner, index + 1, value);
+		}
+		// Both entries move to the next level
+		String other = (String) k;
+		boolean[] ignored = new boolean[1];
+		SegmentMap<V> child = new SegmentMap<V>(owner)
+				.put(owner, other, other.hashCode(), shift + BITS, (V) v, ignored)
+				.put(owner, key, hash, shift + BITS, value, ignored);
+		added[0] = true;
+		SegmentMap<V> result = set(owner, index, null);
+		result.slots[index + 1] = child;
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private SegmentMap<V> remove(Object owner, String key, int hash, int shift, boolean[] removed) {
+		if (shift >= Integer.SIZE)
+			return removeFromList(owner, key, removed);
+		int bit = bit(hash, shift);
+		if ((bitmap & bit) == 0)
+			return this;
+		int index = index(bit);
+		Object k = slots[index];
+		if (k == null) {
+			SegmentMap<V> child = ((SegmentMap<V>) slots[index + 1]).remove(owner, key, hash, shift + BITS, removed);
+			if (!removed[0])
+				return this;
+			if (child.isEmpty())
+				return delete(owner, bit, index);
+			return set(owner, index + 1, child);
+		}
+		if (!key.equals(k))
+			return this;
+		removed[0] = true;
+		return delete(owner, bit, index);
+	}
+
+	@SuppressWarnings("unchecked")
+	private V getFromList(String key) {
+		for (int i = 0; i < slots.length; i += 2) {
+			if (key.equals(slots[i]))
+				return (V) slots[i + 1];
+		}
+		return null;
+	}
+
+	private SegmentMap<V> putInList(Object owner, String key, V value, boolean[] added) {
+		for (int i = 0; i < slots.length; i += 2) {
+			if (key.equals(slots[i]))
+				return set(owner, i + 1, value);
+		}
+		added[0] = true;
+		return insert(owner, 0, slots.length, key, value);
+	}
+
+	private SegmentMap<V> removeFromList(Object owner, String key, boolean[] removed) {
+		for (int i = 0; i < slots.length; i += 2) {
+			if (key.equals(slots[i])) {
+				removed[0] = true;
+				return delete(owner, 0, i);
+			}
+		}
+		return this;
+	}
+
+	/*
+	 * Return this map if it is owned by the given owner or a copy owned by it
+	 */
+	private SegmentMap<V> editable(Object owner) {
+		if (this.owner == owner)
+			return this;
+		return new SegmentMap<>(owner, bitmap, slots.clone());
+	}
+
+	private SegmentMap<V> set(Object owner, int index, Object value) {
+		SegmentMap<V> result = editable(owner);
+		result.slots[index] = value;
+		return result;
+	}
+
+	private SegmentMap<V> insert(Object owner, int bit, int index, String key, Object value) {
+		Object[] newSlots = new Object[slots.length + 2];
+		System.arraycopy(slots, 0, newSlots, 0, index);
+		newSlots[index] = key;
+		newSlots[index + 1] = value;
+		System.arraycopy(slots, index, newSlots, index + 2, slots.length - index);
+		return replace(owner, bitmap | bit, newSlots);
+	}
+
+	private SegmentMap<V> delete(Object owner, int bit, int index) {
+		Object[] newSlots = slots.length == 2 ? NO_SLOTS : new Object[slots.length - 2];
+		System.arraycopy(slots, 0, newSlots, 0, index);
+		System.arraycopy(slots, index + 2, newSlots, index, slots.length - index - 2);
+		return replace(owner, bitmap & ~bit, newSlots);
+	}
+
+	private SegmentMap<V> replace(Object owner, int newBitmap, Object[] newSlots) {
+		if (this.owner != owner)
+			return new SegmentMap<>(owner, newBitmap, newSlots);
+		bitmap = newBitmap;
+		slots = newSlots;
+		return this;
+	}
+
+	private static int bit(int hash, int shift) {
+		return 1 << ((hash >>> shift) & MASK);
+	}
+
+	/*
+	 * Return the index of the pair of slots of the given bit
+	 */
+	private int index(int bit) {
+		return 2 * Integer.bitCount(bitmap & (bit - 1));
+	}
+}
@@ -0,0 +1,409 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.internal.core.subscribers;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.team.core.ITeamStatus;
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.core.TeamStatus;
+import org.eclipse.team.core.diff.IDiff;
+import org.eclipse.team.core.diff.IDiffVisitor;
+import org.eclipse.team.core.subscribers.Subscriber;
+import org.eclipse.team.core.synchronize.SyncInfo;
+import org.eclipse.team.core.synchronize.SyncInfoSet;
+import org.eclipse.team.internal.core.Messages;
+import org.eclipse.team.internal.core.Policy;
+import org.eclipse.team.internal.core.TeamPlugin;
+
+/**
+ * Traverses the resources of a subscriber using a fork/join pool. Sibling
+ * subtrees are computed concurrently but the results are handed to the
+ * sync info set or diff visitor on the calling thread, in the order of a
+ * sequential traversal. The results therefore do not depend on the order in
+ * which the workers are scheduled.
+ * <p>
+ * The subscriber methods used by the traversal (<code>members</code>,
+ * <code>getSyncInfo</code> and <code>getDiff</code>) must be thread safe.
+ * </p>
+ * <p>
+ * The pool is shared by all traversals and is shut down when the plug-in is
+ * stopped.
+ * </p>
+ */
+public class ConcurrentSubscriberTraversal {
+
+	/*
+	 * Interval in milliseconds at which the calling thread reports the
+	 * progress of the workers
+	 */
+	private static final long PROGRESS_INTERVAL = 100;
+
+	private static ForkJoinPool pool;
+
+	private final Subscriber subscriber;
+	private final IProgressMonitor monitor;
+
+	/*
+	 * Number of resources visited by the workers and the last one of them. The
+	 * calling thread reports both to the progress monitor.
+	 */
+	private final LongAdder visited = new LongAdder();
+	private volatile IResource current;
+
+	/**
+	 * Create a traversal of the resources of the given subscriber. The progress
+	 * monitor is only updated by the calling thread but may be checked for
+	 * cancellation by the workers.
+	 *
+	 * @param subscriber the subscriber
+	 * @param monitor a progress monitor that has been started
+	 */
+	public ConcurrentSubscriberTraversal(Subscriber subscriber, IProgressMonitor monitor) {
+		this.subscriber = subscriber;
+		this.monitor = Policy.monitorFor(monitor);
+	}
+
+	/**
+	 * Add the out-of-sync resources under the given resource to the given set
+	 * or remove them from it. Errors are added to the set. The set is updated
+	 * in a single batch once the subtree has been traversed.
+	 *
+	 * @param resource the root of the subtree
+	 * @param depth the depth of the traversal
+	 * @param set the set to be updated
+	 * @see Subscriber#collectOutOfSync(IResource[], int, SyncInfoSet, IProgressMonitor)
+	 */
+	public void collectOutOfSync(IResource resource, int depth, SyncInfoSet set) {
+		Object[] results = run(new CollectTask(resource, depth));
+		try {
+			set.beginInput();
+			apply(results, set);
+		} finally {
+			set.endInput(null);
+		}
+	}
+
+	/**
+	 * Visit the diffs of the resources under the given resource. The visitor
+	 * is called on the calling thread in the order of a sequential traversal
+	 * and the children of a diff are skipped if the visitor returns
+	 * <code>false</code>. The members of a resource are only traversed once
+	 * its diff has been visited, so the diffs of the members are computed
+	 * concurrently while the visitor is called for the diffs that precede
+	 * them and nothing is computed below the diffs the visitor skips.
+	 *
+	 * @param resource the root of the subtree
+	 * @param depth the depth of the traversal
+	 * @param visitor the visitor
+	 * @throws CoreException if the visitor or the subscriber fails for a
+	 *             resource that would have been visited sequentially
+	 * @see Subscriber#accept(org.eclipse.core.resources.IResource[], int, IDiffVisitor, IProgressMonitor)
+	 */
+	public void accept(IResource resource, int depth, IDiffVisitor visitor) throws CoreException {
+		DiffTask task = new DiffTask(resource, depth);
+		fork(task);
+		accept(task, visitor);
+	}
+
+	private void apply(Object[] results, SyncInfoSet set) {
+		for (Object result : results) {
+			if (result instanceof Object[]) {
+				apply((Object[]) result, set);
+			} else if (result instanceof SyncInfo) {
+				set.add((SyncInfo) result);
+			} else if (result instanceof ITeamStatus) {
+				set.addError((ITeamStatus) result);
+			} else if (result != null) {
+				set.remove((IResource) result);
+			}
+		}
+	}
+
+	private void accept(DiffTask task, IDiffVisitor visitor) throws CoreException {
+		await(task);
+		if (task.error != null)
+			throw task.error;
+		IDiff diff = task.diff;
+		if (diff != null && diff.getKind() != IDiff.NO_CHANGE) {
+			if (!visitor.visit(diff))
+				return;
+		}
+		if (task.membersError != null)
+			throw task.membersError;
+		IResource[] members = task.members;
+		if (members == null)
+			return;
+		int memberDepth = getMemberDepth(task.depth);
+		DiffTask[] tasks = new DiffTask[members.length];
+		try {
+			for (int i = 0; i < members.length; i++) {
+				tasks[i] = new DiffTask(members[i], memberDepth);
+				fork(tasks[i]);
+			}
+			for (int i = 0; i < tasks.length; i++) {
+				accept(tasks[i], visitor);
+				tasks[i] = null;
+			}
+		} finally {
+			cancelAll(tasks);
+		}
+	}
+
+	/*
+	 * Run the task in the pool and wait for its result, reporting the progress
+	 * of the workers while waiting.
+	 */
+	private <T> T run(ForkJoinTask<T> task) {
+		fork(task);
+		return await(task);
+	}
+
+	/*
+	 * Start computing the task in the pool. Tasks are computed by the thread
+	 * that waits for them if it is already running in a pool.
+	 */
+	private static void fork(ForkJoinTask<?> task) {
+		if (!ForkJoinTask.inForkJoinPool())
+			getPool().execute(task);
+	}
+
+	/*
+	 * Wait for the result of a task that has been forked, reporting the
+	 * progress of the workers and checking for cancellation while waiting.
+	 */
+	private <T> T await(ForkJoinTask<T> task) {
+		if (monitor.isCanceled()) {
+			task.cancel(false);
+			throw new OperationCanceledException();
+		}
+		if (ForkJoinTask.inForkJoinPool()) {
+			// Already running in a pool so we can compute the task directly
+			T result = task.invoke();
+			reportProgress();
+			return result;
+		}
+		try {
+			while (true) {
+				try {
+					T result = task.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+					reportProgress();
+					return result;
+				} catch (TimeoutException e) {
+					reportProgress();
+					if (monitor.isCanceled()) {
+						task.cancel(false);
+						throw new OperationCanceledException();
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			task.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private void reportProgress() {
+		IResource resource = current;
+		if (resource != null) {
+			monitor.subTask(NLS.bind(Messages.SubscriberEventHandler_2, new String[] { resource.getFullPath().toString() }));
+		}
+		monitor.worked((int) visited.sumThenReset());
+	}
+
+	private void visited(IResource resource) {
+		current = resource;
+		visited.increment();
+	}
+
+	private static int getMemberDepth(int depth) {
+		return depth == IResource.DEPTH_INFINITE ? IResource.DEPTH_INFINITE : IResource.DEPTH_ZERO;
+	}
+
+	/*
+	 * Cancel the tasks that have been forked but not joined after a failure
+	 */
+	private static void cancelAll(ForkJoinTask<?>[] tasks) {
+		for (ForkJoinTask<?> task : tasks) {
+			if (task != null)
+				task.cancel(false);
+		}
+	}
+
+	/**
+	 * Shut down the pool shared by the traversals. Traversals that are still
+	 * running are canceled. A traversal started afterwards uses a new pool.
+	 */
+	public static synchronized void shutdown() {
+		if (pool != null) {
+			pool.shutdownNow();
+			pool = null;
+		}
+	}
+
+	private static synchronized ForkJoinPool getPool() {
+		if (pool == null) {
+			pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), p -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+				thread.setName("Subscriber Traversal " + thread.getPoolIndex()); //$NON-NLS-1$
+				return thread;
+			}, null, false);
+		}
+		return pool;
+	}
+
+	/*
+	 * Computes the changes to be applied to a sync info set for a subtree. The
+	 * result contains, in the order of a sequential traversal, the sync info to
+	 * be added, the resources to be removed, the errors and the results of the
+	 * child subtrees as nested arrays.
+	 */
+	private final class CollectTask extends RecursiveTask<Object[]> {
+		private static final long serialVersionUID = 1L;
+		private final IResource resource;
+		private final int depth;
+
+		CollectTask(IResource resource, int depth) {
+			this.resource = resource;
+			this.depth = depth;
+		}
+
+		@Override
+		protected Object[] compute() {
+			Policy.checkCanceled(monitor);
+			Object[] results;
+			if (resource.getType() != IResource.FILE && depth != IResource.DEPTH_ZERO) {
+				IResource[] members;
+				try {
+					members = subscriber.members(resource);
+				} catch (TeamException e) {
+					return new Object[] {
+							new TeamStatus(IStatus.ERROR, TeamPlugin.ID, ITeamStatus.SYNC_INFO_SET_ERROR, NLS.bind(Messages.SubscriberEventHandler_8, new String[] { resource.getFullPath().toString(), e.getMessage() }), e, resource),
+							getResult(resource) };
+				}
+				int memberDepth = getMemberDepth(depth);
+				results = new Object[members.length + 1];
+				CollectTask[] tasks = new CollectTask[members.length];
+				try {
+					for (int i = 0; i < members.length; i++) {
+						IResource member = members[i];
+						if (memberDepth == IResource.DEPTH_INFINITE && member.getType() != IResource.FILE) {
+							tasks[i] = new CollectTask(member, memberDepth);
+							tasks[i].fork();
+						} else {
+							results[i] = getResult(member);
+						}
+					}
+					for (int i = 0; i < tasks.length; i++) {
+						if (tasks[i] != null) {
+							results[i] = tasks[i].join();
+							tasks[i] = null;
+						}
+					}
+				} catch (RuntimeException | Error e) {
+					cancelAll(tasks);
+					throw e;
+				}
+			} else {
+				results = new Object[1];
+			}
+			results[results.length - 1] = getResult(resource);
+			return results;
+		}
+
+		/*
+		 * Return the sync info to be added for the resource, the resource
+		 * itself if it is to be removed or the error that occurred.
+		 */
+		private Object getResult(IResource local) {
+			Policy.checkCanceled(monitor);
+			visited(local);
+			try {
+				SyncInfo info = subscriber.getSyncInfo(local);
+				if (info == null || info.getKind() == SyncInfo.IN_SYNC) {
+					// Resource is no longer under the subscriber control.
+					return local;
+				}
+				return info;
+			} catch (TeamException e) {
+				return new TeamStatus(
+						IStatus.ERROR, TeamPlugin.ID, ITeamStatus.RESOURCE_SYNC_INFO_ERROR,
+						NLS.bind(Messages.SubscriberEventHandler_9, new String[] { local.getFullPath().toString(), e.getMessage() }),
+						e, local);
+			}
+		}
+	}
+
+	/*
+	 * Computes the diff and the members of a single resource. The members are
+	 * not traversed by the task as the visitor decides, once the diff has been
+	 * visited, whether they are traversed at all.
+	 */
+	private final class DiffTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final IResource resource;
+		final int depth;
+		IDiff diff;
+		CoreException error;
+		IResource[] members;
+		CoreException membersError;
+
+		DiffTask(IResource resource, int depth) {
+			this.resource = resource;
+			this.depth = depth;
+		}
+
+		@Override
+		protected void compute() {
+			Policy.checkCanceled(monitor);
+			visited(resource);
+			try {
+				diff = subscriber.getDiff(resource);
+			} catch (CoreException e) {
+				// The members are not traversed sequentially after this error
+				error = e;
+				return;
+			}
+			if (depth != IResource.DEPTH_ZERO) {
+				try {
+					members = subscriber.members(resource);
+				} catch (CoreException e) {
+					membersError = e;
+				}
+			}
+		}
+	}
+}
@@ -15,8 +15,23 @@ package org.eclipse.team.internal.core.subscribers;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.security.MessageDigest;
 
+import org.eclipse.compare.internal.core.StreamComparator;
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IStorage;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.team.core.history.IFileRevision;
+import org.eclipse.team.core.variants.CachedResourceVariant;
+import org.eclipse.team.core.variants.IResourceVariant;
+import org.eclipse.team.internal.core.ContentDigestIndex;
+import org.eclipse.team.internal.core.Policy;
+import org.eclipse.team.internal.core.TeamPlugin;
 
 /**
  * This is an internal class that is used by the
@@ -30,6 +45,89 @@ public class ContentComparator extends AbstractContentComparator{
 		super(ignoreWhitespace);
 	}
 
+	@Override
+	public boolean compare(IResource e1, IResourceVariant e2, IProgressMonitor monitor) {
+		if (!shouldIgnoreWhitespace() && !StreamComparator.mayBeEqual(getSize(e1), getSize(e2))) {
+			monitor.done();
+			return false;
+		}
+		Boolean equal = compareDigests(e1, e2, monitor);
+		if (equal != null)
+			return equal.booleanValue();
+		return super.compare(e1, e2, monitor);
+	}
+
+	@Override
+	public boolean compare(IResource e1, IFileRevision e2, IProgressMonitor monitor) {
+		Boolean equal = compareDigests(e1, e2, monitor);
+		if (equal != null)
+			return equal.booleanValue();
+		return super.compare(e1, e2, monitor);
+	}
+
+	/*
+	 * Compare the digests of the contents of the local file and its remote.
+	 * If neither digest is in the index, the contents are compared until the
+	 * first difference and the digest is only recorded if they are equal.
+	 * Otherwise the missing digest is computed and recorded. Return null if
+	 * the remote is not indexed.
+	 */
+	private Boolean compareDigests(IResource local, Object remote, IProgressMonitor monitor) {
+		ContentDigestIndex index = ContentDigestIndex.getIndex();
+		if (index == null || local.getType() != IResource.FILE || !ContentDigestIndex.isIndexed(remote)
+				|| (remote instanceof IResourceVariant && ((IResourceVariant) remote).isContainer()))
+			return null;
+		IFile file = (IFile) local;
+		boolean ignoreWhitespace = shouldIgnoreWhitespace();
+		try {
+			monitor.beginTask(null, 100);
+			// Obtain the stamps first so that the digest is not used if the file changes while it is read
+			long stamp = file.getModificationStamp();
+			long timestamp = file.getLocalTimeStamp();
+			byte[] remoteDigest = index.getRemoteDigest(file, remote, ignoreWhitespace);
+			byte[] localDigest = index.getLocalDigest(file, ignoreWhitespace);
+			if (remoteDigest == null && localDigest == null) {
+				try (ContentDigestIndex.DigestInputStream remoteContents = new ContentDigestIndex.DigestInputStream(
+						getStorage(remote, Policy.subMonitorFor(monitor, 50)).getContents(), ignoreWhitespace);
+						InputStream localContents = file.getContents()) {
+					if (!StreamComparator.contentsEqual(localContents, remoteContents, ignoreWhitespace))
+						return Boolean.FALSE;
+					// Both streams were read to the end and the contents have the same digest
+					byte[] digest = remoteContents.getDigest();
+					index.setRemoteDigest(file, remote, ignoreWhitespace, digest);
+					index.setLocalDigest(file, stamp, timestamp, ignoreWhitespace, digest);
+					return Boolean.TRUE;
+				}
+			}
+			if (remoteDigest == null) {
+				try (InputStream contents = getStorage(remote, Policy.subMonitorFor(monitor, 50)).getContents()) {
+					remoteDigest = ContentDigestIndex.digest(contents, ignoreWhitespace);
+				}
+				index.setRemoteDigest(file, remote, ignoreWhitespace, remoteDigest);
+			}
+			if (localDigest == null) {
+				try (InputStream contents = file.getContents()) {
+					localDigest = ContentDigestIndex.digest(contents, ignoreWhitespace);
+				}
+				index.setLocalDigest(file, stamp, timestamp, ignoreWhitespace, localDigest);
+			}
+			return Boolean.valueOf(MessageDigest.isEqual(localDigest, remoteDigest));
+		} catch (CoreException e) {
+			TeamPlugin.log(e);
+			return Boolean.FALSE;
+		} catch (IOException e) {
+			return Boolean.FALSE;
+		} finally {
+			monitor.done();
+		}
+	}
+
+	private IStorage getStorage(Object remote, IProgressMonitor monitor) throws CoreException {
+		if (remote instanceof IResourceVariant)
+			return ((IResourceVariant) remote).getStorage(monitor);
+		return ((IFileRevision) remote).getStorage(monitor);
+	}
+
 	/**
 	 * Returns <code>true</code> if both input streams byte contents is
 	 * identical.
@@ -53,18 +151,7 @@ public class ContentComparator extends AbstractContentComparator{
 			if (is1 == null || is2 == null)
 				return false;
 
-			while (true) {
-				int c1 = is1.read();
-				while (shouldIgnoreWhitespace() && isWhitespace(c1))
-					c1 = is1.read();
-				int c2 = is2.read();
-				while (shouldIgnoreWhitespace() && isWhitespace(c2))
-					c2 = is2.read();
-				if (c1 == -1 && c2 == -1)
-					return true;
-				if (c1 != c2)
-					break;
-			}
+			return StreamComparator.contentsEqual(is1, is2, shouldIgnoreWhitespace());
 		} catch (IOException ex) {
 		} finally {
 			try {
@@ -84,9 +171,33 @@ public class ContentComparator extends AbstractContentComparator{
 		return false;
 	}
 
-	private boolean isWhitespace(int c) {
-		if (c == -1)
-			return false;
-		return Character.isWhitespace((char) c);
+	/*
+	 * Return the size of the contents of the local file or -1 if it is not known
+	 */
+	private long getSize(IResource resource) {
+		if (resource.getType() != IResource.FILE)
+			return -1;
+		URI location = resource.getLocationURI();
+		if (location == null)
+			return -1;
+		try {
+			IFileInfo info = EFS.getStore(location).fetchInfo();
+			return info.exists() ? info.getLength() : -1;
+		} catch (CoreException e) {
+			return -1;
+		}
+	}
+
+	/*
+	 * Return the size of the cached contents of the variant or -1 if it is not
+	 * known. The variant reports a size of 0 for empty contents as well as for
+	 * contents that are not cached, so a size of 0 is treated as unknown.
+	 */
+	private long getSize(IResourceVariant variant) {
+		if (variant instanceof CachedResourceVariant) {
+			long size = ((CachedResourceVariant) variant).getSize();
+			return size > 0 ? size : -1;
+		}
+		return -1;
 	}
 }
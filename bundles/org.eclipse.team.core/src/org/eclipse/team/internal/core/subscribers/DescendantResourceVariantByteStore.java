@@ -13,8 +13,12 @@
  *******************************************************************************/
 package org.eclipse.team.internal.core.subscribers;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IResource;
@@ -167,6 +171,70 @@ public abstract class DescendantResourceVariantByteStore extends ResourceVariant
 		return members.toArray(new IResource[members.size()]);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The bytes of the children are read from the base and remote stores in
+	 * one call each and then resolved as in <code>getBytes(IResource)</code>.
+	 * </p>
+	 */
+	@Override
+	public Map<IResource, byte[]> getMemberBytes(IResource resource) throws TeamException {
+		Map<IResource, byte[]> remoteBytes = getRemoteStore().getMemberBytes(resource);
+		Map<IResource, byte[]> baseBytes = getBaseStore().getMemberBytes(resource);
+		Map<IResource, byte[]> result = new LinkedHashMap<>();
+		for (Map.Entry<IResource, byte[]> entry : remoteBytes.entrySet()) {
+			IResource member = entry.getKey();
+			byte[] remote = entry.getValue();
+			byte[] base = baseBytes.get(member);
+			if (base == null || isDescendant(member, base, remote)) {
+				result.put(member, remote);
+			} else {
+				// The remote bytes are stale so use the base bytes
+				result.put(member, base);
+			}
+		}
+		for (Map.Entry<IResource, byte[]> entry : baseBytes.entrySet()) {
+			IResource member = entry.getKey();
+			// Add the base only if the remote does not know about it
+			// (i.e. hasn't marked it as deleted
+			if (!remoteBytes.containsKey(member) && !isVariantKnown(member)) {
+				result.put(member, entry.getValue());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Bytes that are equal to the base bytes are removed from the remote
+	 * store and the others are set in the remote store in a single batch.
+	 * </p>
+	 */
+	@Override
+	public IResource[] setBytes(Map<IResource, byte[]> bytes) throws TeamException {
+		List<IResource> changed = new ArrayList<>();
+		Map<IResource, byte[]> remoteBytes = new LinkedHashMap<>();
+		for (Map.Entry<IResource, byte[]> entry : bytes.entrySet()) {
+			IResource resource = entry.getKey();
+			byte[] newBytes = entry.getValue();
+			if (newBytes != null) {
+				byte[] baseBytes = baseStore.getBytes(resource);
+				if (baseBytes != null && equals(baseBytes, newBytes)) {
+					// Remove the existing bytes so the base will be used (thus saving space)
+					if (remoteStore.flushBytes(resource, IResource.DEPTH_ZERO)) {
+						changed.add(resource);
+					}
+					continue;
+				}
+			}
+			remoteBytes.put(resource, newBytes);
+		}
+		Collections.addAll(changed, remoteStore.setBytes(remoteBytes));
+		return changed.toArray(new IResource[changed.size()]);
+	}
+
 	@Override
 	public void run(IResource root, IWorkspaceRunnable runnable, IProgressMonitor monitor) throws TeamException {
 		remoteStore.run(root, runnable, monitor);
@@ -13,11 +13,7 @@
  *******************************************************************************/
 package org.eclipse.team.internal.core.subscribers;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
 
 import org.eclipse.team.core.diff.IDiff;
 import org.eclipse.team.core.diff.IThreeWayDiff;
@@ -25,21 +21,31 @@ import org.eclipse.team.core.synchronize.SyncInfo;
 
 public class DiffTreeStatistics {
 	/**
-	 * {Integer sync kind -&gt; Long number of infos with that sync kind in this sync set}
+	 * {sync kind -&gt; number of infos with that sync kind in this sync set}
 	 */
-	protected Map<Integer, Long> stats = Collections.synchronizedMap(new HashMap<>());
+	private final StateCounts stats;
+
+	/**
+	 * Create empty statistics.
+	 */
+	public DiffTreeStatistics() {
+		stats = new StateCounts(IDiff.ADD | IDiff.REMOVE | IDiff.CHANGE | IThreeWayDiff.DIRECTION_MASK);
+	}
+
+	/**
+	 * Create a copy of the given statistics.
+	 * @param statistics the statistics to copy
+	 */
+	public DiffTreeStatistics(DiffTreeStatistics statistics) {
+		stats = new StateCounts(statistics.stats);
+	}
 
 	/**
 	 * Count this sync state.
 	 * @param state the state
 	 */
 	public void add(int state) {
-		// update statistics
-		Long count = stats.get(Integer.valueOf(state));
-		if(count == null) {
-			count = Long.valueOf(0);
-		}
-		stats.put(Integer.valueOf(state), Long.valueOf(count.longValue() + 1));
+		stats.add(state);
 	}
 
 	/**
@@ -47,20 +53,7 @@ public class DiffTreeStatistics {
 	 * @param state the info type to remove
 	 */
 	public void remove(int state) {
-		// update stats
-		Integer kind = Integer.valueOf(state);
-		Long count = stats.get(kind);
-		if(count == null) {
-			// error condition, shouldn't be removing if we haven't added yet
-			// programmer error calling remove before add.
-		} else {
-			long newCount = count.intValue() - 1;
-			if(newCount > 0) {
-				stats.put(kind, Long.valueOf(newCount));
-			} else {
-				stats.remove(kind);
-			}
-		}
+		stats.remove(state);
 	}
 
 	/**
@@ -74,23 +67,7 @@ public class DiffTreeStatistics {
 	 * @return the number of sync info types added for the specific kind
 	 */
 	public long countFor(int state, int mask) {
-		if(mask == 0) {
-			Long count = stats.get(Integer.valueOf(state));
-			return count == null ? 0 : count.longValue();
-		} else {
-			Set keySet = stats.keySet();
-			long count = 0;
-			synchronized (stats) {
-				Iterator it = keySet.iterator();
-				while (it.hasNext()) {
-					Integer key = (Integer) it.next();
-					if((key.intValue() & mask) == state) {
-						count += stats.get(key).intValue();
-					}
-				}
-			}
-			return count;
-		}
+		return stats.countFor(state, mask);
 	}
 
 	/**
@@ -107,8 +84,8 @@ public class DiffTreeStatistics {
 	@Override
 	public String toString() {
 		StringBuilder out = new StringBuilder();
-		for (Integer kind : stats.keySet()) {
-			out.append(SyncInfo.kindToString(kind.intValue()) + ": " + stats.get(kind) + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		for (Map.Entry<Integer, Long> entry : stats.toMap().entrySet()) {
+			out.append(SyncInfo.kindToString(entry.getKey().intValue()) + ": " + entry.getValue() + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 		return out.toString();
 	}
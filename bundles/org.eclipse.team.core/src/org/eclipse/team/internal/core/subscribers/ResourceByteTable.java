@@ -0,0 +1,455 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.internal.core.subscribers;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IResource;
+
+/**
+ * A compact in-memory table that maps resources to bytes and keeps track of
+ * the members of each resource that have bytes.
+ * <p>
+ * Each resource known to the table is assigned a slot. The state of a slot is
+ * held in parallel <code>int</code> arrays rather than in an object per
+ * resource, and the bytes of all slots are packed into a single shared array.
+ * Resources are located through an open addressing index of slot numbers. The
+ * members of a resource are kept in a doubly linked list of slots so that a
+ * member can be removed in constant time while the order in which members were
+ * added is preserved.
+ * </p>
+ * <p>
+ * A slot is linked into the member list of its parent if and only if it has
+ * bytes. Slots that have no bytes are only kept while they have members.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ */
+public class ResourceByteTable {
+
+	private static final int NONE = -1;
+	private static final int INITIAL_SLOTS = 16;
+	private static final int INITIAL_BYTES = 256;
+	private static final byte[] EMPTY = new byte[0];
+
+	/*
+	 * The state of the slots. A slot that has no bytes has a length of NONE.
+	 * Free slots are chained through nextSibling.
+	 */
+	private IResource[] resources;
+	private int[] hashes;
+	private int[] parents;
+	private int[] firstChild;
+	private int[] lastChild;
+	private int[] nextSibling;
+	private int[] previousSibling;
+	private int[] childCount;
+	private int[] offsets;
+	private int[] lengths;
+	private int slotCount;
+	private int freeSlot = NONE;
+	private int size;
+	private int entryCount;
+
+	/*
+	 * Open addressing index with linear probing. An entry is the slot number
+	 * plus one so that 0 marks an empty position.
+	 */
+	private int[] index;
+
+	/*
+	 * The bytes of all slots. The bytes that are no longer referenced are
+	 * counted as garbage and dropped when the array has to grow.
+	 */
+	private byte[] data;
+	private int dataEnd;
+	private int garbage;
+
+	public ResourceByteTable() {
+		clear();
+	}
+
+	/**
+	 * Remove all entries from the table.
+	 */
+	public void clear() {
+		resources = new IResource[INITIAL_SLOTS];
+		hashes = new int[INITIAL_SLOTS];
+		parents = new int[INITIAL_SLOTS];
+		firstChild = new int[INITIAL_SLOTS];
+		lastChild = new int[INITIAL_SLOTS];
+		nextSibling = new int[INITIAL_SLOTS];
+		previousSibling = new int[INITIAL_SLOTS];
+		childCount = new int[INITIAL_SLOTS];
+		offsets = new int[INITIAL_SLOTS];
+		lengths = new int[INITIAL_SLOTS];
+		slotCount = 0;
+		freeSlot = NONE;
+		size = 0;
+		entryCount = 0;
+		index = new int[INITIAL_SLOTS * 2];
+		data = new byte[INITIAL_BYTES];
+		dataEnd = 0;
+		garbage = 0;
+	}
+
+	/**
+	 * Return whether no resource has bytes.
+	 * @return whether no resource has bytes
+	 */
+	public boolean isEmpty() {
+		return entryCount == 0;
+	}
+
+	/**
+	 * Return whether the given resource has bytes.
+	 * @param resource the resource
+	 * @return whether the given resource has bytes
+	 */
+	public boolean containsKey(IResource resource) {
+		int slot = find(resource);
+		return slot != NONE && lengths[slot] != NONE;
+	}
+
+	/**
+	 * Return a copy of the bytes of the given resource.
+	 * @param resource the resource
+	 * @return the bytes or <code>null</code> if the resource has none
+	 */
+	public byte[] get(IResource resource) {
+		int slot = find(resource);
+		if (slot == NONE || lengths[slot] == NONE)
+			return null;
+		return getBytes(slot);
+	}
+
+	/**
+	 * Return whether the bytes of the given resource are equal to the given
+	 * bytes.
+	 * @param resource the resource
+	 * @param bytes the bytes to compare with
+	 * @return whether the resource has bytes equal to the given bytes
+	 */
+	public boolean hasBytes(IResource resource, byte[] bytes) {
+		int slot = find(resource);
+		return slot != NONE && lengths[slot] != NONE
+				&& Arrays.equals(data, offsets[slot], offsets[slot] + lengths[slot], bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Set the bytes of the given resource. The bytes are copied.
+	 * @param resource the resource
+	 * @param bytes the bytes
+	 * @return whether the bytes of the resource changed
+	 */
+	public boolean put(IResource resource, byte[] bytes) {
+		int slot = intern(resource);
+		int length = lengths[slot];
+		if (length == bytes.length) {
+			if (Arrays.equals(data, offsets[slot], offsets[slot] + length, bytes, 0, length))
+				return false;
+			// Overwrite the bytes in place
+			System.arraycopy(bytes, 0, data, offsets[slot], length);
+			return true;
+		}
+		if (length != NONE) {
+			// The old bytes are dropped if the data array is compacted
+			lengths[slot] = NONE;
+			garbage += length;
+		} else {
+			entryCount++;
+			link(slot, resource.getParent());
+		}
+		offsets[slot] = allocate(bytes.length);
+		lengths[slot] = bytes.length;
+		System.arraycopy(bytes, 0, data, offsets[slot], bytes.length);
+		return true;
+	}
+
+	/**
+	 * Remove the bytes of the given resource and, depending on the depth, of
+	 * its members. Nothing is removed if the resource has no bytes.
+	 * @param resource the resource
+	 * @param depth the depth as defined by {@link IResource}
+	 * @return whether the resource had bytes
+	 */
+	public boolean remove(IResource resource, int depth) {
+		int slot = find(resource);
+		if (slot == NONE || lengths[slot] == NONE)
+			return false;
+		if (depth != IResource.DEPTH_ZERO) {
+			removeMembers(slot, depth == IResource.DEPTH_INFINITE);
+		}
+		removeBytes(slot);
+		unlink(slot);
+		releaseIfUnused(slot);
+		return true;
+	}
+
+	/**
+	 * Return the members of the given resource that have bytes, in the order
+	 * in which they were added.
+	 * @param resource the resource
+	 * @return the members of the resource that have bytes
+	 */
+	public IResource[] members(IResource resource) {
+		int slot = find(resource);
+		if (slot == NONE)
+			return new IResource[0];
+		IResource[] members = new IResource[childCount[slot]];
+		int i = 0;
+		for (int child = firstChild[slot]; child != NONE; child = nextSibling[child]) {
+			members[i++] = resources[child];
+		}
+		return members;
+	}
+
+	/**
+	 * Return the bytes of the members of the given resource, in the order in
+	 * which the members were added.
+	 * @param resource the resource
+	 * @return a map from each member that has bytes to a copy of its bytes
+	 */
+	public Map<IResource, byte[]> memberBytes(IResource resource) {
+		int slot = find(resource);
+		if (slot == NONE)
+			return new LinkedHashMap<>();
+		Map<IResource, byte[]> result = new LinkedHashMap<>(childCount[slot] * 4 / 3 + 1);
+		for (int child = firstChild[slot]; child != NONE; child = nextSibling[child]) {
+			result.put(resources[child], getBytes(child));
+		}
+		return result;
+	}
+
+	private byte[] getBytes(int slot) {
+		int length = lengths[slot];
+		if (length == 0)
+			return EMPTY;
+		return Arrays.copyOfRange(data, offsets[slot], offsets[slot] + length);
+	}
+
+	private void removeMembers(int slot, boolean deep) {
+		int child = firstChild[slot];
+		while (child != NONE) {
+			int next = nextSibling[child];
+			if (deep) {
+				removeMembers(child, true);
+			}
+			removeBytes(child);
+			// The parent has bytes so it cannot be released by the unlink
+			unlink(child);
+			releaseIfUnused(child);
+			child = next;
+		}
+	}
+
+	private void removeBytes(int slot) {
+		garbage += lengths[slot];
+		lengths[slot] = NONE;
+		entryCount--;
+	}
+
+	/*
+	 * Append the slot to the members of the given parent
+	 */
+	private void link(int slot, IContainer parent) {
+		if (parent == null)
+			return;
+		int parentSlot = intern(parent);
+		parents[slot] = parentSlot;
+		previousSibling[slot] = lastChild[parentSlot];
+		nextSibling[slot] = NONE;
+		if (lastChild[parentSlot] == NONE) {
+			firstChild[parentSlot] = slot;
+		} else {
+			nextSibling[lastChild[parentSlot]] = slot;
+		}
+		lastChild[parentSlot] = slot;
+		childCount[parentSlot]++;
+	}
+
+	/*
+	 * Remove the slot from the members of its parent and release the parent
+	 * if it is no longer needed
+	 */
+	private void unlink(int slot) {
+		int parentSlot = parents[slot];
+		if (parentSlot == NONE)
+			return;
+		int previous = previousSibling[slot];
+		int next = nextSibling[slot];
+		if (previous == NONE) {
+			firstChild[parentSlot] = next;
+		} else {
+			nextSibling[previous] = next;
+		}
+		if (next == NONE) {
+			lastChild[parentSlot] = previous;
+		} else {
+			previousSibling[next] = previous;
+		}
+		childCount[parentSlot]--;
+		parents[slot] = NONE;
+		previousSibling[slot] = NONE;
+		nextSibling[slot] = NONE;
+		releaseIfUnused(parentSlot);
+	}
+
+	private void releaseIfUnused(int slot) {
+		if (lengths[slot] != NONE || childCount[slot] > 0)
+			return;
+		removeFromIndex(slot);
+		resources[slot] = null;
+		nextSibling[slot] = freeSlot;
+		freeSlot = slot;
+		size--;
+	}
+
+	private static int hash(IResource resource) {
+		int h = resource.hashCode();
+		return (h ^ (h >>> 16)) * 0x9E3779B9;
+	}
+
+	private int find(IResource resource) {
+		int hash = hash(resource);
+		int mask = index.length - 1;
+		for (int i = hash & mask;; i = (i + 1) & mask) {
+			int slot = index[i] - 1;
+			if (slot == NONE)
+				return NONE;
+			if (hashes[slot] == hash && resources[slot].equals(resource))
+				return slot;
+		}
+	}
+
+	/*
+	 * Return the slot of the resource, assigning one if necessary
+	 */
+	private int intern(IResource resource) {
+		int slot = find(resource);
+		if (slot != NONE)
+			return slot;
+		if (freeSlot != NONE) {
+			slot = freeSlot;
+			freeSlot = nextSibling[slot];
+		} else {
+			if (slotCount == resources.length) {
+				growSlots();
+			}
+			slot = slotCount++;
+		}
+		resources[slot] = resource;
+		hashes[slot] = hash(resource);
+		parents[slot] = NONE;
+		firstChild[slot] = NONE;
+		lastChild[slot] = NONE;
+		nextSibling[slot] = NONE;
+		previousSibling[slot] = NONE;
+		childCount[slot] = 0;
+		lengths[slot] = NONE;
+		size++;
+		if (size * 3 > index.length * 2) {
+			rebuildIndex(index.length * 2);
+		} else {
+			addToIndex(index, slot);
+		}
+		return slot;
+	}
+
+	private void growSlots() {
+		int capacity = resources.length * 2;
+		resources = Arrays.copyOf(resources, capacity);
+		hashes = Arrays.copyOf(hashes, capacity);
+		parents = Arrays.copyOf(parents, capacity);
+		firstChild = Arrays.copyOf(firstChild, capacity);
+		lastChild = Arrays.copyOf(lastChild, capacity);
+		nextSibling = Arrays.copyOf(nextSibling, capacity);
+		previousSibling = Arrays.copyOf(previousSibling, capacity);
+		childCount = Arrays.copyOf(childCount, capacity);
+		offsets = Arrays.copyOf(offsets, capacity);
+		lengths = Arrays.copyOf(lengths, capacity);
+	}
+
+	private void addToIndex(int[] table, int slot) {
+		int mask = table.length - 1;
+		int i = hashes[slot] & mask;
+		while (table[i] != 0) {
+			i = (i + 1) & mask;
+		}
+		table[i] = slot + 1;
+	}
+
+	private void rebuildIndex(int capacity) {
+		int[] table = new int[capacity];
+		for (int slot = 0; slot < slotCount; slot++) {
+			if (resources[slot] != null) {
+				addToIndex(table, slot);
+			}
+		}
+		index = table;
+	}
+
+	/*
+	 * Remove the slot from the index and shift the following entries of the
+	 * probe sequence back so that no tombstones are needed
+	 */
+	private void removeFromIndex(int slot) {
+		int mask = index.length - 1;
+		int i = hashes[slot] & mask;
+		while (index[i] != slot + 1) {
+			i = (i + 1) & mask;
+		}
+		index[i] = 0;
+		for (int j = (i + 1) & mask; index[j] != 0; j = (j + 1) & mask) {
+			int home = hashes[index[j] - 1] & mask;
+			// Move the entry if its home position is not between i and j
+			boolean between = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+			if (!between) {
+				index[i] = index[j];
+				index[j] = 0;
+				i = j;
+			}
+		}
+	}
+
+	/*
+	 * Return the offset of a new range of the given length in the data
+	 * array. When the array is full, the live bytes are copied into a new
+	 * array that is twice as large as what is needed, which drops the garbage.
+	 */
+	private int allocate(int length) {
+		if (dataEnd + length > data.length) {
+			int live = dataEnd - garbage;
+			byte[] newData = new byte[Math.max(INITIAL_BYTES, (live + length) * 2)];
+			int end = 0;
+			for (int slot = 0; slot < slotCount; slot++) {
+				if (resources[slot] != null && lengths[slot] != NONE) {
+					System.arraycopy(data, offsets[slot], newData, end, lengths[slot]);
+					offsets[slot] = end;
+					end += lengths[slot];
+				}
+			}
+			data = newData;
+			dataEnd = end;
+			garbage = 0;
+		}
+		int offset = dataEnd;
+		dataEnd += length;
+		return offset;
+	}
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.internal.core.subscribers;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the number of occurrences of synchronization states. States only
+ * made up of the bits of a given mask are counted in an array indexed by the
+ * state with the unused bits squeezed out. Any other state is counted in a map.
+ * <p>
+ * The counts for a mask are aggregated by state the first time that they are
+ * requested. The aggregates are then kept up to date as states are added and
+ * removed, so that repeated queries for the same mask take constant time and
+ * do not allocate.
+ * </p>
+ */
+class StateCounts {
+
+	// the maximum number of masks for which aggregates are kept
+	private static final int MAX_AGGREGATES = 8;
+
+	// the positions of the bits of the mask, from lowest to highest
+	private final int[] bits;
+	private final int stateMask;
+	private final long[] counts;
+
+	// counts of the states that have bits outside of the mask
+	private Map<Integer, Long> otherCounts;
+
+	// the masks for which aggregates are kept and the aggregated counts
+	private final int[] aggregateMasks = new int[MAX_AGGREGATES];
+	private final long[][] aggregates = new long[MAX_AGGREGATES][];
+	private int aggregateCount;
+
+	/**
+	 * Create counts for states that are usually made up of the bits of the
+	 * given mask.
+	 * @param stateMask the bits that states are made up of
+	 */
+	StateCounts(int stateMask) {
+		this.stateMask = stateMask;
+		this.bits = new int[Integer.bitCount(stateMask)];
+		int i = 0;
+		for (int bit = 0; bit < 32; bit++) {
+			if ((stateMask & (1 << bit)) != 0) {
+				bits[i++] = bit;
+			}
+		}
+		this.counts = new long[1 << bits.length];
+	}
+
+	/**
+	 * Create a copy of the given counts.
+	 * @param other the counts to copy
+	 */
+	StateCounts(StateCounts other) {
+		synchronized (other) {
+			this.stateMask = other.stateMask;
+			this.bits = other.bits;
+			this.counts = other.counts.clone();
+			if (other.otherCounts != null)
+				this.otherCounts = new HashMap<>(other.otherCounts);
+			this.aggregateCount = other.aggregateCount;
+			for (int i = 0; i < aggregateCount; i++) {
+				aggregateMasks[i] = other.aggregateMasks[i];
+				aggregates[i] = other.aggregates[i].clone();
+			}
+		}
+	}
+
+	private int indexOf(int state) {
+		int index = 0;
+		for (int i = 0; i < bits.length; i++) {
+			index |= ((state >>> bits[i]) & 1) << i;
+		}
+		return index;
+	}
+
+	private int stateOf(int index) {
+		int state = 0;
+		for (int i = 0; i < bits.length; i++) {
+			state |= ((index >>> i) & 1) << bits[i];
+		}
+		return state;
+	}
+
+	synchronized void add(int state) {
+		if ((state & ~stateMask) != 0) {
+			if (otherCounts == null)
+				otherCounts = new HashMap<>();
+			otherCounts.merge(Integer.valueOf(state), Long.valueOf(1), Long::sum);
+			return;
+		}
+		counts[indexOf(state)]++;
+		for (int i = 0; i < aggregateCount; i++) {
+			aggregates[i][indexOf(state & aggregateMasks[i])]++;
+		}
+	}
+
+	synchronized void remove(int state) {
+		if ((state & ~stateMask) != 0) {
+			if (otherCounts != null) {
+				Integer key = Integer.valueOf(state);
+				Long count = otherCounts.get(key);
+				if (count != null) {
+					if (count.longValue() > 1) {
+						otherCounts.put(key, Long.valueOf(count.longValue() - 1));
+					} else {
+						otherCounts.remove(key);
+					}
+				}
+			}
+			return;
+		}
+		int index = indexOf(state);
+		if (counts[index] == 0) {
+			// shouldn't be removing if we haven't added yet
+			return;
+		}
+		counts[index]--;
+		for (int i = 0; i < aggregateCount; i++) {
+			aggregates[i][indexOf(state & aggregateMasks[i])]--;
+		}
+	}
+
+	synchronized long countFor(int state, int mask) {
+		if (mask == 0) {
+			if ((state & ~stateMask) != 0) {
+				Long count = otherCounts == null ? null : otherCounts.get(Integer.valueOf(state));
+				return count == null ? 0 : count.longValue();
+			}
+			return counts[indexOf(state)];
+		}
+		long count = 0;
+		if ((state & ~(stateMask & mask)) == 0) {
+			// All states that match are counted in the array
+			count = getAggregate(mask)[indexOf(state)];
+		}
+		if (otherCounts != null) {
+			for (Map.Entry<Integer, Long> entry : otherCounts.entrySet()) {
+				if ((entry.getKey().intValue() & mask) == state) {
+					count += entry.getValue().longValue();
+				}
+			}
+		}
+		return count;
+	}
+
+	/*
+	 * Return the counts of the states of the array aggregated by their bits
+	 * that are in the given mask
+	 */
+	private long[] getAggregate(int mask) {
+		for (int i = 0; i < aggregateCount; i++) {
+			if (aggregateMasks[i] == mask)
+				return aggregates[i];
+		}
+		long[] aggregate = new long[counts.length];
+		for (int index = 0; index < counts.length; index++) {
+			if (counts[index] != 0) {
+				aggregate[indexOf(stateOf(index) & mask)] += counts[index];
+			}
+		}
+		if (aggregateCount < MAX_AGGREGATES) {
+			aggregateMasks[aggregateCount] = mask;
+			aggregates[aggregateCount++] = aggregate;
+		}
+		return aggregate;
+	}
+
+	synchronized void clear() {
+		Arrays.fill(counts, 0);
+		otherCounts = null;
+		for (int i = 0; i < aggregateCount; i++) {
+			Arrays.fill(aggregates[i], 0);
+		}
+	}
+
+	/**
+	 * Return the states that have been counted and their counts.
+	 * @return a map from each state to its count
+	 */
+	synchronized Map<Integer, Long> toMap() {
+		Map<Integer, Long> result = new HashMap<>();
+		for (int index = 0; index < counts.length; index++) {
+			if (counts[index] != 0) {
+				result.put(Integer.valueOf(stateOf(index)), Long.valueOf(counts[index]));
+			}
+		}
+		if (otherCounts != null)
+			result.putAll(otherCounts);
+		return result;
+	}
+}
@@ -161,6 +161,17 @@ public class SubscriberChangeSetManager extends ActiveChangeSetManager {
 			super.queueEvent(event, front);
 		}
 
+		@Override
+		protected boolean isCoalescable(ResourceEvent event) {
+			return event.getType() == RESOURCE_CHANGE || event.getType() == RESOURCE_REMOVAL;
+		}
+
+		@Override
+		protected boolean coversDescendants(ResourceEvent event) {
+			// A change only visits the members that the subscriber still knows about
+			return event.getType() == RESOURCE_REMOVAL;
+		}
+
 		/*
 		 * Handle the removal
 		 */
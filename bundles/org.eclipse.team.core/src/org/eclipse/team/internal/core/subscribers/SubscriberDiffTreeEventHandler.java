@@ -192,7 +192,7 @@ public class SubscriberDiffTreeEventHandler extends SubscriberEventHandler {
 				handlePreemptiveEvents(monitor);
 				handlePendingDispatch(monitor);
 				return true;
-			});
+			}, monitor);
 		} catch (CoreException e) {
 			if (resource.getProject().isAccessible())
 				handleException(e, resource, ITeamStatus.SYNC_INFO_SET_ERROR, e.getMessage());
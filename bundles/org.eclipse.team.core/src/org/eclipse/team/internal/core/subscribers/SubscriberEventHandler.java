@@ -14,13 +14,23 @@
 package org.eclipse.team.internal.core.subscribers;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.mapping.ResourceTraversal;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
@@ -58,6 +68,64 @@ public abstract class SubscriberEventHandler extends BackgroundEventHandler {
 
 	private ISynchronizationScopeChangeListener scopeChangeListener;
 
+	// The maximum number of change events that are handed to the workers at once
+	private static final int MAX_BATCH_SIZE = 1000;
+
+	// Interval in milliseconds at which the job checks on the workers
+	private static final long PROGRESS_INTERVAL = 100;
+
+	private int workerCount = 1;
+	private ThreadPoolExecutor workers;
+
+	/*
+	 * The dispatch events and errors produced by the current worker thread.
+	 * This is null on the thread of the background job.
+	 */
+	private final ThreadLocal<List<Object>> workerResults = new ThreadLocal<>();
+
+	/*
+	 * An error that occurred on a worker thread. It is handled by the
+	 * background job once the worker is done.
+	 */
+	private static class WorkerError {
+		final CoreException exception;
+		final IResource resource;
+		final int code;
+		final String message;
+		WorkerError(CoreException exception, IResource resource, int code, String message) {
+			this.exception = exception;
+			this.resource = resource;
+			this.code = code;
+			this.message = message;
+		}
+	}
+
+	/*
+	 * The monitor shared by the workers. It records the progress and
+	 * cancellation that the background job forwards to and from its monitor.
+	 */
+	private static class WorkerMonitor extends NullProgressMonitor {
+		private final AtomicInteger work = new AtomicInteger();
+		private volatile boolean canceled;
+		private volatile String subTaskName;
+		@Override
+		public boolean isCanceled() {
+			return canceled;
+		}
+		@Override
+		public void setCanceled(boolean value) {
+			canceled = value;
+		}
+		@Override
+		public void subTask(String name) {
+			subTaskName = name;
+		}
+		@Override
+		public void worked(int amount) {
+			work.addAndGet(amount);
+		}
+	}
+
 	/**
 	 * Internal resource synchronization event. Can contain a result.
 	 */
@@ -132,6 +200,39 @@ public abstract class SubscriberEventHandler extends BackgroundEventHandler {
 			super.queueEvent(event, front);
 		}
 	}
+	/**
+	 * Set the number of threads used to calculate the synchronization state of
+	 * changed resources. With more than one thread, consecutive change events
+	 * are partitioned by project and the partitions are collected concurrently.
+	 * The results of each partition are fed to the set in the order of its
+	 * events and as part of the same dispatch. If the collection of an event is
+	 * canceled or fails with an error, the results of the events that have been
+	 * collected are still fed to the set and the events that have not been
+	 * collected are put back on the queue. The subscriber must support being
+	 * queried from several threads at once. By default, a single thread is used.
+	 * @param count the number of threads
+	 */
+	public synchronized void setWorkerCount(int count) {
+		workerCount = Math.max(1, count);
+	}
+
+	private synchronized int getWorkerCount() {
+		return workerCount;
+	}
+
+	@Override
+	protected boolean isCoalescable(ResourceEvent event) {
+		// Changes are calculated from the current state when they are processed
+		// and removals do not depend on the state at all
+		return event.getType() == SubscriberEvent.CHANGE || event.getType() == SubscriberEvent.REMOVAL;
+	}
+
+	@Override
+	protected boolean coversDescendants(ResourceEvent event) {
+		// The collection of a change only visits the members that the subscriber still knows about
+		return event.getType() == SubscriberEvent.REMOVAL;
+	}
+
 	/**
 	 * Schedule the job or process the events now.
 	 */
@@ -208,7 +309,7 @@ public abstract class SubscriberEventHandler extends BackgroundEventHandler {
 				// We only handle the exception if the resource's project is accessible.
 				// The project close delta will clean up.
 				if (resource.getProject().isAccessible())
-					handleException(e, resource, ITeamStatus.SYNC_INFO_SET_ERROR, NLS.bind(Messages.SubscriberEventHandler_8, new String[] { resource.getFullPath().toString(), e.getMessage() }));
+					reportException(e, resource, ITeamStatus.SYNC_INFO_SET_ERROR, NLS.bind(Messages.SubscriberEventHandler_8, new String[] { resource.getFullPath().toString(), e.getMessage() }));
 			}
 		}
 
@@ -217,11 +318,218 @@ public abstract class SubscriberEventHandler extends BackgroundEventHandler {
 			handleChange(resource);
 			handlePendingDispatch(monitor);
 		} catch (CoreException e) {
-			handleException(e, resource, ITeamStatus.RESOURCE_SYNC_INFO_ERROR, NLS.bind(Messages.SubscriberEventHandler_9, new String[] { resource.getFullPath().toString(), e.getMessage() }));
+			reportException(e, resource, ITeamStatus.RESOURCE_SYNC_INFO_ERROR, NLS.bind(Messages.SubscriberEventHandler_9, new String[] { resource.getFullPath().toString(), e.getMessage() }));
 		}
 		monitor.worked(1);
 	}
 
+	/*
+	 * Handle the exception or, on a worker thread, record it to be handled by
+	 * the background job
+	 */
+	private void reportException(CoreException e, IResource resource, int code, String message) {
+		List<Object> results = workerResults.get();
+		if (results != null) {
+			results.add(new WorkerError(e, resource, code, message));
+		} else {
+			handleException(e, resource, code, message);
+		}
+	}
+
+	/*
+	 * Collect the changes of the given event and of the change events that
+	 * directly follow it in the queue using the worker threads
+	 */
+	private void collectConcurrently(ResourceEvent first, IProgressMonitor monitor) {
+		List<ResourceEvent> batch = new ArrayList<>();
+		batch.add(first);
+		synchronized (this) {
+			Event next;
+			while (batch.size() < MAX_BATCH_SIZE && (next = peek()) instanceof ResourceEvent
+					&& next.getType() == SubscriberEvent.CHANGE) {
+				batch.add((ResourceEvent) nextElement());
+			}
+		}
+		// Changes in different projects are independent
+		Map<IResource, List<ResourceEvent>> partitions = new LinkedHashMap<>();
+		for (ResourceEvent event : batch) {
+			IResource project = event.getResource().getProject();
+			partitions.computeIfAbsent(project == null ? event.getResource() : project, key -> new ArrayList<>()).add(event);
+		}
+		if (partitions.size() == 1) {
+			for (int i = 0; i < batch.size(); i++) {
+				try {
+					collectEvent(batch.get(i), monitor);
+				} catch (RuntimeException | Error e) {
+					requeue(batch.subList(i + 1, batch.size()));
+					throw e;
+				}
+			}
+			return;
+		}
+		WorkerMonitor workerMonitor = new WorkerMonitor();
+		ThreadPoolExecutor executor = getWorkers();
+		List<Partition> work = new ArrayList<>(partitions.size());
+		List<Future<?>> futures = new ArrayList<>(partitions.size());
+		for (List<ResourceEvent> events : partitions.values()) {
+			Partition partition = new Partition(events);
+			work.add(partition);
+			futures.add(executor.submit(() -> partition.collect(workerMonitor)));
+		}
+		waitForWorkers(futures, workerMonitor, monitor);
+		// Feed the results of the collected events to the set in the order of
+		// the partitions and put the events that were not collected back on the queue
+		Throwable failure = null;
+		List<ResourceEvent> unprocessed = new ArrayList<>();
+		for (Partition partition : work) {
+			for (Object result : partition.results) {
+				if (result instanceof WorkerError) {
+					WorkerError error = (WorkerError) result;
+					handleException(error.exception, error.resource, error.code, error.message);
+				} else {
+					queueDispatchEvent((Event) result);
+				}
+			}
+			if (partition.failure != null) {
+				if (failure == null || (failure instanceof OperationCanceledException && !(partition.failure instanceof OperationCanceledException)))
+					failure = partition.failure;
+				// The event that failed is dropped, as it is when the events are collected sequentially
+				unprocessed.addAll(partition.events.subList(partition.collected + 1, partition.events.size()));
+			}
+		}
+		requeue(unprocessed);
+		if (failure == null) {
+			handlePendingDispatch(monitor);
+			return;
+		}
+		if (failure instanceof OperationCanceledException) {
+			// The results of the other partitions would be discarded by the cancellation
+			try {
+				dispatchEvents(Policy.subMonitorFor(monitor, 1));
+			} catch (TeamException e) {
+				handleException(e, null, ITeamStatus.SYNC_INFO_SET_ERROR, e.getMessage());
+			}
+		}
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		throw (Error) failure;
+	}
+
+	/*
+	 * Put the given events back on the front of the queue in their order
+	 */
+	private synchronized void requeue(List<ResourceEvent> events) {
+		for (int i = events.size() - 1; i >= 0; i--) {
+			queueEvent(events.get(i), true);
+		}
+	}
+
+	/*
+	 * The change events of a project and the results of the events that have
+	 * been collected by a worker. A failure ends the collection of the
+	 * partition and is rethrown by the background job.
+	 */
+	private class Partition {
+		final List<ResourceEvent> events;
+		final List<Object> results = new ArrayList<>();
+		int collected;
+		Throwable failure;
+
+		Partition(List<ResourceEvent> events) {
+			this.events = events;
+		}
+
+		void collect(IProgressMonitor monitor) {
+			List<Object> eventResults = new ArrayList<>();
+			workerResults.set(eventResults);
+			try {
+				for (ResourceEvent event : events) {
+					collectEvent(event, monitor);
+					results.addAll(eventResults);
+					eventResults.clear();
+					collected++;
+				}
+			} catch (RuntimeException | Error e) {
+				failure = e;
+			} finally {
+				workerResults.remove();
+			}
+		}
+	}
+
+	/*
+	 * Wait for the workers to finish while handling preemptive events and
+	 * forwarding progress and cancellation
+	 */
+	private void waitForWorkers(List<Future<?>> futures, WorkerMonitor workerMonitor, IProgressMonitor monitor) {
+		int reported = 0;
+		String reportedSubTask = null;
+		boolean interrupted = false;
+		for (Future<?> future : futures) {
+			while (true) {
+				if (monitor.isCanceled())
+					workerMonitor.setCanceled(true);
+				try {
+					future.get(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS);
+					break;
+				} catch (TimeoutException e) {
+					handlePreemptiveEvents(monitor);
+				} catch (ExecutionException e) {
+					// The partitions record their own failures
+					break;
+				} catch (InterruptedException e) {
+					// Stop the workers but wait for them so that their results are complete
+					workerMonitor.setCanceled(true);
+					interrupted = true;
+				}
+				String name = workerMonitor.subTaskName;
+				if (name != null && !name.equals(reportedSubTask)) {
+					monitor.subTask(name);
+					reportedSubTask = name;
+				}
+				int work = workerMonitor.work.get();
+				if (work > reported) {
+					monitor.worked(work - reported);
+					reported = work;
+				}
+			}
+		}
+		if (workerMonitor.work.get() > reported)
+			monitor.worked(workerMonitor.work.get() - reported);
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private synchronized ThreadPoolExecutor getWorkers() {
+		if (workers == null || workers.getMaximumPoolSize() != workerCount) {
+			if (workers != null)
+				workers.shutdown();
+			AtomicInteger threadCount = new AtomicInteger();
+			workers = new ThreadPoolExecutor(workerCount, workerCount, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+				Thread thread = new Thread(runnable, getName() + " " + threadCount.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+			workers.allowCoreThreadTimeOut(true);
+		}
+		return workers;
+	}
+
+	/*
+	 * Collect the changes for a change event. Runtime exceptions are reported
+	 * against the resource of the event so that the remaining events can be
+	 * processed.
+	 */
+	private void collectEvent(ResourceEvent event, IProgressMonitor monitor) {
+		try {
+			collect(event.getResource(), event.getDepth(), monitor);
+		} catch (OperationCanceledException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			reportException(new TeamException(Messages.SubscriberEventHandler_10, e), event.getResource(), ITeamStatus.SYNC_INFO_SET_ERROR, NLS.bind(Messages.SubscriberEventHandler_11, new String[] { event.getResource().getFullPath().toString(), e.getMessage() }));
+		}
+	}
+
 	/**
 	 * Return the subscriber associated with this event handler
 	 * @return the subscriber associated with this event handler
@@ -238,6 +546,10 @@ public abstract class SubscriberEventHandler extends BackgroundEventHandler {
 	protected abstract void handleChange(IResource resource) throws CoreException;
 
 	protected void handlePendingDispatch(IProgressMonitor monitor) {
+		if (workerResults.get() != null) {
+			// The background job dispatches the results of the workers
+			return;
+		}
 		if (isReadyForDispatch(false /*don't wait if queue is empty*/)) {
 			try {
 				dispatchEvents(Policy.subMonitorFor(monitor, 5));
@@ -305,10 +617,14 @@ public abstract class SubscriberEventHandler extends BackgroundEventHandler {
 					queueDispatchEvent(event);
 					break;
 				case SubscriberEvent.CHANGE :
-					collect(
-						event.getResource(),
-						((ResourceEvent)event).getDepth(),
-						monitor);
+					if (getWorkerCount() > 1) {
+						collectConcurrently((ResourceEvent)event, monitor);
+					} else {
+						collect(
+							event.getResource(),
+							((ResourceEvent)event).getDepth(),
+							monitor);
+					}
 					break;
 				case SubscriberEvent.INITIALIZE :
 					monitor.subTask(NLS.bind(Messages.SubscriberEventHandler_2, new String[] { event.getResource().getFullPath().toString() }));
@@ -337,7 +653,12 @@ public abstract class SubscriberEventHandler extends BackgroundEventHandler {
 	 * @param event the event
 	 */
 	protected void queueDispatchEvent(Event event) {
-		resultCache.add(event);
+		List<Object> results = workerResults.get();
+		if (results != null) {
+			results.add(event);
+		} else {
+			resultCache.add(event);
+		}
 	}
 
 	/**
@@ -395,6 +716,10 @@ public abstract class SubscriberEventHandler extends BackgroundEventHandler {
 	}
 
 	protected void handlePreemptiveEvents(IProgressMonitor monitor) {
+		if (workerResults.get() != null) {
+			// Only the background job runs the preemptive events
+			return;
+		}
 		Event event = peek();
 		if (event instanceof RunnableEvent && ((RunnableEvent)event).isPreemtive()) {
 			executeRunnable(nextElement(), monitor);
@@ -414,5 +739,11 @@ public abstract class SubscriberEventHandler extends BackgroundEventHandler {
 	public void shutdown() {
 		super.shutdown();
 		scope.removeScopeChangeListener(scopeChangeListener);
+		synchronized (this) {
+			if (workers != null) {
+				workers.shutdownNow();
+				workers = null;
+			}
+		}
 	}
 }
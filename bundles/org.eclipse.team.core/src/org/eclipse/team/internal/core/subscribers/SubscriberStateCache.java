@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.internal.core.subscribers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.resources.mapping.ResourceMapping;
+import org.eclipse.core.resources.mapping.ResourceTraversal;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.team.core.diff.IDiff;
+import org.eclipse.team.core.diff.IDiffVisitor;
+import org.eclipse.team.core.diff.IThreeWayDiff;
+import org.eclipse.team.core.subscribers.ISubscriberChangeEvent;
+import org.eclipse.team.core.subscribers.ISubscriberChangeListener;
+import org.eclipse.team.core.subscribers.Subscriber;
+import org.eclipse.team.core.subscribers.SubscriberResourceMappingContext;
+
+/**
+ * Caches the aggregated synchronization state of the containers of a
+ * subscriber. The state of a container is the direction and kind that
+ * {@link Subscriber#getState(ResourceMapping, int, IProgressMonitor)} returns
+ * for the container at infinite depth. The state of a container is computed
+ * from the cached states of its member containers, so only the containers on
+ * the path of a change are visited again.
+ * <p>
+ * The cached states of a resource and of its ancestors are discarded when the
+ * resource changes locally or when the subscriber reports a change for it.
+ * Subscriber listeners are notified in the order in which they were added, so
+ * a cache created before its owner registers as a listener discards the states
+ * before the owner is notified.
+ * </p>
+ */
+public class SubscriberStateCache implements IResourceChangeListener, ISubscriberChangeListener {
+
+	private static final int KIND_MASK = IDiff.ADD | IDiff.REMOVE | IDiff.CHANGE;
+
+	private final Subscriber subscriber;
+	private final Map<IResource, Integer> states = new ConcurrentHashMap<>();
+
+	// incremented whenever states are discarded so that states computed
+	// concurrently with a change are not cached
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * Return whether the cached states match the states computed by the given
+	 * subscriber. This is the case if the subscriber uses the default
+	 * implementations of <code>getState</code> and <code>accept</code>.
+	 * @param subscriber the subscriber
+	 * @return whether a cache can be used for the subscriber
+	 */
+	public static boolean supports(Subscriber subscriber) {
+		try {
+			Class<?> type = subscriber.getClass();
+			return type.getMethod("getState", ResourceMapping.class, int.class, IProgressMonitor.class).getDeclaringClass() == Subscriber.class //$NON-NLS-1$
+					&& type.getMethod("accept", ResourceTraversal[].class, IDiffVisitor.class).getDeclaringClass() == Subscriber.class //$NON-NLS-1$
+					&& type.getMethod("accept", ResourceTraversal[].class, IDiffVisitor.class, IProgressMonitor.class).getDeclaringClass() == Subscriber.class //$NON-NLS-1$
+					&& type.getMethod("accept", IResource[].class, int.class, IDiffVisitor.class).getDeclaringClass() == Subscriber.class //$NON-NLS-1$
+					&& type.getMethod("accept", IResource[].class, int.class, IDiffVisitor.class, IProgressMonitor.class).getDeclaringClass() == Subscriber.class; //$NON-NLS-1$
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Create a cache for the given subscriber. The cache listens to workspace
+	 * and subscriber changes until it is disposed.
+	 * @param subscriber the subscriber
+	 */
+	public SubscriberStateCache(Subscriber subscriber) {
+		this.subscriber = subscriber;
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+		subscriber.addListener(this);
+	}
+
+	/**
+	 * Stop listening to changes and discard the cached states.
+	 */
+	public void dispose() {
+		subscriber.removeListener(this);
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		generation.incrementAndGet();
+		states.clear();
+	}
+
+	/**
+	 * Return the synchronization state of the given mapping. The result is the
+	 * same as the result of
+	 * {@link Subscriber#getState(ResourceMapping, int, IProgressMonitor)}.
+	 * @param mapping the resource mapping
+	 * @param stateMask the mask that identifies the state flags of interest
+	 * @param monitor a progress monitor
+	 * @return the synchronization state of the mapping
+	 * @throws CoreException if an error occurs
+	 */
+	public int getState(ResourceMapping mapping, int stateMask, IProgressMonitor monitor) throws CoreException {
+		ResourceTraversal[] traversals = mapping.getTraversals(new SubscriberResourceMappingContext(subscriber, true), monitor);
+		int state = 0;
+		for (ResourceTraversal traversal : traversals) {
+			for (IResource resource : traversal.getResources()) {
+				state = combine(state, getState(resource, traversal.getDepth()));
+			}
+		}
+		return state & stateMask;
+	}
+
+	/*
+	 * Return the direction and kind of the diffs that Subscriber#accept visits
+	 * for the resource when the visitor only descends into changes
+	 */
+	private int getState(IResource resource, int depth) throws CoreException {
+		if (depth == IResource.DEPTH_INFINITE && resource.getType() != IResource.FILE) {
+			Integer cached = states.get(resource);
+			if (cached != null)
+				return cached.intValue();
+		}
+		long startGeneration = generation.get();
+		int state = 0;
+		IDiff diff = subscriber.getDiff(resource);
+		if (diff != null && diff.getKind() != IDiff.NO_CHANGE) {
+			state = getState(diff);
+			if (diff.getKind() != IDiff.CHANGE) {
+				// Only the children of a change are visited
+				return cache(resource, depth, state, startGeneration);
+			}
+		}
+		if (depth != IResource.DEPTH_ZERO) {
+			int memberDepth = depth == IResource.DEPTH_INFINITE ? IResource.DEPTH_INFINITE : IResource.DEPTH_ZERO;
+			for (IResource member : subscriber.members(resource)) {
+				state = combine(state, getState(member, memberDepth));
+			}
+		}
+		return cache(resource, depth, state, startGeneration);
+	}
+
+	private int cache(IResource resource, int depth, int state, long startGeneration) {
+		if (depth == IResource.DEPTH_INFINITE && resource.getType() != IResource.FILE && generation.get() == startGeneration) {
+			states.put(resource, Integer.valueOf(state));
+			if (generation.get() != startGeneration) {
+				// A change was reported while the state was stored
+				states.remove(resource);
+			}
+		}
+		return state;
+	}
+
+	private static int getState(IDiff diff) {
+		int state = diff.getKind();
+		if (diff instanceof IThreeWayDiff) {
+			state |= ((IThreeWayDiff) diff).getDirection();
+		}
+		return state;
+	}
+
+	/*
+	 * Combine two states. The directions are accumulated and a combination of
+	 * different kinds is a change.
+	 */
+	private static int combine(int state1, int state2) {
+		int kind1 = state1 & KIND_MASK;
+		int kind2 = state2 & KIND_MASK;
+		int kind = kind1 == 0 ? kind2 : (kind2 == 0 || kind1 == kind2 ? kind1 : IDiff.CHANGE);
+		return ((state1 | state2) & IThreeWayDiff.DIRECTION_MASK) | kind;
+	}
+
+	@Override
+	public void subscriberResourceChanged(ISubscriberChangeEvent[] deltas) {
+		for (ISubscriberChangeEvent delta : deltas) {
+			if ((delta.getFlags() & (ISubscriberChangeEvent.ROOT_ADDED | ISubscriberChangeEvent.ROOT_REMOVED)) != 0) {
+				generation.incrementAndGet();
+				states.clear();
+				return;
+			}
+			discard(delta.getResource());
+		}
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null)
+			return;
+		generation.incrementAndGet();
+		if (states.isEmpty())
+			return;
+		try {
+			delta.accept(child -> {
+				if (child.getAffectedChildren().length == 0) {
+					discard(child.getResource());
+				}
+				return true;
+			});
+		} catch (CoreException e) {
+			// The visitor does not throw exceptions
+			generation.incrementAndGet();
+			states.clear();
+		}
+	}
+
+	/*
+	 * Discard the states of the resource and its ancestors
+	 */
+	private void discard(IResource resource) {
+		generation.incrementAndGet();
+		for (IResource current = resource; current != null; current = current.getParent()) {
+			states.remove(current);
+		}
+	}
+}
@@ -13,8 +13,6 @@
  *******************************************************************************/
 package org.eclipse.team.internal.core.subscribers;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 import org.eclipse.team.core.synchronize.SyncInfo;
@@ -24,19 +22,15 @@ import org.eclipse.team.core.synchronize.SyncInfo;
  */
 public class SyncInfoStatistics {
 	//	{int sync kind -> int number of infos with that sync kind in this sync set}
-	protected Map<Integer, Long> stats = new HashMap<>();
+	private final StateCounts stats = new StateCounts(SyncInfo.CHANGE_MASK | SyncInfo.DIRECTION_MASK
+			| SyncInfo.PSEUDO_CONFLICT | SyncInfo.AUTOMERGE_CONFLICT | SyncInfo.MANUAL_CONFLICT);
 
 	/**
 	 * Count this sync kind. Only the type of the sync info is stored.
 	 * @param info the new info
 	 */
 	public void add(SyncInfo info) {
-		// update statistics
-		Long count = stats.get(Integer.valueOf(info.getKind()));
-		if(count == null) {
-			count = Long.valueOf(0);
-		}
-		stats.put(Integer.valueOf(info.getKind()), Long.valueOf(count.longValue() + 1));
+		stats.add(info.getKind());
 	}
 
 	/**
@@ -44,20 +38,7 @@ public class SyncInfoStatistics {
 	 * @param info the info type to remove
 	 */
 	public void remove(SyncInfo info) {
-		// update stats
-		Integer kind = Integer.valueOf(info.getKind());
-		Long count = stats.get(kind);
-		if(count == null) {
-			// error condition, shouldn't be removing if we haven't added yet
-			// programmer error calling remove before add.
-		} else {
-			long newCount = count.intValue() - 1;
-			if(newCount > 0) {
-				stats.put(kind, Long.valueOf(newCount));
-			} else {
-				stats.remove(kind);
-			}
-		}
+		stats.remove(info.getKind());
 	}
 
 	/**
@@ -71,20 +52,7 @@ public class SyncInfoStatistics {
 	 * @return the number of sync info types added for the specific kind
 	 */
 	public long countFor(int kind, int mask) {
-		if(mask == 0) {
-			Long count = stats.get(Integer.valueOf(kind));
-			return count == null ? 0 : count.longValue();
-		} else {
-			Iterator it = stats.keySet().iterator();
-			long count = 0;
-			while (it.hasNext()) {
-				Integer key = (Integer) it.next();
-				if((key.intValue() & mask) == kind) {
-					count += stats.get(key).intValue();
-				}
-			}
-			return count;
-		}
+		return stats.countFor(kind, mask);
 	}
 
 	/**
@@ -101,8 +69,8 @@ public class SyncInfoStatistics {
 	@Override
 	public String toString() {
 		StringBuilder out = new StringBuilder();
-		for (Integer kind : stats.keySet()) {
-			out.append(SyncInfo.kindToString(kind.intValue()) + ": " + stats.get(kind) + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		for (Map.Entry<Integer, Long> entry : stats.toMap().entrySet()) {
+			out.append(SyncInfo.kindToString(entry.getKey().intValue()) + ": " + entry.getValue() + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
 		return out.toString();
 	}
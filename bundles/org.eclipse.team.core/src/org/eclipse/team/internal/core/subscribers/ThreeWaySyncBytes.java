@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.internal.core.subscribers;
+
+import java.util.Arrays;
+
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.internal.core.Messages;
+
+/**
+ * A view of the sync bytes that a
+ * {@link org.eclipse.team.core.variants.ThreeWaySynchronizer} stores for a
+ * resource. The view locates the local timestamp, base and remote slots once
+ * and gives access to them without copying the underlying bytes.
+ * <p>
+ * The bytes are written in a binary format:
+ * </p>
+ * <pre>
+ * byte    0, which cannot start a legacy entry
+ * byte    format version
+ * long    local timestamp, big endian ({@link #NO_TIMESTAMP} if unknown)
+ * int     length of the base bytes, followed by the base bytes
+ * int     length of the remote bytes, followed by the remote bytes
+ * </pre>
+ * <p>
+ * Entries written in the legacy format, <code>timestamp/base/remote/</code>,
+ * can still be read. They are converted to the binary format when they are
+ * modified.
+ * </p>
+ */
+public final class ThreeWaySyncBytes {
+
+	/**
+	 * The timestamp of entries that were created without a local timestamp
+	 */
+	public static final long NO_TIMESTAMP = -1;
+
+	private static final byte MARKER = 0;
+	private static final byte VERSION = 1;
+	private static final int TIMESTAMP_OFFSET = 2;
+	private static final int SLOTS_OFFSET = TIMESTAMP_OFFSET + 8;
+
+	private final byte[] bytes;
+	private final long timestamp;
+	private final int baseOffset;
+	private final int baseLength;
+	private final int remoteOffset;
+	private final int remoteLength;
+
+	private ThreeWaySyncBytes(byte[] bytes, long timestamp, int baseOffset, int baseLength, int remoteOffset, int remoteLength) {
+		this.bytes = bytes;
+		this.timestamp = timestamp;
+		this.baseOffset = baseOffset;
+		this.baseLength = baseLength;
+		this.remoteOffset = remoteOffset;
+		this.remoteLength = remoteLength;
+	}
+
+	/**
+	 * Return a view of the given sync bytes, which may be in the binary or in
+	 * the legacy format. The bytes must not be modified while the view is in
+	 * use.
+	 *
+	 * @param bytes the sync bytes
+	 * @return a view of the sync bytes
+	 * @throws TeamException if the bytes are malformed
+	 */
+	public static ThreeWaySyncBytes parse(byte[] bytes) throws TeamException {
+		if (bytes.length > 0 && bytes[0] == MARKER) {
+			return parseBinary(bytes);
+		}
+		return parseLegacy(bytes);
+	}
+
+	/**
+	 * Encode the given slots in the binary format.
+	 *
+	 * @param timestamp the local timestamp
+	 * @param base the base bytes, empty if there is no base
+	 * @param remote the remote bytes, empty if there is no remote
+	 * @return the sync bytes
+	 */
+	public static byte[] toBytes(long timestamp, byte[] base, byte[] remote) {
+		return toBytes(timestamp, base, 0, base.length, remote, 0, remote.length);
+	}
+
+	private static byte[] toBytes(long timestamp, byte[] base, int baseOffset, int baseLength, byte[] remote, int remoteOffset, int remoteLength) {
+		byte[] result = new byte[SLOTS_OFFSET + 4 + baseLength + 4 + remoteLength];
+		result[0] = MARKER;
+		result[1] = VERSION;
+		for (int i = 0; i < 8; i++) {
+			result[TIMESTAMP_OFFSET + i] = (byte) (timestamp >>> (56 - 8 * i));
+		}
+		int offset = putInt(result, SLOTS_OFFSET, baseLength);
+		System.arraycopy(base, baseOffset, result, offset, baseLength);
+		offset = putInt(result, offset + baseLength, remoteLength);
+		System.arraycopy(remote, remoteOffset, result, offset, remoteLength);
+		return result;
+	}
+
+	/**
+	 * Return the local timestamp.
+	 *
+	 * @return the local timestamp or {@link #NO_TIMESTAMP}
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Return whether there are base bytes.
+	 *
+	 * @return whether there are base bytes
+	 */
+	public boolean hasBase() {
+		return baseLength > 0;
+	}
+
+	/**
+	 * Return whether there are remote bytes.
+	 *
+	 * @return whether there are remote bytes
+	 */
+	public boolean hasRemote() {
+		return remoteLength > 0;
+	}
+
+	/**
+	 * Return a copy of the base bytes.
+	 *
+	 * @return the base bytes or <code>null</code> if there are none
+	 */
+	public byte[] getBase() {
+		return baseLength == 0 ? null : Arrays.copyOfRange(bytes, baseOffset, baseOffset + baseLength);
+	}
+
+	/**
+	 * Return a copy of the remote bytes.
+	 *
+	 * @return the remote bytes or <code>null</code> if there are none
+	 */
+	public byte[] getRemote() {
+		return remoteLength == 0 ? null : Arrays.copyOfRange(bytes, remoteOffset, remoteOffset + remoteLength);
+	}
+
+	/**
+	 * Return whether the remote bytes are equal to the given bytes.
+	 *
+	 * @param remote the bytes to compare with
+	 * @return whether the remote bytes are equal to the given bytes
+	 */
+	public boolean isRemote(byte[] remote) {
+		return Arrays.equals(bytes, remoteOffset, remoteOffset + remoteLength, remote, 0, remote.length);
+	}
+
+	/**
+	 * Return the sync bytes, in the binary format, with the remote bytes
+	 * replaced by the given bytes.
+	 *
+	 * @param remote the new remote bytes, empty to remove the remote
+	 * @return the new sync bytes
+	 */
+	public byte[] setRemote(byte[] remote) {
+		return toBytes(timestamp, bytes, baseOffset, baseLength, remote, 0, remote.length);
+	}
+
+	private static ThreeWaySyncBytes parseBinary(byte[] bytes) throws TeamException {
+		if (bytes.length < SLOTS_OFFSET + 8 || bytes[1] != VERSION) {
+			throw malformed(bytes);
+		}
+		long timestamp = 0;
+		for (int i = 0; i < 8; i++) {
+			timestamp = (timestamp << 8) | (bytes[TIMESTAMP_OFFSET + i] & 0xFF);
+		}
+		int baseLength = getInt(bytes, SLOTS_OFFSET);
+		int baseOffset = SLOTS_OFFSET + 4;
+		if (baseLength < 0 || baseLength > bytes.length - baseOffset - 4) {
+			throw malformed(bytes);
+		}
+		int remoteLength = getInt(bytes, baseOffset + baseLength);
+		int remoteOffset = baseOffset + baseLength + 4;
+		if (remoteLength != bytes.length - remoteOffset) {
+			throw malformed(bytes);
+		}
+		return new ThreeWaySyncBytes(bytes, timestamp, baseOffset, baseLength, remoteOffset, remoteLength);
+	}
+
+	/*
+	 * Slot i of a legacy entry is located between the i-th and the (i+1)-th
+	 * separator. Missing slots are empty.
+	 */
+	private static ThreeWaySyncBytes parseLegacy(byte[] bytes) throws TeamException {
+		int[] separators = new int[3];
+		int count = 0;
+		for (int i = 0; i < bytes.length && count < separators.length; i++) {
+			if (bytes[i] == SyncByteConverter.SEPARATOR_BYTE) {
+				separators[count++] = i;
+			}
+		}
+		int timestampLength = count > 0 ? separators[0] : bytes.length;
+		long timestamp = NO_TIMESTAMP;
+		if (timestampLength > 0) {
+			try {
+				timestamp = Long.parseLong(new String(bytes, 0, timestampLength));
+			} catch (NumberFormatException e) {
+				throw malformed(bytes);
+			}
+		}
+		int baseOffset = count > 0 ? separators[0] + 1 : bytes.length;
+		int baseEnd = count > 1 ? separators[1] : bytes.length;
+		int remoteOffset = count > 1 ? separators[1] + 1 : bytes.length;
+		int remoteEnd = count > 2 ? separators[2] : bytes.length;
+		return new ThreeWaySyncBytes(bytes, timestamp, baseOffset, baseEnd - baseOffset, remoteOffset, remoteEnd - remoteOffset);
+	}
+
+	private static TeamException malformed(byte[] bytes) {
+		return new TeamException(NLS.bind(Messages.SyncByteConverter_1, new String[] { new String(bytes) }));
+	}
+
+	private static int getInt(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+				| ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+	}
+
+	private static int putInt(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte) (value >>> 24);
+		bytes[offset + 1] = (byte) (value >>> 16);
+		bytes[offset + 2] = (byte) (value >>> 8);
+		bytes[offset + 3] = (byte) value;
+		return offset + 4;
+	}
+}
@@ -27,6 +27,7 @@ import org.eclipse.team.core.subscribers.ISubscriberChangeEvent;
 import org.eclipse.team.core.subscribers.ISubscriberChangeListener;
 import org.eclipse.team.core.subscribers.Subscriber;
 import org.eclipse.team.core.subscribers.SubscriberResourceMappingContext;
+import org.eclipse.team.internal.core.subscribers.SubscriberStateCache;
 import org.eclipse.team.internal.ui.Policy;
 import org.eclipse.team.internal.ui.Utils;
 import org.eclipse.team.ui.mapping.ISynchronizationCompareAdapter;
@@ -47,6 +48,10 @@ public class SubscriberTeamStateProvider extends TeamStateProvider implements IS
 
 	private Subscriber subscriber;
 
+	// The cached states of the containers, or null if the subscriber
+	// computes the states of mappings itself
+	private SubscriberStateCache stateCache;
+
 	/**
 	 * Create a provider that determines the synchronization state
 	 * from the subscriber. This method registers this provider as a listener
@@ -55,6 +60,10 @@ public class SubscriberTeamStateProvider extends TeamStateProvider implements IS
 	 */
 	public SubscriberTeamStateProvider(Subscriber subscriber) {
 		this.subscriber = subscriber;
+		// The cache is created first so that it is notified of subscriber
+		// changes before this provider notifies its listeners
+		if (SubscriberStateCache.supports(subscriber))
+			stateCache = new SubscriberStateCache(subscriber);
 		subscriber.addListener(this);
 	}
 
@@ -105,6 +114,8 @@ public class SubscriberTeamStateProvider extends TeamStateProvider implements IS
 				if (state != -1)
 					return state;
 			}
+			if (stateCache != null)
+				return stateCache.getState(mapping, stateMask, monitor);
 			return getSubscriber().getState(mapping, stateMask, monitor);
 		} catch (CoreException e) {
 			IProject[] projects = mapping.getProjects();
@@ -149,6 +160,8 @@ public class SubscriberTeamStateProvider extends TeamStateProvider implements IS
 	 */
 	public void dispose() {
 		subscriber.removeListener(this);
+		if (stateCache != null)
+			stateCache.dispose();
 	}
 
 	@Override
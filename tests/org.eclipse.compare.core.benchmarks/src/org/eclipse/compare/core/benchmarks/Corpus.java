@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.core.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible documents for the benchmarks. Each corpus consists of an
+ * ancestor and two documents derived from it by one kind of edit, generated
+ * from a fixed seed so that every run compares the same inputs.
+ */
+public enum Corpus {
+
+	/** A few lines changed, inserted or removed every hundred lines. */
+	SMALL_EDITS {
+		@Override
+		List<String> derive(List<String> ancestor, Random random) {
+			List<String> result = new ArrayList<>(ancestor.size());
+			for (String line : ancestor) {
+				int edit = random.nextInt(100);
+				if (edit == 0) {
+					result.add(line + " // changed"); //$NON-NLS-1$
+				} else if (edit == 1) {
+					result.add(line);
+					result.add(randomLine(random));
+				} else if (edit != 2) {
+					result.add(line);
+				}
+			}
+			return result;
+		}
+	},
+
+	/** A few large blocks of new lines inserted at random positions. */
+	LARGE_INSERTIONS {
+		@Override
+		List<String> derive(List<String> ancestor, Random random) {
+			List<String> result = new ArrayList<>(ancestor);
+			for (int i = 0; i < 4; i++) {
+				int position = random.nextInt(result.size() + 1);
+				List<String> block = new ArrayList<>();
+				for (int j = ancestor.size() / 8; j > 0; j--) {
+					block.add(randomLine(random));
+				}
+				result.addAll(position, block);
+			}
+			return result;
+		}
+	},
+
+	/** The ancestor cut into blocks of lines which are reordered. */
+	SHUFFLED_BLOCKS {
+		@Override
+		List<String> derive(List<String> ancestor, Random random) {
+			List<List<String>> blocks = new ArrayList<>();
+			for (int i = 0; i < ancestor.size(); i += 50) {
+				blocks.add(ancestor.subList(i, Math.min(i + 50, ancestor.size())));
+			}
+			Collections.shuffle(blocks, random);
+			List<String> result = new ArrayList<>(ancestor.size());
+			for (List<String> block : blocks) {
+				result.addAll(block);
+			}
+			return result;
+		}
+	},
+
+	/** The indentation of every tenth line changed. */
+	WHITESPACE_CHANGES {
+		@Override
+		List<String> derive(List<String> ancestor, Random random) {
+			List<String> result = new ArrayList<>(ancestor.size());
+			for (String line : ancestor) {
+				result.add(random.nextInt(10) == 0 ? "    " + line.trim() + "  " : line); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return result;
+		}
+	};
+
+	private static final long SEED = 4711;
+
+	private static final String[] TOKENS = { "int", "i", "=", "0;", "return", "if", "(x", "!=", "null)", "{", "}", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$
+			"foo();", "bar.baz(i);", "String", "s", "+=", "1;", "for", "while", "else" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+
+	/**
+	 * Returns the ancestor, left and right document of this corpus, in this
+	 * order.
+	 *
+	 * @param lines the number of lines of the ancestor
+	 * @return the lines of the three documents
+	 */
+	public List<List<String>> generate(int lines) {
+		Random random = new Random(SEED + ordinal());
+		List<String> ancestor = new ArrayList<>(lines);
+		for (int i = 0; i < lines; i++) {
+			// recurring lines such as braces make the diff work for its anchors
+			ancestor.add(random.nextInt(5) == 0 ? "\t}" : randomLine(random)); //$NON-NLS-1$
+		}
+		List<List<String>> result = new ArrayList<>(3);
+		result.add(ancestor);
+		result.add(derive(ancestor, random));
+		result.add(derive(ancestor, random));
+		return result;
+	}
+
+	abstract List<String> derive(List<String> ancestor, Random random);
+
+	static String randomLine(Random random) {
+		StringBuilder line = new StringBuilder("\t"); //$NON-NLS-1$
+		for (int i = random.nextInt(8) + 1; i > 0; i--) {
+			line.append(TOKENS[random.nextInt(TOKENS.length)]).append(' ');
+		}
+		return line.append(random.nextInt(1000)).toString();
+	}
+
+	/**
+	 * Joins the given lines into a document.
+	 *
+	 * @param lines the lines
+	 * @return the lines separated by line feeds, with a trailing line feed
+	 */
+	public static String toText(List<String> lines) {
+		StringBuilder text = new StringBuilder();
+		for (String line : lines) {
+			text.append(line).append('\n');
+		}
+		return text.toString();
+	}
+}
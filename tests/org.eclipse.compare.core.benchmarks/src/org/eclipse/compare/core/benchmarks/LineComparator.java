@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.core.benchmarks;
+
+import java.util.List;
+
+import org.eclipse.compare.internal.core.IConcurrentRangeComparator;
+import org.eclipse.compare.internal.core.IRangeHasher;
+import org.eclipse.compare.rangedifferencer.IRangeComparator;
+
+/**
+ * A comparator of lines which optionally ignores white space, similar to the
+ * document line comparator of the compare UI. Like that comparator, it
+ * ignores all white space characters of a line, not only the leading and
+ * trailing ones, and it may be used by several threads at once.
+ */
+public class LineComparator implements IRangeComparator, IRangeHasher, IConcurrentRangeComparator {
+
+	private final String[] lines;
+	private final boolean ignoreWhitespace;
+
+	public LineComparator(List<String> lines, boolean ignoreWhitespace) {
+		this.lines = new String[lines.size()];
+		for (int i = 0; i < this.lines.length; i++) {
+			String line = lines.get(i);
+			this.lines[i] = ignoreWhitespace ? removeWhitespace(line) : line;
+		}
+		this.ignoreWhitespace = ignoreWhitespace;
+	}
+
+	@Override
+	public int getRangeCount() {
+		return this.lines.length;
+	}
+
+	@Override
+	public boolean rangesEqual(int thisIndex, IRangeComparator other, int otherIndex) {
+		return this.lines[thisIndex].equals(((LineComparator) other).lines[otherIndex]);
+	}
+
+	@Override
+	public boolean skipRangeComparison(int length, int maxLength, IRangeComparator other) {
+		return false;
+	}
+
+	@Override
+	public boolean canHashRanges(IRangeComparator other) {
+		return other instanceof LineComparator && ((LineComparator) other).ignoreWhitespace == this.ignoreWhitespace;
+	}
+
+	@Override
+	public int getRangeHashCode(int index) {
+		return this.lines[index].hashCode();
+	}
+
+	@Override
+	public boolean isThreadSafe() {
+		// the lines are only read
+		return true;
+	}
+
+	private static String removeWhitespace(String line) {
+		StringBuilder result = new StringBuilder(line.length());
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (!Character.isWhitespace(c))
+				result.append(c);
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.core.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.compare.internal.core.patch.FileDiffResult;
+import org.eclipse.compare.internal.core.patch.FilePatch2;
+import org.eclipse.compare.internal.core.patch.LineReader;
+import org.eclipse.compare.patch.IFilePatch2;
+import org.eclipse.compare.patch.PatchConfiguration;
+import org.eclipse.compare.patch.PatchParser;
+import org.eclipse.compare.patch.ReaderCreator;
+import org.eclipse.compare.rangedifferencer.RangeDifference;
+import org.eclipse.compare.rangedifferencer.RangeDifferencer;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of parsing a patch and of matching its hunks against a file. The
+ * patch turns the ancestor of a corpus into its left document and is applied
+ * to the ancestor (exact matches) and to the right document (which requires
+ * shifting the hunks and computing the fuzz factor).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatchBenchmark {
+
+	private static final int CONTEXT = 3;
+
+	@Param
+	public Corpus corpus;
+
+	@Param({ "1000", "10000" })
+	public int lines;
+
+	/* the number of files in the parsed patch */
+	@Param({ "1", "20" })
+	public int files;
+
+	private String patch;
+	private String singleFilePatch;
+	private String ancestor;
+	private List<String> rightLines;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<List<String>> documents = this.corpus.generate(this.lines);
+		this.singleFilePatch = createPatch("file.txt", documents.get(0), documents.get(1)); //$NON-NLS-1$
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < this.files; i++) {
+			buffer.append(createPatch("file" + i + ".txt", documents.get(0), documents.get(1))); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		this.patch = buffer.toString();
+		this.ancestor = Corpus.toText(documents.get(0));
+		this.rightLines = LineReader.readLines(new BufferedReader(new StringReader(Corpus.toText(documents.get(2)))));
+	}
+
+	@Benchmark
+	public IFilePatch2[] parsePatch() throws CoreException {
+		return PatchParser.parsePatch(new StringReaderCreator(this.patch));
+	}
+
+	@Benchmark
+	public FileDiffResult refresh() throws CoreException {
+		FileDiffResult result = new FileDiffResult(parseSingleFilePatch(), new PatchConfiguration());
+		result.refresh(new StringReaderCreator(this.ancestor), new NullProgressMonitor());
+		return result;
+	}
+
+	@Benchmark
+	public int calculateFuzz() throws CoreException {
+		FileDiffResult result = new FileDiffResult(parseSingleFilePatch(), new PatchConfiguration());
+		return result.calculateFuzz(this.rightLines, new NullProgressMonitor());
+	}
+
+	private FilePatch2 parseSingleFilePatch() throws CoreException {
+		return (FilePatch2) PatchParser.parsePatch(new StringReaderCreator(this.singleFilePatch))[0];
+	}
+
+	/*
+	 * Creates a unified diff of the given documents
+	 */
+	private static String createPatch(String name, List<String> before, List<String> after) {
+		RangeDifference[] diffs = RangeDifferencer.findDifferences(new NullProgressMonitor(),
+				new LineComparator(before, false), new LineComparator(after, false));
+		StringBuilder buffer = new StringBuilder();
+		buffer.append("--- ").append(name).append('\n'); //$NON-NLS-1$
+		buffer.append("+++ ").append(name).append('\n'); //$NON-NLS-1$
+		int i = 0;
+		while (i < diffs.length) {
+			// merge differences whose context overlaps into one hunk
+			int j = i;
+			while (j + 1 < diffs.length && diffs[j + 1].leftStart() - diffs[j].leftEnd() <= 2 * CONTEXT) {
+				j++;
+			}
+			int start1 = Math.max(0, diffs[i].leftStart() - CONTEXT);
+			int end1 = Math.min(before.size(), diffs[j].leftEnd() + CONTEXT);
+			int start2 = diffs[i].rightStart() - (diffs[i].leftStart() - start1);
+			int end2 = diffs[j].rightEnd() + (end1 - diffs[j].leftEnd());
+			buffer.append("@@ -").append(start1 + 1).append(',').append(end1 - start1) //$NON-NLS-1$
+					.append(" +").append(start2 + 1).append(',').append(end2 - start2).append(" @@\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			int line = start1;
+			for (int k = i; k <= j; k++) {
+				RangeDifference diff = diffs[k];
+				for (; line < diff.leftStart(); line++) {
+					buffer.append(' ').append(before.get(line)).append('\n');
+				}
+				for (int l = diff.leftStart(); l < diff.leftEnd(); l++) {
+					buffer.append('-').append(before.get(l)).append('\n');
+				}
+				for (int r = diff.rightStart(); r < diff.rightEnd(); r++) {
+					buffer.append('+').append(after.get(r)).append('\n');
+				}
+				line = diff.leftEnd();
+			}
+			for (; line < end1; line++) {
+				buffer.append(' ').append(before.get(line)).append('\n');
+			}
+			i = j + 1;
+		}
+		return buffer.toString();
+	}
+
+	private static class StringReaderCreator extends ReaderCreator {
+
+		private final String contents;
+
+		StringReaderCreator(String contents) {
+			this.contents = contents;
+		}
+
+		@Override
+		public Reader createReader() {
+			return new StringReader(this.contents);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.core.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.compare.internal.core.CompareSettings;
+import org.eclipse.compare.rangedifferencer.RangeDifference;
+import org.eclipse.compare.rangedifferencer.RangeDifferencer;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the 2-way and 3-way {@link RangeDifferencer} operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeDifferencerBenchmark {
+
+	@Param
+	public Corpus corpus;
+
+	@Param({ "1000", "10000" })
+	public int lines;
+
+	@Param({ "false" })
+	public boolean ignoreWhitespace;
+
+	@Param({ "false" })
+	public boolean histogram;
+
+	@Param({ "false" })
+	public boolean parallel;
+
+	private LineComparator ancestor;
+	private LineComparator left;
+	private LineComparator right;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<List<String>> documents = this.corpus.generate(this.lines);
+		this.ancestor = new LineComparator(documents.get(0), this.ignoreWhitespace);
+		this.left = new LineComparator(documents.get(1), this.ignoreWhitespace);
+		this.right = new LineComparator(documents.get(2), this.ignoreWhitespace);
+		CompareSettings.getDefault().setHistogramDiffEnabled(this.histogram);
+		CompareSettings.getDefault().setParallelDiffEnabled(this.parallel);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		CompareSettings.getDefault().setHistogramDiffEnabled(false);
+		CompareSettings.getDefault().setParallelDiffEnabled(false);
+	}
+
+	@Benchmark
+	public RangeDifference[] findDifferences() {
+		return RangeDifferencer.findDifferences(new NullProgressMonitor(), this.left, this.right);
+	}
+
+	@Benchmark
+	public RangeDifference[] findRanges() {
+		return RangeDifferencer.findRanges(new NullProgressMonitor(), this.left, this.right);
+	}
+
+	@Benchmark
+	public RangeDifference[] findDifferences3() {
+		return RangeDifferencer.findDifferences(new NullProgressMonitor(), this.ancestor, this.left, this.right);
+	}
+
+	@Benchmark
+	public RangeDifference[] findRanges3() {
+		return RangeDifferencer.findRanges(new NullProgressMonitor(), this.ancestor, this.left, this.right);
+	}
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.core.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.compare.internal.core.CompareSettings;
+import org.eclipse.compare.internal.core.TextLineLCS;
+import org.eclipse.compare.internal.core.TextLineLCS.TextLine;
+import org.eclipse.core.runtime.SubMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the {@link TextLineLCS} used by the patcher to align the lines
+ * of a hunk with the lines of the patched file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextLineLCSBenchmark {
+
+	@Param
+	public Corpus corpus;
+
+	@Param({ "1000", "10000" })
+	public int lines;
+
+	@Param({ "false" })
+	public boolean histogram;
+
+	private TextLine[] lines1;
+	private TextLine[] lines2;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<List<String>> documents = this.corpus.generate(this.lines);
+		this.lines1 = TextLineLCS.getTextLines(Corpus.toText(documents.get(1)));
+		this.lines2 = TextLineLCS.getTextLines(Corpus.toText(documents.get(2)));
+		CompareSettings.getDefault().setHistogramDiffEnabled(this.histogram);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		CompareSettings.getDefault().setHistogramDiffEnabled(false);
+	}
+
+	@Benchmark
+	public TextLine[][] longestCommonSubsequence() {
+		TextLineLCS lcs = new TextLineLCS(this.lines1, this.lines2);
+		lcs.longestCommonSubsequence(SubMonitor.convert(null));
+		return lcs.getResult();
+	}
+}
@@ -35,10 +35,16 @@ import org.junit.runners.Suite.SuiteClasses;
 	FileDiffResultTest.class,
 	ContentMergeViewerTest.class,
 	PatchLinesTest.class,
+	PatcherEvaluationTest.class,
 	PatchUITest.class,
 	RangeDifferencerThreeWayDiffTest.class,
+	RangeDifferencerHistogramTest.class,
+	RangeComparatorInterningTest.class,
 	CompareUIPluginTest.class,
 	StructureCreatorTest.class,
+	StreamComparatorTest.class,
+	DifferencerTest.class,
+	ZipFileStructureCreatorTest.class,
 	CompareFileRevisionEditorInputTest.class})
 public class AllTests {
 	// test suite
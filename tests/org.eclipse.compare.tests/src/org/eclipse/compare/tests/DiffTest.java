@@ -17,6 +17,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.eclipse.compare.internal.DocLineComparator;
+import org.eclipse.compare.internal.core.CompareSettings;
 import org.eclipse.compare.internal.core.TextLineLCS;
 import org.eclipse.compare.rangedifferencer.*;
 import org.eclipse.core.runtime.SubMonitor;
@@ -244,6 +245,36 @@ public class DiffTest {
 		assertTrue(result[0].rightLength() == 1);
 	}
 
+	@Test
+	public void testParallelLCSMatchesSequentialLCS() {
+		StringBuilder b1 = new StringBuilder();
+		StringBuilder b2 = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			String line = Integer.toString((i * 7919) % 503);
+			if (i % 13 != 0)
+				b1.append(line).append(SEPARATOR);
+			if (i % 17 != 0)
+				b2.append(line).append(SEPARATOR);
+		}
+		String s1 = b1.toString();
+		String s2 = b2.toString();
+
+		// only uncapped computations are done in parallel
+		RangeDifference[] sequential;
+		RangeDifference[] parallel;
+		CompareSettings.getDefault().setCappingDisabled(true);
+		try {
+			sequential = getDifferences(s1, s2);
+			CompareSettings.getDefault().setParallelDiffEnabled(true);
+			parallel = getDifferences(s1, s2);
+		} finally {
+			CompareSettings.getDefault().setParallelDiffEnabled(false);
+			CompareSettings.getDefault().setCappingDisabled(false);
+		}
+
+		assertArrayEquals(sequential, parallel);
+	}
+
 	@Test
 	public void testDocDeleteEnd() {
 		String s1 = ABC + SEPARATOR + DEF + SEPARATOR + _123;
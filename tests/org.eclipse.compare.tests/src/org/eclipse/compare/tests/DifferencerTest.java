@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.compare.IStreamContentAccessor;
+import org.eclipse.compare.ITypedElement;
+import org.eclipse.compare.structuremergeviewer.Differencer;
+import org.eclipse.compare.structuremergeviewer.IStructureComparator;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.swt.graphics.Image;
+import org.junit.Test;
+
+public class DifferencerTest {
+
+	private static class Element implements IStructureComparator, IStreamContentAccessor, ITypedElement {
+		final String name;
+		byte[] contents;
+		List<Element> children;
+
+		Element(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public Object[] getChildren() {
+			return children == null ? null : children.toArray();
+		}
+
+		@Override
+		public InputStream getContents() {
+			return contents == null ? null : new ByteArrayInputStream(contents);
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public Image getImage() {
+			return null;
+		}
+
+		@Override
+		public String getType() {
+			return ITypedElement.UNKNOWN_TYPE;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Element && ((Element) other).name.equals(name);
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode();
+		}
+	}
+
+	/*
+	 * Records the calls to visit as the path of each node and its result
+	 */
+	private static class RecordingDifferencer extends Differencer {
+		final StringBuilder visited = new StringBuilder();
+		int progress;
+
+		@Override
+		protected Object visit(Object data, int result, Object ancestor, Object left, Object right) {
+			String path = (data == null ? "" : data) + "/" + getName(ancestor, left, right);
+			visited.append(path).append(' ').append(result).append('\n');
+			return path;
+		}
+
+		@Override
+		protected void updateProgress(IProgressMonitor progressMonitor, Object node) {
+			progress++;
+		}
+
+		private static String getName(Object... elements) {
+			for (Object element : elements) {
+				if (element != null)
+					return ((Element) element).name;
+			}
+			return null;
+		}
+	}
+
+	@Test
+	public void testParallelTraversalMatchesSequentialTraversal() {
+		for (int seed = 0; seed < 50; seed++) {
+			Random random = new Random(seed);
+			Element ancestor = createTree("root", 5, random);
+			Element left = modify(ancestor, random);
+			Element right = modify(ancestor, random);
+			boolean threeWay = seed % 2 == 0;
+
+			RecordingDifferencer sequential = new RecordingDifferencer();
+			sequential.findDifferences(threeWay, new NullProgressMonitor(), null, ancestor, left, right);
+			RecordingDifferencer parallel = new RecordingDifferencer();
+			parallel.setParallelism(4);
+			parallel.findDifferences(threeWay, new NullProgressMonitor(), null, ancestor, left, right);
+
+			assertEquals(sequential.visited.toString(), parallel.visited.toString());
+			assertEquals(sequential.progress, parallel.progress);
+		}
+	}
+
+	@Test
+	public void testParallelTraversalCanBeCanceled() {
+		Element left = createTree("root", 6, new Random(1));
+		Element right = modify(left, new Random(2));
+		RecordingDifferencer differencer = new RecordingDifferencer();
+		differencer.setParallelism(4);
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		try {
+			differencer.findDifferences(false, monitor, null, null, left, right);
+			fail("The traversal should have been canceled");
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		assertFalse(differencer.visited.length() > 0);
+	}
+
+	private static Element createTree(String name, int depth, Random random) {
+		Element element = new Element(name);
+		if (depth > 0 && random.nextInt(4) != 0) {
+			element.children = new ArrayList<>();
+			int count = random.nextInt(8);
+			for (int i = 0; i < count; i++) {
+				element.children.add(createTree("e" + random.nextInt(12), depth - 1, random));
+			}
+		} else {
+			element.contents = new byte[] { (byte) random.nextInt(3) };
+		}
+		return element;
+	}
+
+	private static Element modify(Element element, Random random) {
+		Element copy = new Element(element.name);
+		copy.contents = element.contents;
+		if (copy.contents != null && random.nextInt(10) == 0)
+			copy.contents = new byte[] { (byte) random.nextInt(3) };
+		if (element.children != null) {
+			copy.children = new ArrayList<>();
+			for (Element child : element.children) {
+				if (random.nextInt(15) != 0)
+					copy.children.add(modify(child, random));
+			}
+			if (random.nextInt(5) == 0)
+				copy.children.add(createTree("e" + random.nextInt(12), 2, random));
+		}
+		return copy;
+	}
+}
@@ -19,11 +19,13 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.compare.internal.Utilities;
 import org.eclipse.compare.internal.core.patch.FilePatch2;
 import org.eclipse.compare.internal.core.patch.FileDiffResult;
 import org.eclipse.compare.internal.core.patch.Hunk;
+import org.eclipse.compare.internal.core.patch.HunkResult;
 import org.eclipse.compare.internal.patch.Patcher;
 import org.eclipse.compare.patch.ApplyPatchOperation;
 import org.eclipse.compare.patch.IFilePatch;
@@ -214,6 +216,33 @@ public class FileDiffResultTest extends WorkspaceTest {
 		}
 	}
 
+	public void testCalculateFuzzShiftsMisplacedHunks() {
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			lines.add(i % 3 == 0 ? "}\n" : "line " + i + "\n");
+		}
+		FilePatch2 diff = new FilePatch2(null, 0, null, 0);
+		for (int start = 100; start < 1000; start += 100) {
+			new Hunk(diff, FilePatch2.CHANGE, start, 3, start, 3, new String[] { " " + lines.get(start),
+					"-" + lines.get(start + 1), "+changed " + start + "\n", " " + lines.get(start + 2) });
+		}
+		// move the second half of the hunks down by 10 lines
+		List<String> target = new ArrayList<>(lines);
+		for (int i = 0; i < 10; i++) {
+			target.add(450, "inserted " + i + "\n");
+		}
+
+		FileDiffResult fileDiffResult = new FileDiffResult(diff, patchConfiguration);
+		assertEquals(0, fileDiffResult.calculateFuzz(target, nullProgressMonitor));
+		HunkResult[] hunkResults = fileDiffResult.getHunkResults();
+		assertEquals(9, hunkResults.length);
+		for (int i = 0; i < hunkResults.length; i++) {
+			assertTrue(hunkResults[i].isOK());
+			assertEquals(i < 4 ? 0 : 10, hunkResults[i].getShift());
+		}
+		assertEquals("changed 500\n", target.get(511));
+	}
+
 	// utility methods
 
 	/**
@@ -144,6 +144,35 @@ public class PatchTest {
 		assertFalse(IFilePatch.DATE_UNKNOWN == patches[0].getAfterDate());
 	}
 
+	@Test
+	public void testParsePatchWithConsumer() throws CoreException {
+		for (String name : new String[] { "patch_context3_header.txt", "patch_workspacePatchMod.txt", //$NON-NLS-1$ //$NON-NLS-2$
+				"patch_workspacePatchDelete.txt" }) { //$NON-NLS-1$
+			ReaderCreator content = new ReaderCreator() {
+				@Override
+				public Reader createReader() {
+					return PatchUtils.getReader(name);
+				}
+			};
+			IFilePatch2[] expected = PatchParser.parsePatch(content);
+			List<IFilePatch2> actual = new ArrayList<>();
+			PatchParser.parsePatch(content, actual::add);
+			assertEquals(name, expected.length, actual.size());
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(name, expected[i].getTargetPath(new PatchConfiguration()),
+						actual.get(i).getTargetPath(new PatchConfiguration()));
+				assertEquals(name, expected[i].getHeader(), actual.get(i).getHeader());
+				IHunk[] expectedHunks = expected[i].getHunks();
+				IHunk[] actualHunks = actual.get(i).getHunks();
+				assertEquals(name, expectedHunks.length, actualHunks.length);
+				for (int j = 0; j < expectedHunks.length; j++) {
+					assertEquals(name, Arrays.asList(expectedHunks[j].getUnifiedLines()),
+							Arrays.asList(actualHunks[j].getUnifiedLines()));
+				}
+			}
+		}
+	}
+
 	// Test creation of new workspace patch
 	@Test
 	public void testWorkspacePatch_Create() {
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.compare.internal.core.CompareSettings;
+import org.eclipse.compare.internal.core.patch.FileDiffResult;
+import org.eclipse.compare.internal.core.patch.FilePatch2;
+import org.eclipse.compare.internal.core.patch.HunkResult;
+import org.eclipse.compare.internal.patch.Patcher;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that patches with many files are evaluated by several threads with
+ * the same results as by the calling thread.
+ */
+public class PatcherEvaluationTest {
+
+	// more files than Patcher evaluates in the calling thread
+	private static final int FILES= 64;
+
+	private IProject project;
+	private boolean parallelDiffEnabled;
+
+	/*
+	 * A patcher that records the threads that evaluate the diffs and can
+	 * delay or fail the evaluation of a diff
+	 */
+	private static class TestPatcher extends Patcher {
+		final Set<String> threads= ConcurrentHashMap.newKeySet();
+		final AtomicInteger evaluated= new AtomicInteger();
+		long delay;
+		int[] failing= new int[0];
+
+		@Override
+		public IFile getTargetFile(FilePatch2 diff) {
+			threads.add(Thread.currentThread().getName());
+			evaluated.incrementAndGet();
+			int index= indexOf(diff);
+			for (int i= 0; i < failing.length; i++) {
+				if (failing[i] == index) {
+					// earlier diffs fail later
+					sleep((failing.length - i) * 50);
+					throw new IllegalStateException("diff " + index);
+				}
+			}
+			sleep(delay);
+			return super.getTargetFile(diff);
+		}
+
+		private int indexOf(FilePatch2 diff) {
+			FilePatch2[] diffs= getDiffs();
+			for (int i= 0; i < diffs.length; i++) {
+				if (diffs[i] == diff)
+					return i;
+			}
+			return -1;
+		}
+
+		private static void sleep(long millis) {
+			if (millis == 0)
+				return;
+			try {
+				Thread.sleep(millis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		parallelDiffEnabled= CompareSettings.getDefault().isParallelDiffEnabled();
+		project= ResourcesPlugin.getWorkspace().getRoot().getProject("PatcherEvaluationTest");
+		project.create(null);
+		project.open(null);
+		for (int i= 0; i < FILES; i++) {
+			StringBuilder contents= new StringBuilder();
+			for (int line= 0; line < 20; line++) {
+				// some files only match with fuzz
+				contents.append(i % 5 == 0 && line == 1 ? "other" : "line" + line).append('\n');
+			}
+			project.getFile("file" + i + ".txt").create(new ByteArrayInputStream(contents.toString().getBytes()), true, null);
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		CompareSettings.getDefault().setParallelDiffEnabled(parallelDiffEnabled);
+		project.delete(true, null);
+	}
+
+	@Test
+	public void testParallelEvaluationMatchesSequential() throws Exception {
+		CompareSettings.getDefault().setParallelDiffEnabled(false);
+		TestPatcher sequential= createPatcher();
+		int sequentialFuzz= sequential.guessFuzzFactor(new NullProgressMonitor());
+		List<String> sequentialResults= evaluate(sequential, sequentialFuzz);
+		assertEquals(1, sequential.threads.size());
+
+		CompareSettings.getDefault().setParallelDiffEnabled(true);
+		TestPatcher parallel= createPatcher();
+		int parallelFuzz= parallel.guessFuzzFactor(new NullProgressMonitor());
+		List<String> parallelResults= evaluate(parallel, parallelFuzz);
+		if (Runtime.getRuntime().availableProcessors() > 1)
+			assertTrue(parallel.threads.contains("Patch Evaluation"));
+
+		assertTrue(sequentialFuzz > 0);
+		assertEquals(sequentialFuzz, parallelFuzz);
+		// the results are listed in the order of the diffs
+		assertEquals(sequentialResults, parallelResults);
+	}
+
+	@Test
+	public void testCancelStopsWorkers() throws Exception {
+		if (Runtime.getRuntime().availableProcessors() <= 1)
+			return;
+		CompareSettings.getDefault().setParallelDiffEnabled(true);
+		TestPatcher patcher= createPatcher();
+		patcher.delay= 50;
+		NullProgressMonitor monitor= new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return patcher.evaluated.get() > 0;
+			}
+		};
+		try {
+			patcher.guessFuzzFactor(monitor);
+			fail("The evaluation should have been canceled");
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		int evaluated= patcher.evaluated.get();
+		assertTrue(evaluated < FILES);
+		// no evaluation is started once the workers are stopped
+		Thread.sleep(500);
+		assertEquals(evaluated, patcher.evaluated.get());
+	}
+
+	@Test
+	public void testFailureReportedInOrder() throws Exception {
+		for (boolean parallel : new boolean[] { false, true }) {
+			CompareSettings.getDefault().setParallelDiffEnabled(parallel);
+			TestPatcher patcher= createPatcher();
+			patcher.failing= new int[] { 5, 40 };
+			try {
+				patcher.guessFuzzFactor(new NullProgressMonitor());
+				fail("The evaluation should have failed");
+			} catch (IllegalStateException e) {
+				// the failure of the first diff is reported even though it fails last
+				assertEquals("diff 5", e.getMessage());
+			}
+		}
+	}
+
+	private TestPatcher createPatcher() throws Exception {
+		StringBuilder patch= new StringBuilder();
+		for (int i= 0; i < FILES; i++) {
+			patch.append("--- file").append(i).append(".txt\n");
+			patch.append("+++ file").append(i).append(".txt\n");
+			patch.append("@@ -1,4 +1,4 @@\n");
+			patch.append(" line0\n line1\n-line2\n+changed").append(i).append("\n line3\n");
+		}
+		TestPatcher patcher= new TestPatcher();
+		patcher.parse(new BufferedReader(new StringReader(patch.toString())));
+		patcher.setTarget(project);
+		assertEquals(FILES, patcher.getDiffs().length);
+		return patcher;
+	}
+
+	/*
+	 * Refresh the results with the given fuzz factor and describe them in the
+	 * order of the diffs
+	 */
+	private List<String> evaluate(Patcher patcher, int fuzz) {
+		patcher.setFuzz(fuzz);
+		patcher.refresh();
+		List<String> results= new ArrayList<>();
+		for (FilePatch2 diff : patcher.getDiffs()) {
+			FileDiffResult result= patcher.getDiffResult(diff);
+			StringBuilder description= new StringBuilder(diff.getPath(false).toString());
+			description.append(' ').append(result.hasMatches());
+			for (HunkResult hunk : result.getHunkResults()) {
+				description.append(' ').append(hunk.isOK()).append('/').append(hunk.getFuzz()).append('/').append(hunk.getShift());
+			}
+			description.append(' ').append(result.getAfterLines());
+			results.add(description.toString());
+		}
+		return results;
+	}
+}
@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.compare.internal.DocLineComparator;
+import org.eclipse.compare.internal.core.CompareSettings;
+import org.eclipse.compare.internal.core.IRangeHasher;
+import org.eclipse.compare.internal.core.TextLineLCS;
+import org.eclipse.compare.internal.core.TextLineLCS.TextLine;
+import org.eclipse.compare.rangedifferencer.IRangeComparator;
+import org.eclipse.compare.rangedifferencer.RangeDifference;
+import org.eclipse.compare.rangedifferencer.RangeDifferencer;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jface.text.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the ranges of comparators with colliding hash codes are mapped to
+ * the same ids as equal ranges only, so that the differences match the
+ * differences computed without hash codes.
+ */
+public class RangeComparatorInterningTest {
+
+	// lines with equal hash codes
+	private static final String[] COLLIDING= new String[] { "Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB" };
+
+	private boolean histogramDiffEnabled;
+	private boolean parallelDiffEnabled;
+
+	/*
+	 * Compares lines without hash codes and counts the comparisons
+	 */
+	private static class LineComparator implements IRangeComparator {
+		final String[] lines;
+		int comparisons;
+
+		LineComparator(String[] lines) {
+			this.lines= lines;
+		}
+
+		@Override
+		public int getRangeCount() {
+			return lines.length;
+		}
+
+		@Override
+		public boolean rangesEqual(int thisIndex, IRangeComparator other, int otherIndex) {
+			comparisons++;
+			return lines[thisIndex].equals(((LineComparator) other).lines[otherIndex]);
+		}
+
+		@Override
+		public boolean skipRangeComparison(int length, int maxLength, IRangeComparator other) {
+			return false;
+		}
+	}
+
+	/*
+	 * Hashes lines with the given function, which may map unequal lines to
+	 * the same hash code
+	 */
+	private static class HashedLineComparator extends LineComparator implements IRangeHasher {
+		final ToIntFunction<String> hash;
+
+		HashedLineComparator(String[] lines, ToIntFunction<String> hash) {
+			super(lines);
+			this.hash= hash;
+		}
+
+		@Override
+		public boolean canHashRanges(IRangeComparator other) {
+			return other instanceof HashedLineComparator;
+		}
+
+		@Override
+		public int getRangeHashCode(int index) {
+			return hash.applyAsInt(lines[index]);
+		}
+	}
+
+	/*
+	 * Compares the lines of document line comparators without their hash codes
+	 */
+	private static class UnhashedComparator implements IRangeComparator {
+		final DocLineComparator comparator;
+
+		UnhashedComparator(DocLineComparator comparator) {
+			this.comparator= comparator;
+		}
+
+		@Override
+		public int getRangeCount() {
+			return comparator.getRangeCount();
+		}
+
+		@Override
+		public boolean rangesEqual(int thisIndex, IRangeComparator other, int otherIndex) {
+			return comparator.rangesEqual(thisIndex, ((UnhashedComparator) other).comparator, otherIndex);
+		}
+
+		@Override
+		public boolean skipRangeComparison(int length, int maxLength, IRangeComparator other) {
+			return false;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		CompareSettings settings= CompareSettings.getDefault();
+		histogramDiffEnabled= settings.isHistogramDiffEnabled();
+		parallelDiffEnabled= settings.isParallelDiffEnabled();
+		// the differences of both runs are only the same for the same algorithm
+		settings.setHistogramDiffEnabled(false);
+		settings.setParallelDiffEnabled(false);
+	}
+
+	@After
+	public void tearDown() {
+		CompareSettings settings= CompareSettings.getDefault();
+		settings.setHistogramDiffEnabled(histogramDiffEnabled);
+		settings.setParallelDiffEnabled(parallelDiffEnabled);
+	}
+
+	@Test
+	public void testCollidingHashCodes() {
+		assertEquals(COLLIDING[0].hashCode(), COLLIDING[1].hashCode());
+		assertEquals(COLLIDING[2].hashCode(), COLLIDING[5].hashCode());
+		Random random= new Random(1);
+		for (int run= 0; run < 20; run++) {
+			String[] left= randomLines(random, COLLIDING, 30 + random.nextInt(30));
+			String[] right= edit(random, left, COLLIDING);
+			assertSameDifferences(left, right, String::hashCode);
+			assertSameDifferences(left, right, String::length);
+		}
+	}
+
+	@Test
+	public void testAllHashCodesColliding() {
+		// few distinct lines fit into the probe budget even if all hash codes are equal
+		String[] alphabet= new String[12];
+		for (int i= 0; i < alphabet.length; i++) {
+			alphabet[i]= "line" + i;
+		}
+		Random random= new Random(2);
+		String[] left= randomLines(random, alphabet, 200);
+		String[] right= randomLines(random, alphabet, 200);
+		HashedLineComparator hashed1= new HashedLineComparator(left, line -> 0);
+		HashedLineComparator hashed2= new HashedLineComparator(right, line -> 0);
+		LineComparator plain1= new LineComparator(left);
+		LineComparator plain2= new LineComparator(right);
+		assertEquals(describe(RangeDifferencer.findDifferences(plain1, plain2)), describe(RangeDifferencer.findDifferences(hashed1, hashed2)));
+		// the lines are only compared while they are interned
+		int comparisons= hashed1.comparisons + hashed2.comparisons;
+		assertTrue(comparisons <= 8 * 400 + 1024 + 400);
+		assertTrue(comparisons < plain1.comparisons + plain2.comparisons);
+	}
+
+	@Test
+	public void testProbeBudgetExceeded() {
+		// many distinct lines with the same hash code exceed the probe budget
+		Random random= new Random(3);
+		String[] alphabet= new String[400];
+		for (int i= 0; i < alphabet.length; i++) {
+			alphabet[i]= "line" + i;
+		}
+		String[] left= randomLines(random, alphabet, 300);
+		String[] right= edit(random, left, alphabet);
+		HashedLineComparator hashed1= new HashedLineComparator(left, line -> 0);
+		HashedLineComparator hashed2= new HashedLineComparator(right, line -> 0);
+		RangeDifference[] differences= RangeDifferencer.findDifferences(hashed1, hashed2);
+		assertEquals(describe(RangeDifferencer.findDifferences(new LineComparator(left), new LineComparator(right))), describe(differences));
+		int budget= 8 * (left.length + right.length) + 1024;
+		assertTrue(hashed1.comparisons + hashed2.comparisons > budget);
+
+		// the same for hash codes which only collide for some of the lines
+		assertSameDifferences(left, right, line -> line.length() + line.charAt(line.length() - 1) % 2);
+	}
+
+	@Test
+	public void testDocLineComparatorHashCodes() {
+		String[] lines= new String[] { "Aa", "BB", "A a", " B B ", "a", "\tAa", "Aa  ", "x", "" };
+		Random random= new Random(4);
+		for (boolean ignoreWhitespace : new boolean[] { false, true }) {
+			for (int run= 0; run < 20; run++) {
+				String left= join(randomLines(random, lines, 20 + random.nextInt(40)));
+				String right= join(randomLines(random, lines, 20 + random.nextInt(40)));
+				DocLineComparator comparator1= createComparator(left, ignoreWhitespace);
+				DocLineComparator comparator2= createComparator(right, ignoreWhitespace);
+				assertTrue(comparator1.canHashRanges(comparator2));
+				// equal lines have equal hash codes
+				for (int i= 0; i < comparator1.getRangeCount(); i++) {
+					for (int j= 0; j < comparator2.getRangeCount(); j++) {
+						if (comparator1.rangesEqual(i, comparator2, j))
+							assertEquals(comparator1.getRangeHashCode(i), comparator2.getRangeHashCode(j));
+					}
+				}
+				assertEquals(describe(RangeDifferencer.findDifferences(new UnhashedComparator(comparator1), new UnhashedComparator(comparator2))),
+						describe(RangeDifferencer.findDifferences(comparator1, comparator2)));
+			}
+		}
+		// the hash codes of unequal lines collide
+		DocLineComparator comparator= createComparator("Aa\nBB\nA a\nAa\n", true);
+		assertEquals(comparator.getRangeHashCode(0), comparator.getRangeHashCode(1));
+		assertFalse(comparator.rangesEqual(0, comparator, 1));
+		assertTrue(comparator.rangesEqual(0, comparator, 2));
+		assertTrue(comparator.rangesEqual(2, comparator, 3));
+	}
+
+	@Test
+	public void testTextLineInterning() {
+		Random random= new Random(5);
+		for (int run= 0; run < 20; run++) {
+			String[] left= randomLines(random, COLLIDING, 20 + random.nextInt(40));
+			String[] right= edit(random, left, COLLIDING);
+			TextLine[] lines1= createTextLines(left);
+			TextLine[] lines2= createTextLines(right);
+			TextLineLCS lcs= new TextLineLCS(lines1, lines2);
+			lcs.longestCommonSubsequence(SubMonitor.convert(null));
+			assertEquals(lcsLength(left, right), lcs.getLength());
+			TextLine[][] result= lcs.getResult();
+			assertEquals(lcs.getLength(), result[0].length);
+			int previous1= -1, previous2= -1;
+			for (int i= 0; i < result[0].length; i++) {
+				assertTrue(result[0][i].sameText(result[1][i]));
+				// the common lines are in the order of both sides
+				assertTrue(result[0][i].lineNumber() > previous1);
+				assertTrue(result[1][i].lineNumber() > previous2);
+				previous1= result[0][i].lineNumber();
+				previous2= result[1][i].lineNumber();
+			}
+		}
+	}
+
+	private void assertSameDifferences(String[] left, String[] right, ToIntFunction<String> hash) {
+		RangeDifference[] expected= RangeDifferencer.findDifferences(new LineComparator(left), new LineComparator(right));
+		RangeDifference[] actual= RangeDifferencer.findDifferences(new HashedLineComparator(left, hash), new HashedLineComparator(right, hash));
+		assertEquals(describe(expected), describe(actual));
+	}
+
+	private static String[] randomLines(Random random, String[] alphabet, int count) {
+		String[] lines= new String[count];
+		for (int i= 0; i < count; i++) {
+			lines[i]= alphabet[random.nextInt(alphabet.length)];
+		}
+		return lines;
+	}
+
+	/*
+	 * Replace, insert and delete some of the lines
+	 */
+	private static String[] edit(Random random, String[] lines, String[] alphabet) {
+		List<String> edited= new ArrayList<>();
+		for (String line : lines) {
+			int operation= random.nextInt(10);
+			if (operation == 0) {
+				edited.add(alphabet[random.nextInt(alphabet.length)]);
+			} else if (operation == 1) {
+				edited.add(line);
+				edited.add(alphabet[random.nextInt(alphabet.length)]);
+			} else if (operation != 2) {
+				edited.add(line);
+			}
+		}
+		return edited.toArray(new String[edited.size()]);
+	}
+
+	private static String join(String[] lines) {
+		StringBuilder text= new StringBuilder();
+		for (String line : lines) {
+			text.append(line).append('\n');
+		}
+		return text.toString();
+	}
+
+	private static DocLineComparator createComparator(String text, boolean ignoreWhitespace) {
+		Document document= new Document(text);
+		return new DocLineComparator(document, null, ignoreWhitespace);
+	}
+
+	private static TextLine[] createTextLines(String[] lines) {
+		TextLine[] textLines= new TextLine[lines.length];
+		for (int i= 0; i < lines.length; i++) {
+			textLines[i]= new TextLine(i, lines[i]);
+		}
+		return textLines;
+	}
+
+	/*
+	 * The length of the longest common subsequence by dynamic programming
+	 */
+	private static int lcsLength(String[] left, String[] right) {
+		int[][] lengths= new int[left.length + 1][right.length + 1];
+		for (int i= left.length - 1; i >= 0; i--) {
+			for (int j= right.length - 1; j >= 0; j--) {
+				lengths[i][j]= left[i].equals(right[j]) ? lengths[i + 1][j + 1] + 1 : Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+			}
+		}
+		return lengths[0][0];
+	}
+
+	private static List<String> describe(RangeDifference[] differences) {
+		List<String> descriptions= new ArrayList<>();
+		for (RangeDifference difference : differences) {
+			descriptions.add(difference.kind() + " " + difference.leftStart() + "/" + difference.leftLength() + " " + difference.rightStart() + "/" + difference.rightLength());
+		}
+		return descriptions;
+	}
+}
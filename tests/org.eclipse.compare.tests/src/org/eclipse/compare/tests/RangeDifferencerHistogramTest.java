@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.eclipse.compare.ICompareFilter;
+import org.eclipse.compare.internal.DocLineComparator;
+import org.eclipse.compare.internal.core.CompareSettings;
+import org.eclipse.compare.rangedifferencer.RangeDifference;
+import org.eclipse.compare.rangedifferencer.RangeDifferencer;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IRegion;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RangeDifferencerHistogramTest {
+
+	static final String S = System.lineSeparator();
+
+	@Before
+	public void setUp() {
+		CompareSettings.getDefault().setHistogramDiffEnabled(true);
+	}
+
+	@After
+	public void tearDown() {
+		CompareSettings.getDefault().setHistogramDiffEnabled(false);
+	}
+
+	@Test
+	public void testInsertion() {
+		String l = "A" + S + "B" + S + "C" + S + "D"; //$NON-NLS-1$
+		String r = "A" + S + "B" + S + "x" + S + "C" + S + "D"; //$NON-NLS-1$
+
+		RangeDifference[] diffs = findDifferences(l, r, false);
+
+		assertEquals(1, diffs.length);
+		assertEquals(2, diffs[0].leftStart());
+		assertEquals(0, diffs[0].leftLength());
+		assertEquals(2, diffs[0].rightStart());
+		assertEquals(1, diffs[0].rightLength());
+	}
+
+	@Test
+	public void testMovedBlockIsAnchoredOnUniqueLines() {
+		String l = "}" + S + "foo" + S + "}" + S + "bar" + S + "}"; //$NON-NLS-1$
+		String r = "}" + S + "bar" + S + "}" + S + "foo" + S + "}"; //$NON-NLS-1$
+
+		RangeDifference[] diffs = findDifferences(l, r, false);
+
+		assertValid(l, r, diffs);
+		assertEquals(2, diffs.length);
+	}
+
+	@Test
+	public void testIgnoreWhitespace() {
+		String l = "A" + S + "  B" + S + "C"; //$NON-NLS-1$
+		String r = "A" + S + "B  " + S + "C"; //$NON-NLS-1$
+
+		assertEquals(0, findDifferences(l, r, true).length);
+		assertEquals(1, findDifferences(l, r, false).length);
+	}
+
+	@Test
+	public void testCompareFiltersDisableHashing() {
+		ICompareFilter filter = new ICompareFilter() {
+			@Override
+			public void setInput(Object input, Object ancestor, Object left, Object right) {
+				// EMPTY
+			}
+
+			@Override
+			public IRegion[] getFilteredRegions(HashMap lineComparison) {
+				return new IRegion[0];
+			}
+
+			@Override
+			public boolean isEnabledInitially() {
+				return false;
+			}
+
+			@Override
+			public boolean canCacheFilteredRegions() {
+				return false;
+			}
+		};
+		DocLineComparator plain = new DocLineComparator(new Document("A"), null, false); //$NON-NLS-1$
+		DocLineComparator filtered = new DocLineComparator(new Document("A"), null, false, //$NON-NLS-1$
+				new ICompareFilter[] { filter }, 'L');
+
+		assertTrue(plain.canHashRanges(plain));
+		assertFalse(plain.canHashRanges(filtered));
+		assertFalse(filtered.canHashRanges(plain));
+	}
+
+	@Test
+	public void testRandomEdits() {
+		Random random = new Random(42);
+		for (int i = 0; i < 200; i++) {
+			StringBuilder l = new StringBuilder();
+			StringBuilder r = new StringBuilder();
+			int lines = random.nextInt(50);
+			for (int j = 0; j < lines; j++) {
+				String line = Integer.toString(random.nextInt(10));
+				if (random.nextInt(4) != 0)
+					l.append(line).append(S);
+				if (random.nextInt(4) != 0)
+					r.append(line).append(S);
+			}
+			assertValid(l.toString(), r.toString(), findDifferences(l.toString(), r.toString(), false));
+		}
+	}
+
+	private RangeDifference[] findDifferences(String l, String r, boolean ignoreWhitespace) {
+		DocLineComparator left = new DocLineComparator(new Document(l), null, ignoreWhitespace);
+		DocLineComparator right = new DocLineComparator(new Document(r), null, ignoreWhitespace);
+		return RangeDifferencer.findDifferences(new NullProgressMonitor(), left, right);
+	}
+
+	/*
+	 * Asserts that the ranges between the differences are equal on both sides
+	 */
+	private void assertValid(String l, String r, RangeDifference[] diffs) {
+		DocLineComparator left = new DocLineComparator(new Document(l), null, false);
+		DocLineComparator right = new DocLineComparator(new Document(r), null, false);
+		int leftIndex = 0;
+		int rightIndex = 0;
+		for (RangeDifference diff : diffs) {
+			assertEquals(diff.leftStart() - leftIndex, diff.rightStart() - rightIndex);
+			for (; leftIndex < diff.leftStart(); leftIndex++, rightIndex++)
+				assertTrue(left.rangesEqual(leftIndex, right, rightIndex));
+			leftIndex = diff.leftEnd();
+			rightIndex = diff.rightEnd();
+		}
+		assertEquals(left.getRangeCount() - leftIndex, right.getRangeCount() - rightIndex);
+		for (; leftIndex < left.getRangeCount(); leftIndex++, rightIndex++)
+			assertTrue(left.rangesEqual(leftIndex, right, rightIndex));
+	}
+}
@@ -14,12 +14,21 @@
 package org.eclipse.compare.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.compare.contentmergeviewer.ITokenComparator;
 import org.eclipse.compare.internal.DocLineComparator;
+import org.eclipse.compare.internal.core.CompareSettings;
+import org.eclipse.compare.internal.core.IConcurrentRangeComparator;
+import org.eclipse.compare.rangedifferencer.IRangeComparator;
 import org.eclipse.compare.rangedifferencer.RangeDifference;
 import org.eclipse.compare.rangedifferencer.RangeDifferencer;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jface.text.Document;
 import org.junit.Test;
 
@@ -127,6 +136,124 @@ public class RangeDifferencerThreeWayDiffTest {
 		assertEquals(RangeDifference.RIGHT, diffs[2].kind());
 	}
 
+	@Test
+	public void testParallelDiffMatchesSequentialDiff() {
+		StringBuilder a = new StringBuilder();
+		StringBuilder l = new StringBuilder();
+		StringBuilder r = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			String line = Integer.toString(i % 97);
+			a.append(line).append(S);
+			l.append(i % 101 == 0 ? "l" : line).append(S); //$NON-NLS-1$
+			r.append(i % 89 == 0 ? "r" : line).append(S); //$NON-NLS-1$
+		}
+
+		RangeDifference[] sequential = findRange(a.toString(), l.toString(), r.toString());
+		RangeDifference[] parallel;
+		CompareSettings.getDefault().setParallelDiffEnabled(true);
+		try {
+			parallel = findRange(a.toString(), l.toString(), r.toString());
+		} finally {
+			CompareSettings.getDefault().setParallelDiffEnabled(false);
+		}
+
+		assertEquals(sequential.length, parallel.length);
+		for (int i = 0; i < sequential.length; i++) {
+			assertEquals(sequential[i], parallel[i]);
+		}
+	}
+
+	@Test
+	public void testParallelDiffOnlyForThreadSafeComparators() {
+		Lines ancestor = new Lines(5000, 97, 0, null, false);
+		Lines left = new Lines(5000, 97, 101, null, false);
+		Lines right = new Lines(5000, 97, 89, null, false);
+		CompareSettings.getDefault().setParallelDiffEnabled(true);
+		try {
+			RangeDifferencer.findRanges(new NullProgressMonitor(), ancestor, left, right);
+		} finally {
+			CompareSettings.getDefault().setParallelDiffEnabled(false);
+		}
+		assertEquals(Collections.singleton(Thread.currentThread()), ancestor.threads);
+	}
+
+	@Test
+	public void testParallelDiffRethrowsFailure() {
+		Lines ancestor = new Lines(5000, 97, 0, null, true);
+		Lines left = new Lines(5000, 97, 101, "fail", true); //$NON-NLS-1$
+		Lines right = new Lines(5000, 97, 89, null, true);
+		CompareSettings.getDefault().setParallelDiffEnabled(true);
+		try {
+			RangeDifferencer.findRanges(new NullProgressMonitor(), ancestor, left, right);
+			fail("The failure of the left script should have been rethrown"); //$NON-NLS-1$
+		} catch (IllegalStateException e) {
+			// expected
+		} finally {
+			CompareSettings.getDefault().setParallelDiffEnabled(false);
+		}
+	}
+
+	@Test
+	public void testParallelDiffCanBeCanceled() {
+		Lines ancestor = new Lines(5000, 97, 0, null, true);
+		Lines left = new Lines(5000, 97, 101, null, true);
+		Lines right = new Lines(5000, 97, 89, null, true);
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		CompareSettings.getDefault().setParallelDiffEnabled(true);
+		try {
+			RangeDifferencer.findRanges(monitor, ancestor, left, right);
+			fail("The comparison should have been canceled"); //$NON-NLS-1$
+		} catch (OperationCanceledException e) {
+			// expected
+		} finally {
+			CompareSettings.getDefault().setParallelDiffEnabled(false);
+		}
+	}
+
+	/*
+	 * Lines of numbers which record the threads comparing them. Every line
+	 * with an index divisible by the given interval is replaced by the given
+	 * line, comparing that line fails.
+	 */
+	private static class Lines implements IRangeComparator, IConcurrentRangeComparator {
+		final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		private final String[] lines;
+		private final boolean threadSafe;
+
+		Lines(int count, int modulo, int interval, String line, boolean threadSafe) {
+			this.lines = new String[count];
+			for (int i = 0; i < count; i++) {
+				this.lines[i] = interval > 0 && i % interval == 0 ? (line == null ? "x" : line) : Integer.toString(i % modulo); //$NON-NLS-1$
+			}
+			this.threadSafe = threadSafe;
+		}
+
+		@Override
+		public int getRangeCount() {
+			return this.lines.length;
+		}
+
+		@Override
+		public boolean rangesEqual(int thisIndex, IRangeComparator other, int otherIndex) {
+			this.threads.add(Thread.currentThread());
+			String line = ((Lines) other).lines[otherIndex];
+			if ("fail".equals(line)) //$NON-NLS-1$
+				throw new IllegalStateException();
+			return this.lines[thisIndex].equals(line);
+		}
+
+		@Override
+		public boolean skipRangeComparison(int length, int maxLength, IRangeComparator other) {
+			return false;
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return this.threadSafe;
+		}
+	}
+
 	private RangeDifference[] findRange(String a, String l, String r) {
 		ITokenComparator ancestor = new DocLineComparator(new Document(a), null, false);
 		ITokenComparator left = new DocLineComparator(new Document(l), null, false);
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.compare.internal.core.StreamComparator;
+import org.junit.Test;
+
+public class StreamComparatorTest {
+
+	@Test
+	public void testEqualContents() throws IOException {
+		byte[] contents = randomBytes(3 * StreamComparator.BUFFER_SIZE + 17, 1);
+		assertTrue(contentsEqual(contents, contents.clone(), false));
+		assertTrue(contentsEqual(new byte[0], new byte[0], false));
+	}
+
+	@Test
+	public void testDifferentContents() throws IOException {
+		byte[] contents = randomBytes(2 * StreamComparator.BUFFER_SIZE + 5, 2);
+		for (int position : new int[] { 0, StreamComparator.BUFFER_SIZE - 1, StreamComparator.BUFFER_SIZE, contents.length - 1 }) {
+			byte[] other = contents.clone();
+			other[position]++;
+			assertFalse(contentsEqual(contents, other, false));
+		}
+		// one is a prefix of the other
+		assertFalse(contentsEqual(contents, Arrays.copyOf(contents, contents.length - 1), false));
+		assertFalse(contentsEqual(new byte[0], new byte[] { 'a' }, false));
+	}
+
+	@Test
+	public void testIgnoreWhitespace() throws IOException {
+		assertTrue(contentsEqual("a b\tc\r\nd".getBytes(), "abc\nd  ".getBytes(), true));
+		assertFalse(contentsEqual("a b\tc\r\nd".getBytes(), "abc\nd  ".getBytes(), false));
+		assertFalse(contentsEqual("a b".getBytes(), "a c".getBytes(), true));
+		// non-breaking spaces are not whitespace
+		assertFalse(contentsEqual(new byte[] { 'a', (byte) 0xA0 }, new byte[] { 'a' }, true));
+		assertTrue(contentsEqual(new byte[] { ' ', '\n' }, new byte[0], true));
+		assertTrue(contentsEqual(" a\u000Bb\u001Fc\f".getBytes(), "abc".getBytes(), true));
+	}
+
+	@Test
+	public void testIgnoreWhitespaceAcrossBlocks() throws IOException {
+		Random random = new Random(3);
+		StringBuilder text1 = new StringBuilder();
+		StringBuilder text2 = new StringBuilder();
+		for (int i = 0; i < 200000; i++) {
+			char c = (char) ('a' + random.nextInt(26));
+			text1.append(c);
+			text2.append(c);
+			// whitespace runs of different lengths so that the blocks of the
+			// two streams end at different positions of the text
+			if (random.nextInt(10) == 0)
+				text1.append("   \t");
+			if (random.nextInt(7) == 0)
+				text2.append('\n');
+		}
+		// a block that only contains whitespace
+		for (int i = 0; i < 2 * StreamComparator.BUFFER_SIZE; i++)
+			text1.append(' ');
+		assertTrue(contentsEqual(text1.toString().getBytes(), text2.toString().getBytes(), true));
+		text2.setCharAt(text2.length() / 2, '!');
+		assertFalse(contentsEqual(text1.toString().getBytes(), text2.toString().getBytes(), true));
+	}
+
+	@Test
+	public void testShortReads() throws IOException {
+		byte[] contents = randomBytes(StreamComparator.BUFFER_SIZE + 100, 4);
+		// a stream that returns at most 7 bytes at a time
+		InputStream trickle = new ByteArrayInputStream(contents) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				return super.read(b, off, Math.min(len, 7));
+			}
+		};
+		assertTrue(StreamComparator.contentsEqual(trickle, new ByteArrayInputStream(contents), false));
+	}
+
+	@Test
+	public void testMayBeEqual() {
+		assertTrue(StreamComparator.mayBeEqual(3, 3));
+		assertFalse(StreamComparator.mayBeEqual(3, 4));
+		assertTrue(StreamComparator.mayBeEqual(-1, 4));
+		assertTrue(StreamComparator.mayBeEqual(3, -1));
+	}
+
+	private static boolean contentsEqual(byte[] contents1, byte[] contents2, boolean ignoreWhitespace) throws IOException {
+		boolean result = StreamComparator.contentsEqual(new ByteArrayInputStream(contents1), new ByteArrayInputStream(contents2), ignoreWhitespace);
+		assertEquals(result, StreamComparator.contentsEqual(new ByteArrayInputStream(contents2), new ByteArrayInputStream(contents1), ignoreWhitespace));
+		return result;
+	}
+
+	private static byte[] randomBytes(int length, long seed) {
+		byte[] bytes = new byte[length];
+		new Random(seed).nextBytes(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.compare.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.compare.IStreamContentAccessor;
+import org.eclipse.compare.ITypedElement;
+import org.eclipse.compare.ResourceNode;
+import org.eclipse.compare.ZipFileStructureCreator;
+import org.eclipse.compare.structuremergeviewer.DiffNode;
+import org.eclipse.compare.structuremergeviewer.Differencer;
+import org.eclipse.compare.structuremergeviewer.IDiffElement;
+import org.eclipse.compare.structuremergeviewer.IStructureComparator;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Test;
+
+public class ZipFileStructureCreatorTest {
+
+	private static class Archive implements IStreamContentAccessor {
+		private final byte[] bytes;
+
+		Archive(String... namesAndContents) throws IOException {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (ZipOutputStream zip = new ZipOutputStream(out)) {
+				for (int i = 0; i < namesAndContents.length; i += 2) {
+					zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+					zip.write(namesAndContents[i + 1].getBytes());
+					zip.closeEntry();
+				}
+			}
+			bytes = out.toByteArray();
+		}
+
+		@Override
+		public InputStream getContents() {
+			return new ByteArrayInputStream(bytes);
+		}
+	}
+
+	@Test
+	public void testStructure() throws Exception {
+		ZipFileStructureCreator creator = new ZipFileStructureCreator();
+		IStructureComparator root = creator.getStructure(new Archive("a.txt", "first", "dir/b.txt", "second"));
+		Object[] children = root.getChildren();
+		assertEquals(2, children.length);
+
+		Object b = null;
+		for (Object child : children) {
+			if ("dir".equals(((ITypedElement) child).getName()))
+				b = ((IStructureComparator) child).getChildren()[0];
+		}
+		assertNotNull(b);
+		assertEquals("b.txt", ((ITypedElement) b).getName());
+		assertEquals("second", creator.getContents(b, false));
+	}
+
+	@Test
+	public void testNotAnArchive() {
+		ZipFileStructureCreator creator = new ZipFileStructureCreator();
+		IStructureComparator root = creator.getStructure((IStreamContentAccessor) () -> new ByteArrayInputStream("text".getBytes()));
+		assertNotNull(root);
+		assertEquals(0, root.getChildren().length);
+	}
+
+	@Test
+	public void testChangedEntries() throws Exception {
+		ZipFileStructureCreator creator = new ZipFileStructureCreator();
+		IStructureComparator left = creator.getStructure(new Archive("a.txt", "same", "b.txt", "left", "c.txt", "size"));
+		IStructureComparator right = creator.getStructure(new Archive("a.txt", "same", "b.txt", "rght", "c.txt", "longer"));
+		DiffNode diff = (DiffNode) new Differencer().findDifferences(false, new NullProgressMonitor(), null, null, left, right);
+		assertNotNull(diff);
+		IDiffElement[] children = diff.getChildren();
+		assertEquals(2, children.length);
+		for (IDiffElement child : children) {
+			assertEquals(Differencer.CHANGE, child.getKind());
+		}
+	}
+
+	@Test
+	public void testLocalArchiveIsNotKeptOpen() throws Exception {
+		IProject project= ResourcesPlugin.getWorkspace().getRoot().getProject("ZipFileStructureCreatorTest");
+		try {
+			project.create(null);
+			project.open(null);
+			IFile file= project.getFile("archive.zip");
+			file.create(new Archive("a.txt", "first", "b.txt", "second").getContents(), true, null);
+
+			ZipFileStructureCreator creator= new ZipFileStructureCreator();
+			IStructureComparator root= creator.getStructure(new ResourceNode(file));
+			Object a= null;
+			for (Object child : root.getChildren()) {
+				if ("a.txt".equals(((ITypedElement) child).getName()))
+					a= child;
+			}
+			assertNotNull(a);
+			assertEquals("first", creator.getContents(a, false));
+
+			// the archive is reopened for each read, so the contents are gone with the file
+			file.delete(true, null);
+			try {
+				((IStreamContentAccessor) a).getContents();
+				fail("The archive should have been reopened");
+			} catch (CoreException e) {
+				// expected
+			}
+		} finally {
+			project.delete(true, null);
+		}
+	}
+
+	@Test
+	public void testLocalArchiveEntryIsStreamed() throws Exception {
+		IProject project= ResourcesPlugin.getWorkspace().getRoot().getProject("ZipFileStructureCreatorTest");
+		try {
+			project.create(null);
+			project.open(null);
+			IFile file= project.getFile("archive.zip");
+			StringBuilder large= new StringBuilder();
+			for (int i= 0; i < 100000; i++)
+				large.append(i).append('\n');
+			file.create(new Archive("a.txt", large.toString(), "b.txt", "second").getContents(), true, null);
+
+			ZipFileStructureCreator creator= new ZipFileStructureCreator();
+			IStructureComparator root= creator.getStructure(new ResourceNode(file));
+			for (Object child : root.getChildren()) {
+				String expected= "a.txt".equals(((ITypedElement) child).getName()) ? large.toString() : "second";
+				// each stream is read in small chunks and the archive is closed with it
+				ByteArrayOutputStream contents= new ByteArrayOutputStream();
+				try (InputStream in= ((IStreamContentAccessor) child).getContents()) {
+					byte[] buffer= new byte[1024];
+					int read;
+					while ((read= in.read(buffer)) != -1)
+						contents.write(buffer, 0, read);
+				}
+				assertEquals(expected, contents.toString());
+			}
+			// a stream that is closed early also closes the archive
+			((IStreamContentAccessor) root.getChildren()[0]).getContents().close();
+			file.delete(true, null);
+			assertFalse(file.getLocation().toFile().exists());
+		} finally {
+			project.delete(true, null);
+		}
+	}
+
+	@Test
+	public void testStreamInputLeavesNoTemporaryFiles() throws Exception {
+		File tempDir= new File(System.getProperty("java.io.tmpdir"));
+		int before= countTemporaryArchives(tempDir);
+		ZipFileStructureCreator creator= new ZipFileStructureCreator();
+		IStructureComparator root= creator.getStructure(new Archive("a.txt", "first", "b.txt", "second"));
+		assertEquals(2, root.getChildren().length);
+		assertEquals(before, countTemporaryArchives(tempDir));
+	}
+
+	private int countTemporaryArchives(File dir) {
+		String[] names= dir.list((d, name) -> name.startsWith("compare") && name.endsWith(".zip"));
+		return names == null ? 0 : names.length;
+	}
+}
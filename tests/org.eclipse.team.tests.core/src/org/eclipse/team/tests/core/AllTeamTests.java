@@ -40,6 +40,19 @@ public class AllTeamTests extends ResourceTest {
 		suite.addTest(RepositoryProviderTests.suite());
 		suite.addTest(StreamTests.suite());
 		suite.addTest(StorageMergerTests.suite());
+		suite.addTest(ResourceVariantCacheTests.suite());
+		suite.addTest(PathTreeTests.suite());
+		suite.addTest(DiffTreeTests.suite());
+		suite.addTest(StatisticsTests.suite());
+		suite.addTest(ResourceVariantTreeRefreshTests.suite());
+		suite.addTest(ThreeWaySyncBytesTests.suite());
+		suite.addTest(SessionResourceVariantByteStoreTests.suite());
+		suite.addTest(PersistantResourceVariantByteStoreTests.suite());
+		suite.addTest(BackgroundEventHandlerTests.suite());
+		suite.addTest(ContentDigestIndexTests.suite());
+		suite.addTest(ConcurrentSubscriberTraversalTests.suite());
+		suite.addTest(SubscriberEventHandlerTests.suite());
+		suite.addTest(SubscriberStateCacheTests.suite());
 		suite.addTest(org.eclipse.team.tests.core.regression.AllTests.suite());
 		return suite;
 	}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.team.internal.core.BackgroundEventHandler;
+import org.eclipse.team.internal.core.BackgroundEventHandler.Event;
+
+public class BackgroundEventHandlerTests extends TestCase {
+
+	private static final int CHANGE = 1;
+	private static final int REMOVAL = 2;
+	private static final int OTHER = 3;
+
+	/*
+	 * A handler that records the processed events. Changes and removals are
+	 * coalesced and removals cover their descendants.
+	 */
+	private static class TestHandler extends BackgroundEventHandler {
+		private final List<Event> processed = new ArrayList<>();
+		private final Object family = new Object();
+		private boolean dispatchPending;
+
+		TestHandler() {
+			super("Test Handler", "Errors"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		void queue(Event event) {
+			queueEvent(event, false);
+		}
+
+		@Override
+		protected Object getJobFamiliy() {
+			return family;
+		}
+
+		@Override
+		protected boolean isCoalescable(ResourceEvent event) {
+			return event.getType() == CHANGE || event.getType() == REMOVAL;
+		}
+
+		@Override
+		protected boolean coversDescendants(ResourceEvent event) {
+			return event.getType() == REMOVAL;
+		}
+
+		@Override
+		protected void processEvent(Event event, IProgressMonitor monitor) throws CoreException {
+			if (event.getType() == RUNNABLE_EVENT) {
+				((RunnableEvent) event).run(monitor);
+			} else {
+				synchronized (processed) {
+					processed.add(event);
+				}
+				dispatchPending = true;
+			}
+		}
+
+		@Override
+		protected boolean doDispatchEvents(IProgressMonitor monitor) {
+			boolean dispatched = dispatchPending;
+			dispatchPending = false;
+			return dispatched;
+		}
+
+		List<Event> getProcessed() {
+			synchronized (processed) {
+				return new ArrayList<>(processed);
+			}
+		}
+
+		void waitUntilDone() throws InterruptedException {
+			Job.getJobManager().join(family, null);
+		}
+	}
+
+	private TestHandler handler;
+	private IProject project;
+
+	public BackgroundEventHandlerTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(BackgroundEventHandlerTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		handler = new TestHandler();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(getName());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		handler.shutdown();
+		super.tearDown();
+	}
+
+	/*
+	 * Queue a runnable that keeps the handler busy until the returned latch is released
+	 */
+	private CountDownLatch block() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		handler.queue(new BackgroundEventHandler.RunnableEvent(monitor -> {
+			started.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, false));
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		return release;
+	}
+
+	private void assertEvent(Event event, int type, IResource resource) {
+		assertEquals(type, event.getType());
+		assertEquals(resource, event.getResource());
+	}
+
+	public void testCoalescing() throws InterruptedException {
+		IResource file = project.getFile("file.txt");
+		IFolder folder = project.getFolder("folder");
+		IResource folderFile = folder.getFile("file.txt");
+		CountDownLatch release = block();
+		handler.queue(new BackgroundEventHandler.ResourceEvent(file, CHANGE, IResource.DEPTH_ZERO));
+		// a duplicate is merged
+		handler.queue(new BackgroundEventHandler.ResourceEvent(file, CHANGE, IResource.DEPTH_ZERO));
+		handler.queue(new BackgroundEventHandler.ResourceEvent(folder, CHANGE, IResource.DEPTH_INFINITE));
+		// changes do not cover their descendants
+		handler.queue(new BackgroundEventHandler.ResourceEvent(folderFile, CHANGE, IResource.DEPTH_ZERO));
+		handler.queue(new BackgroundEventHandler.ResourceEvent(folder, REMOVAL, IResource.DEPTH_INFINITE));
+		// removals do
+		handler.queue(new BackgroundEventHandler.ResourceEvent(folderFile, REMOVAL, IResource.DEPTH_ZERO));
+		// the pending change of the file is followed by removals so it cannot be merged into
+		handler.queue(new BackgroundEventHandler.ResourceEvent(file, CHANGE, IResource.DEPTH_ZERO));
+		handler.queue(new BackgroundEventHandler.ResourceEvent(file, OTHER, IResource.DEPTH_ZERO));
+		handler.queue(new BackgroundEventHandler.ResourceEvent(file, CHANGE, IResource.DEPTH_ZERO));
+		assertEquals(7, handler.getQueueDepth());
+		release.countDown();
+		handler.waitUntilDone();
+
+		List<Event> processed = handler.getProcessed();
+		assertEquals(7, processed.size());
+		assertEvent(processed.get(0), CHANGE, file);
+		assertEvent(processed.get(1), CHANGE, folder);
+		assertEvent(processed.get(2), CHANGE, folderFile);
+		assertEvent(processed.get(3), REMOVAL, folder);
+		assertEvent(processed.get(4), CHANGE, file);
+		assertEvent(processed.get(5), OTHER, file);
+		assertEvent(processed.get(6), CHANGE, file);
+		assertEquals(2, handler.getCoalescedEventCount());
+		assertEquals(7, handler.getMaximumQueueDepth());
+		assertEquals(0, handler.getQueueDepth());
+	}
+
+	public void testDeepEventsAreNotMergedIntoShallowOnes() throws InterruptedException {
+		IFolder folder = project.getFolder("folder");
+		CountDownLatch release = block();
+		handler.queue(new BackgroundEventHandler.ResourceEvent(folder, REMOVAL, IResource.DEPTH_ONE));
+		handler.queue(new BackgroundEventHandler.ResourceEvent(folder.getFile("file.txt"), REMOVAL, IResource.DEPTH_ZERO));
+		handler.queue(new BackgroundEventHandler.ResourceEvent(folder.getFolder("sub").getFile("file.txt"), REMOVAL, IResource.DEPTH_ZERO));
+		handler.queue(new BackgroundEventHandler.ResourceEvent(folder, REMOVAL, IResource.DEPTH_INFINITE));
+		handler.queue(new BackgroundEventHandler.ResourceEvent(folder, REMOVAL, IResource.DEPTH_ONE));
+		release.countDown();
+		handler.waitUntilDone();
+		List<Event> processed = handler.getProcessed();
+		assertEquals(3, processed.size());
+		assertEvent(processed.get(1), REMOVAL, folder.getFolder("sub").getFile("file.txt"));
+		assertEquals(IResource.DEPTH_INFINITE, ((BackgroundEventHandler.ResourceEvent) processed.get(2)).getDepth());
+		assertEquals(2, handler.getCoalescedEventCount());
+	}
+
+	public void testDispatchLatency() throws InterruptedException {
+		handler.setDispatchPolicy(0, 0, 3);
+		CountDownLatch release = block();
+		handler.queue(new BackgroundEventHandler.ResourceEvent(project, CHANGE, IResource.DEPTH_ZERO));
+		Thread.sleep(200);
+		release.countDown();
+		handler.waitUntilDone();
+		assertEquals(1, handler.getProcessed().size());
+		assertTrue(handler.getLastDispatchLatency() >= 200);
+		assertTrue(handler.getMaximumDispatchLatency() >= handler.getLastDispatchLatency());
+	}
+}
@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.resources.mapping.ResourceTraversal;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.team.core.ITeamStatus;
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.core.diff.IDiff;
+import org.eclipse.team.core.diff.IDiffVisitor;
+import org.eclipse.team.core.mapping.provider.ResourceDiff;
+import org.eclipse.team.core.subscribers.Subscriber;
+import org.eclipse.team.core.synchronize.SyncInfo;
+import org.eclipse.team.core.synchronize.SyncInfoSet;
+import org.eclipse.team.core.variants.IResourceVariant;
+import org.eclipse.team.core.variants.IResourceVariantComparator;
+import org.eclipse.team.internal.core.subscribers.ConcurrentSubscriberTraversal;
+
+public class ConcurrentSubscriberTraversalTests extends TestCase {
+
+	public ConcurrentSubscriberTraversalTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(ConcurrentSubscriberTraversalTests.class);
+	}
+
+	/*
+	 * A subscriber of a generated tree of resource handles. Every folder above
+	 * the last level has three folders and two files, the folders of the last
+	 * level have three files. The resources whose names end with "0" are in
+	 * sync. Failures can be configured for the diff or the members of a
+	 * resource.
+	 */
+	private static class TestSubscriber extends Subscriber {
+		private static final int LEVELS = 4;
+		private final boolean concurrent;
+		final Set<IPath> traversed = ConcurrentHashMap.newKeySet();
+		IPath failingDiff;
+		IPath failingMembers;
+
+		TestSubscriber(boolean concurrent) {
+			this.concurrent = concurrent;
+		}
+
+		@Override
+		protected boolean supportsConcurrentTraversal() {
+			return concurrent;
+		}
+
+		@Override
+		public String getName() {
+			return "Concurrent Traversal Tests";
+		}
+
+		@Override
+		public boolean isSupervised(IResource resource) {
+			return true;
+		}
+
+		@Override
+		public IResource[] members(IResource resource) throws TeamException {
+			traversed.add(resource.getFullPath());
+			if (resource.getFullPath().equals(failingMembers))
+				throw new TeamException(resource.getFullPath().toString());
+			if (resource.getType() == IResource.FILE)
+				return new IResource[0];
+			IContainer container = (IContainer) resource;
+			List<IResource> members = new ArrayList<>();
+			if (resource.getFullPath().segmentCount() < LEVELS) {
+				for (int i = 0; i < 3; i++) {
+					members.add(container.getFolder(new Path("folder" + i)));
+				}
+				for (int i = 0; i < 2; i++) {
+					members.add(container.getFile(new Path("file" + i)));
+				}
+			} else {
+				for (int i = 0; i < 3; i++) {
+					members.add(container.getFile(new Path("file" + i)));
+				}
+			}
+			return members.toArray(new IResource[members.size()]);
+		}
+
+		@Override
+		public IResource[] roots() {
+			return new IResource[] { getRoot() };
+		}
+
+		@Override
+		public SyncInfo getSyncInfo(IResource resource) throws TeamException {
+			traversed.add(resource.getFullPath());
+			if (resource.getFullPath().equals(failingDiff))
+				throw new TeamException(resource.getFullPath().toString());
+			SyncInfo info = new SyncInfo(resource, null, null, getResourceComparator()) {
+				@Override
+				protected int calculateKind() {
+					return isInSync(resource) ? IN_SYNC : INCOMING | CHANGE;
+				}
+			};
+			info.init();
+			return info;
+		}
+
+		@Override
+		public IDiff getDiff(IResource resource) throws CoreException {
+			traversed.add(resource.getFullPath());
+			if (resource.getFullPath().equals(failingDiff))
+				throw new TeamException(resource.getFullPath().toString());
+			if (isInSync(resource))
+				return null;
+			return new ResourceDiff(resource, IDiff.CHANGE, 0, null, null);
+		}
+
+		private boolean isInSync(IResource resource) {
+			return resource.getName().endsWith("0");
+		}
+
+		@Override
+		public IResourceVariantComparator getResourceComparator() {
+			return new IResourceVariantComparator() {
+				@Override
+				public boolean compare(IResource local, IResourceVariant remote) {
+					return false;
+				}
+				@Override
+				public boolean compare(IResourceVariant base, IResourceVariant remote) {
+					return false;
+				}
+				@Override
+				public boolean isThreeWay() {
+					return false;
+				}
+			};
+		}
+
+		@Override
+		public void refresh(IResource[] resources, int depth, IProgressMonitor monitor) {
+			// Nothing to refresh
+		}
+	}
+
+	/*
+	 * The paths of the visited diffs in the order of the visit
+	 */
+	private static class RecordingVisitor implements IDiffVisitor {
+		final List<IPath> visited = new ArrayList<>();
+		private final IPath pruned;
+
+		RecordingVisitor(IPath pruned) {
+			this.pruned = pruned;
+		}
+
+		@Override
+		public boolean visit(IDiff diff) {
+			visited.add(diff.getPath());
+			return !diff.getPath().equals(pruned);
+		}
+	}
+
+	private static IContainer getRoot() {
+		return ResourcesPlugin.getWorkspace().getRoot().getProject("project");
+	}
+
+	private static IPath path(String path) {
+		return getRoot().getFullPath().append(path);
+	}
+
+	private List<IPath> accept(TestSubscriber subscriber, int depth, IPath pruned) throws CoreException {
+		RecordingVisitor visitor = new RecordingVisitor(pruned);
+		subscriber.accept(new IResource[] { getRoot() }, depth, visitor);
+		return visitor.visited;
+	}
+
+	private void assertSameVisits(int depth, IPath pruned) throws CoreException {
+		List<IPath> sequential = accept(new TestSubscriber(false), depth, pruned);
+		List<IPath> concurrent = accept(new TestSubscriber(true), depth, pruned);
+		assertFalse(sequential.isEmpty());
+		assertEquals(sequential, concurrent);
+	}
+
+	public void testAcceptVisitsInSequentialOrder() throws CoreException {
+		assertSameVisits(IResource.DEPTH_INFINITE, null);
+		assertSameVisits(IResource.DEPTH_ONE, null);
+		assertSameVisits(IResource.DEPTH_ZERO, null);
+	}
+
+	public void testAcceptSkipsPrunedSubtrees() throws CoreException {
+		IPath pruned = path("folder1");
+		assertSameVisits(IResource.DEPTH_INFINITE, pruned);
+		// Nothing below the pruned folder is computed
+		TestSubscriber subscriber = new TestSubscriber(true);
+		accept(subscriber, IResource.DEPTH_INFINITE, pruned);
+		for (IPath path : subscriber.traversed) {
+			assertFalse(path.toString(), pruned.isPrefixOf(path) && !pruned.equals(path));
+		}
+	}
+
+	public void testAcceptFailsLikeSequentialTraversal() {
+		for (IPath failing : new IPath[] { path("folder1/folder2"), path("folder2/file1") }) {
+			// The diff of the resource fails
+			List<IPath> sequential = new ArrayList<>();
+			List<IPath> concurrent = new ArrayList<>();
+			assertEquals(failing.toString(), acceptFailure(new TestSubscriber(false), failing, null, sequential));
+			assertEquals(failing.toString(), acceptFailure(new TestSubscriber(true), failing, null, concurrent));
+			assertEquals(sequential, concurrent);
+			// The members of the resource fail
+			sequential.clear();
+			concurrent.clear();
+			assertEquals(failing.toString(), acceptFailure(new TestSubscriber(false), null, failing, sequential));
+			assertEquals(failing.toString(), acceptFailure(new TestSubscriber(true), null, failing, concurrent));
+			assertEquals(sequential, concurrent);
+		}
+	}
+
+	private String acceptFailure(TestSubscriber subscriber, IPath failingDiff, IPath failingMembers, List<IPath> visited) {
+		subscriber.failingDiff = failingDiff;
+		subscriber.failingMembers = failingMembers;
+		try {
+			subscriber.accept(new IResource[] { getRoot() }, IResource.DEPTH_INFINITE, diff -> {
+				visited.add(diff.getPath());
+				return true;
+			});
+		} catch (CoreException e) {
+			return e.getMessage();
+		}
+		fail("The traversal should have failed");
+		return null;
+	}
+
+	public void testAcceptCanBeCanceled() throws CoreException {
+		TestSubscriber subscriber = new TestSubscriber(true);
+		IProgressMonitor monitor = new NullProgressMonitor();
+		List<IPath> visited = new ArrayList<>();
+		try {
+			subscriber.accept(new IResource[] { getRoot() }, IResource.DEPTH_INFINITE, diff -> {
+				visited.add(diff.getPath());
+				monitor.setCanceled(true);
+				return true;
+			}, monitor);
+			fail("The traversal should have been canceled");
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		assertEquals(1, visited.size());
+	}
+
+	public void testTraversalAcceptCanBeCanceled() throws CoreException {
+		TestSubscriber subscriber = new TestSubscriber(true);
+		IProgressMonitor monitor = new NullProgressMonitor();
+		ResourceTraversal[] traversals = new ResourceTraversal[] { new ResourceTraversal(new IResource[] { getRoot() }, IResource.DEPTH_INFINITE, IResource.NONE) };
+		List<IPath> visited = new ArrayList<>();
+		try {
+			subscriber.accept(traversals, diff -> {
+				visited.add(diff.getPath());
+				monitor.setCanceled(true);
+				return true;
+			}, monitor);
+			fail("The traversal should have been canceled");
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		assertEquals(1, visited.size());
+	}
+
+	public void testTraversalAcceptUsesOverrideWithoutConcurrency() throws CoreException {
+		ResourceTraversal[] traversals = new ResourceTraversal[] { new ResourceTraversal(new IResource[] { getRoot() }, IResource.DEPTH_ONE, IResource.NONE) };
+		List<IPath> visited = new ArrayList<>();
+		// A subscriber that does not support concurrent traversals is traversed by its own accept
+		TestSubscriber subscriber = new TestSubscriber(false) {
+			@Override
+			public void accept(ResourceTraversal[] traversals, IDiffVisitor visitor) throws CoreException {
+				visited.add(getRoot().getFullPath());
+			}
+		};
+		subscriber.accept(traversals, diff -> true, new NullProgressMonitor());
+		assertEquals(Arrays.asList(getRoot().getFullPath()), visited);
+		// The traversals of a subscriber that supports concurrent traversals are visited as the resources are
+		RecordingVisitor visitor = new RecordingVisitor(null);
+		new TestSubscriber(true).accept(traversals, visitor, new NullProgressMonitor());
+		assertEquals(accept(new TestSubscriber(false), IResource.DEPTH_ONE, null), visitor.visited);
+	}
+
+	public void testCollectOutOfSyncMatchesSequentialTraversal() {
+		for (int depth : new int[] { IResource.DEPTH_ZERO, IResource.DEPTH_ONE, IResource.DEPTH_INFINITE }) {
+			SyncInfoSet sequential = collectOutOfSync(new TestSubscriber(false), depth);
+			SyncInfoSet concurrent = collectOutOfSync(new TestSubscriber(true), depth);
+			assertEquals(getPaths(sequential), getPaths(concurrent));
+			assertEquals(getErrors(sequential), getErrors(concurrent));
+		}
+		// Both the members and the sync info failures are reported
+		SyncInfoSet set = collectOutOfSync(new TestSubscriber(true), IResource.DEPTH_INFINITE);
+		assertEquals(2, set.getErrors().length);
+		assertFalse(set.isEmpty());
+	}
+
+	private SyncInfoSet collectOutOfSync(TestSubscriber subscriber, int depth) {
+		subscriber.failingDiff = path("folder1/file1");
+		subscriber.failingMembers = path("folder2/folder1");
+		SyncInfoSet set = new SyncInfoSet();
+		subscriber.collectOutOfSync(new IResource[] { getRoot() }, depth, set, new NullProgressMonitor());
+		return set;
+	}
+
+	private Set<String> getPaths(SyncInfoSet set) {
+		Set<String> paths = new TreeSet<>();
+		for (IResource resource : set.getResources()) {
+			paths.add(resource.getFullPath().toString());
+		}
+		return paths;
+	}
+
+	private List<String> getErrors(SyncInfoSet set) {
+		List<String> errors = new ArrayList<>();
+		for (ITeamStatus status : set.getErrors()) {
+			errors.add(status.getResource().getFullPath() + ": " + status.getCode());
+		}
+		return errors;
+	}
+
+	public void testAcceptAfterShutdown() throws CoreException {
+		ConcurrentSubscriberTraversal.shutdown();
+		assertEquals(Arrays.asList(getRoot().getFullPath(), path("folder1"), path("folder2"), path("file1")), accept(new TestSubscriber(true), IResource.DEPTH_ONE, null));
+	}
+}
@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import junit.framework.Test;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IStorage;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.core.variants.IResourceVariant;
+import org.eclipse.team.internal.core.ContentDigestIndex;
+import org.eclipse.team.internal.core.TeamPlugin;
+import org.eclipse.team.internal.core.history.LocalFileRevision;
+import org.eclipse.team.internal.core.mapping.LocalResourceVariant;
+import org.eclipse.team.internal.core.mapping.ResourceVariantFileRevision;
+import org.eclipse.team.internal.core.subscribers.ContentComparator;
+
+public class ContentDigestIndexTests extends TeamTest {
+
+	public ContentDigestIndexTests() {
+		super();
+	}
+
+	public ContentDigestIndexTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return suite(ContentDigestIndexTests.class);
+	}
+
+	public void testDigestIgnoringWhitespace() throws IOException {
+		byte[] digest = digest("a b\r\nc", true);
+		assertTrue(Arrays.equals(digest, digest("abc", true)));
+		assertFalse(Arrays.equals(digest, digest("abd", true)));
+		assertFalse(Arrays.equals(digest("a b\r\nc", false), digest("abc", false)));
+	}
+
+	public void testLocalDigestDiscardedOnChange() throws CoreException {
+		IProject project = createProject(new String[] { "file.txt" });
+		IFile file = project.getFile("file.txt");
+		ContentDigestIndex index = ContentDigestIndex.getIndex();
+		byte[] digest = new byte[] { 1, 2, 3 };
+		index.setLocalDigest(file, file.getModificationStamp(), file.getLocalTimeStamp(), false, digest);
+		assertSame(digest, index.getLocalDigest(file, false));
+		assertNull(index.getLocalDigest(file, true));
+		file.setContents(new ByteArrayInputStream("changed".getBytes()), true, false, null);
+		assertNull(index.getLocalDigest(file, false));
+	}
+
+	public void testLocalDigestOfOtherTimeStampNotUsed() throws CoreException {
+		IProject project = createProject(new String[] { "file.txt" });
+		IFile file = project.getFile("file.txt");
+		ContentDigestIndex index = ContentDigestIndex.getIndex();
+		// the modification stamps of a file that is created again start over
+		index.setLocalDigest(file, file.getModificationStamp(), file.getLocalTimeStamp() - 1000, false, new byte[] { 1, 2, 3 });
+		assertNull(index.getLocalDigest(file, false));
+	}
+
+	public void testVariantsIdentifiedByBytes() throws CoreException {
+		IProject project = createProject(new String[] { "file.txt" });
+		IFile file = project.getFile("file.txt");
+		file.setContents(new ByteArrayInputStream("contents".getBytes()), true, false, null);
+		String identifier = getName() + System.currentTimeMillis();
+		TestVariant variant = new TestVariant(identifier, identifier + ".1", "contents");
+		ContentComparator comparator = new ContentComparator(false);
+		assertTrue(comparator.compare(file, variant, new NullProgressMonitor()));
+		// a variant with the same content identifier but other bytes is read
+		TestVariant other = new TestVariant(identifier, identifier + ".2", "other");
+		assertFalse(comparator.compare(file, other, new NullProgressMonitor()));
+		assertEquals(1, other.reads);
+		// a revision of a variant uses the digest of the variant
+		assertTrue(comparator.compare(file, new ResourceVariantFileRevision(variant), new NullProgressMonitor()));
+		assertEquals(1, variant.reads);
+	}
+
+	public void testLocalRemotesNotIndexed() throws CoreException {
+		IProject project = createProject(new String[] { "file.txt" });
+		IFile file = project.getFile("file.txt");
+		assertTrue(ContentDigestIndex.isIndexed(new TestVariant(getName(), "contents")));
+		assertTrue(ContentDigestIndex.isIndexed(new ResourceVariantFileRevision(new TestVariant(getName(), "contents"))));
+		// variants without bytes are not indexed
+		assertFalse(ContentDigestIndex.isIndexed(new TestVariant(getName(), null, "contents")));
+		// content identifiers of local files are not unique
+		assertFalse(ContentDigestIndex.isIndexed(new LocalResourceVariant(file)));
+		assertFalse(ContentDigestIndex.isIndexed(new ResourceVariantFileRevision(new LocalResourceVariant(file))));
+		assertFalse(ContentDigestIndex.isIndexed(new LocalFileRevision(file)));
+	}
+
+	public void testRemoteContentsReadOnce() throws CoreException {
+		IProject project = createProject(new String[] { "file.txt" });
+		IFile file = project.getFile("file.txt");
+		file.setContents(new ByteArrayInputStream("contents".getBytes()), true, false, null);
+		TestVariant variant = new TestVariant(getName() + System.currentTimeMillis(), "contents");
+		ContentComparator comparator = new ContentComparator(false);
+		assertTrue(comparator.compare(file, variant, new NullProgressMonitor()));
+		assertTrue(comparator.compare(file, variant, new NullProgressMonitor()));
+		assertEquals(1, variant.reads);
+
+		// a new revision of the remote is read again
+		TestVariant other = new TestVariant(getName() + System.currentTimeMillis() + ".1", "other");
+		assertFalse(comparator.compare(file, other, new NullProgressMonitor()));
+		assertEquals(1, other.reads);
+
+		// the local file is read again once it changes
+		file.setContents(new ByteArrayInputStream("other".getBytes()), true, false, null);
+		assertTrue(comparator.compare(file, other, new NullProgressMonitor()));
+		assertEquals(1, other.reads);
+	}
+
+	public void testDigestInputStream() throws IOException {
+		for (boolean ignoreWhitespace : new boolean[] { false, true }) {
+			ContentDigestIndex.DigestInputStream stream = new ContentDigestIndex.DigestInputStream(new ByteArrayInputStream("a b\r\nc d".getBytes()), ignoreWhitespace);
+			assertEquals('a', stream.read());
+			assertEquals(2, stream.skip(2));
+			byte[] buffer = new byte[10];
+			assertEquals(5, stream.read(buffer));
+			assertEquals("\r\nc d", new String(buffer, 0, 5));
+			assertEquals(-1, stream.read());
+			assertTrue(Arrays.equals(digest("a b\r\nc d", ignoreWhitespace), stream.getDigest()));
+		}
+	}
+
+	public void testDigestsRecordedByEqualContents() throws CoreException, IOException {
+		IProject project = createProject(new String[] { "file.txt" });
+		IFile file = project.getFile("file.txt");
+		file.setContents(new ByteArrayInputStream("a b c".getBytes()), true, false, null);
+		ContentDigestIndex index = ContentDigestIndex.getIndex();
+		for (boolean ignoreWhitespace : new boolean[] { false, true }) {
+			TestVariant variant = new TestVariant(getName() + System.currentTimeMillis() + ignoreWhitespace, ignoreWhitespace ? "abc" : "a b c");
+			assertTrue(new ContentComparator(ignoreWhitespace).compare(file, variant, new NullProgressMonitor()));
+			byte[] digest = index.getLocalDigest(file, ignoreWhitespace);
+			assertNotNull(digest);
+			assertTrue(Arrays.equals(digest, index.getRemoteDigest(file, variant, ignoreWhitespace)));
+			assertTrue(Arrays.equals(digest, digest("abc", ignoreWhitespace)) == ignoreWhitespace);
+		}
+	}
+
+	public void testDifferentContentsReadUntilDifference() throws CoreException {
+		IProject project = createProject(new String[] { "file.txt" });
+		IFile file = project.getFile("file.txt");
+		char[] contents = new char[1024 * 1024];
+		Arrays.fill(contents, 'a');
+		file.setContents(new ByteArrayInputStream(("b" + new String(contents)).getBytes()), true, false, null);
+		TestVariant variant = new TestVariant(getName() + System.currentTimeMillis(), "c" + new String(contents));
+		ContentComparator comparator = new ContentComparator(false);
+		assertFalse(comparator.compare(file, variant, new NullProgressMonitor()));
+		assertTrue(variant.bytesRead < contents.length);
+		// Nothing is recorded for contents that were not read to the end
+		ContentDigestIndex index = ContentDigestIndex.getIndex();
+		assertNull(index.getLocalDigest(file, false));
+		assertNull(index.getRemoteDigest(file, variant, false));
+	}
+
+	public void testIndexSavedWithWorkspace() throws CoreException {
+		IProject project = createProject(new String[] { "file.txt" });
+		IFile file = project.getFile("file.txt");
+		ContentDigestIndex index = ContentDigestIndex.getIndex();
+		File indexFile = TeamPlugin.getPlugin().getStateLocation().append(".contentDigests").toFile();
+		indexFile.delete();
+		index.setLocalDigest(file, file.getModificationStamp(), file.getLocalTimeStamp(), false, new byte[] { 1, 2, 3 });
+		// A snapshot saves the index
+		ResourcesPlugin.getWorkspace().save(false, null);
+		assertTrue(indexFile.exists());
+		// An unchanged index is not written again
+		indexFile.delete();
+		ResourcesPlugin.getWorkspace().save(false, null);
+		assertFalse(indexFile.exists());
+	}
+
+	private static byte[] digest(String contents, boolean ignoreWhitespace) throws IOException {
+		return ContentDigestIndex.digest(new ByteArrayInputStream(contents.getBytes()), ignoreWhitespace);
+	}
+
+	/*
+	 * A variant that counts how often its contents are read and how many
+	 * bytes are read
+	 */
+	private static class TestVariant implements IResourceVariant {
+		private final String identifier;
+		private final String bytes;
+		private final String contents;
+		int reads;
+		long bytesRead;
+
+		TestVariant(String identifier, String contents) {
+			this(identifier, identifier, contents);
+		}
+
+		TestVariant(String identifier, String bytes, String contents) {
+			this.identifier = identifier;
+			this.bytes = bytes;
+			this.contents = contents;
+		}
+
+		@Override
+		public String getName() {
+			return "file.txt";
+		}
+
+		@Override
+		public boolean isContainer() {
+			return false;
+		}
+
+		@Override
+		public IStorage getStorage(IProgressMonitor monitor) throws TeamException {
+			return new IStorage() {
+				@Override
+				public InputStream getContents() {
+					reads++;
+					return new ByteArrayInputStream(contents.getBytes()) {
+						@Override
+						public synchronized int read() {
+							int read = super.read();
+							if (read != -1)
+								bytesRead++;
+							return read;
+						}
+						@Override
+						public synchronized int read(byte[] b, int off, int len) {
+							int read = super.read(b, off, len);
+							if (read > 0)
+								bytesRead += read;
+							return read;
+						}
+					};
+				}
+				@Override
+				public IPath getFullPath() {
+					return null;
+				}
+				@Override
+				public String getName() {
+					return TestVariant.this.getName();
+				}
+				@Override
+				public boolean isReadOnly() {
+					return true;
+				}
+				@Override
+				public <T> T getAdapter(Class<T> adapter) {
+					return null;
+				}
+			};
+		}
+
+		@Override
+		public String getContentIdentifier() {
+			return identifier;
+		}
+
+		@Override
+		public byte[] asBytes() {
+			return bytes == null ? null : bytes.getBytes();
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.team.core.diff.IDiff;
+import org.eclipse.team.core.diff.IDiffTree;
+import org.eclipse.team.core.diff.provider.DiffTree;
+import org.eclipse.team.core.diff.provider.TwoWayDiff;
+
+public class DiffTreeTests extends TestCase {
+
+	public DiffTreeTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(DiffTreeTests.class);
+	}
+
+	public void testOtherThreadsSeeChangesAtEndInput() throws InterruptedException {
+		DiffTree tree = new DiffTree();
+		IPath path = new Path("/project/folder/file");
+		tree.beginInput();
+		try {
+			tree.add(new TwoWayDiff(path, IDiff.ADD, 0));
+			// The writer sees its own changes
+			assertNotNull(tree.getDiff(path));
+			assertEquals(1, tree.size());
+			// Other threads see the tree as it was before the changes
+			assertNull(readInOtherThread(() -> tree.getDiff(path)));
+			assertEquals(Integer.valueOf(0), readInOtherThread(() -> Integer.valueOf(tree.size())));
+		} finally {
+			tree.endInput(null);
+		}
+		assertNotNull(readInOtherThread(() -> tree.getDiff(path)));
+		assertEquals(Long.valueOf(1), readInOtherThread(() -> Long.valueOf(tree.countFor(IDiff.ADD, 0))));
+		IPath[] children = readInOtherThread(() -> tree.getChildren(new Path("/project")));
+		assertEquals(1, children.length);
+		assertEquals(new Path("/project/folder"), children[0]);
+	}
+
+	public void testAcceptVisitsSnapshot() throws InterruptedException {
+		DiffTree tree = new DiffTree();
+		tree.add(new TwoWayDiff(new Path("/project/a"), IDiff.ADD, 0));
+		tree.add(new TwoWayDiff(new Path("/project/b"), IDiff.REMOVE, 0));
+		tree.beginInput();
+		try {
+			tree.remove(new Path("/project/a"));
+			tree.clear();
+			Integer count = readInOtherThread(() -> {
+				int[] visited = new int[1];
+				tree.accept(new Path("/project"), diff -> {
+					visited[0]++;
+					return true;
+				}, IResource.DEPTH_INFINITE);
+				return Integer.valueOf(visited[0]);
+			});
+			assertEquals(Integer.valueOf(2), count);
+		} finally {
+			tree.endInput(null);
+		}
+		assertTrue(readInOtherThread(() -> Boolean.valueOf(tree.isEmpty())).booleanValue());
+	}
+
+	public void testBusyPropertyPropagatesToRoot() {
+		DiffTree tree = new DiffTree();
+		IDiff first = new TwoWayDiff(new Path("/project/folder/first"), IDiff.CHANGE, 0);
+		IDiff second = new TwoWayDiff(new Path("/project/folder/second"), IDiff.CHANGE, 0);
+		tree.add(first);
+		tree.add(second);
+		tree.setBusy(new IDiff[] { first, second }, null);
+		assertTrue(tree.getProperty(new Path("/project"), IDiffTree.P_BUSY_HINT));
+
+		tree.setPropertyToRoot(first, IDiffTree.P_BUSY_HINT, false);
+		assertFalse(tree.getProperty(first.getPath(), IDiffTree.P_BUSY_HINT));
+		// The folder still has a busy child
+		assertTrue(tree.getProperty(new Path("/project/folder"), IDiffTree.P_BUSY_HINT));
+
+		tree.clearBusy(null);
+		assertFalse(tree.getProperty(new Path("/project"), IDiffTree.P_BUSY_HINT));
+	}
+
+	public void testUnbatchedAddsIntoFlatFolder() throws InterruptedException {
+		DiffTree tree = new DiffTree();
+		IPath folder = new Path("/project/folder");
+		int count = 50000;
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < count; i++) {
+			// Each add publishes a snapshot, which must not copy the siblings of the file
+			tree.add(new TwoWayDiff(folder.append("file" + i), IDiff.ADD, 0));
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		assertEquals(count, tree.size());
+		assertEquals(count, readInOtherThread(() -> tree.getChildren(folder)).length);
+		assertEquals(Long.valueOf(count), readInOtherThread(() -> Long.valueOf(tree.countFor(IDiff.ADD, 0))));
+		// Copying the folder on every add takes minutes for this many files
+		assertTrue("Adding " + count + " files took " + elapsed + "ms", elapsed < 20000);
+	}
+
+	public void testBatchesKeptAcrossLockTransfer() throws InterruptedException {
+		DiffTree first = new DiffTree();
+		DiffTree second = new DiffTree();
+		CountDownLatch started = new CountDownLatch(2);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		// Each thread waits for the lock of the tree of the other thread.
+		// The deadlock is resolved by giving the locks of one thread to the
+		// other thread while the first thread is still inside its batch.
+		Thread firstThread = new Thread(() -> modifyBoth(first, second, "first", started, failure));
+		Thread secondThread = new Thread(() -> modifyBoth(second, first, "second", started, failure));
+		firstThread.start();
+		secondThread.start();
+		firstThread.join(30000);
+		secondThread.join(30000);
+		assertFalse(firstThread.isAlive() || secondThread.isAlive());
+		if (failure.get() != null)
+			throw new AssertionError(failure.get());
+		assertNotNull(first.getDiff(new Path("/project/first/after")));
+		assertNotNull(second.getDiff(new Path("/project/second/after")));
+	}
+
+	/*
+	 * Modify the own tree in a batch that contains a batch of the other tree
+	 * and check that the thread reads its own changes after the inner batch
+	 */
+	private void modifyBoth(DiffTree own, DiffTree other, String name, CountDownLatch started, AtomicReference<Throwable> failure) {
+		try {
+			own.beginInput();
+			try {
+				own.add(new TwoWayDiff(new Path("/project/" + name + "/before"), IDiff.ADD, 0));
+				started.countDown();
+				started.await();
+				other.beginInput();
+				try {
+					other.add(new TwoWayDiff(new Path("/project/" + name + "/other"), IDiff.ADD, 0));
+				} finally {
+					other.endInput(null);
+				}
+				IPath after = new Path("/project/" + name + "/after");
+				own.add(new TwoWayDiff(after, IDiff.ADD, 0));
+				assertNotNull(own.getDiff(after));
+			} finally {
+				own.endInput(null);
+			}
+		} catch (Throwable e) {
+			failure.compareAndSet(null, e);
+		}
+	}
+
+	private <T> T readInOtherThread(Supplier<T> reader) throws InterruptedException {
+		AtomicReference<T> result = new AtomicReference<>();
+		Thread thread = new Thread(() -> result.set(reader.get()));
+		thread.start();
+		thread.join();
+		return result.get();
+	}
+}
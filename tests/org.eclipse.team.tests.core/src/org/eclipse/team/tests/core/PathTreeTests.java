@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.team.internal.core.mapping.PathTree;
+
+/**
+ * Tests {@link PathTree} against a reference implementation that keeps the
+ * objects and properties in hash maps.
+ */
+public class PathTreeTests extends TestCase {
+
+	// segments with equal hash codes, which share all levels of the
+	// segment maps and end up in their lists
+	private static final String[] COLLIDING = new String[] { "AaAa", "AaBB", "BBAa", "BBBB" };
+
+	private static final int[] PROPERTIES = new int[] { 1, 1 << 4 };
+
+	public PathTreeTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(PathTreeTests.class);
+	}
+
+	public void testCollidingSegments() {
+		assertEquals(COLLIDING[0].hashCode(), COLLIDING[3].hashCode());
+		PathTree tree = new PathTree();
+		IPath parent = new Path("/project");
+		for (String segment : COLLIDING) {
+			tree.put(parent.append(segment), segment);
+		}
+		for (String segment : COLLIDING) {
+			assertEquals(segment, tree.get(parent.append(segment)));
+		}
+		assertNull(tree.get(parent.append("AaAaX")));
+		assertEquals(paths(parent, COLLIDING), new HashSet<>(Arrays.asList(tree.getChildren(parent))));
+
+		PathTree snapshot = tree.snapshot();
+		tree.remove(parent.append(COLLIDING[1]));
+		tree.put(parent.append(COLLIDING[2]), "changed");
+		assertNull(tree.get(parent.append(COLLIDING[1])));
+		assertEquals(3, tree.getChildren(parent).length);
+		// the snapshot keeps the shared maps
+		assertEquals(COLLIDING[1], snapshot.get(parent.append(COLLIDING[1])));
+		assertEquals(COLLIDING[2], snapshot.get(parent.append(COLLIDING[2])));
+		assertEquals(paths(parent, COLLIDING), new HashSet<>(Arrays.asList(snapshot.getChildren(parent))));
+
+		// removing all children collapses the maps
+		for (String segment : COLLIDING) {
+			tree.remove(parent.append(segment));
+		}
+		assertFalse(tree.hasChildren(parent));
+		assertTrue(tree.isEmpty());
+		assertEquals(4, snapshot.size());
+	}
+
+	public void testManyChildren() {
+		// enough children to fill several levels of the segment maps
+		PathTree tree = new PathTree();
+		Reference reference = new Reference();
+		IPath parent = new Path("/project");
+		List<IPath> paths = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			IPath path = parent.append("file" + i);
+			paths.add(path);
+			tree.put(path, Integer.valueOf(i));
+			reference.put(path, Integer.valueOf(i));
+		}
+		PathTree snapshot = tree.snapshot();
+		Reference snapshotReference = reference.copy();
+		for (int i = 0; i < 2000; i += 3) {
+			tree.remove(paths.get(i));
+			reference.remove(paths.get(i));
+		}
+		check(tree, reference, paths);
+		check(snapshot, snapshotReference, paths);
+	}
+
+	public void testRandomOperations() {
+		Random random = new Random(1);
+		for (int run = 0; run < 20; run++) {
+			List<IPath> paths = createPaths(random);
+			PathTree tree = new PathTree();
+			Reference reference = new Reference();
+			List<PathTree> snapshots = new ArrayList<>();
+			List<Reference> snapshotReferences = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				int operation = random.nextInt(20);
+				if (operation == 0) {
+					snapshots.add(tree.snapshot());
+					snapshotReferences.add(reference.copy());
+				} else if (operation == 1 && !snapshots.isEmpty()) {
+					// snapshots are modified without affecting the tree
+					int index = random.nextInt(snapshots.size());
+					modify(random, snapshots.get(index), snapshotReferences.get(index), paths);
+				} else if (operation == 2) {
+					check(tree, reference, paths);
+				} else {
+					modify(random, tree, reference, paths);
+				}
+			}
+			check(tree, reference, paths);
+			for (int i = 0; i < snapshots.size(); i++) {
+				check(snapshots.get(i), snapshotReferences.get(i), paths);
+			}
+		}
+	}
+
+	private void modify(Random random, PathTree tree, Reference reference, List<IPath> paths) {
+		IPath path = paths.get(random.nextInt(paths.size()));
+		int operation = random.nextInt(10);
+		if (operation < 4) {
+			Object value = Integer.valueOf(random.nextInt(100));
+			assertEquals(reference.put(path, value), tree.put(path, value));
+		} else if (operation < 7) {
+			assertEquals(reference.remove(path), tree.remove(path));
+		} else if (operation < 9) {
+			int property = PROPERTIES[random.nextInt(PROPERTIES.length)];
+			boolean value = random.nextBoolean();
+			Set<IPath> changed = reference.setPropogatedProperty(path, property, value);
+			assertEquals(changed, new HashSet<>(Arrays.asList(tree.setPropogatedProperty(path, property, value))));
+		} else {
+			assertEquals(reference.payloads.isEmpty(), tree.isEmpty());
+		}
+	}
+
+	/*
+	 * Compare the tree with the reference at the given paths and their ancestors
+	 */
+	private void check(PathTree tree, Reference reference, List<IPath> paths) {
+		assertEquals(reference.payloads.size(), tree.size());
+		assertEquals(reference.payloads.isEmpty(), tree.isEmpty());
+		assertEquals(reference.payloads.keySet(), new HashSet<>(Arrays.asList(tree.getPaths())));
+		List<String> values = new ArrayList<>();
+		for (Object value : tree.values()) {
+			values.add(value.toString());
+		}
+		List<String> expectedValues = new ArrayList<>();
+		for (Object value : reference.payloads.values()) {
+			expectedValues.add(value.toString());
+		}
+		values.sort(null);
+		expectedValues.sort(null);
+		assertEquals(expectedValues, values);
+		Set<IPath> checked = new HashSet<>();
+		for (IPath path : paths) {
+			for (int i = 0; i <= path.segmentCount(); i++) {
+				IPath ancestor = path.uptoSegment(i);
+				if (!checked.add(ancestor))
+					continue;
+				assertEquals(ancestor.toString(), reference.payloads.get(ancestor), tree.get(ancestor));
+				assertEquals(ancestor.toString(), reference.getChildren(ancestor), new HashSet<>(Arrays.asList(tree.getChildren(ancestor))));
+				assertEquals(ancestor.toString(), reference.hasChildren(ancestor), tree.hasChildren(ancestor));
+				for (int property : PROPERTIES) {
+					assertEquals(ancestor.toString(), reference.getProperty(ancestor, property), tree.getProperty(ancestor, property));
+				}
+			}
+		}
+	}
+
+	/*
+	 * Create paths of up to three segments, most of which have colliding
+	 * siblings, and many siblings so that the segment maps have several levels
+	 */
+	private static List<IPath> createPaths(Random random) {
+		List<String> segments = new ArrayList<>(Arrays.asList(COLLIDING));
+		segments.add("Aa");
+		segments.add("BB");
+		for (int i = 0; i < 40; i++) {
+			segments.add("f" + random.nextInt(1000));
+		}
+		List<IPath> paths = new ArrayList<>();
+		for (int i = 0; i < 150; i++) {
+			IPath path = new Path("/");
+			int depth = 1 + random.nextInt(3);
+			for (int j = 0; j < depth; j++) {
+				// the upper levels use fewer segments so that paths share ancestors
+				int choices = j == 0 ? 3 : (j == 1 ? COLLIDING.length + 2 : segments.size());
+				path = path.append(segments.get(random.nextInt(choices)));
+			}
+			paths.add(path);
+		}
+		return paths;
+	}
+
+	private static Set<IPath> paths(IPath parent, String[] segments) {
+		Set<IPath> paths = new HashSet<>();
+		for (String segment : segments) {
+			paths.add(parent.append(segment));
+		}
+		return paths;
+	}
+
+	/*
+	 * The objects and properties of a path tree in hash maps. A path has a
+	 * node while it or one of its descendants has an object and the
+	 * properties of a path are discarded with its node.
+	 */
+	private static class Reference {
+		final Map<IPath, Object> payloads = new HashMap<>();
+		final Map<IPath, Integer> flags = new HashMap<>();
+
+		Reference copy() {
+			Reference copy = new Reference();
+			copy.payloads.putAll(payloads);
+			copy.flags.putAll(flags);
+			return copy;
+		}
+
+		Object put(IPath path, Object value) {
+			return payloads.put(path, value);
+		}
+
+		Object remove(IPath path) {
+			Object previous = payloads.remove(path);
+			if (previous != null)
+				flags.keySet().removeIf(p -> !hasNode(p));
+			return previous;
+		}
+
+		boolean hasNode(IPath path) {
+			for (IPath p : payloads.keySet()) {
+				if (path.isPrefixOf(p))
+					return true;
+			}
+			return false;
+		}
+
+		Set<IPath> getChildren(IPath path) {
+			Set<IPath> children = new HashSet<>();
+			for (IPath p : payloads.keySet()) {
+				if (p.segmentCount() > path.segmentCount() && path.isPrefixOf(p))
+					children.add(p.uptoSegment(path.segmentCount() + 1));
+			}
+			return children;
+		}
+
+		boolean hasChildren(IPath path) {
+			if (path.isEmpty())
+				return !payloads.isEmpty();
+			return !getChildren(path).isEmpty();
+		}
+
+		boolean getProperty(IPath path, int property) {
+			if (path.segmentCount() == 0 || !hasNode(path))
+				return false;
+			return (flag(path) & property) != 0;
+		}
+
+		private int flag(IPath path) {
+			Integer flag = flags.get(path);
+			return flag == null ? 0 : flag.intValue();
+		}
+
+		/*
+		 * Whether a descendant with an object has the property
+		 */
+		private boolean descendantHasFlag(IPath path, int property) {
+			for (IPath p : payloads.keySet()) {
+				if (p.segmentCount() > path.segmentCount() && path.isPrefixOf(p) && (flag(p) & property) != 0)
+					return true;
+			}
+			return false;
+		}
+
+		Set<IPath> setPropogatedProperty(IPath path, int property, boolean value) {
+			Set<IPath> changed = new HashSet<>();
+			while (path.segmentCount() > 0 && hasNode(path)) {
+				if (value == ((flag(path) & property) != 0))
+					break;
+				if (!value && descendantHasFlag(path, property))
+					break;
+				flags.put(path, Integer.valueOf(value ? flag(path) | property : flag(path) ^ property));
+				changed.add(path);
+				path = path.removeLastSegments(1);
+			}
+			return changed;
+		}
+	}
+}
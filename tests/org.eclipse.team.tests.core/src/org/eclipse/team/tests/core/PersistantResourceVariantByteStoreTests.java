@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.Test;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.QualifiedName;
+import org.eclipse.team.core.variants.PersistantResourceVariantByteStore;
+
+public class PersistantResourceVariantByteStoreTests extends TeamTest {
+
+	private PersistantResourceVariantByteStore store;
+
+	public PersistantResourceVariantByteStoreTests() {
+		super();
+	}
+
+	public PersistantResourceVariantByteStoreTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return suite(PersistantResourceVariantByteStoreTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		store = new PersistantResourceVariantByteStore(new QualifiedName("org.eclipse.team.tests.core", getName()));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		store.dispose();
+		super.tearDown();
+	}
+
+	public void testMemberBytes() throws CoreException {
+		IProject project = createProject(new String[] { "folder/", "folder/file1.txt", "folder/file2.txt", "folder/file3.txt" });
+		IFolder folder = project.getFolder("folder");
+		IFile file1 = folder.getFile("file1.txt");
+		IFile file2 = folder.getFile("file2.txt");
+		IFile file3 = folder.getFile("file3.txt");
+		// the bytes of a resource that does not exist are kept in a phantom
+		IFile phantom = folder.getFile("phantom.txt");
+		Map<IResource, byte[]> bytes = new LinkedHashMap<>();
+		bytes.put(file1, "1".getBytes());
+		bytes.put(file2, "2".getBytes());
+		bytes.put(phantom, "4".getBytes());
+		assertEquals(Arrays.asList(file1, file2, phantom), Arrays.asList(store.setBytes(bytes)));
+		assertEquals(0, store.setBytes(bytes).length);
+		// a known missing remote is not a member
+		assertTrue(store.deleteBytes(file3));
+
+		Map<IResource, byte[]> memberBytes = store.getMemberBytes(folder);
+		assertEquals(3, memberBytes.size());
+		assertEquals("1", new String(memberBytes.get(file1)));
+		assertEquals("2", new String(memberBytes.get(file2)));
+		assertEquals("4", new String(memberBytes.get(phantom)));
+		assertEquals(memberBytes.keySet(), new HashSet<>(Arrays.asList(store.members(folder))));
+		assertTrue(store.getMemberBytes(file1).isEmpty());
+		assertTrue(store.getMemberBytes(project).isEmpty());
+
+		// null bytes mean that there is no remote
+		bytes.clear();
+		bytes.put(file1, null);
+		bytes.put(file2, "2.1".getBytes());
+		bytes.put(file3, null);
+		assertEquals(Arrays.asList(file1, file2), Arrays.asList(store.setBytes(bytes)));
+		assertNull(store.getBytes(file1));
+		assertTrue(store.isVariantKnown(file1));
+		assertEquals("2.1", new String(store.getBytes(file2)));
+		assertEquals(new HashSet<>(Arrays.asList(file2, phantom)), store.getMemberBytes(folder).keySet());
+	}
+
+	public void testSetBytesIssuesOneChangeEvent() throws CoreException {
+		IProject project = createProject(new String[] { "file1.txt", "file2.txt", "file3.txt" });
+		IResource[] files = new IResource[] { project.getFile("file1.txt"), project.getFile("file2.txt"), project.getFile("file3.txt") };
+		int[] events = new int[1];
+		IResourceChangeListener listener = event -> {
+			if (event.getDelta() == null)
+				return;
+			for (IResource file : files) {
+				IResourceDelta delta = event.getDelta().findMember(file.getFullPath());
+				if (delta != null && (delta.getFlags() & IResourceDelta.SYNC) != 0) {
+					events[0]++;
+					return;
+				}
+			}
+		};
+		Map<IResource, byte[]> bytes = new LinkedHashMap<>();
+		for (IResource file : files) {
+			bytes.put(file, file.getName().getBytes());
+		}
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		try {
+			assertEquals(files.length, store.setBytes(bytes).length);
+		} finally {
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+		}
+		assertEquals(1, events[0]);
+		for (IResource file : files) {
+			assertEquals(file.getName(), new String(store.getBytes(file)));
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.internal.core.ResourceVariantCache;
+import org.eclipse.team.internal.core.ResourceVariantCacheEntry;
+
+public class ResourceVariantCacheTests extends TestCase {
+
+	private static final String CACHE_ID = "org.eclipse.team.tests.core.cache";
+
+	private ResourceVariantCache cache;
+
+	public ResourceVariantCacheTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(ResourceVariantCacheTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		ResourceVariantCache.enableCaching(CACHE_ID);
+		cache = ResourceVariantCache.getCache(CACHE_ID);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		ResourceVariantCache.disableCache(CACHE_ID);
+		super.tearDown();
+	}
+
+	public void testHitsAndMisses() throws TeamException {
+		assertNull(cache.getCacheEntry("a"));
+		cache.add("a", null);
+		assertNotNull(cache.getCacheEntry("a"));
+		assertTrue(cache.hasEntry("a"));
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	public void testAddKeepsContents() throws TeamException, IOException {
+		ResourceVariantCacheEntry entry = cache.add("a", null);
+		entry.setContents(new ByteArrayInputStream("contents".getBytes()), null);
+		assertSame(entry, cache.add("a", null));
+		assertEquals(ResourceVariantCacheEntry.READY, entry.getState());
+		assertEquals("contents", read(entry.getContents()));
+	}
+
+	public void testLeastRecentlyUsedEntriesAreEvicted() throws TeamException, InterruptedException {
+		cache.setMaximumSize(2500);
+		ResourceVariantCacheEntry first = addEntry("first", 1000);
+		ResourceVariantCacheEntry second = addEntry("second", 1000);
+		assertEquals(2000, cache.getCurrentSize());
+		// make sure the access of the first entry is more recent
+		Thread.sleep(10);
+		cache.getCacheEntry("first");
+
+		ResourceVariantCacheEntry third = addEntry("third", 1000);
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(2000, cache.getCurrentSize());
+		assertEquals(ResourceVariantCacheEntry.READY, first.getState());
+		assertEquals(ResourceVariantCacheEntry.DISPOSED, second.getState());
+		assertEquals(ResourceVariantCacheEntry.READY, third.getState());
+		assertFalse(cache.hasEntry("second"));
+	}
+
+	public void testEntryLargerThanCacheIsKept() throws TeamException {
+		cache.setMaximumSize(500);
+		ResourceVariantCacheEntry entry = addEntry("large", 1000);
+		assertEquals(ResourceVariantCacheEntry.READY, entry.getState());
+		assertEquals(0, cache.getEvictionCount());
+		entry.dispose();
+		assertEquals(0, cache.getCurrentSize());
+	}
+
+	public void testIdenticalContentsAreShared() throws TeamException, IOException {
+		ResourceVariantCacheEntry first = addEntry("first", "contents");
+		ResourceVariantCacheEntry second = addEntry("second", "contents");
+		addEntry("third", "other contents");
+		assertEquals("contents".length() + "other contents".length(), cache.getCurrentSize());
+
+		first.dispose();
+		assertEquals("contents".length() + "other contents".length(), cache.getCurrentSize());
+		assertEquals("contents", read(second.getContents()));
+		second.dispose();
+		assertEquals("other contents".length(), cache.getCurrentSize());
+	}
+
+	public void testLargeIdenticalContentsAreShared() throws TeamException, IOException {
+		byte[] contents = new byte[256 * 1024];
+		Arrays.fill(contents, (byte) 'x');
+		ResourceVariantCacheEntry first = cache.add("first", null);
+		first.setContents(new ByteArrayInputStream(contents), null);
+		ResourceVariantCacheEntry second = cache.add("second", null);
+		second.setContents(new ByteArrayInputStream(contents), null);
+		assertEquals(contents.length, cache.getCurrentSize());
+		first.dispose();
+		try (InputStream in = second.getContents()) {
+			assertTrue(Arrays.equals(contents, in.readAllBytes()));
+		}
+	}
+
+	public void testContentsAreNotSharedWhenDisabled() throws TeamException {
+		cache.setContentAddressed(false);
+		addEntry("first", "contents");
+		addEntry("second", "contents");
+		assertEquals(2 * "contents".length(), cache.getCurrentSize());
+	}
+
+	private ResourceVariantCacheEntry addEntry(String id, int size) throws TeamException {
+		byte[] contents = new byte[size];
+		// use different contents for each entry so that they are not shared
+		Arrays.fill(contents, (byte) id.hashCode());
+		ResourceVariantCacheEntry entry = cache.add(id, null);
+		entry.setContents(new ByteArrayInputStream(contents), null);
+		return entry;
+	}
+
+	private ResourceVariantCacheEntry addEntry(String id, String contents) throws TeamException {
+		ResourceVariantCacheEntry entry = cache.add(id, null);
+		entry.setContents(new ByteArrayInputStream(contents.getBytes()), null);
+		return entry;
+	}
+
+	private String read(InputStream in) throws IOException {
+		try {
+			return new String(in.readAllBytes());
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,407 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IStorage;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.core.subscribers.ISubscriberChangeEvent;
+import org.eclipse.team.core.variants.AbstractResourceVariantTree;
+import org.eclipse.team.core.variants.IResourceVariant;
+import org.eclipse.team.core.variants.IResourceVariantComparator;
+import org.eclipse.team.core.variants.IResourceVariantTree;
+import org.eclipse.team.core.variants.ResourceVariantByteStore;
+import org.eclipse.team.core.variants.ResourceVariantTree;
+import org.eclipse.team.core.variants.ResourceVariantTreeSubscriber;
+import org.eclipse.team.core.variants.SessionResourceVariantByteStore;
+
+public class ResourceVariantTreeRefreshTests extends TestCase {
+
+	public ResourceVariantTreeRefreshTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(ResourceVariantTreeRefreshTests.class);
+	}
+
+	/*
+	 * A tree whose refresh of a resource returns the resource itself
+	 */
+	private static class TestTree extends AbstractResourceVariantTree {
+		private final int parallelism;
+
+		TestTree(int parallelism) {
+			this.parallelism = parallelism;
+		}
+
+		@Override
+		protected int getRefreshParallelism() {
+			return parallelism;
+		}
+
+		@Override
+		protected IResource[] refresh(IResource resource, int depth, IProgressMonitor monitor) throws TeamException {
+			return new IResource[] { resource };
+		}
+
+		@Override
+		protected IResourceVariant[] fetchMembers(IResourceVariant variant, IProgressMonitor progress) {
+			return new IResourceVariant[0];
+		}
+
+		@Override
+		protected IResourceVariant fetchVariant(IResource resource, int depth, IProgressMonitor monitor) {
+			return null;
+		}
+
+		@Override
+		protected boolean setVariant(IResource local, IResourceVariant remote) {
+			return false;
+		}
+
+		@Override
+		public IResource[] roots() {
+			return new IResource[0];
+		}
+
+		@Override
+		public IResource[] members(IResource resource) {
+			return new IResource[0];
+		}
+
+		@Override
+		public IResourceVariant getResourceVariant(IResource resource) {
+			return null;
+		}
+
+		@Override
+		public boolean hasResourceVariant(IResource resource) {
+			return false;
+		}
+
+		@Override
+		public void flushVariants(IResource resource, int depth) {
+			// nothing to flush
+		}
+	}
+
+	/*
+	 * A variant whose bytes are its name and revision. Only folders have
+	 * members.
+	 */
+	private static class TestVariant implements IResourceVariant {
+		private final String name;
+		private final String revision;
+		final TestVariant[] members;
+
+		TestVariant(String name, String revision, TestVariant... members) {
+			this.name = name;
+			this.revision = revision;
+			this.members = members;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public boolean isContainer() {
+			return members.length > 0;
+		}
+
+		@Override
+		public IStorage getStorage(IProgressMonitor monitor) {
+			return null;
+		}
+
+		@Override
+		public String getContentIdentifier() {
+			return revision;
+		}
+
+		@Override
+		public byte[] asBytes() {
+			return (name + revision).getBytes();
+		}
+	}
+
+	/*
+	 * A byte store that records the resources whose bytes are written
+	 */
+	private static class RecordingByteStore extends SessionResourceVariantByteStore {
+		final List<IResource> written = new ArrayList<>();
+
+		@Override
+		public boolean setBytes(IResource resource, byte[] bytes) throws TeamException {
+			written.add(resource);
+			return super.setBytes(resource, bytes);
+		}
+
+		@Override
+		public boolean deleteBytes(IResource resource) throws TeamException {
+			written.add(resource);
+			return super.deleteBytes(resource);
+		}
+	}
+
+	/*
+	 * A tree whose variants are stored in a byte store
+	 */
+	private static class ByteStoreTree extends ResourceVariantTree {
+		TestVariant root;
+
+		ByteStoreTree(ResourceVariantByteStore store) {
+			super(store);
+		}
+
+		@Override
+		protected IResourceVariant[] fetchMembers(IResourceVariant variant, IProgressMonitor progress) {
+			return ((TestVariant) variant).members;
+		}
+
+		@Override
+		protected IResourceVariant fetchVariant(IResource resource, int depth, IProgressMonitor monitor) {
+			return root;
+		}
+
+		@Override
+		public IResource[] roots() {
+			return new IResource[0];
+		}
+
+		@Override
+		public IResourceVariant getResourceVariant(IResource resource) {
+			return null;
+		}
+	}
+
+	private IResource[] getProjects(int count) {
+		IResource[] projects = new IResource[count];
+		for (int i = 0; i < count; i++) {
+			projects[i] = ResourcesPlugin.getWorkspace().getRoot().getProject("project" + i);
+		}
+		return projects;
+	}
+
+	public void testRootsAreRefreshedConcurrently() throws TeamException {
+		IResource[] projects = getProjects(8);
+		// every refresh waits until all of them have started
+		CountDownLatch started = new CountDownLatch(projects.length);
+		AbstractResourceVariantTree tree = new TestTree(projects.length) {
+			@Override
+			protected IResource[] refresh(IResource resource, int depth, IProgressMonitor monitor) throws TeamException {
+				started.countDown();
+				try {
+					assertTrue(started.await(10, TimeUnit.SECONDS));
+				} catch (InterruptedException e) {
+					fail();
+				}
+				return super.refresh(resource, depth, monitor);
+			}
+		};
+		IResource[] changed = tree.refresh(projects, IResource.DEPTH_INFINITE, new NullProgressMonitor());
+		// the changes are returned in the order of the roots
+		assertEquals(projects.length, changed.length);
+		for (int i = 0; i < projects.length; i++) {
+			assertEquals(projects[i], changed[i]);
+		}
+	}
+
+	public void testParallelismIsBounded() throws TeamException {
+		IResource[] projects = getProjects(12);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maximum = new AtomicInteger();
+		AbstractResourceVariantTree tree = new TestTree(3) {
+			@Override
+			protected IResource[] refresh(IResource resource, int depth, IProgressMonitor monitor) throws TeamException {
+				maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) {
+					fail();
+				} finally {
+					running.decrementAndGet();
+				}
+				return super.refresh(resource, depth, monitor);
+			}
+		};
+		assertEquals(projects.length, tree.refresh(projects, IResource.DEPTH_INFINITE, new NullProgressMonitor()).length);
+		assertTrue(maximum.get() <= 3);
+	}
+
+	public void testFailureCancelsOtherRoots() {
+		IResource[] projects = getProjects(4);
+		AbstractResourceVariantTree tree = new TestTree(4) {
+			@Override
+			protected IResource[] refresh(IResource resource, int depth, IProgressMonitor monitor) throws TeamException {
+				if (resource == projects[2]) {
+					throw new TeamException(resource.getName());
+				}
+				// the other refreshes only end when they are canceled
+				long end = System.currentTimeMillis() + 10000;
+				while (!monitor.isCanceled()) {
+					assertTrue(System.currentTimeMillis() < end);
+					Thread.yield();
+				}
+				throw new OperationCanceledException();
+			}
+		};
+		try {
+			tree.refresh(projects, IResource.DEPTH_INFINITE, new NullProgressMonitor());
+			fail("The refresh should have failed");
+		} catch (TeamException e) {
+			assertEquals(projects[2].getName(), e.getMessage());
+		}
+	}
+
+	public void testUnchangedVariantsAreNotWritten() throws TeamException {
+		IFolder folder = ResourcesPlugin.getWorkspace().getRoot().getProject("project").getFolder("folder");
+		IResource a = folder.getFile("a");
+		IResource b = folder.getFile("b");
+		IResource c = folder.getFile("c");
+		RecordingByteStore store = new RecordingByteStore();
+		ByteStoreTree tree = new ByteStoreTree(store);
+		try {
+			tree.root = new TestVariant("folder", "1", new TestVariant("a", "1"), new TestVariant("b", "1"), new TestVariant("c", "1"));
+			IResource[] changed = tree.refresh(new IResource[] { folder }, IResource.DEPTH_INFINITE, new NullProgressMonitor());
+			assertEquals(new HashSet<>(Arrays.asList(folder, a, b, c)), new HashSet<>(Arrays.asList(changed)));
+			assertEquals(4, store.written.size());
+
+			// only the root of the refresh, whose bytes were not read with its parent's members, is written again
+			store.written.clear();
+			assertEquals(0, tree.refresh(new IResource[] { folder }, IResource.DEPTH_INFINITE, new NullProgressMonitor()).length);
+			assertEquals(Arrays.asList(folder), store.written);
+
+			// changed and removed variants are written
+			store.written.clear();
+			tree.root = new TestVariant("folder", "1", new TestVariant("a", "1"), new TestVariant("b", "2"));
+			changed = tree.refresh(new IResource[] { folder }, IResource.DEPTH_INFINITE, new NullProgressMonitor());
+			assertEquals(new HashSet<>(Arrays.asList(b, c)), new HashSet<>(Arrays.asList(changed)));
+			assertEquals(new HashSet<>(Arrays.asList(folder, b, c)), new HashSet<>(store.written));
+			assertEquals("b2", new String(store.getBytes(b)));
+			assertNull(store.getBytes(c));
+			assertEquals("a1", new String(store.getBytes(a)));
+		} finally {
+			store.dispose();
+		}
+	}
+
+	public void testSubscriberListenersAreNotifiedByTheCallingThread() throws CoreException {
+		IProject[] projects = new IProject[4];
+		for (int i = 0; i < projects.length; i++) {
+			projects[i] = ResourcesPlugin.getWorkspace().getRoot().getProject(getName() + i);
+			projects[i].create(null);
+			projects[i].open(null);
+		}
+		try {
+			// every refresh waits until all of them have started
+			CountDownLatch started = new CountDownLatch(projects.length);
+			IResourceVariantTree tree = new TestTree(1) {
+				@Override
+				protected IResource[] refresh(IResource resource, int depth, IProgressMonitor monitor) throws TeamException {
+					started.countDown();
+					try {
+						assertTrue(started.await(10, TimeUnit.SECONDS));
+					} catch (InterruptedException e) {
+						fail();
+					}
+					return super.refresh(resource, depth, monitor);
+				}
+			};
+			ResourceVariantTreeSubscriber subscriber = new ResourceVariantTreeSubscriber() {
+				@Override
+				protected int getRefreshParallelism() {
+					return projects.length;
+				}
+				@Override
+				protected IResourceVariantTree getBaseTree() {
+					return tree;
+				}
+				@Override
+				protected IResourceVariantTree getRemoteTree() {
+					return tree;
+				}
+				@Override
+				public String getName() {
+					return "Refresh Tests";
+				}
+				@Override
+				public boolean isSupervised(IResource resource) {
+					return true;
+				}
+				@Override
+				public IResource[] roots() {
+					return projects;
+				}
+				@Override
+				public IResourceVariantComparator getResourceComparator() {
+					return new IResourceVariantComparator() {
+						@Override
+						public boolean compare(IResource local, IResourceVariant remote) {
+							return false;
+						}
+						@Override
+						public boolean compare(IResourceVariant base, IResourceVariant remote) {
+							return false;
+						}
+						@Override
+						public boolean isThreeWay() {
+							return false;
+						}
+					};
+				}
+			};
+			List<Thread> threads = new ArrayList<>();
+			List<IResource> changed = new ArrayList<>();
+			subscriber.addListener(deltas -> {
+				synchronized (threads) {
+					threads.add(Thread.currentThread());
+					for (ISubscriberChangeEvent delta : deltas) {
+						changed.add(delta.getResource());
+					}
+				}
+			});
+			subscriber.refresh(projects, IResource.DEPTH_INFINITE, new NullProgressMonitor());
+			// the changes of all projects are reported at once by the calling thread
+			assertEquals(Collections.singletonList(Thread.currentThread()), threads);
+			assertEquals(new HashSet<>(Arrays.asList(projects)), new HashSet<>(changed));
+		} finally {
+			for (IProject project : projects) {
+				project.delete(true, null);
+			}
+		}
+	}
+}
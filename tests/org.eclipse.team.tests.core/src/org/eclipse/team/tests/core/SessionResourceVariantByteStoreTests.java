@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.core.variants.SessionResourceVariantByteStore;
+
+public class SessionResourceVariantByteStoreTests extends TestCase {
+
+	private SessionResourceVariantByteStore store;
+	private IProject project;
+
+	public SessionResourceVariantByteStoreTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(SessionResourceVariantByteStoreTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		store = new SessionResourceVariantByteStore();
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject(getName());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		store.dispose();
+		super.tearDown();
+	}
+
+	public void testBytesAndMembers() throws TeamException {
+		IFile file1 = project.getFile("file1.txt");
+		IFile file2 = project.getFile("file2.txt");
+		assertTrue(store.isEmpty());
+		assertTrue(store.setBytes(file2, "2".getBytes()));
+		assertTrue(store.setBytes(file1, "1".getBytes()));
+		assertFalse(store.setBytes(file1, "1".getBytes()));
+		assertTrue(store.setBytes(file1, "1.1".getBytes()));
+		assertEquals("1.1", new String(store.getBytes(file1)));
+		// members are returned in the order in which they were added
+		assertEquals(Arrays.asList(file2, file1), Arrays.asList(store.members(project)));
+		Map<IResource, byte[]> memberBytes = store.getMemberBytes(project);
+		assertEquals("2", new String(memberBytes.get(file2)));
+		assertEquals("1.1", new String(memberBytes.get(file1)));
+
+		// empty bytes mean that there is no remote
+		assertTrue(store.setBytes(file2, new byte[0]));
+		assertNull(store.getBytes(file2));
+		assertEquals(2, store.members(project).length);
+		assertFalse(store.getMemberBytes(project).containsKey(file2));
+
+		assertTrue(store.deleteBytes(file2));
+		assertFalse(store.deleteBytes(file2));
+		assertEquals(Arrays.asList(file1), Arrays.asList(store.members(project)));
+		assertFalse(store.isEmpty());
+	}
+
+	public void testSetBytesOfSeveralResources() throws TeamException {
+		IFile file1 = project.getFile("file1.txt");
+		IFile file2 = project.getFile("file2.txt");
+		IFile file3 = project.getFile("file3.txt");
+		Map<IResource, byte[]> bytes = new LinkedHashMap<>();
+		bytes.put(file1, "1".getBytes());
+		bytes.put(file2, "2".getBytes());
+		assertEquals(Arrays.asList(file1, file2), Arrays.asList(store.setBytes(bytes)));
+		assertEquals(0, store.setBytes(bytes).length);
+
+		// null bytes remove the resource from the store
+		bytes.clear();
+		bytes.put(file1, null);
+		bytes.put(file2, "2.1".getBytes());
+		bytes.put(file3, null);
+		assertEquals(Arrays.asList(file1, file2), Arrays.asList(store.setBytes(bytes)));
+		assertNull(store.getBytes(file1));
+		assertEquals("2.1", new String(store.getBytes(file2)));
+		assertEquals(Arrays.asList(file2), Arrays.asList(store.members(project)));
+		assertEquals(Arrays.asList(file2), Arrays.asList(store.getMemberBytes(project).keySet().toArray()));
+	}
+
+	public void testFlushDepth() throws TeamException {
+		IFolder folder = project.getFolder("folder");
+		IFolder subfolder = folder.getFolder("subfolder");
+		IFile file = folder.getFile("file.txt");
+		IFile subfile = subfolder.getFile("file.txt");
+		store.setBytes(project, "p".getBytes());
+		store.setBytes(folder, "f".getBytes());
+		store.setBytes(subfolder, "s".getBytes());
+		store.setBytes(file, "1".getBytes());
+		store.setBytes(subfile, "2".getBytes());
+
+		// a resource without bytes is not flushed
+		assertFalse(store.flushBytes(folder.getFolder("unknown"), IResource.DEPTH_INFINITE));
+
+		assertTrue(store.flushBytes(folder, IResource.DEPTH_ONE));
+		assertNull(store.getBytes(folder));
+		assertNull(store.getBytes(file));
+		assertNull(store.getBytes(subfolder));
+		assertEquals(0, store.members(project).length);
+		// the members of the members are kept
+		assertEquals("2", new String(store.getBytes(subfile)));
+		assertEquals(Arrays.asList(subfile), Arrays.asList(store.members(subfolder)));
+
+		store.setBytes(folder, "f".getBytes());
+		store.setBytes(subfolder, "s".getBytes());
+		assertTrue(store.flushBytes(project, IResource.DEPTH_INFINITE));
+		assertNull(store.getBytes(subfile));
+		assertEquals(0, store.members(subfolder).length);
+		assertTrue(store.isEmpty());
+	}
+
+	public void testManyMembers() throws TeamException {
+		IFolder folder = project.getFolder("folder");
+		store.setBytes(folder, "f".getBytes());
+		for (int i = 0; i < 10000; i++) {
+			store.setBytes(folder.getFile("file" + i), ("1." + i).getBytes());
+		}
+		for (int i = 0; i < 10000; i += 2) {
+			assertTrue(store.deleteBytes(folder.getFile("file" + i)));
+		}
+		IResource[] members = store.members(folder);
+		assertEquals(5000, members.length);
+		for (int i = 0; i < members.length; i++) {
+			IFile file = folder.getFile("file" + (2 * i + 1));
+			assertEquals(file, members[i]);
+			assertEquals("1." + (2 * i + 1), new String(store.getBytes(file)));
+		}
+		assertTrue(store.flushBytes(folder, IResource.DEPTH_INFINITE));
+		assertTrue(store.isEmpty());
+	}
+}
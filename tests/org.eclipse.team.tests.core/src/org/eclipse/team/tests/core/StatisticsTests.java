@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.team.core.diff.IDiff;
+import org.eclipse.team.core.diff.IThreeWayDiff;
+import org.eclipse.team.core.synchronize.SyncInfo;
+import org.eclipse.team.core.variants.IResourceVariant;
+import org.eclipse.team.core.variants.IResourceVariantComparator;
+import org.eclipse.team.internal.core.subscribers.DiffTreeStatistics;
+import org.eclipse.team.internal.core.subscribers.SyncInfoStatistics;
+
+/**
+ * Tests the counts of {@link DiffTreeStatistics} and
+ * {@link SyncInfoStatistics} against the counts of the added states.
+ */
+public class StatisticsTests extends TestCase {
+
+	private static final int DIFF_MASK = IDiff.ADD | IDiff.REMOVE | IDiff.CHANGE | IThreeWayDiff.DIRECTION_MASK;
+
+	// a kind that is not made up of the bits of the diff kinds and directions
+	private static final int CUSTOM = 1 << 20;
+
+	public StatisticsTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(StatisticsTests.class);
+	}
+
+	public void testMaskedCounts() {
+		DiffTreeStatistics statistics = new DiffTreeStatistics();
+		statistics.add(IDiff.ADD | IThreeWayDiff.INCOMING);
+		statistics.add(IDiff.ADD | IThreeWayDiff.OUTGOING);
+		statistics.add(IDiff.CHANGE | IThreeWayDiff.CONFLICTING);
+		statistics.add(IDiff.CHANGE | IThreeWayDiff.CONFLICTING);
+		assertEquals(2, statistics.countFor(IDiff.CHANGE | IThreeWayDiff.CONFLICTING, 0));
+		assertEquals(0, statistics.countFor(IDiff.CHANGE, 0));
+		assertEquals(2, statistics.countFor(IDiff.ADD, IDiff.ADD | IDiff.REMOVE | IDiff.CHANGE));
+		assertEquals(3, statistics.countFor(IThreeWayDiff.INCOMING, IThreeWayDiff.INCOMING));
+		assertEquals(1, statistics.countFor(IThreeWayDiff.OUTGOING, IThreeWayDiff.DIRECTION_MASK));
+		assertEquals(2, statistics.countFor(IThreeWayDiff.CONFLICTING, IThreeWayDiff.DIRECTION_MASK));
+		// a state with bits outside of the mask matches nothing
+		assertEquals(0, statistics.countFor(IDiff.ADD, IThreeWayDiff.DIRECTION_MASK));
+	}
+
+	public void testAggregatesUpdatedAfterQuery() {
+		DiffTreeStatistics statistics = new DiffTreeStatistics();
+		statistics.add(IDiff.ADD | IThreeWayDiff.INCOMING);
+		assertEquals(1, statistics.countFor(IThreeWayDiff.INCOMING, IThreeWayDiff.DIRECTION_MASK));
+		statistics.add(IDiff.CHANGE | IThreeWayDiff.INCOMING);
+		statistics.add(IDiff.REMOVE | IThreeWayDiff.OUTGOING);
+		assertEquals(2, statistics.countFor(IThreeWayDiff.INCOMING, IThreeWayDiff.DIRECTION_MASK));
+		assertEquals(1, statistics.countFor(IThreeWayDiff.OUTGOING, IThreeWayDiff.DIRECTION_MASK));
+		statistics.remove(IDiff.ADD | IThreeWayDiff.INCOMING);
+		// a state that was never added is not removed
+		statistics.remove(IDiff.ADD | IThreeWayDiff.OUTGOING);
+		assertEquals(1, statistics.countFor(IThreeWayDiff.INCOMING, IThreeWayDiff.DIRECTION_MASK));
+		assertEquals(1, statistics.countFor(IThreeWayDiff.OUTGOING, IThreeWayDiff.DIRECTION_MASK));
+		statistics.clear();
+		assertEquals(0, statistics.countFor(IThreeWayDiff.INCOMING, IThreeWayDiff.DIRECTION_MASK));
+		statistics.add(IDiff.ADD | IThreeWayDiff.INCOMING);
+		assertEquals(1, statistics.countFor(IThreeWayDiff.INCOMING, IThreeWayDiff.DIRECTION_MASK));
+	}
+
+	public void testCustomKinds() {
+		DiffTreeStatistics statistics = new DiffTreeStatistics();
+		statistics.add(CUSTOM | IDiff.ADD);
+		statistics.add(CUSTOM | IDiff.ADD);
+		statistics.add(IDiff.ADD);
+		assertEquals(2, statistics.countFor(CUSTOM | IDiff.ADD, 0));
+		assertEquals(1, statistics.countFor(IDiff.ADD, 0));
+		assertEquals(3, statistics.countFor(IDiff.ADD, IDiff.ADD));
+		assertEquals(2, statistics.countFor(CUSTOM, CUSTOM));
+		assertEquals(1, statistics.countFor(0, CUSTOM));
+		statistics.remove(CUSTOM | IDiff.ADD);
+		statistics.remove(CUSTOM | IDiff.REMOVE);
+		assertEquals(1, statistics.countFor(CUSTOM | IDiff.ADD, 0));
+		assertEquals(2, statistics.countFor(IDiff.ADD, IDiff.ADD));
+		statistics.remove(CUSTOM | IDiff.ADD);
+		assertEquals(0, statistics.countFor(CUSTOM, CUSTOM));
+		assertEquals(1, statistics.countFor(IDiff.ADD, IDiff.ADD));
+	}
+
+	public void testMoreMasksThanAggregates() {
+		// Each query with a new mask aggregates the counts for that mask,
+		// until there are too many masks and the counts are aggregated on
+		// every query
+		checkRandomOperations(new Random(1), new DiffTreeStatistics(), new ArrayList<>(), allMasks(), 2000);
+	}
+
+	public void testRandomOperations() {
+		Random random = new Random(2);
+		for (int run = 0; run < 20; run++) {
+			int[] masks = allMasks();
+			// query a few masks only, so that their aggregates are kept
+			int[] used = new int[1 + random.nextInt(6)];
+			for (int i = 0; i < used.length; i++) {
+				used[i] = masks[random.nextInt(masks.length)];
+			}
+			checkRandomOperations(random, new DiffTreeStatistics(), new ArrayList<>(), used, 500);
+		}
+	}
+
+	public void testCopiesAreIndependent() {
+		Random random = new Random(3);
+		DiffTreeStatistics statistics = new DiffTreeStatistics();
+		List<Integer> states = new ArrayList<>();
+		int[] masks = allMasks();
+		// aggregate some masks before the copy is made
+		checkRandomOperations(random, statistics, states, new int[] { IThreeWayDiff.DIRECTION_MASK, IDiff.ADD | CUSTOM }, 200);
+		DiffTreeStatistics copy = new DiffTreeStatistics(statistics);
+		List<Integer> copiedStates = new ArrayList<>(states);
+		checkRandomOperations(random, copy, copiedStates, masks, 500);
+		// the changes of the copy do not affect the original
+		checkCounts(statistics, states, masks);
+		checkRandomOperations(random, statistics, states, masks, 500);
+		checkCounts(copy, copiedStates, masks);
+	}
+
+	public void testSyncInfoStatistics() {
+		SyncInfoStatistics statistics = new SyncInfoStatistics();
+		SyncInfo incoming = new TestSyncInfo(SyncInfo.INCOMING | SyncInfo.ADDITION);
+		SyncInfo conflict = new TestSyncInfo(SyncInfo.CONFLICTING | SyncInfo.CHANGE | SyncInfo.PSEUDO_CONFLICT);
+		SyncInfo custom = new TestSyncInfo(CUSTOM | SyncInfo.OUTGOING | SyncInfo.DELETION);
+		statistics.add(incoming);
+		statistics.add(conflict);
+		statistics.add(conflict);
+		statistics.add(custom);
+		assertEquals(1, statistics.countFor(SyncInfo.INCOMING | SyncInfo.ADDITION, 0));
+		assertEquals(3, statistics.countFor(SyncInfo.INCOMING, SyncInfo.INCOMING));
+		assertEquals(2, statistics.countFor(SyncInfo.CONFLICTING, SyncInfo.DIRECTION_MASK));
+		assertEquals(2, statistics.countFor(SyncInfo.PSEUDO_CONFLICT, SyncInfo.PSEUDO_CONFLICT));
+		assertEquals(1, statistics.countFor(SyncInfo.OUTGOING, SyncInfo.DIRECTION_MASK));
+		assertEquals(1, statistics.countFor(CUSTOM | SyncInfo.OUTGOING | SyncInfo.DELETION, 0));
+		statistics.remove(conflict);
+		statistics.remove(custom);
+		assertEquals(1, statistics.countFor(SyncInfo.CONFLICTING, SyncInfo.DIRECTION_MASK));
+		assertEquals(0, statistics.countFor(SyncInfo.OUTGOING, SyncInfo.DIRECTION_MASK));
+		statistics.clear();
+		assertEquals(0, statistics.countFor(SyncInfo.INCOMING, SyncInfo.INCOMING));
+	}
+
+	/*
+	 * Add and remove random states, querying the counts for the given masks
+	 * in between, and compare them with the counts of the added states
+	 */
+	private void checkRandomOperations(Random random, DiffTreeStatistics statistics, List<Integer> states, int[] masks, int operations) {
+		for (int i = 0; i < operations; i++) {
+			int operation = random.nextInt(4);
+			if (operation < 2) {
+				int state = randomState(random);
+				statistics.add(state);
+				states.add(Integer.valueOf(state));
+			} else if (operation == 2) {
+				// remove states that were added as well as states that were not
+				int state = !states.isEmpty() && random.nextBoolean() ? states.get(random.nextInt(states.size())).intValue() : randomState(random);
+				statistics.remove(state);
+				states.remove(Integer.valueOf(state));
+			} else {
+				int mask = masks[random.nextInt(masks.length)];
+				int state = randomState(random) & mask;
+				assertEquals(count(states, state, mask), statistics.countFor(state, mask));
+			}
+		}
+		checkCounts(statistics, states, masks);
+	}
+
+	private void checkCounts(DiffTreeStatistics statistics, List<Integer> states, int[] masks) {
+		for (int mask : masks) {
+			for (int state = 0; state <= DIFF_MASK; state++) {
+				// without a mask the exact states are counted
+				if (mask == 0 || (state & ~mask) == 0) {
+					assertEquals(count(states, state, mask), statistics.countFor(state, mask));
+					int custom = state | (mask == 0 ? CUSTOM : CUSTOM & mask);
+					assertEquals(count(states, custom, mask), statistics.countFor(custom, mask));
+				}
+			}
+		}
+	}
+
+	private static int randomState(Random random) {
+		int kind = new int[] { IDiff.ADD, IDiff.REMOVE, IDiff.CHANGE }[random.nextInt(3)];
+		int direction = new int[] { 0, IThreeWayDiff.INCOMING, IThreeWayDiff.OUTGOING, IThreeWayDiff.CONFLICTING }[random.nextInt(4)];
+		return kind | direction | (random.nextInt(8) == 0 ? CUSTOM : 0);
+	}
+
+	/*
+	 * Return the masks of all combinations of the diff bits with and without
+	 * the custom bit
+	 */
+	private static int[] allMasks() {
+		int[] bits = new int[] { IDiff.ADD, IDiff.REMOVE, IDiff.CHANGE, IThreeWayDiff.INCOMING, IThreeWayDiff.OUTGOING, CUSTOM };
+		int[] masks = new int[1 << bits.length];
+		for (int i = 0; i < masks.length; i++) {
+			for (int bit = 0; bit < bits.length; bit++) {
+				if ((i & (1 << bit)) != 0)
+					masks[i] |= bits[bit];
+			}
+		}
+		return masks;
+	}
+
+	private static long count(List<Integer> states, int state, int mask) {
+		long count = 0;
+		for (Integer added : states) {
+			if (mask == 0 ? added.intValue() == state : (added.intValue() & mask) == state)
+				count++;
+		}
+		return count;
+	}
+
+	private static class TestSyncInfo extends SyncInfo {
+		private final int kind;
+
+		TestSyncInfo(int kind) {
+			super(ResourcesPlugin.getWorkspace().getRoot().getFile(new Path("/project/file" + kind)), null, null, new IResourceVariantComparator() {
+				@Override
+				public boolean compare(IResource local, IResourceVariant remote) {
+					return false;
+				}
+				@Override
+				public boolean compare(IResourceVariant base, IResourceVariant remote) {
+					return false;
+				}
+				@Override
+				public boolean isThreeWay() {
+					return true;
+				}
+			});
+			this.kind = kind;
+		}
+
+		@Override
+		public int getKind() {
+			return kind;
+		}
+	}
+}
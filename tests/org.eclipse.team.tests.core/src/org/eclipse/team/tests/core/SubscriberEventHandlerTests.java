@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.team.core.ITeamStatus;
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.core.subscribers.Subscriber;
+import org.eclipse.team.core.synchronize.SyncInfo;
+import org.eclipse.team.core.synchronize.SyncInfoSet;
+import org.eclipse.team.core.variants.IResourceVariant;
+import org.eclipse.team.core.variants.IResourceVariantComparator;
+import org.eclipse.team.internal.core.subscribers.SubscriberSyncInfoEventHandler;
+
+public class SubscriberEventHandlerTests extends TestCase {
+
+	private static final int PROJECTS = 4;
+	private static final int FILES = 20;
+
+	private SubscriberSyncInfoEventHandler handler;
+
+	public SubscriberEventHandlerTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(SubscriberEventHandlerTests.class);
+	}
+
+	/*
+	 * An error that is not handled by the event handler
+	 */
+	private static class TestError extends Error {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/*
+	 * A subscriber for which every resource is an incoming change. It records
+	 * the order in which the resources of each project are collected.
+	 */
+	private static class TestSubscriber extends Subscriber {
+		final Map<IResource, List<IResource>> collected = new HashMap<>();
+
+		/*
+		 * Called before the sync info of a resource is returned
+		 */
+		void collecting(IResource resource) throws TeamException {
+			// By default all resources can be collected
+		}
+
+		@Override
+		public String getName() {
+			return "Subscriber Event Handler Tests";
+		}
+
+		@Override
+		public boolean isSupervised(IResource resource) {
+			return true;
+		}
+
+		@Override
+		public IResource[] members(IResource resource) {
+			return new IResource[0];
+		}
+
+		@Override
+		public IResource[] roots() {
+			return new IResource[0];
+		}
+
+		@Override
+		public SyncInfo getSyncInfo(IResource resource) throws TeamException {
+			synchronized (collected) {
+				collected.computeIfAbsent(resource.getProject(), project -> new ArrayList<>()).add(resource);
+			}
+			collecting(resource);
+			SyncInfo info = new SyncInfo(resource, null, null, getResourceComparator()) {
+				@Override
+				protected int calculateKind() {
+					return INCOMING | CHANGE;
+				}
+			};
+			info.init();
+			return info;
+		}
+
+		@Override
+		public IResourceVariantComparator getResourceComparator() {
+			return new IResourceVariantComparator() {
+				@Override
+				public boolean compare(IResource local, IResourceVariant remote) {
+					return false;
+				}
+				@Override
+				public boolean compare(IResourceVariant base, IResourceVariant remote) {
+					return false;
+				}
+				@Override
+				public boolean isThreeWay() {
+					return false;
+				}
+			};
+		}
+
+		@Override
+		public void refresh(IResource[] resources, int depth, IProgressMonitor monitor) {
+			// Nothing to refresh
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (handler != null)
+			handler.shutdown();
+		super.tearDown();
+	}
+
+	private static IResource getFile(int project, int file) {
+		return ResourcesPlugin.getWorkspace().getRoot().getProject("project" + project).getFile("file" + file);
+	}
+
+	/*
+	 * Queue changes for the files of all projects, interleaving the projects,
+	 * and wait until they have been collected
+	 */
+	private SyncInfoSet collect(TestSubscriber subscriber, int workers) throws InterruptedException {
+		handler = new SubscriberSyncInfoEventHandler(subscriber, new IResource[0]);
+		handler.setWorkerCount(workers);
+		handler.start();
+		CountDownLatch done = new CountDownLatch(1);
+		// Hold the queue so that the changes are handed to the workers at once
+		synchronized (handler) {
+			for (int file = 0; file < FILES; file++) {
+				for (int project = 0; project < PROJECTS; project++) {
+					handler.change(getFile(project, file), IResource.DEPTH_ZERO);
+				}
+			}
+			handler.run(monitor -> done.countDown(), false);
+		}
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		return handler.getSyncSetInput().getSyncSet();
+	}
+
+	private void assertCollected(SyncInfoSet set, IResource... missing) {
+		List<IResource> expectedMissing = List.of(missing);
+		for (int project = 0; project < PROJECTS; project++) {
+			for (int file = 0; file < FILES; file++) {
+				IResource resource = getFile(project, file);
+				assertEquals(resource.getFullPath().toString(), !expectedMissing.contains(resource), set.getSyncInfo(resource) != null);
+			}
+		}
+	}
+
+	public void testChangesAreCollectedInOrderOfProject() throws InterruptedException {
+		TestSubscriber subscriber = new TestSubscriber();
+		assertCollected(collect(subscriber, PROJECTS));
+		for (int project = 0; project < PROJECTS; project++) {
+			List<IResource> expected = new ArrayList<>();
+			for (int file = 0; file < FILES; file++) {
+				expected.add(getFile(project, file));
+			}
+			assertEquals(expected, subscriber.collected.get(expected.get(0).getProject()));
+		}
+	}
+
+	public void testErrorsAreReportedForTheirResource() throws InterruptedException {
+		IResource failing = getFile(1, 3);
+		IResource throwing = getFile(2, 5);
+		SyncInfoSet set = collect(new TestSubscriber() {
+			@Override
+			void collecting(IResource resource) throws TeamException {
+				if (resource.equals(failing))
+					throw new TeamException("failing");
+				if (resource.equals(throwing))
+					throw new IllegalStateException("throwing");
+			}
+		}, PROJECTS);
+		assertCollected(set, failing, throwing);
+		List<IResource> errors = new ArrayList<>();
+		for (ITeamStatus status : set.getErrors()) {
+			errors.add(status.getResource());
+		}
+		assertEquals(2, errors.size());
+		assertTrue(errors.contains(failing));
+		assertTrue(errors.contains(throwing));
+	}
+
+	public void testPreemptiveRunnableRunsWhileWorkersCollect() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch released = new CountDownLatch(1);
+		boolean[] waited = new boolean[1];
+		IResource blocking = getFile(0, 0);
+		TestSubscriber subscriber = new TestSubscriber() {
+			@Override
+			void collecting(IResource resource) {
+				if (resource.equals(blocking)) {
+					started.countDown();
+					try {
+						// Only the background job can run the runnable that releases the worker
+						waited[0] = released.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						fail();
+					}
+				}
+			}
+		};
+		Thread queueing = new Thread(() -> {
+			try {
+				if (started.await(10, TimeUnit.SECONDS))
+					handler.run(monitor -> released.countDown(), true);
+			} catch (InterruptedException e) {
+				// The test fails below
+			}
+		});
+		queueing.start();
+		SyncInfoSet set = collect(subscriber, PROJECTS);
+		queueing.join();
+		assertTrue(waited[0]);
+		assertCollected(set);
+	}
+
+	public void testEventsAreNotLostWhenAWorkerFails() throws InterruptedException {
+		IResource failing = getFile(1, 3);
+		SyncInfoSet set = collect(new TestSubscriber() {
+			@Override
+			void collecting(IResource resource) {
+				if (resource.equals(failing))
+					throw new TestError();
+			}
+		}, PROJECTS);
+		// The other projects and the later files of the project are still collected
+		assertCollected(set, failing);
+	}
+
+	public void testEventsAreNotLostWhenAWorkerIsCanceled() throws InterruptedException {
+		IResource canceling = getFile(2, 5);
+		SyncInfoSet set = collect(new TestSubscriber() {
+			@Override
+			void collecting(IResource resource) {
+				if (resource.equals(canceling))
+					throw new OperationCanceledException();
+			}
+		}, PROJECTS);
+		assertCollected(set, canceling);
+		assertEquals(ITeamStatus.SYNC_INFO_SET_CANCELLATION, set.getErrors()[0].getCode());
+	}
+}
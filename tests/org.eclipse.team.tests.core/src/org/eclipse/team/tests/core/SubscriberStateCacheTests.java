@@ -0,0 +1,365 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import junit.framework.Test;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.mapping.ResourceMapping;
+import org.eclipse.core.resources.mapping.ResourceTraversal;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.core.diff.IDiff;
+import org.eclipse.team.core.diff.IDiffVisitor;
+import org.eclipse.team.core.diff.IThreeWayDiff;
+import org.eclipse.team.core.diff.provider.ThreeWayDiff;
+import org.eclipse.team.core.mapping.provider.ResourceDiff;
+import org.eclipse.team.core.subscribers.ISubscriberChangeEvent;
+import org.eclipse.team.core.subscribers.Subscriber;
+import org.eclipse.team.core.subscribers.SubscriberChangeEvent;
+import org.eclipse.team.core.synchronize.SyncInfo;
+import org.eclipse.team.core.variants.IResourceVariant;
+import org.eclipse.team.core.variants.IResourceVariantComparator;
+import org.eclipse.team.internal.core.subscribers.SubscriberStateCache;
+
+public class SubscriberStateCacheTests extends TeamTest {
+
+	private static final int STATE_MASK = IThreeWayDiff.DIRECTION_MASK | IDiff.ADD | IDiff.REMOVE | IDiff.CHANGE;
+
+	private SubscriberStateCache cache;
+
+	public SubscriberStateCacheTests() {
+		super();
+	}
+
+	public SubscriberStateCacheTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return suite(SubscriberStateCacheTests.class);
+	}
+
+	/*
+	 * A subscriber whose members are the workspace members and whose diffs
+	 * are set by the tests. It records the resources whose diffs are
+	 * computed.
+	 */
+	private static class TestSubscriber extends Subscriber {
+		final Map<IResource, IDiff> diffs = new ConcurrentHashMap<>();
+		final List<IResource> computed = new ArrayList<>();
+
+		/*
+		 * Called after the diff of a resource was looked up and before it is
+		 * returned
+		 */
+		void computing(IResource resource) {
+			computed.add(resource);
+		}
+
+		void setDiff(IResource resource, IDiff diff) {
+			if (diff == null)
+				diffs.remove(resource);
+			else
+				diffs.put(resource, diff);
+		}
+
+		void fire(int flags, IResource resource) {
+			fireTeamResourceChange(new ISubscriberChangeEvent[] { new SubscriberChangeEvent(this, flags, resource) });
+		}
+
+		@Override
+		public String getName() {
+			return "Subscriber State Cache Tests";
+		}
+
+		@Override
+		public boolean isSupervised(IResource resource) {
+			return true;
+		}
+
+		@Override
+		public IResource[] members(IResource resource) throws TeamException {
+			if (resource.getType() == IResource.FILE || !resource.exists())
+				return new IResource[0];
+			try {
+				return ((IContainer) resource).members();
+			} catch (CoreException e) {
+				throw TeamException.asTeamException(e);
+			}
+		}
+
+		@Override
+		public IResource[] roots() {
+			return new IResource[0];
+		}
+
+		@Override
+		public IDiff getDiff(IResource resource) {
+			IDiff diff = diffs.get(resource);
+			computing(resource);
+			return diff;
+		}
+
+		@Override
+		public SyncInfo getSyncInfo(IResource resource) {
+			return null;
+		}
+
+		@Override
+		public IResourceVariantComparator getResourceComparator() {
+			return new IResourceVariantComparator() {
+				@Override
+				public boolean compare(IResource local, IResourceVariant remote) {
+					return false;
+				}
+				@Override
+				public boolean compare(IResourceVariant base, IResourceVariant remote) {
+					return false;
+				}
+				@Override
+				public boolean isThreeWay() {
+					return true;
+				}
+			};
+		}
+
+		@Override
+		public void refresh(IResource[] resources, int depth, IProgressMonitor monitor) {
+			// Nothing to refresh
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (cache != null)
+			cache.dispose();
+		super.tearDown();
+	}
+
+	private IProject createTestProject() throws CoreException {
+		return createProject(new String[] { "a/", "a/b/", "a/b/file1.txt", "a/b/file2.txt", "c/", "c/file1.txt", "c/file2.txt", "d/" });
+	}
+
+	private TestSubscriber createSubscriber(IProject project) {
+		TestSubscriber subscriber = new TestSubscriber();
+		subscriber.setDiff(project.getFile("a/b/file1.txt"), incoming(project.getFile("a/b/file1.txt"), IDiff.CHANGE));
+		subscriber.setDiff(project.getFile("c/file2.txt"), outgoing(project.getFile("c/file2.txt"), IDiff.ADD));
+		subscriber.setDiff(project.getFolder("d"), incoming(project.getFolder("d"), IDiff.REMOVE));
+		return subscriber;
+	}
+
+	private static IDiff incoming(IResource resource, int kind) {
+		return new ThreeWayDiff(null, new ResourceDiff(resource, kind, 0, null, null));
+	}
+
+	private static IDiff outgoing(IResource resource, int kind) {
+		return new ThreeWayDiff(new ResourceDiff(resource, kind, 0, null, null), null);
+	}
+
+	/*
+	 * Return the state of the resource from the cache, with the diffs
+	 * computed by the subscriber for it recorded in the computed list
+	 */
+	private int getCachedState(TestSubscriber subscriber, IResource resource) throws CoreException {
+		subscriber.computed.clear();
+		return cache.getState(resource.getAdapter(ResourceMapping.class), STATE_MASK, DEFAULT_MONITOR);
+	}
+
+	private void assertState(TestSubscriber subscriber, IResource resource) throws CoreException {
+		int state = getCachedState(subscriber, resource);
+		List<IResource> computed = new ArrayList<>(subscriber.computed);
+		assertEquals(resource.getFullPath().toString(), subscriber.getState(resource.getAdapter(ResourceMapping.class), STATE_MASK, DEFAULT_MONITOR), state);
+		// Leave the resources computed by the cache for the caller
+		subscriber.computed.clear();
+		subscriber.computed.addAll(computed);
+	}
+
+	private void assertStates(TestSubscriber subscriber, IProject project) throws CoreException {
+		assertState(subscriber, project.getFile("a/b/file1.txt"));
+		assertState(subscriber, project.getFolder("a/b"));
+		assertState(subscriber, project.getFolder("a"));
+		assertState(subscriber, project.getFolder("c"));
+		assertState(subscriber, project.getFolder("d"));
+		assertState(subscriber, project);
+	}
+
+	public void testStateMatchesSubscriber() throws CoreException {
+		IProject project = createTestProject();
+		TestSubscriber subscriber = createSubscriber(project);
+		cache = new SubscriberStateCache(subscriber);
+		assertStates(subscriber, project);
+		assertEquals(IThreeWayDiff.INCOMING | IThreeWayDiff.OUTGOING | IDiff.CHANGE, getCachedState(subscriber, project));
+		// The states are answered from the cache
+		assertTrue(subscriber.computed.isEmpty());
+
+		// A change of a different kind in a folder that was in sync
+		IFile file = project.getFile("a/b/file2.txt");
+		subscriber.setDiff(file, outgoing(file, IDiff.REMOVE));
+		subscriber.fire(ISubscriberChangeEvent.SYNC_CHANGED, file);
+		assertStates(subscriber, project);
+		// The remaining changes are all incoming
+		subscriber.setDiff(file, null);
+		subscriber.fire(ISubscriberChangeEvent.SYNC_CHANGED, file);
+		subscriber.setDiff(project.getFile("c/file2.txt"), null);
+		subscriber.fire(ISubscriberChangeEvent.SYNC_CHANGED, project.getFile("c/file2.txt"));
+		assertStates(subscriber, project);
+		assertEquals(IThreeWayDiff.INCOMING | IDiff.CHANGE, getCachedState(subscriber, project));
+	}
+
+	public void testSubscriberChangeDiscardsAncestors() throws CoreException {
+		IProject project = createTestProject();
+		TestSubscriber subscriber = createSubscriber(project);
+		cache = new SubscriberStateCache(subscriber);
+		assertStates(subscriber, project);
+
+		IFile file = project.getFile("c/file1.txt");
+		subscriber.setDiff(file, incoming(file, IDiff.CHANGE));
+		subscriber.fire(ISubscriberChangeEvent.SYNC_CHANGED, file);
+		assertState(subscriber, project);
+		// Only the ancestors of the change are computed again
+		assertTrue(subscriber.computed.contains(project));
+		assertTrue(subscriber.computed.contains(project.getFolder("c")));
+		assertTrue(subscriber.computed.contains(file));
+		assertFalse(subscriber.computed.contains(project.getFolder("a")));
+		assertFalse(subscriber.computed.contains(project.getFolder("a/b")));
+		assertFalse(subscriber.computed.contains(project.getFolder("d")));
+		assertStates(subscriber, project);
+	}
+
+	public void testWorkspaceChangeDiscardsAncestors() throws CoreException {
+		IProject project = createTestProject();
+		TestSubscriber subscriber = createSubscriber(project);
+		cache = new SubscriberStateCache(subscriber);
+		assertStates(subscriber, project);
+
+		// The diff changes with the local contents, without a subscriber event
+		IFile file = project.getFile("a/b/file2.txt");
+		subscriber.setDiff(file, outgoing(file, IDiff.CHANGE));
+		file.setContents(new ByteArrayInputStream("changed".getBytes()), true, false, null);
+		assertState(subscriber, project);
+		assertTrue(subscriber.computed.contains(project));
+		assertTrue(subscriber.computed.contains(project.getFolder("a")));
+		assertTrue(subscriber.computed.contains(project.getFolder("a/b")));
+		assertTrue(subscriber.computed.contains(file));
+		assertFalse(subscriber.computed.contains(project.getFolder("c")));
+		assertFalse(subscriber.computed.contains(project.getFolder("d")));
+		assertStates(subscriber, project);
+
+		// A new folder is added to the members of its parent
+		subscriber.setDiff(project.getFolder("c/e"), outgoing(project.getFolder("c/e"), IDiff.ADD));
+		project.getFolder("c/e").create(false, true, null);
+		assertState(subscriber, project);
+		assertTrue(subscriber.computed.contains(project.getFolder("c/e")));
+		assertFalse(subscriber.computed.contains(project.getFolder("a")));
+		assertStates(subscriber, project);
+	}
+
+	public void testRootChangeDiscardsAllStates() throws CoreException {
+		IProject project = createTestProject();
+		TestSubscriber subscriber = createSubscriber(project);
+		cache = new SubscriberStateCache(subscriber);
+		IProject other = getUniqueTestProject(getName());
+		for (int flags : new int[] { ISubscriberChangeEvent.ROOT_ADDED, ISubscriberChangeEvent.ROOT_REMOVED }) {
+			assertStates(subscriber, project);
+			getCachedState(subscriber, project);
+			assertTrue(subscriber.computed.isEmpty());
+			// A root that is not an ancestor of the cached containers
+			subscriber.fire(flags, other);
+			assertState(subscriber, project);
+			assertTrue(subscriber.computed.contains(project));
+			assertTrue(subscriber.computed.contains(project.getFolder("a")));
+			assertTrue(subscriber.computed.contains(project.getFolder("a/b")));
+			assertTrue(subscriber.computed.contains(project.getFolder("c")));
+			assertTrue(subscriber.computed.contains(project.getFolder("d")));
+		}
+	}
+
+	public void testStateComputedDuringChangeIsNotCached() throws CoreException {
+		IProject project = createTestProject();
+		IFile file = project.getFile("c/file2.txt");
+		boolean[] change = new boolean[] { true };
+		TestSubscriber subscriber = new TestSubscriber() {
+			@Override
+			void computing(IResource resource) {
+				super.computing(resource);
+				if (change[0] && resource.equals(file)) {
+					// The change is reported after the old diff was looked up
+					change[0] = false;
+					setDiff(file, incoming(file, IDiff.REMOVE));
+					fire(ISubscriberChangeEvent.SYNC_CHANGED, file);
+				}
+			}
+		};
+		subscriber.setDiff(file, outgoing(file, IDiff.ADD));
+		cache = new SubscriberStateCache(subscriber);
+		assertEquals(IThreeWayDiff.OUTGOING | IDiff.ADD, getCachedState(subscriber, project.getFolder("c")));
+		assertFalse(change[0]);
+		// The state computed with the old diff was not cached
+		assertEquals(IThreeWayDiff.INCOMING | IDiff.REMOVE, getCachedState(subscriber, project.getFolder("c")));
+		assertTrue(subscriber.computed.contains(file));
+		assertStates(subscriber, project);
+	}
+
+	public void testSupports() {
+		assertTrue(SubscriberStateCache.supports(new TestSubscriber()));
+		// The cache computes the states from the diffs and members
+		assertTrue(SubscriberStateCache.supports(new TestSubscriber() {
+			@Override
+			public IDiff getDiff(IResource resource) {
+				return null;
+			}
+		}));
+		assertFalse(SubscriberStateCache.supports(new TestSubscriber() {
+			@Override
+			public int getState(ResourceMapping mapping, int stateMask, IProgressMonitor monitor) {
+				return 0;
+			}
+		}));
+		assertFalse(SubscriberStateCache.supports(new TestSubscriber() {
+			@Override
+			public void accept(ResourceTraversal[] traversals, IDiffVisitor visitor) {
+				// Nothing is visited
+			}
+		}));
+		assertFalse(SubscriberStateCache.supports(new TestSubscriber() {
+			@Override
+			public void accept(ResourceTraversal[] traversals, IDiffVisitor visitor, IProgressMonitor monitor) {
+				// Nothing is visited
+			}
+		}));
+		assertFalse(SubscriberStateCache.supports(new TestSubscriber() {
+			@Override
+			public void accept(IResource[] resources, int depth, IDiffVisitor visitor) {
+				// Nothing is visited
+			}
+		}));
+		assertFalse(SubscriberStateCache.supports(new TestSubscriber() {
+			@Override
+			public void accept(IResource[] resources, int depth, IDiffVisitor visitor, IProgressMonitor monitor) {
+				// Nothing is visited
+			}
+		}));
+	}
+}
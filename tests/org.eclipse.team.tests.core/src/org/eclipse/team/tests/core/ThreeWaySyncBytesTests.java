@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.team.tests.core;
+
+import java.util.Arrays;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.internal.core.subscribers.SyncByteConverter;
+import org.eclipse.team.internal.core.subscribers.ThreeWaySyncBytes;
+
+public class ThreeWaySyncBytesTests extends TestCase {
+
+	public ThreeWaySyncBytesTests(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return new TestSuite(ThreeWaySyncBytesTests.class);
+	}
+
+	public void testBinaryFormat() throws TeamException {
+		byte[] base = "1.2".getBytes();
+		byte[] remote = "1.3".getBytes();
+		ThreeWaySyncBytes syncBytes = ThreeWaySyncBytes.parse(ThreeWaySyncBytes.toBytes(1234567890123L, base, remote));
+		assertEquals(1234567890123L, syncBytes.getTimestamp());
+		assertTrue(Arrays.equals(base, syncBytes.getBase()));
+		assertTrue(Arrays.equals(remote, syncBytes.getRemote()));
+		assertTrue(syncBytes.isRemote(remote));
+		assertFalse(syncBytes.isRemote(base));
+	}
+
+	public void testSlotsMayContainSeparators() throws TeamException {
+		byte[] base = "/a/b/".getBytes();
+		byte[] remote = new byte[] { 0, '/', -1 };
+		ThreeWaySyncBytes syncBytes = ThreeWaySyncBytes.parse(ThreeWaySyncBytes.toBytes(ThreeWaySyncBytes.NO_TIMESTAMP, base, remote));
+		assertEquals(ThreeWaySyncBytes.NO_TIMESTAMP, syncBytes.getTimestamp());
+		assertTrue(Arrays.equals(base, syncBytes.getBase()));
+		assertTrue(Arrays.equals(remote, syncBytes.getRemote()));
+	}
+
+	public void testEmptySlots() throws TeamException {
+		ThreeWaySyncBytes syncBytes = ThreeWaySyncBytes.parse(ThreeWaySyncBytes.toBytes(5, new byte[0], "r".getBytes()));
+		assertFalse(syncBytes.hasBase());
+		assertNull(syncBytes.getBase());
+		syncBytes = ThreeWaySyncBytes.parse(syncBytes.setRemote(new byte[0]));
+		assertEquals(5, syncBytes.getTimestamp());
+		assertFalse(syncBytes.hasRemote());
+		assertNull(syncBytes.getRemote());
+	}
+
+	public void testLegacyFormat() throws TeamException {
+		byte[] legacy = SyncByteConverter.toBytes(new String[] { "42", "base", "remote" });
+		ThreeWaySyncBytes syncBytes = ThreeWaySyncBytes.parse(legacy);
+		assertEquals(42, syncBytes.getTimestamp());
+		assertEquals("base", new String(syncBytes.getBase()));
+		assertEquals("remote", new String(syncBytes.getRemote()));
+
+		// legacy entries are converted when they are modified
+		syncBytes = ThreeWaySyncBytes.parse(syncBytes.setRemote("other".getBytes()));
+		assertEquals(42, syncBytes.getTimestamp());
+		assertEquals("base", new String(syncBytes.getBase()));
+		assertEquals("other", new String(syncBytes.getRemote()));
+
+		// entries created by setting the remote bytes have no timestamp or base
+		syncBytes = ThreeWaySyncBytes.parse(SyncByteConverter.toBytes(new String[] { "", "", "remote" }));
+		assertEquals(ThreeWaySyncBytes.NO_TIMESTAMP, syncBytes.getTimestamp());
+		assertFalse(syncBytes.hasBase());
+		assertEquals("remote", new String(syncBytes.getRemote()));
+	}
+
+	public void testMalformedBytes() {
+		byte[] bytes = ThreeWaySyncBytes.toBytes(1, "base".getBytes(), "remote".getBytes());
+		try {
+			ThreeWaySyncBytes.parse(Arrays.copyOf(bytes, bytes.length - 1));
+			fail("Truncated bytes should be rejected");
+		} catch (TeamException e) {
+			// expected
+		}
+		try {
+			ThreeWaySyncBytes.parse("abc/base/remote/".getBytes());
+			fail("A malformed timestamp should be rejected");
+		} catch (TeamException e) {
+			// expected
+		}
+	}
+}